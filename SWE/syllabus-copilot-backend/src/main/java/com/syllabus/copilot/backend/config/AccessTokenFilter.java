@@ -0,0 +1,66 @@
+package com.syllabus.copilot.backend.config;
+
+import java.io.IOException;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.syllabus.copilot.backend.service.AccessTokenService;
+import com.syllabus.copilot.backend.service.AccessTokenService.AccessToken;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// Authenticates every /api request by its bearer token, in memory; /api/auth stays open for login
+// and signup. The verified token is left on the request under ACCESS_TOKEN_ATTRIBUTE, where the
+// controllers check it against the user a request is for. With auth.token.required=false requests
+// without a valid token are let through, for rolling it out.
+@Component
+public class AccessTokenFilter extends OncePerRequestFilter {
+    public static final String ACCESS_TOKEN_ATTRIBUTE = "com.syllabus.copilot.backend.config.AccessTokenFilter.accessToken";
+    private static final String BEARER = "Bearer ";
+
+    private final AccessTokenService tokens;
+    private final boolean required;
+
+    public AccessTokenFilter(AccessTokenService tokens,
+                             @Value("${auth.token.required:true}") boolean required) {
+        this.tokens = tokens;
+        this.required = required;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        // CORS preflights carry no credentials
+        return !path.startsWith("/api/") || path.startsWith("/api/auth/") || "OPTIONS".equals(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        Optional<AccessToken> token = header != null && header.regionMatches(true, 0, BEARER, 0, BEARER.length())
+                ? tokens.verify(header.substring(BEARER.length()).trim())
+                : Optional.empty();
+        if (token.isPresent()) {
+            request.setAttribute(ACCESS_TOKEN_ATTRIBUTE, token.get());
+        } else if (required) {
+            response.setStatus(HttpStatus.UNAUTHORIZED.value());
+            response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer");
+            // Controllers add CORS headers, but this response never reaches them
+            response.setHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN, "*");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"message\":\"Missing or invalid access token\"}");
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+}
@@ -1,8 +1,16 @@
 package com.syllabus.copilot.backend.controller;
 
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import com.syllabus.copilot.backend.model.User;
+import com.syllabus.copilot.backend.service.AccessTokenService;
+import com.syllabus.copilot.backend.service.AccessTokenService.IssuedToken;
 import com.syllabus.copilot.backend.service.AuthService;
 
 @RestController
@@ -10,29 +18,39 @@ import com.syllabus.copilot.backend.service.AuthService;
 @CrossOrigin(origins = "*")
 public class AuthController {
     private final AuthService authService;
+    private final AccessTokenService tokens;
 
-    public AuthController(AuthService authService) {
+    public AuthController(AuthService authService, AccessTokenService tokens) {
         this.authService = authService;
+        this.tokens = tokens;
     }
 
+    // Both complete asynchronously once the password hashing pool gets to them, freeing the request thread
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody LoginRequest request) {
-        try {
-            User user = authService.login(request.getEmail(), request.getPassword());
-            return ResponseEntity.ok(new AuthResponse(user));
-        } catch (IllegalArgumentException e) {
-            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
-        }
+    public CompletableFuture<ResponseEntity<?>> login(@RequestBody LoginRequest request) {
+        return respond(authService.login(request.getEmail(), request.getPassword()));
     }
 
     @PostMapping("/signup")
-    public ResponseEntity<?> signup(@RequestBody SignupRequest request) {
-        try {
-            User user = authService.signup(request.getName(), request.getEmail(), request.getPassword());
-            return ResponseEntity.ok(new AuthResponse(user));
-        } catch (IllegalArgumentException e) {
-            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
-        }
+    public CompletableFuture<ResponseEntity<?>> signup(@RequestBody SignupRequest request) {
+        return respond(authService.signup(request.getName(), request.getEmail(), request.getPassword()));
+    }
+
+    private CompletableFuture<ResponseEntity<?>> respond(CompletableFuture<User> authenticated) {
+        return authenticated.<ResponseEntity<?>>handle((user, error) -> {
+            if (error == null) {
+                return ResponseEntity.ok(new AuthResponse(user, tokens.issue(user)));
+            }
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            if (cause instanceof IllegalArgumentException) {
+                return ResponseEntity.badRequest().body(new ErrorResponse(cause.getMessage()));
+            }
+            if (cause instanceof RejectedExecutionException) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(new ErrorResponse("Too many sign-ins in progress, please try again"));
+            }
+            throw new CompletionException(cause);
+        });
     }
 
     // DTOs
@@ -75,16 +93,20 @@ public class AuthController {
     public static class AuthResponse {
         private User user;
         private String token;
+        private Instant expiresAt;
 
-        public AuthResponse(User user) {
+        public AuthResponse(User user, IssuedToken token) {
             this.user = user;
-            this.token = null; // JWT would go here in production
+            this.token = token.token();
+            this.expiresAt = token.expiresAt();
         }
 
         public User getUser() { return user; }
         public void setUser(User user) { this.user = user; }
         public String getToken() { return token; }
         public void setToken(String token) { this.token = token; }
+        public Instant getExpiresAt() { return expiresAt; }
+        public void setExpiresAt(Instant expiresAt) { this.expiresAt = expiresAt; }
     }
 
     public static class ErrorResponse {
@@ -1,7 +1,9 @@
 package com.syllabus.copilot.backend.controller;
 
+import com.syllabus.copilot.backend.config.AccessTokenFilter;
 import com.syllabus.copilot.backend.model.ProcessingStatus;
 import com.syllabus.copilot.backend.model.Syllabus;
+import com.syllabus.copilot.backend.service.AccessTokenService.AccessToken;
 import com.syllabus.copilot.backend.service.SyllabusService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -22,7 +24,11 @@ public class SyllabusController {
 
     // Get syllabi for a specific user
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<Syllabus>> getSyllabi(@PathVariable @NotBlank String userId) {
+    public ResponseEntity<List<Syllabus>> getSyllabi(@PathVariable @NotBlank String userId,
+            @RequestAttribute(name = AccessTokenFilter.ACCESS_TOKEN_ATTRIBUTE, required = false) AccessToken token) {
+        if (!isCaller(token, userId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
         try {
             List<Syllabus> syllabi = service.getAllForUser(userId);
             return ResponseEntity.ok(syllabi);
@@ -33,8 +39,9 @@ public class SyllabusController {
 
     // Get a specific syllabus by ID
     @GetMapping("/{id}")
-    public ResponseEntity<Syllabus> getSyllabusById(@PathVariable String id) {
-        Optional<Syllabus> syllabus = service.findById(id);
+    public ResponseEntity<Syllabus> getSyllabusById(@PathVariable String id,
+            @RequestAttribute(name = AccessTokenFilter.ACCESS_TOKEN_ATTRIBUTE, required = false) AccessToken token) {
+        Optional<Syllabus> syllabus = service.findById(id).filter(s -> isCaller(token, s.getUserId()));
         return syllabus.map(ResponseEntity::ok)
                       .orElse(ResponseEntity.notFound().build());
     }
@@ -44,7 +51,12 @@ public class SyllabusController {
     public ResponseEntity<?> uploadSyllabusFile(
             @RequestParam("file") MultipartFile file,
             @RequestParam("userId") @NotBlank String userId,
-            @RequestParam("courseName") @NotBlank String courseName) {
+            @RequestParam("courseName") @NotBlank String courseName,
+            @RequestAttribute(name = AccessTokenFilter.ACCESS_TOKEN_ATTRIBUTE, required = false) AccessToken token) {
+        if (!isCaller(token, userId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                .body(new ErrorResponse("Syllabi can only be uploaded for the signed-in user"));
+        }
         
         try {
             // Validate inputs
@@ -74,9 +86,12 @@ public class SyllabusController {
 
     // Get syllabi by processing status
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<Syllabus>> getSyllabiByStatus(@PathVariable ProcessingStatus status) {
+    public ResponseEntity<List<Syllabus>> getSyllabiByStatus(@PathVariable ProcessingStatus status,
+            @RequestAttribute(name = AccessTokenFilter.ACCESS_TOKEN_ATTRIBUTE, required = false) AccessToken token) {
         try {
-            List<Syllabus> syllabi = service.findByProcessingStatus(status);
+            List<Syllabus> syllabi = token != null
+                ? service.findForUserByProcessingStatus(token.userId(), status)
+                : service.findByProcessingStatus(status);
             return ResponseEntity.ok(syllabi);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -85,9 +100,10 @@ public class SyllabusController {
 
     // Delete syllabus
     @DeleteMapping("/{id}")
-    public ResponseEntity<?> deleteSyllabus(@PathVariable String id) {
+    public ResponseEntity<?> deleteSyllabus(@PathVariable String id,
+            @RequestAttribute(name = AccessTokenFilter.ACCESS_TOKEN_ATTRIBUTE, required = false) AccessToken token) {
         try {
-            Optional<Syllabus> syllabus = service.findById(id);
+            Optional<Syllabus> syllabus = service.findById(id).filter(s -> isCaller(token, s.getUserId()));
             if (syllabus.isEmpty()) {
                 return ResponseEntity.notFound().build();
             }
@@ -106,6 +122,11 @@ public class SyllabusController {
         return ResponseEntity.ok("✅ Enhanced Backend is running perfectly with PDF processing!");
     }
 
+    // A token may only reach its own user's syllabi; without one, auth.token.required=false let the request through
+    private static boolean isCaller(AccessToken token, String userId) {
+        return token == null || token.userId().equals(userId);
+    }
+
     // Error response class
     public static class ErrorResponse {
         private String message;
@@ -4,6 +4,8 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import lombok.AllArgsConstructor;
@@ -14,6 +16,11 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 @NoArgsConstructor
 @Document(collection = "syllabi")
+@CompoundIndexes({
+    // Per-user lookups by status, and the status scans
+    @CompoundIndex(name = "userId_processingStatus", def = "{'userId': 1, 'processingStatus': 1}"),
+    @CompoundIndex(name = "processingStatus_id", def = "{'processingStatus': 1, '_id': 1}")
+})
 public class Syllabus {
     @Id
     private String id;
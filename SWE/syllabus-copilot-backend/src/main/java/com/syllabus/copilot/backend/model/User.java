@@ -1,7 +1,10 @@
 package com.syllabus.copilot.backend.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
@@ -14,6 +17,8 @@ public class User {
     @Id
     private String id;
     private String name;
+    @Indexed(unique = true)
     private String email;
-    private String password; // in production, store hashed password
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+    private String password; // BCrypt hash, never sent to clients
 }
@@ -0,0 +1,153 @@
+package com.syllabus.copilot.backend.service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.syllabus.copilot.backend.model.User;
+
+import lombok.extern.slf4j.Slf4j;
+
+// Stateless access tokens: compact JWTs signed with HMAC-SHA256. Verifying one is a MAC over the
+// header and claims plus a JSON parse, all in memory, so authenticating a request needs no Mongo
+// lookup. Only the exact header issued here is accepted, which rules out "alg" substitution.
+@Slf4j
+@Service
+public class AccessTokenService {
+    private static final String MAC_ALGORITHM = "HmacSHA256";
+    private static final int MIN_SECRET_BYTES = 32;
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+    private static final String HEADER = ENCODER.encodeToString(
+            "{\"alg\":\"HS256\",\"typ\":\"JWT\"}".getBytes(StandardCharsets.UTF_8));
+
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final Clock clock;
+    // Mac instances are not thread-safe and costly to create, so each thread keeps one
+    private final ThreadLocal<Mac> macs;
+
+    // The caller a verified token belongs to
+    public record AccessToken(String userId, String email, Instant expiresAt) {
+    }
+
+    public record IssuedToken(String token, Instant expiresAt) {
+    }
+
+    @Autowired
+    public AccessTokenService(ObjectMapper objectMapper, Environment environment,
+                              @Value("${auth.token.secret:}") String secret,
+                              @Value("${auth.token.ttl:1h}") Duration ttl) {
+        this(objectMapper, secret.isBlank() && environment.acceptsProfiles(Profiles.of("dev")) ? randomSecret() : secret,
+                ttl, Clock.systemUTC());
+    }
+
+    AccessTokenService(ObjectMapper objectMapper, String secret, Duration ttl, Clock clock) {
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+        this.clock = clock;
+        SecretKeySpec key = new SecretKeySpec(secretBytes(secret), MAC_ALGORITHM);
+        this.macs = ThreadLocal.withInitial(() -> {
+            try {
+                Mac mac = Mac.getInstance(MAC_ALGORITHM);
+                mac.init(key);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("HMAC-SHA256 is not available", e);
+            }
+        });
+    }
+
+    // Only for the dev profile: tokens stop working on restart and are not accepted by other instances
+    private static String randomSecret() {
+        log.warn("auth.token.secret is not set, signing with a random key for the dev profile");
+        byte[] random = new byte[MIN_SECRET_BYTES];
+        new SecureRandom().nextBytes(random);
+        return ENCODER.encodeToString(random);
+    }
+
+    private static byte[] secretBytes(String secret) {
+        if (secret.isBlank()) {
+            throw new IllegalStateException("auth.token.secret must be set, or the dev profile active for a random one");
+        }
+        byte[] bytes = secret.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length < MIN_SECRET_BYTES) {
+            throw new IllegalStateException("auth.token.secret must be at least " + MIN_SECRET_BYTES + " bytes");
+        }
+        return bytes;
+    }
+
+    public IssuedToken issue(User user) {
+        Instant issuedAt = clock.instant();
+        Instant expiresAt = issuedAt.plus(ttl);
+        Map<String, Object> claims = new LinkedHashMap<>();
+        claims.put("sub", user.getId());
+        claims.put("email", user.getEmail());
+        claims.put("iat", issuedAt.getEpochSecond());
+        claims.put("exp", expiresAt.getEpochSecond());
+
+        String signingInput;
+        try {
+            signingInput = HEADER + "." + ENCODER.encodeToString(objectMapper.writeValueAsBytes(claims));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not write token claims", e);
+        }
+        String token = signingInput + "." + ENCODER.encodeToString(sign(signingInput));
+        return new IssuedToken(token, Instant.ofEpochSecond(expiresAt.getEpochSecond()));
+    }
+
+    // Empty for anything malformed, tampered with, signed with another key or expired
+    public Optional<AccessToken> verify(String token) {
+        if (token == null || !token.startsWith(HEADER) || token.indexOf('.') != HEADER.length()) {
+            return Optional.empty();
+        }
+        int signatureStart = token.indexOf('.', HEADER.length() + 1);
+        if (signatureStart < 0 || token.indexOf('.', signatureStart + 1) >= 0) {
+            return Optional.empty();
+        }
+
+        try {
+            byte[] signature = DECODER.decode(token.substring(signatureStart + 1));
+            if (!MessageDigest.isEqual(sign(token.substring(0, signatureStart)), signature)) {
+                return Optional.empty();
+            }
+
+            JsonNode claims = objectMapper.readTree(DECODER.decode(token.substring(HEADER.length() + 1, signatureStart)));
+            long expiresAt = claims.path("exp").asLong(0);
+            String userId = claims.path("sub").asText(null);
+            if (userId == null || expiresAt <= clock.instant().getEpochSecond()) {
+                return Optional.empty();
+            }
+            return Optional.of(new AccessToken(userId, claims.path("email").asText(null), Instant.ofEpochSecond(expiresAt)));
+        } catch (IllegalArgumentException | IOException e) {
+            // Not base64url or not JSON
+            return Optional.empty();
+        }
+    }
+
+    // doFinal resets the Mac for the next use on this thread
+    private byte[] sign(String signingInput) {
+        return macs.get().doFinal(signingInput.getBytes(StandardCharsets.US_ASCII));
+    }
+}
@@ -1,43 +1,88 @@
 package com.syllabus.copilot.backend.service;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 import com.syllabus.copilot.backend.model.User;
 import com.syllabus.copilot.backend.repository.UserRepository;
 
+// Password checks and hashing run on the PasswordHasher pool, so both calls return futures; a bad
+// request or wrong password completes them with IllegalArgumentException
 @Service
 public class AuthService {
     private final UserRepository userRepo;
+    private final PasswordHasher passwordHasher;
 
-    public AuthService(UserRepository userRepo) {
+    public AuthService(UserRepository userRepo, PasswordHasher passwordHasher) {
         this.userRepo = userRepo;
+        this.passwordHasher = passwordHasher;
     }
 
-    public User login(String email, String password) {
+    public CompletableFuture<User> login(String email, String password) {
+        if (email == null || password == null) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Email and password are required"));
+        }
         Optional<User> user = userRepo.findByEmail(email);
         if (user.isEmpty()) {
-            throw new IllegalArgumentException("Invalid email or password");
+            return passwordHasher.matchesUnknownUser(password).thenApply(ignored -> {
+                throw invalidCredentials();
+            });
         }
         
         User found = user.get();
-        // In production, compare hashed passwords using bcrypt
-        if (!found.getPassword().equals(password)) {
-            throw new IllegalArgumentException("Invalid email or password");
+        if (!PasswordHasher.isHash(found.getPassword())) {
+            return loginWithPlainTextPassword(found, password);
         }
-        
-        return found;
+        return passwordHasher.matches(password, found.getPassword()).thenApply(matches -> {
+            if (!matches) {
+                throw invalidCredentials();
+            }
+            return found;
+        });
+    }
+
+    // Accounts created before passwords were hashed are hashed on their first successful login
+    private CompletableFuture<User> loginWithPlainTextPassword(User found, String password) {
+        boolean matches = found.getPassword() != null && MessageDigest.isEqual(
+                found.getPassword().getBytes(StandardCharsets.UTF_8), password.getBytes(StandardCharsets.UTF_8));
+        if (!matches) {
+            return passwordHasher.matchesUnknownUser(password).thenApply(ignored -> {
+                throw invalidCredentials();
+            });
+        }
+        return passwordHasher.hash(password).thenApply(hash -> {
+            found.setPassword(hash);
+            return userRepo.save(found);
+        });
     }
 
-    public User signup(String name, String email, String password) {
+    public CompletableFuture<User> signup(String name, String email, String password) {
+        if (email == null || password == null) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Email and password are required"));
+        }
         if (userRepo.findByEmail(email).isPresent()) {
-            throw new IllegalArgumentException("Email already registered");
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Email already registered"));
         }
         
-        User newUser = new User();
-        newUser.setName(name);
-        newUser.setEmail(email);
-        newUser.setPassword(password); // In production, hash with bcrypt
-        
-        return userRepo.save(newUser);
+        return passwordHasher.hash(password).thenApply(hash -> {
+            User newUser = new User();
+            newUser.setName(name);
+            newUser.setEmail(email);
+            newUser.setPassword(hash);
+            try {
+                return userRepo.save(newUser);
+            } catch (DuplicateKeyException e) {
+                // Registered by a concurrent signup since the check above
+                throw new IllegalArgumentException("Email already registered");
+            }
+        });
+    }
+
+    private static IllegalArgumentException invalidCredentials() {
+        return new IllegalArgumentException("Invalid email or password");
     }
 }
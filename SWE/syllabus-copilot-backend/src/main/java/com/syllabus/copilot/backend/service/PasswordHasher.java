@@ -0,0 +1,77 @@
+package com.syllabus.copilot.backend.service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+
+// BCrypt on a small dedicated pool. A hash costs tens of milliseconds of CPU by design, so it never
+// runs on request threads: callers get a future, and once queueCapacity attempts are waiting new
+// ones fail fast with RejectedExecutionException instead of piling up behind them.
+@Service
+public class PasswordHasher implements DisposableBean {
+    private final BCryptPasswordEncoder encoder;
+    private final ThreadPoolExecutor executor;
+    // Checked against when the email is unknown, so the response time does not reveal which emails exist
+    private final String unknownUserHash;
+
+    public PasswordHasher(@Value("${auth.password.bcrypt-strength:10}") int strength,
+                          @Value("${auth.password.hash-threads:0}") int threads,
+                          @Value("${auth.password.queue-capacity:64}") int queueCapacity) {
+        this.encoder = new BCryptPasswordEncoder(strength);
+        this.unknownUserHash = encoder.encode("unknown-user");
+
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    // Stored passwords from before hashing are plain text
+    public static boolean isHash(String stored) {
+        return stored != null && stored.startsWith("$2");
+    }
+
+    public CompletableFuture<String> hash(String rawPassword) {
+        return submit(() -> encoder.encode(rawPassword));
+    }
+
+    public CompletableFuture<Boolean> matches(String rawPassword, String hash) {
+        return submit(() -> encoder.matches(rawPassword, hash));
+    }
+
+    // The same work as a real check, always false
+    public CompletableFuture<Boolean> matchesUnknownUser(String rawPassword) {
+        return submit(() -> {
+            encoder.matches(rawPassword, unknownUserHash);
+            return false;
+        });
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
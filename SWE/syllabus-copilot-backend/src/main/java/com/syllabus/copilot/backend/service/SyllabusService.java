@@ -106,4 +106,8 @@ public class SyllabusService {
     public List<Syllabus> findByProcessingStatus(ProcessingStatus status) {
         return repo.findByProcessingStatus(status);
     }
+
+    public List<Syllabus> findForUserByProcessingStatus(String userId, ProcessingStatus status) {
+        return repo.findByUserIdAndProcessingStatus(userId, status);
+    }
 }
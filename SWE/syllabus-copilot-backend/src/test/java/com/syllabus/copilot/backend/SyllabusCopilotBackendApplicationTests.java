@@ -3,7 +3,7 @@ package com.syllabus.copilot.backend;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = "auth.token.secret=test-secret-test-secret-0123456789abcdef")
 class SyllabusCopilotBackendApplicationTests {
 
 	@Test
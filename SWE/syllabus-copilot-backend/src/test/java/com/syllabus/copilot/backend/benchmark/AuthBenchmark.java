@@ -0,0 +1,93 @@
+package com.syllabus.copilot.backend.benchmark;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.syllabus.copilot.backend.model.User;
+import com.syllabus.copilot.backend.repository.UserRepository;
+import com.syllabus.copilot.backend.service.AccessTokenService;
+import com.syllabus.copilot.backend.service.AccessTokenService.AccessToken;
+import com.syllabus.copilot.backend.service.AccessTokenService.IssuedToken;
+import com.syllabus.copilot.backend.service.AuthService;
+import com.syllabus.copilot.backend.service.PasswordHasher;
+
+// Login against token verification, the cost every authenticated API call now pays instead of a
+// Mongo lookup. Login is BCrypt-bound and capped by the hashing pool; add -t 16 to see the cap.
+// The user lookup is an in-memory stub, so login numbers exclude the one findByEmail round trip.
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthBenchmark {
+    private static final String EMAIL = "ada@example.edu";
+    private static final String PASSWORD = "correct horse battery staple";
+    private static final String SECRET = "benchmark-secret-benchmark-secret-0123456789";
+
+    @Param({"10"})
+    public int bcryptStrength;
+
+    private PasswordHasher passwordHasher;
+    private AuthService authService;
+    private AccessTokenService tokens;
+    private User user;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        user = new User("6718a0c2e4b0a1b2c3d4e5f6", "Ada", EMAIL, new BCryptPasswordEncoder(bcryptStrength).encode(PASSWORD));
+        // stubOnly keeps Mockito from recording every call over millions of invocations
+        UserRepository users = mock(UserRepository.class, withSettings().stubOnly());
+        when(users.findByEmail(EMAIL)).thenReturn(Optional.of(user));
+
+        passwordHasher = new PasswordHasher(bcryptStrength, 0, 1024);
+        authService = new AuthService(users, passwordHasher);
+        tokens = new AccessTokenService(new ObjectMapper(), new StandardEnvironment(), SECRET, Duration.ofHours(1));
+        token = tokens.issue(user).token();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        passwordHasher.destroy();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public IssuedToken login() {
+        return tokens.issue(authService.login(EMAIL, PASSWORD).join());
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Optional<AccessToken> verifyToken() {
+        return tokens.verify(token);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public IssuedToken issueToken() {
+        return tokens.issue(user);
+    }
+}
@@ -0,0 +1,81 @@
+package com.syllabus.copilot.backend.controller;
+
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.syllabus.copilot.backend.model.Syllabus;
+import com.syllabus.copilot.backend.service.AccessTokenService;
+import com.syllabus.copilot.backend.service.AccessTokenService.AccessToken;
+import com.syllabus.copilot.backend.service.SyllabusService;
+
+@WebMvcTest(SyllabusController.class)
+class SyllabusControllerTest {
+    private static final String BEARER = "Bearer token-for-u1";
+
+    @Autowired
+    private MockMvc mvc;
+
+    @MockitoBean
+    private SyllabusService service;
+
+    @MockitoBean
+    private AccessTokenService tokens;
+
+    @BeforeEach
+    void setUp() {
+        when(tokens.verify("token-for-u1"))
+            .thenReturn(Optional.of(new AccessToken("u1", "ada@example.edu", Instant.now().plusSeconds(60))));
+    }
+
+    @Test
+    void callerReachesTheirOwnSyllabi() throws Exception {
+        when(service.getAllForUser("u1")).thenReturn(List.of());
+
+        mvc.perform(get("/api/syllabi/user/{userId}", "u1").header(HttpHeaders.AUTHORIZATION, BEARER))
+            .andExpect(status().isOk());
+    }
+
+    @Test
+    void anotherUsersSyllabiAreForbidden() throws Exception {
+        when(service.findById("s2")).thenReturn(Optional.of(syllabus("s2", "u2")));
+
+        mvc.perform(get("/api/syllabi/user/{userId}", "u2").header(HttpHeaders.AUTHORIZATION, BEARER))
+            .andExpect(status().isForbidden());
+        mvc.perform(get("/api/syllabi/{id}", "s2").header(HttpHeaders.AUTHORIZATION, BEARER))
+            .andExpect(status().isNotFound());
+        mvc.perform(delete("/api/syllabi/{id}", "s2").header(HttpHeaders.AUTHORIZATION, BEARER))
+            .andExpect(status().isNotFound());
+
+        verify(service, never()).getAllForUser("u2");
+        verify(service, never()).delete("s2");
+    }
+
+    @Test
+    void requestsWithoutATokenAreRejected() throws Exception {
+        mvc.perform(get("/api/syllabi/user/{userId}", "u1"))
+            .andExpect(status().isUnauthorized());
+    }
+
+    private static Syllabus syllabus(String id, String userId) {
+        Syllabus syllabus = new Syllabus();
+        syllabus.setId(id);
+        syllabus.setUserId(userId);
+        return syllabus;
+    }
+}
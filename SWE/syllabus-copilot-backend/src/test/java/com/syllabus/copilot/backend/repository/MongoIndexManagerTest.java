@@ -0,0 +1,48 @@
+package com.syllabus.copilot.backend.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationContext;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import com.syllabus.copilot.backend.model.Syllabus;
+import com.syllabus.copilot.backend.model.User;
+
+class MongoIndexManagerTest {
+    private final MongoMappingContext mappingContext = new MongoMappingContext();
+    private final MongoIndexManager manager;
+
+    MongoIndexManagerTest() {
+        mappingContext.setSimpleTypeHolder(new MongoCustomConversions(List.of()).getSimpleTypeHolder());
+        manager = new MongoIndexManager(mock(MongoTemplate.class), mappingContext, mock(ApplicationContext.class),
+                MongoIndexManager.Mode.VERIFY, true);
+    }
+
+    @Test
+    void loginLooksUpUsersThroughTheUniqueEmailIndex() {
+        assertThat(manager.findUncoveredQueries(UserRepository.class,
+                List.of(UserRepository.class.getDeclaredMethods()), User.class)).isEmpty();
+
+        List<IndexDefinition> indexes = new ArrayList<>();
+        IndexResolver.create(mappingContext).resolveIndexFor(User.class).forEach(indexes::add);
+        assertThat(indexes).singleElement().satisfies(index -> {
+            assertThat(index.getIndexKeys().keySet()).containsExactly("email");
+            assertThat(index.getIndexOptions().getBoolean("unique", false)).isTrue();
+        });
+    }
+
+    @Test
+    void everySyllabusRepositoryQueryHasAnIndex() {
+        assertThat(manager.findUncoveredQueries(SyllabusRepository.class,
+                List.of(SyllabusRepository.class.getDeclaredMethods()), Syllabus.class)).isEmpty();
+    }
+}
@@ -0,0 +1,84 @@
+package com.syllabus.copilot.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.syllabus.copilot.backend.model.User;
+import com.syllabus.copilot.backend.service.AccessTokenService.AccessToken;
+
+class AccessTokenServiceTest {
+    private static final String SECRET = "test-secret-test-secret-0123456789abcdef";
+    private static final Instant NOW = Instant.parse("2025-09-01T12:00:00Z");
+
+    private final User user = new User("6718a0c2e4b0a1b2c3d4e5f6", "Ada", "ada@example.edu", "$2a$04$hash");
+
+    @Test
+    void issuedTokenVerifiesWithoutALookup() {
+        AccessTokenService tokens = tokens(SECRET, NOW);
+
+        String token = tokens.issue(user).token();
+
+        assertThat(tokens.verify(token)).contains(
+                new AccessToken(user.getId(), user.getEmail(), NOW.plus(Duration.ofHours(1))));
+    }
+
+    @Test
+    void tamperedTokensAreRejected() {
+        AccessTokenService tokens = tokens(SECRET, NOW);
+        String token = tokens.issue(user).token();
+        String[] parts = token.split("\\.");
+        String otherClaims = base64("{\"sub\":\"someone-else\",\"exp\":" + NOW.plusSeconds(60).getEpochSecond() + "}");
+        String noneHeader = base64("{\"alg\":\"none\",\"typ\":\"JWT\"}");
+
+        assertThat(tokens.verify(parts[0] + "." + otherClaims + "." + parts[2])).isEmpty();
+        assertThat(tokens.verify(parts[0] + "." + parts[1] + "." + parts[2].substring(1))).isEmpty();
+        assertThat(tokens.verify(noneHeader + "." + parts[1] + ".")).isEmpty();
+        assertThat(tokens.verify(token + ".extra")).isEmpty();
+        assertThat(tokens.verify("not-a-token")).isEmpty();
+        assertThat(tokens(SECRET.replace('t', 'x'), NOW).verify(token)).isEmpty();
+    }
+
+    @Test
+    void expiredTokenIsRejected() {
+        String token = tokens(SECRET, NOW).issue(user).token();
+
+        assertThat(tokens(SECRET, NOW.plus(Duration.ofMinutes(59))).verify(token)).isPresent();
+        assertThat(tokens(SECRET, NOW.plus(Duration.ofHours(1))).verify(token)).isEmpty();
+    }
+
+    @Test
+    void shortSecretIsRefused() {
+        assertThatThrownBy(() -> tokens("too-short", NOW)).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void missingSecretIsOnlyReplacedInTheDevProfile() {
+        assertThatThrownBy(() -> tokens("", NOW)).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> new AccessTokenService(new ObjectMapper(), new MockEnvironment(), "", Duration.ofHours(1)))
+            .isInstanceOf(IllegalStateException.class);
+
+        MockEnvironment dev = new MockEnvironment();
+        dev.setActiveProfiles("dev");
+        AccessTokenService tokens = new AccessTokenService(new ObjectMapper(), dev, "", Duration.ofHours(1));
+        assertThat(tokens.verify(tokens.issue(user).token())).isPresent();
+    }
+
+    private static AccessTokenService tokens(String secret, Instant now) {
+        return new AccessTokenService(new ObjectMapper(), secret, Duration.ofHours(1), Clock.fixed(now, ZoneOffset.UTC));
+    }
+
+    private static String base64(String json) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
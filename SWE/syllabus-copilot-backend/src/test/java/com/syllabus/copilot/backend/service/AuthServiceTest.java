@@ -0,0 +1,81 @@
+package com.syllabus.copilot.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+import java.util.concurrent.CompletionException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.syllabus.copilot.backend.model.User;
+import com.syllabus.copilot.backend.repository.UserRepository;
+
+class AuthServiceTest {
+    private static final String EMAIL = "ada@example.edu";
+    private static final String PASSWORD = "correct horse battery staple";
+
+    private final UserRepository users = mock(UserRepository.class);
+    private final PasswordHasher passwordHasher = new PasswordHasher(4, 2, 16);
+    private final AuthService authService = new AuthService(users, passwordHasher);
+
+    @AfterEach
+    void tearDown() {
+        passwordHasher.destroy();
+    }
+
+    @Test
+    void signupStoresABcryptHashThatLoginAccepts() {
+        when(users.findByEmail(EMAIL)).thenReturn(Optional.empty());
+        when(users.save(any(User.class))).thenAnswer(call -> call.getArgument(0));
+
+        User created = authService.signup("Ada", EMAIL, PASSWORD).join();
+
+        assertThat(created.getPassword()).startsWith("$2").isNotEqualTo(PASSWORD);
+        when(users.findByEmail(EMAIL)).thenReturn(Optional.of(created));
+        assertThat(authService.login(EMAIL, PASSWORD).join()).isSameAs(created);
+    }
+
+    @Test
+    void wrongPasswordAndUnknownEmailFailTheSameWay() {
+        User stored = new User("u1", "Ada", EMAIL, passwordHasher.hash(PASSWORD).join());
+        when(users.findByEmail(EMAIL)).thenReturn(Optional.of(stored));
+        when(users.findByEmail("nobody@example.edu")).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> authService.login(EMAIL, "wrong").join())
+            .isInstanceOf(CompletionException.class)
+            .hasCauseInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("Invalid email or password");
+        assertThatThrownBy(() -> authService.login("nobody@example.edu", PASSWORD).join())
+            .hasCauseInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("Invalid email or password");
+    }
+
+    @Test
+    void plainTextPasswordIsHashedOnFirstLogin() {
+        User legacy = new User("u1", "Ada", EMAIL, PASSWORD);
+        when(users.findByEmail(EMAIL)).thenReturn(Optional.of(legacy));
+        when(users.save(any(User.class))).thenAnswer(call -> call.getArgument(0));
+
+        User loggedIn = authService.login(EMAIL, PASSWORD).join();
+
+        assertThat(loggedIn.getPassword()).startsWith("$2");
+        verify(users).save(legacy);
+    }
+
+    @Test
+    void existingEmailIsNotHashedAgain() {
+        when(users.findByEmail(anyString())).thenReturn(Optional.of(new User()));
+
+        assertThatThrownBy(() -> authService.signup("Ada", EMAIL, PASSWORD).join())
+            .hasCauseInstanceOf(IllegalArgumentException.class);
+        verify(users, never()).save(any(User.class));
+    }
+}
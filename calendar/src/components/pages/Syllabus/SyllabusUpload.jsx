@@ -2,7 +2,96 @@ import React, { useState, useContext } from 'react';
 import { AuthContext } from '../../../context/AuthContext';
 import "./SyllabusUpload.css";
 
-const API_UPLOAD = 'http://localhost:8081/api/syllabi/upload';
+const API_SYLLABI = 'http://localhost:8081/api/syllabi';
+const API_UPLOAD = `${API_SYLLABI}/upload`;
+
+const STAGE_LABELS = {
+    RECEIVED: 'Queued for processing…',
+    PROCESSING: 'Reading PDF…',
+    TEXT_EXTRACTED: 'Text extracted, finding dates and assignments…',
+    EXTRACTOR_FINISHED: 'Finding dates and assignments…',
+};
+
+const describeStage = (event) => {
+    if (event.stage === 'TEXT_EXTRACTED' && event.pageCount) {
+        return `Extracted ${event.characterCount} characters from ${event.pageCount} page(s)…`;
+    }
+    if (event.stage === 'EXTRACTOR_FINISHED' && event.itemCount != null) {
+        return `Found ${event.itemCount} ${event.extractor}…`;
+    }
+    return STAGE_LABELS[event.stage] || '';
+};
+
+// Backends that check access tokens expect the one issued at login
+const authHeaders = (user) => (user && user.token ? { Authorization: `Bearer ${user.token}` } : {});
+
+// EventSource cannot send the Authorization header, so the progress stream is read with fetch.
+// Calls onEvent(stage, event) for each server-sent event until the stream ends or signal aborts.
+const readEvents = async (url, headers, onEvent, signal) => {
+    const res = await fetch(url, { headers: { ...headers, Accept: 'text/event-stream' }, signal });
+    if (!res.ok) {
+        const err = new Error(`Progress stream refused: ${res.status}`);
+        err.refused = true;
+        throw err;
+    }
+    const reader = res.body.pipeThrough(new TextDecoderStream()).getReader();
+    let buffer = '';
+    for (;;) {
+        const { value, done } = await reader.read();
+        if (done) return;
+        buffer += value.replace(/\r\n?/g, '\n');
+        let end;
+        while ((end = buffer.indexOf('\n\n')) >= 0) {
+            const block = buffer.slice(0, end);
+            buffer = buffer.slice(end + 2);
+            let stage = 'message';
+            const data = [];
+            block.split('\n').forEach((line) => {
+                if (line.startsWith('event:')) stage = line.slice(6).trim();
+                else if (line.startsWith('data:')) data.push(line.slice(5).replace(/^ /, ''));
+            });
+            if (data.length) onEvent(stage, JSON.parse(data.join('\n')));
+        }
+    }
+};
+
+const RECONNECT_ATTEMPTS = 5;
+const RECONNECT_DELAY_MS = 1000;
+
+// Uploads are processed in the background; follow the progress events until saved or failed
+const waitForProcessing = async (id, headers, onProgress) => {
+    const controller = new AbortController();
+    let outcome = null;
+    const onEvent = (stage, event) => {
+        if (stage === 'SAVED' || stage === 'FAILED') {
+            outcome = { stage, event };
+            controller.abort();
+        } else {
+            onProgress(describeStage(event));
+        }
+    };
+
+    // Reconnect after a dropped connection, as EventSource would; only a refused stream is final
+    for (let attempt = 0; !outcome; attempt++) {
+        try {
+            await readEvents(`${API_SYLLABI}/${id}/events`, headers, onEvent, controller.signal);
+        } catch (err) {
+            if (outcome) break;
+            if (err.refused || attempt >= RECONNECT_ATTEMPTS) throw err;
+        }
+        if (!outcome) {
+            if (attempt >= RECONNECT_ATTEMPTS) throw new Error('Lost connection while processing');
+            await new Promise((resolve) => setTimeout(resolve, RECONNECT_DELAY_MS));
+        }
+    }
+
+    if (outcome.stage === 'FAILED') {
+        throw new Error(outcome.event.error || 'Processing failed');
+    }
+    const full = await fetch(`${API_SYLLABI}/${id}`, { headers });
+    if (!full.ok) throw new Error(`Failed to load syllabus: ${full.status}`);
+    return full.json();
+};
 
 const SyllabusUpload = () => {
     const { user } = useContext(AuthContext);
@@ -11,6 +100,7 @@ const SyllabusUpload = () => {
     const [loading, setLoading] = useState(false);
     const [error, setError] = useState('');
     const [result, setResult] = useState(null);
+    const [progress, setProgress] = useState('');
 
     const handleFileChange = (e) => {
         setError('');
@@ -37,6 +127,7 @@ const SyllabusUpload = () => {
             setLoading(true);
             const res = await fetch(API_UPLOAD, {
                 method: 'POST',
+                headers: authHeaders(user),
                 body: form,
             });
 
@@ -47,7 +138,9 @@ const SyllabusUpload = () => {
                 throw new Error(text || `Upload failed: ${res.status}`);
             }
 
-            const data = await res.json();
+            const accepted = await res.json();
+            setProgress('Uploaded, waiting for processing…');
+            const data = await waitForProcessing(accepted.id, authHeaders(user), setProgress);
             setResult(data);
             setFile(null);
             setCourseName('');
@@ -59,6 +152,7 @@ const SyllabusUpload = () => {
             setError(err.message || 'Upload failed');
         } finally {
             setLoading(false);
+            setProgress('');
         }
     };
 
@@ -86,6 +180,8 @@ const SyllabusUpload = () => {
                 </div>
             </form>
 
+            {loading && progress && <div className="upload-progress">{progress}</div>}
+
             {error && <div className="upload-error">Error: {error}</div>}
 
             {result && (
@@ -0,0 +1,135 @@
+package com.syllabus.copilot.backend.config;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import lombok.extern.slf4j.Slf4j;
+
+// Offline stand-in for the chat-completions endpoint, for load tests without an API key or network.
+// Answers every request with a canned summary after the configured latency (plus up to 50% jitter).
+// Start it with the application (syllabus.llm.stub.enabled=true and syllabus.llm.base-url pointing
+// at it) or on its own through main(port, latency-millis).
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "syllabus.llm.stub.enabled", havingValue = "true")
+public class LlmStubServer implements DisposableBean {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final HttpServer server;
+    private final ExecutorService handlers;
+    private final Duration latency;
+    private final AtomicLong requests = new AtomicLong();
+
+    public LlmStubServer(@Value("${syllabus.llm.stub.port:8089}") int port,
+                         @Value("${syllabus.llm.stub.latency:800ms}") Duration latency) throws IOException {
+        this.latency = latency;
+        this.server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+        this.handlers = Executors.newVirtualThreadPerTaskExecutor();
+        server.createContext("/v1/chat/completions", this::complete);
+        server.setExecutor(handlers);
+        server.start();
+        log.info("LLM stub listening on http://localhost:{}/ with {} latency", server.getAddress().getPort(), latency);
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public long getRequestCount() {
+        return requests.get();
+    }
+
+    private void complete(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            JsonNode request;
+            try (InputStream body = exchange.getRequestBody()) {
+                request = MAPPER.readTree(body);
+            }
+            long id = requests.incrementAndGet();
+            sleep();
+
+            String answer = MAPPER.writeValueAsString(Map.of(
+                    "summary", "Stub summary of " + courseName(request) + ".",
+                    "overallStrategy", "Review lecture notes weekly and start assignments early.",
+                    "difficultyAssessment", "Moderate",
+                    "estimatedStudyHours", 90,
+                    "recommendedResources", List.of("Textbook", "Office hours")));
+            byte[] response = MAPPER.writeValueAsBytes(Map.of(
+                    "id", "chatcmpl-stub-" + id,
+                    "object", "chat.completion",
+                    "created", System.currentTimeMillis() / 1000,
+                    "model", request.path("model").asText("stub"),
+                    "choices", List.of(Map.of(
+                            "index", 0,
+                            "message", Map.of("role", "assistant", "content", answer),
+                            "finish_reason", "stop")),
+                    "usage", Map.of("prompt_tokens", 0, "completion_tokens", 0, "total_tokens", 0)));
+
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(response);
+            }
+        }
+    }
+
+    // "Course: <name>" is the first line of the user prompt
+    private static String courseName(JsonNode request) {
+        for (JsonNode message : request.path("messages")) {
+            String content = message.path("content").asText("");
+            if ("user".equals(message.path("role").asText()) && content.startsWith("Course: ")) {
+                int end = content.indexOf('\n');
+                return content.substring("Course: ".length(), end < 0 ? content.length() : end);
+            }
+        }
+        return "the course";
+    }
+
+    private void sleep() {
+        long millis = latency.toMillis();
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis + ThreadLocalRandom.current().nextLong(millis / 2 + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        server.stop(0);
+        handlers.shutdownNow();
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8089;
+        Duration latency = Duration.ofMillis(args.length > 1 ? Long.parseLong(args[1]) : 800);
+        new LlmStubServer(port, latency);
+    }
+}
@@ -0,0 +1,42 @@
+package com.syllabus.copilot.backend.config;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ProcessingConfig {
+
+    // Bounded pool for the upload pipeline. PDF parsing is CPU bound, so a fixed
+    // number of workers with a bounded backlog; submissions beyond that are rejected.
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService syllabusProcessingExecutor(
+            @Value("${syllabus.processing.workers:0}") int workers,
+            @Value("${syllabus.processing.queue-capacity:500}") int queueCapacity) {
+        int poolSize = workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "syllabus-worker-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+
+        return new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    // Pool for parallel page-range text extraction within a single PDF
+    @Bean(destroyMethod = "shutdown")
+    public ForkJoinPool pdfExtractionPool(@Value("${syllabus.pdf.extraction-threads:0}") int threads) {
+        return new ForkJoinPool(threads > 0 ? threads : Runtime.getRuntime().availableProcessors());
+    }
+}
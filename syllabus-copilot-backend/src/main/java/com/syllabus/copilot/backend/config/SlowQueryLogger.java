@@ -0,0 +1,215 @@
+package com.syllabus.copilot.backend.config;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonReader;
+import org.bson.BsonString;
+import org.bson.BsonType;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.bson.codecs.BsonValueCodec;
+import org.bson.codecs.DecoderContext;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import com.mongodb.MongoClientSettings;
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+
+import lombok.extern.slf4j.Slf4j;
+
+// Logs Mongo commands slower than the threshold, with the query planner's winning plan.
+// The driver's command document is only valid while commandStarted runs, before anyone knows
+// whether the command will be slow, so all that is kept of a running read or update is its name,
+// collection and a bounded sample of its filter; the rest of the command is never copied. Explains run on their own thread, dropping work when it falls behind, so a slow database
+// is not slowed down further.
+@Slf4j
+@Component
+public class SlowQueryLogger implements CommandListener, MongoClientSettingsBuilderCustomizer, DisposableBean {
+    private static final Set<String> EXPLAINABLE =
+            Set.of("find", "aggregate", "count", "distinct", "findAndModify", "update", "delete");
+
+    // Of a filter, at most this many fields per document, levels of nesting and elements per array are kept
+    static final int SAMPLE_FIELDS = 16;
+    static final int SAMPLE_DEPTH = 4;
+    static final int SAMPLE_ELEMENTS = 1;
+
+    private static final BsonValueCodec VALUE_CODEC = new BsonValueCodec();
+
+    private final long thresholdNanos;
+    private final boolean explain;
+    private final ObjectProvider<MongoTemplate> mongoTemplate;
+    private final Map<Integer, Started> inFlight = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor explainExecutor;
+
+    public SlowQueryLogger(@Value("${syllabus.mongo.slow-query-threshold:200ms}") Duration threshold,
+                           @Value("${syllabus.mongo.explain-slow-queries:true}") boolean explain,
+                           ObjectProvider<MongoTemplate> mongoTemplate) {
+        this.thresholdNanos = threshold.toNanos();
+        this.explain = explain;
+        this.mongoTemplate = mongoTemplate;
+        this.explainExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(16), runnable -> {
+                    Thread thread = new Thread(runnable, "mongo-slow-query-explain");
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    @Override
+    public void customize(MongoClientSettings.Builder settings) {
+        settings.addCommandListener(this);
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        if (explain && EXPLAINABLE.contains(event.getCommandName())) {
+            BsonDocument command = event.getCommand();
+            BsonValue target = command.get(event.getCommandName());
+            inFlight.put(event.getRequestId(), new Started(event.getCommandName(),
+                    target != null && target.isString() ? target.asString().getValue() : null,
+                    filterSample(event.getCommandName(), command)));
+        }
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        Started started = inFlight.remove(event.getRequestId());
+        long elapsed = event.getElapsedTime(TimeUnit.NANOSECONDS);
+        if (elapsed < thresholdNanos) {
+            return;
+        }
+
+        long millis = TimeUnit.NANOSECONDS.toMillis(elapsed);
+        if (started == null || started.collection() == null) {
+            log.warn("Slow Mongo {} on {} took {} ms", event.getCommandName(), event.getDatabaseName(), millis);
+            return;
+        }
+        String database = event.getDatabaseName();
+        explainExecutor.execute(() -> logWithPlan(database, started, millis));
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        inFlight.remove(event.getRequestId());
+    }
+
+    @Override
+    public void destroy() {
+        explainExecutor.shutdownNow();
+    }
+
+    // The filter is explained as a find: every explainable command selects its documents the same way
+    private void logWithPlan(String database, Started started, long millis) {
+        String target = database + "." + started.collection();
+        try {
+            Document explained = mongoTemplate.getObject().getMongoDatabaseFactory().getMongoDatabase(database)
+                    .runCommand(new Document("explain", new BsonDocument("find", new BsonString(started.collection()))
+                            .append("filter", started.filter()))
+                            .append("verbosity", "queryPlanner"));
+            Object winningPlan = explained.get("queryPlanner", Document.class) != null
+                    ? explained.get("queryPlanner", Document.class).get("winningPlan")
+                    : explained;
+            log.warn("Slow Mongo {} on {} took {} ms, filter {} plan: {}",
+                    started.commandName(), target, millis, started.filter().toJson(), winningPlan);
+        } catch (RuntimeException e) {
+            log.warn("Slow Mongo {} on {} took {} ms, filter {} (explain failed: {})",
+                    started.commandName(), target, millis, started.filter().toJson(), e.getMessage());
+        }
+    }
+
+    // The filter of a command: find's filter, the query of count, distinct and findAndModify, the
+    // first statement's q of a bulk update or delete, or an aggregation's leading $match
+    static BsonDocument filterSample(String commandName, BsonDocument command) {
+        BsonValue filter = switch (commandName) {
+            case "find" -> command.get("filter");
+            case "count", "distinct", "findAndModify" -> command.get("query");
+            case "update" -> firstStatementField(command.get("updates"), "q");
+            case "delete" -> firstStatementField(command.get("deletes"), "q");
+            case "aggregate" -> firstStatementField(command.get("pipeline"), "$match");
+            default -> null;
+        };
+        return filter != null && filter.isDocument() ? sample(filter.asDocument()) : new BsonDocument();
+    }
+
+    private static BsonValue firstStatementField(BsonValue statements, String field) {
+        if (statements == null || !statements.isArray()) {
+            return null;
+        }
+        Iterator<BsonValue> iterator = statements.asArray().iterator();
+        BsonValue first = iterator.hasNext() ? iterator.next() : null;
+        return first != null && first.isDocument() ? first.asDocument().get(field) : null;
+    }
+
+    // A copy cut to SAMPLE_FIELDS per document, SAMPLE_ELEMENTS per array and SAMPLE_DEPTH levels.
+    // It is read from the encoded bytes, skipping what is not kept, so a long $in list costs no
+    // more than a point query; BsonDocument's own iteration or clone() would decode all of it.
+    static BsonDocument sample(BsonDocument document) {
+        try (BsonReader reader = document.asBsonReader()) {
+            reader.readStartDocument();
+            return sampleDocument(reader, 0);
+        }
+    }
+
+    private static BsonDocument sampleDocument(BsonReader reader, int depth) {
+        BsonDocument copy = new BsonDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            String name = reader.readName();
+            if (copy.size() < SAMPLE_FIELDS) {
+                copy.put(name, sampleValue(reader, depth + 1));
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.readEndDocument();
+        return copy;
+    }
+
+    private static BsonValue sampleValue(BsonReader reader, int depth) {
+        BsonType type = reader.getCurrentBsonType();
+        if (type == BsonType.DOCUMENT) {
+            if (depth >= SAMPLE_DEPTH) {
+                reader.skipValue();
+                return new BsonDocument();
+            }
+            reader.readStartDocument();
+            return sampleDocument(reader, depth);
+        }
+        if (type == BsonType.ARRAY) {
+            BsonArray copy = new BsonArray();
+            if (depth >= SAMPLE_DEPTH) {
+                reader.skipValue();
+                return copy;
+            }
+            reader.readStartArray();
+            while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+                if (copy.size() < SAMPLE_ELEMENTS) {
+                    copy.add(sampleValue(reader, depth + 1));
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.readEndArray();
+            return copy;
+        }
+        return VALUE_CODEC.decode(reader, DecoderContext.builder().build());
+    }
+
+    private record Started(String commandName, String collection, BsonDocument filter) {
+    }
+}
@@ -0,0 +1,35 @@
+package com.syllabus.copilot.backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.web.servlet.MultipartProperties;
+import org.springframework.boot.web.servlet.MultipartConfigFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import jakarta.servlet.MultipartConfigElement;
+
+@Configuration
+public class UploadConfig {
+    static final DataSize MAX_PDF_SIZE = DataSize.ofMegabytes(10);
+    // The rest of the multipart form: field values, part headers and boundaries
+    static final DataSize FORM_OVERHEAD = DataSize.ofMegabytes(1);
+
+    // A request holds at most one full batch, max-files PDFs of up to 10MB each, sent as separate
+    // parts or as one zip; the limits follow max-files so raising it is the only setting to change
+    @Bean
+    public MultipartConfigElement multipartConfigElement(MultipartProperties multipart,
+                                                         @Value("${syllabus.batch.max-files:10}") int maxFiles) {
+        DataSize maxRequestSize = maxRequestSize(maxFiles);
+        MultipartConfigFactory factory = new MultipartConfigFactory();
+        factory.setLocation(multipart.getLocation());
+        factory.setFileSizeThreshold(multipart.getFileSizeThreshold());
+        factory.setMaxFileSize(maxRequestSize);
+        factory.setMaxRequestSize(maxRequestSize);
+        return factory.createMultipartConfig();
+    }
+
+    static DataSize maxRequestSize(int maxFiles) {
+        return DataSize.ofBytes(MAX_PDF_SIZE.toBytes() * Math.max(1, maxFiles) + FORM_OVERHEAD.toBytes());
+    }
+}
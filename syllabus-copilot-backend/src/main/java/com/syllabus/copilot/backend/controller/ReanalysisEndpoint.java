@@ -0,0 +1,56 @@
+package com.syllabus.copilot.backend.controller;
+
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import com.syllabus.copilot.backend.controller.SyllabusController.ErrorResponse;
+import com.syllabus.copilot.backend.model.ReanalysisRun;
+import com.syllabus.copilot.backend.service.ReanalysisService;
+
+// Re-analysis of stored syllabi from an older analyzer version, next to the flight recording on the
+// actuator: GET shows the current run, POST /start resumes a paused or interrupted run from its
+// checkpoint (?maxPerSecond= throttles it, 0 for no limit, also while it runs) and POST /pause stops it
+@Component
+@WebEndpoint(id = "reanalysis")
+public class ReanalysisEndpoint {
+    private final ReanalysisService reanalysisService;
+
+    public ReanalysisEndpoint(ReanalysisService reanalysisService) {
+        this.reanalysisService = reanalysisService;
+    }
+
+    @ReadOperation
+    public WebEndpointResponse<ReanalysisRun> currentRun() {
+        return reanalysisService.getCurrentRun()
+                .map(WebEndpointResponse::new)
+                .orElseGet(() -> new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND));
+    }
+
+    @WriteOperation
+    public WebEndpointResponse<?> control(@Selector String action, @Nullable Double maxPerSecond) {
+        return switch (action) {
+            case "start" -> start(maxPerSecond);
+            case "pause" -> reanalysisService.pause()
+                    .<WebEndpointResponse<?>>map(WebEndpointResponse::new)
+                    .orElseGet(() -> new WebEndpointResponse<>(HttpStatus.CONFLICT.value()));
+            default -> new WebEndpointResponse<>(new ErrorResponse("Unknown action " + action),
+                    WebEndpointResponse.STATUS_NOT_FOUND);
+        };
+    }
+
+    private WebEndpointResponse<?> start(Double maxPerSecond) {
+        try {
+            return new WebEndpointResponse<>(reanalysisService.start(maxPerSecond), HttpStatus.ACCEPTED.value());
+        } catch (IllegalArgumentException e) {
+            return new WebEndpointResponse<>(new ErrorResponse(e.getMessage()), WebEndpointResponse.STATUS_BAD_REQUEST);
+        } catch (IllegalStateException e) {
+            return new WebEndpointResponse<>(new ErrorResponse(e.getMessage()), HttpStatus.CONFLICT.value());
+        }
+    }
+}
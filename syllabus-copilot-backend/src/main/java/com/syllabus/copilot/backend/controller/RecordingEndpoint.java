@@ -0,0 +1,71 @@
+package com.syllabus.copilot.backend.controller;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import com.syllabus.copilot.backend.service.FlightRecordingService;
+
+// Java Flight Recording of the last ?minutes=, with the PDF and analysis events; open it in JDK
+// Mission Control. An actuator endpoint, so it is only reachable once listed in
+// management.endpoints.web.exposure.include, ideally on an internal management port.
+@Component
+@WebEndpoint(id = "recording")
+public class RecordingEndpoint {
+    private final FlightRecordingService flightRecording;
+
+    public RecordingEndpoint(FlightRecordingService flightRecording) {
+        this.flightRecording = flightRecording;
+    }
+
+    @ReadOperation(produces = "application/octet-stream")
+    public WebEndpointResponse<Resource> dump(@Nullable Integer minutes) throws IOException {
+        if (!flightRecording.isRecording()) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_SERVICE_UNAVAILABLE);
+        }
+        try {
+            Path recording = flightRecording.dump(Duration.ofMinutes(minutes != null ? minutes : 10));
+            return new WebEndpointResponse<>(new TemporaryFileResource(recording));
+        } catch (IllegalArgumentException e) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+    }
+
+    // Deletes the dump once it has been streamed
+    private static final class TemporaryFileResource extends FileSystemResource {
+        TemporaryFileResource(Path file) {
+            super(file);
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return new FilterInputStream(super.getInputStream()) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        Files.deleteIfExists(getFile().toPath());
+                    }
+                }
+            };
+        }
+
+        // Keeps the web layer on getInputStream rather than copying the file directly
+        @Override
+        public boolean isFile() {
+            return false;
+        }
+    }
+}
@@ -16,13 +16,25 @@ public class RootController {
         response.put("message", "Welcome to Syllabus Copilot Backend API");
         response.put("version", "1.0.0");
         response.put("status", "running");
-        response.put("endpoints", Map.of(
-            "test", "GET /api/syllabi/test",
-            "upload", "POST /api/syllabi/upload",
-            "getUserSyllabi", "GET /api/syllabi/user/{userId}",
-            "getSyllabus", "GET /api/syllabi/{id}",
-            "getByStatus", "GET /api/syllabi/status/{status}",
-            "delete", "DELETE /api/syllabi/{id}"
+        response.put("endpoints", Map.ofEntries(
+            Map.entry("test", "GET /api/syllabi/test"),
+            Map.entry("upload", "POST /api/syllabi/upload"),
+            Map.entry("uploadBatch", "POST /api/syllabi/upload/batch"),
+            Map.entry("getAllSyllabi", "GET /api/syllabi?fields={field,...}&cursor={cursor}&limit={limit}"),
+            Map.entry("getUserSyllabi", "GET /api/syllabi/user/{userId}?fields={field,...}&cursor={cursor}&limit={limit}"),
+            Map.entry("searchUserSyllabi", "GET /api/syllabi/user/{userId}/search?q={words}&limit={limit}"),
+            Map.entry("getSyllabus", "GET /api/syllabi/{id}?includeText={true|false}"),
+            Map.entry("getSyllabusText", "GET /api/syllabi/{id}/text"),
+            Map.entry("getProcessingStatus", "GET /api/syllabi/{id}/status"),
+            Map.entry("streamProgress", "GET /api/syllabi/{id}/events"),
+            Map.entry("streamUserProgress", "GET /api/syllabi/user/{userId}/events"),
+            Map.entry("progressStreamStats", "GET /api/syllabi/events/stats"),
+            Map.entry("extractionCacheStats", "GET /api/syllabi/cache/stats"),
+            Map.entry("readCacheStats", "GET /api/syllabi/cache/reads"),
+            Map.entry("admissionStats", "GET /api/syllabi/admission/stats"),
+            Map.entry("llmStats", "GET /api/syllabi/llm/stats"),
+            Map.entry("getByStatus", "GET /api/syllabi/status/{status}?fields={field,...}&cursor={cursor}&limit={limit}"),
+            Map.entry("delete", "DELETE /api/syllabi/{id}")
         ));
         return ResponseEntity.ok(response);
     }
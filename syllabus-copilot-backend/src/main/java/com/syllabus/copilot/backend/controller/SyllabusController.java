@@ -1,56 +1,268 @@
 package com.syllabus.copilot.backend.controller;
 
+import com.syllabus.copilot.backend.model.AdmissionStats;
+import com.syllabus.copilot.backend.model.BatchFileResult;
+import com.syllabus.copilot.backend.model.CursorPage;
+import com.syllabus.copilot.backend.model.LlmStats;
+import com.syllabus.copilot.backend.model.ExtractionCacheStats;
 import com.syllabus.copilot.backend.model.ProcessingStatus;
+import com.syllabus.copilot.backend.model.ProgressStreamStats;
+import com.syllabus.copilot.backend.model.ReadCacheStats;
 import com.syllabus.copilot.backend.model.Syllabus;
+import com.syllabus.copilot.backend.model.SyllabusStatusView;
+import com.syllabus.copilot.backend.model.SyllabusVersionView;
+import com.syllabus.copilot.backend.service.AdmissionRejectedException;
+import com.syllabus.copilot.backend.service.LlmSummaryClient;
+import com.syllabus.copilot.backend.service.ProcessingAdmission;
+import com.syllabus.copilot.backend.service.ProgressStreamService;
+import com.syllabus.copilot.backend.service.SyllabusBatchService;
+import com.syllabus.copilot.backend.service.SyllabusListingService;
+import com.syllabus.copilot.backend.service.SyllabusSearchIndex;
 import com.syllabus.copilot.backend.service.SyllabusService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import jakarta.validation.constraints.NotBlank;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Stream;
 
 @RestController
 @RequestMapping("/api/syllabi")
-@CrossOrigin(origins = "*")
+@CrossOrigin(origins = "*", exposedHeaders = {SyllabusController.NEXT_CURSOR_HEADER, HttpHeaders.LINK, HttpHeaders.ETAG, HttpHeaders.LAST_MODIFIED})
 public class SyllabusController {
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final String NDJSON = "application/x-ndjson";
+    private static final int NDJSON_FLUSH_INTERVAL = 100;
+
     @Autowired
     private SyllabusService service;
 
-    // Get all syllabi (for demo/testing purposes)
+    @Autowired
+    private SyllabusListingService listingService;
+
+    @Autowired
+    private SyllabusBatchService batchService;
+
+    @Autowired
+    private ProcessingAdmission admission;
+
+    @Autowired
+    private LlmSummaryClient llmClient;
+
+    @Autowired
+    private ProgressStreamService progressStreams;
+
+    @Autowired
+    private SyllabusSearchIndex searchIndex;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Get summaries of all syllabi (for demo/testing purposes), a page at a time;
+    // ?fields=courseName,exams for a sparse fieldset, ?cursor= from the X-Next-Cursor header for the next page
     @GetMapping
-    public ResponseEntity<List<Syllabus>> getAllSyllabi() {
+    public ResponseEntity<?> getAllSyllabi(@RequestParam(required = false) List<String> fields,
+                                           @RequestParam(required = false) String cursor,
+                                           @RequestParam(required = false) Integer limit,
+                                           WebRequest request) {
         try {
-            List<Syllabus> syllabi = service.getAll();
-            return ResponseEntity.ok(syllabi);
+            if (isRevalidation(request)
+                    && request.checkNotModified(listingService.versionTagForAll(fields, cursor, limit))) {
+                return null;
+            }
+            return pageResponse(listingService.listAll(fields, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
-    // Get syllabi for a specific user
+    // Same listing as newline-delimited JSON, streamed from a Mongo cursor without paging
+    @GetMapping(produces = NDJSON)
+    public ResponseEntity<?> streamAllSyllabi(@RequestParam(required = false) List<String> fields) {
+        try {
+            return ndjsonResponse(listingService.streamAll(fields));
+        } catch (IllegalArgumentException e) {
+            return ndjsonError(e);
+        }
+    }
+
+    // Get syllabus summaries for a specific user, a page at a time
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<Syllabus>> getSyllabi(@PathVariable @NotBlank String userId) {
+    public ResponseEntity<?> getSyllabi(@PathVariable @NotBlank String userId,
+                                        @RequestParam(required = false) List<String> fields,
+                                        @RequestParam(required = false) String cursor,
+                                        @RequestParam(required = false) Integer limit,
+                                        WebRequest request) {
         try {
-            List<Syllabus> syllabi = service.getAllForUser(userId);
-            return ResponseEntity.ok(syllabi);
+            if (isRevalidation(request)
+                    && request.checkNotModified(listingService.versionTagForUser(userId, fields, cursor, limit))) {
+                return null;
+            }
+            return pageResponse(listingService.listForUser(userId, fields, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
-    // Get a specific syllabus by ID
+    @GetMapping(value = "/user/{userId}", produces = NDJSON)
+    public ResponseEntity<?> streamSyllabi(@PathVariable @NotBlank String userId,
+                                           @RequestParam(required = false) List<String> fields) {
+        try {
+            return ndjsonResponse(listingService.streamForUser(userId, fields));
+        } catch (IllegalArgumentException e) {
+            return ndjsonError(e);
+        }
+    }
+
+    // Full-text search over the user's completed syllabi, best match first with a snippet of the text
+    @GetMapping("/user/{userId}/search")
+    public ResponseEntity<?> searchSyllabi(@PathVariable @NotBlank String userId,
+                                           @RequestParam String q,
+                                           @RequestParam(defaultValue = "10") int limit) {
+        try {
+            return ResponseEntity.ok(searchIndex.search(userId, q, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
+    // Get a specific syllabus by ID; ?includeText=true also loads the full extracted text.
+    // Revalidations are answered from the version alone, without reading the document.
     @GetMapping("/{id}")
-    public ResponseEntity<Syllabus> getSyllabusById(@PathVariable String id) {
-        Optional<Syllabus> syllabus = service.findById(id);
-        return syllabus.map(ResponseEntity::ok)
-                      .orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<Syllabus> getSyllabusById(@PathVariable String id,
+                                                    @RequestParam(defaultValue = "false") boolean includeText,
+                                                    WebRequest request) {
+        try {
+            if (isRevalidation(request)) {
+                Optional<SyllabusVersionView> current = service.findVersionById(id);
+                if (current.isEmpty()) {
+                    return ResponseEntity.notFound().build();
+                }
+                if (request.checkNotModified(eTag(current.get().getVersion(), includeText),
+                        epochMillis(current.get().getLastModifiedDate()))) {
+                    return null;
+                }
+            }
+
+            Optional<Syllabus> syllabus = includeText ? service.findByIdWithText(id) : service.findById(id);
+            return syllabus.map(found -> ResponseEntity.ok()
+                              .eTag(eTag(found.getVersion(), includeText))
+                              .lastModified(epochMillis(found.getLastModifiedDate()))
+                              .body(found))
+                          .orElse(ResponseEntity.notFound().build());
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
     }
 
-    // Upload and process syllabus file
+    // Stream the extracted text as plain text, decompressed on the fly
+    @GetMapping(value = "/{id}/text", produces = "text/plain;charset=UTF-8")
+    public ResponseEntity<StreamingResponseBody> getSyllabusText(@PathVariable String id) {
+        try {
+            Optional<InputStream> text = service.openOriginalText(id);
+            if (text.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            StreamingResponseBody body = out -> {
+                try (InputStream in = text.get()) {
+                    in.transferTo(out);
+                }
+            };
+            return ResponseEntity.ok()
+                .contentType(new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8))
+                .body(body);
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    // Hit ratio and load time of the in-process read cache
+    @GetMapping("/cache/reads")
+    public ResponseEntity<List<ReadCacheStats>> getReadCacheStats() {
+        return ResponseEntity.ok(service.getReadCacheStats());
+    }
+
+    // Processing queue depth, wait times and parse concurrency
+    @GetMapping("/admission/stats")
+    public ResponseEntity<AdmissionStats> getAdmissionStats() {
+        return ResponseEntity.ok(admission.getStats());
+    }
+
+    // LLM summary requests, cache hits, failures and latency
+    @GetMapping("/llm/stats")
+    public ResponseEntity<LlmStats> getLlmStats() {
+        return ResponseEntity.ok(llmClient.getStats());
+    }
+
+    // Extraction cache hit/miss counters
+    @GetMapping("/cache/stats")
+    public ResponseEntity<ExtractionCacheStats> getExtractionCacheStats() {
+        return ResponseEntity.ok(service.getExtractionCacheStats());
+    }
+
+    // Lightweight processing status for polling after upload
+    @GetMapping("/{id}/status")
+    public ResponseEntity<SyllabusStatusView> getProcessingStatus(@PathVariable String id) {
+        Optional<SyllabusStatusView> status = service.findStatusById(id);
+        return status.map(ResponseEntity::ok)
+                     .orElse(ResponseEntity.notFound().build());
+    }
+
+    // Server-Sent Events for one syllabus as it moves through processing, starting with its
+    // current stage; the stream ends after the SAVED or FAILED event
+    @GetMapping(value = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamProgress(@PathVariable String id) {
+        try {
+            return progressStreams.openForSyllabus(id)
+                    .map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+
+    // Server-Sent Events for every syllabus the user uploads while connected
+    @GetMapping(value = "/user/{userId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamUserProgress(@PathVariable @NotBlank String userId) {
+        try {
+            return ResponseEntity.ok(progressStreams.openForUser(userId));
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+
+    // Open progress streams and events sent
+    @GetMapping("/events/stats")
+    public ResponseEntity<ProgressStreamStats> getProgressStreamStats() {
+        return ResponseEntity.ok(progressStreams.getStats());
+    }
+
+    // Upload syllabus file; processing continues in the background
     @PostMapping("/upload")
     public ResponseEntity<?> uploadSyllabusFile(
             @RequestParam("file") MultipartFile file,
@@ -69,41 +281,115 @@ public class SyllabusController {
                     .body(new ErrorResponse("UserId and courseName are required"));
             }
 
-            // Process the syllabus file
-            Syllabus syllabus = service.processSyllabusFile(file, userId, courseName);
+            // Queue the syllabus file for background processing
+            Syllabus syllabus = service.submitSyllabusFile(file, userId, courseName);
             
-            return ResponseEntity.ok(syllabus);
+            URI statusLocation = ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path("/api/syllabi/{id}/status")
+                .buildAndExpand(syllabus.getId())
+                .toUri();
+            return ResponseEntity.accepted()
+                .location(statusLocation)
+                .body(new UploadAcceptedResponse(syllabus.getId(), syllabus.getProcessingStatus()));
             
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest()
                 .body(new ErrorResponse(e.getMessage()));
+        } catch (AdmissionRejectedException e) {
+            return tooManyRequests(e);
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "30")
+                .body(new ErrorResponse("Too many syllabi are being processed, please try again later"));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body(new ErrorResponse("Error processing file: " + e.getMessage()));
         }
     }
 
-    // Get syllabi by processing status
+    // Upload many PDFs, or zip archives of PDFs, at once; the response reports each file,
+    // and accepted files can be polled through /{id}/status like single uploads
+    @PostMapping("/upload/batch")
+    public ResponseEntity<?> uploadSyllabusBatch(
+            @RequestParam("files") List<MultipartFile> files,
+            @RequestParam("userId") @NotBlank String userId) {
+
+        try {
+            if (files.isEmpty()) {
+                return ResponseEntity.badRequest()
+                    .body(new ErrorResponse("At least one file is required"));
+            }
+
+            if (userId.trim().isEmpty()) {
+                return ResponseEntity.badRequest()
+                    .body(new ErrorResponse("UserId is required"));
+            }
+
+            List<BatchFileResult> results = batchService.submitBatch(files, userId);
+            return ResponseEntity.accepted().body(results);
+
+        } catch (AdmissionRejectedException e) {
+            return tooManyRequests(e);
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "30")
+                .body(new ErrorResponse("Too many syllabi are being processed, please try again later"));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(new ErrorResponse("Error processing files: " + e.getMessage()));
+        }
+    }
+
+    // Get syllabus summaries by processing status, a page at a time
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<Syllabus>> getSyllabiByStatus(@PathVariable ProcessingStatus status) {
+    public ResponseEntity<?> getSyllabiByStatus(@PathVariable ProcessingStatus status,
+                                                @RequestParam(required = false) List<String> fields,
+                                                @RequestParam(required = false) String cursor,
+                                                @RequestParam(required = false) Integer limit,
+                                                WebRequest request) {
         try {
-            List<Syllabus> syllabi = service.findByProcessingStatus(status);
-            return ResponseEntity.ok(syllabi);
+            if (isRevalidation(request)
+                    && request.checkNotModified(listingService.versionTagByProcessingStatus(status, fields, cursor, limit))) {
+                return null;
+            }
+            return pageResponse(listingService.listByProcessingStatus(status, fields, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
+    @GetMapping(value = "/status/{status}", produces = NDJSON)
+    public ResponseEntity<?> streamSyllabiByStatus(@PathVariable ProcessingStatus status,
+                                                   @RequestParam(required = false) List<String> fields) {
+        try {
+            return ndjsonResponse(listingService.streamByProcessingStatus(status, fields));
+        } catch (IllegalArgumentException e) {
+            return ndjsonError(e);
+        }
+    }
+
     // Delete syllabus
+    // With If-Match, only deletes the version the client last saw
     @DeleteMapping("/{id}")
-    public ResponseEntity<?> deleteSyllabus(@PathVariable String id) {
+    public ResponseEntity<?> deleteSyllabus(@PathVariable String id,
+                                            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try {
             Optional<Syllabus> syllabus = service.findById(id);
             if (syllabus.isEmpty()) {
                 return ResponseEntity.notFound().build();
             }
             
-            service.delete(id);
+            if (ifMatch == null) {
+                service.delete(id);
+            } else {
+                Long expectedVersion = versionOf(ifMatch);
+                if (expectedVersion == null || !service.delete(id, expectedVersion)) {
+                    return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                        .body(new ErrorResponse("Syllabus has been modified since it was fetched"));
+                }
+            }
             return ResponseEntity.ok().build();
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -117,6 +403,99 @@ public class SyllabusController {
         return ResponseEntity.ok("✅ Enhanced Backend is running perfectly with PDF processing!");
     }
 
+    // The page body stays a plain array; the continuation goes in headers
+    private static ResponseEntity<List<?>> pageResponse(CursorPage<?> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                .replaceQueryParam("cursor", page.getNextCursor())
+                .toUriString();
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor())
+                .header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return response.eTag(page.getVersionTag()).body(page.getItems());
+    }
+
+    private static boolean isRevalidation(WebRequest request) {
+        return request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+            || request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null;
+    }
+
+    // The text variant is a different representation, so it gets its own tag
+    private static String eTag(Long version, boolean includeText) {
+        if (version == null) {
+            return null;
+        }
+        return '"' + version.toString() + (includeText ? "-text" : "") + '"';
+    }
+
+    // Version from an ETag issued by eTag(), or null if it is not one of ours
+    private static Long versionOf(String eTag) {
+        String value = eTag.trim();
+        if (value.startsWith("W/")) {
+            value = value.substring(2);
+        }
+        value = value.replace("\"", "");
+        int suffix = value.indexOf('-');
+        try {
+            return Long.valueOf(suffix < 0 ? value : value.substring(0, suffix));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static long epochMillis(LocalDateTime dateTime) {
+        return dateTime == null ? -1 : dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    // Writes one JSON document per line, flushing as it goes; the stream's Mongo cursor is closed at the end
+    private ResponseEntity<StreamingResponseBody> ndjsonResponse(Stream<?> rows) {
+        ObjectWriter writer = objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        StreamingResponseBody body = out -> {
+            try (rows) {
+                int written = 0;
+                for (Iterator<?> it = rows.iterator(); it.hasNext(); ) {
+                    writer.writeValue(out, it.next());
+                    out.write('\n');
+                    if (++written % NDJSON_FLUSH_INTERVAL == 0) {
+                        out.flush();
+                    }
+                }
+                out.flush();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body);
+    }
+
+    private static ResponseEntity<?> tooManyRequests(AdmissionRejectedException e) {
+        long seconds = Math.max(1, (e.getRetryAfter().toMillis() + 999) / 1000);
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+            .header(HttpHeaders.RETRY_AFTER, Long.toString(seconds))
+            .body(new ErrorResponse(e.getMessage()));
+    }
+
+    private static ResponseEntity<?> ndjsonError(IllegalArgumentException e) {
+        return ResponseEntity.badRequest()
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(new ErrorResponse(e.getMessage()));
+    }
+
+    // Returned with 202 Accepted once an upload is queued
+    public static class UploadAcceptedResponse {
+        private String id;
+        private ProcessingStatus processingStatus;
+
+        public UploadAcceptedResponse(String id, ProcessingStatus processingStatus) {
+            this.id = id;
+            this.processingStatus = processingStatus;
+        }
+
+        public String getId() { return id; }
+        public void setId(String id) { this.id = id; }
+        public ProcessingStatus getProcessingStatus() { return processingStatus; }
+        public void setProcessingStatus(ProcessingStatus processingStatus) { this.processingStatus = processingStatus; }
+    }
+
     // Error response class
     public static class ErrorResponse {
         private String message;
@@ -0,0 +1,29 @@
+package com.syllabus.copilot.backend.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// One date found in the schedule and what it was used for
+@Name("syllabus.DateParse")
+@Label("Date Parse")
+@Category({"Syllabus Copilot", "Analysis"})
+@Description("A date or date range found by the schedule recognizer")
+@StackTrace(false)
+public class DateParseEvent extends Event {
+    @Label("Syllabus Id")
+    public String syllabusId;
+
+    @Label("Kind")
+    @Description("assignment, exam, important or unused")
+    public String kind;
+
+    @Label("Text")
+    public String text;
+
+    @Label("Valid")
+    public boolean valid;
+}
@@ -0,0 +1,28 @@
+package com.syllabus.copilot.backend.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// Text extraction from a range of pages; a document extracted on one thread is a single range
+@Name("syllabus.PageRangeStrip")
+@Label("PDF Page Range Strip")
+@Category({"Syllabus Copilot", "PDF"})
+@Description("Text stripped from a range of pages of a PDF")
+@StackTrace(false)
+public class PageRangeStripEvent extends Event {
+    @Label("Syllabus Id")
+    public String syllabusId;
+
+    @Label("Start Page")
+    public int startPage;
+
+    @Label("End Page")
+    public int endPage;
+
+    @Label("Characters")
+    public int characters;
+}
@@ -0,0 +1,34 @@
+package com.syllabus.copilot.backend.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// Parsing a PDF into a PDFBox document
+@Name("syllabus.PdfLoad")
+@Label("PDF Load")
+@Category({"Syllabus Copilot", "PDF"})
+@Description("A PDF parsed into a document; page ranges extracted in parallel each load their own copy")
+@StackTrace(false)
+public class PdfLoadEvent extends Event {
+    @Label("Syllabus Id")
+    public String syllabusId;
+
+    @Label("File Name")
+    public String fileName;
+
+    @Label("File Size")
+    @DataAmount
+    public long bytes;
+
+    @Label("Pages")
+    public int pageCount;
+
+    @Label("Range Copy")
+    @Description("Loaded again for a page range extracted on another thread")
+    public boolean rangeCopy;
+}
@@ -0,0 +1,34 @@
+package com.syllabus.copilot.backend.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+// The work one extraction rule did over a syllabus. Rules are interleaved in a single walk of the
+// text, so the time is the sum of the rule's match attempts rather than the event's duration.
+@Name("syllabus.RuleEvaluation")
+@Label("Extraction Rule Evaluation")
+@Category({"Syllabus Copilot", "Analysis"})
+@Description("Match attempts, matches and matching time of one extraction rule over a syllabus")
+@StackTrace(false)
+public class RuleEvaluationEvent extends Event {
+    @Label("Syllabus Id")
+    public String syllabusId;
+
+    @Label("Rule")
+    public String rule;
+
+    @Label("Attempts")
+    public int attempts;
+
+    @Label("Matches")
+    public int matches;
+
+    @Label("Matching Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long matchTime;
+}
@@ -0,0 +1,37 @@
+package com.syllabus.copilot.backend.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// One run of the extraction rules and the summary over a syllabus' text
+@Name("syllabus.Analysis")
+@Label("Syllabus Analysis")
+@Category({"Syllabus Copilot", "Analysis"})
+@Description("Extraction rules and summary run over the text of one syllabus")
+@StackTrace(false)
+public class SyllabusAnalysisEvent extends Event {
+    @Label("Syllabus Id")
+    public String syllabusId;
+
+    @Label("Characters")
+    public int characters;
+
+    @Label("Assignments")
+    public int assignments;
+
+    @Label("Exams")
+    public int exams;
+
+    @Label("Important Dates")
+    public int importantDates;
+
+    @Label("Dates Parsed")
+    public int datesParsed;
+
+    @Label("Invalid Dates")
+    public int datesInvalid;
+}
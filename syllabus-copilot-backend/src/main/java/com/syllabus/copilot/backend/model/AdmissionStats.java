@@ -0,0 +1,20 @@
+package com.syllabus.copilot.backend.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AdmissionStats {
+    private int maxConcurrentParses;
+    private int activeParses;
+    private long queuedJobs;
+    private long admitted;
+    private long rejected;
+    private long dispatched;
+    private double averageWaitMillis; // from due in the queue to claimed by a worker
+    private long maxWaitMillis;
+    private double averageParseMillis;
+}
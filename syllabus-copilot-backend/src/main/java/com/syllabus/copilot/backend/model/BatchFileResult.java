@@ -0,0 +1,16 @@
+package com.syllabus.copilot.backend.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Outcome of one file in a batch upload; id is null when the file was rejected
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BatchFileResult {
+    private String fileName;
+    private String id;
+    private ProcessingStatus processingStatus;
+    private String error;
+}
@@ -0,0 +1,18 @@
+package com.syllabus.copilot.backend.model;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One keyset page; nextCursor is the id to continue after, or null on the last page.
+// versionTag changes whenever any row on the page (or the page boundary) changes.
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CursorPage<T> {
+    private List<T> items;
+    private String nextCursor;
+    private String versionTag;
+}
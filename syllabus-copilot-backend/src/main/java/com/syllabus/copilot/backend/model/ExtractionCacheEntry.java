@@ -0,0 +1,40 @@
+package com.syllabus.copilot.backend.model;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Extraction results shared by every upload of the same PDF, keyed by the SHA-256 of its bytes
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Document(collection = "extraction_cache")
+public class ExtractionCacheEntry {
+    @Id
+    private String contentHash;
+    @Indexed(sparse = true)
+    private String textRef; // SyllabusTextStore reference of the extracted text
+    private Integer textLength;
+
+    // Parsed course information
+    private String courseCode;
+    private String instructor;
+    private String semester;
+    private String description;
+
+    private List<Assignment> assignments;
+    private List<Exam> exams;
+    private List<ImportantDate> importantDates;
+    private Integer analyzerVersion; // entries from an older analyzer only reuse the text
+
+    private LocalDateTime createdAt;
+    @Indexed // LRU eviction sorts on it
+    private LocalDateTime lastAccessedAt;
+}
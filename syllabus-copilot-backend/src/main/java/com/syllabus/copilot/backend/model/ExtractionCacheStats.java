@@ -0,0 +1,16 @@
+package com.syllabus.copilot.backend.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ExtractionCacheStats {
+    private long hits;
+    private long misses;
+    private double hitRatio;
+    private long entries;
+    private long maxEntries;
+}
@@ -13,6 +13,7 @@ public class ImportantDate {
     private String title;
     private String description;
     private LocalDateTime date;
+    private LocalDateTime endDate; // last day of a range such as "Nov 24–28", null for a single day
     private String type; // "deadline", "holiday", "exam", "break"
     private boolean isRecurring;
 }
\ No newline at end of file
@@ -0,0 +1,8 @@
+package com.syllabus.copilot.backend.model;
+
+// A finished job is deleted, so only waiting, leased and given-up jobs are stored
+public enum JobStatus {
+    QUEUED,
+    RUNNING,
+    FAILED
+}
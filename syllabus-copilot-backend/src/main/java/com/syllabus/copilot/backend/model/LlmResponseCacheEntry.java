@@ -0,0 +1,26 @@
+package com.syllabus.copilot.backend.model;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// A generated summary and study plan, keyed by the SHA-256 of the model and the prompt sent to it
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Document(collection = "llm_responses")
+public class LlmResponseCacheEntry {
+    @Id
+    private String promptHash;
+    private String model;
+    private String summary;
+    private StudyPlan studyPlan;
+    @Indexed(expireAfter = "30d") // models change; old answers age out
+    private LocalDateTime createdAt;
+}
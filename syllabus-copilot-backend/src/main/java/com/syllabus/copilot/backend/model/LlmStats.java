@@ -0,0 +1,20 @@
+package com.syllabus.copilot.backend.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class LlmStats {
+    private boolean enabled;
+    private String model;
+    private long requests;
+    private long cacheHits;
+    private long generated;
+    private long failures; // timeouts, HTTP errors and unparseable answers
+    private long rejected; // no request slot or no room in the back-fill queue
+    private int inFlight;
+    private double averageLatencyMillis;
+}
@@ -0,0 +1,45 @@
+package com.syllabus.copilot.backend.model;
+
+import java.time.Instant;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One queued syllabus upload. Any backend instance can claim it by taking a lease, which it keeps
+// alive with heartbeats; a lease that runs out is reclaimed so another instance can run the job.
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Document(collection = "processing_jobs")
+@CompoundIndexes({
+    // Claiming takes the oldest due job
+    @CompoundIndex(name = "status_availableAt", def = "{'status': 1, 'availableAt': 1}"),
+    // Round-robin claims per user
+    @CompoundIndex(name = "status_userId_availableAt", def = "{'status': 1, 'userId': 1, 'availableAt': 1}"),
+    // Reclaiming looks for expired leases
+    @CompoundIndex(name = "status_leaseExpiresAt", def = "{'status': 1, 'leaseExpiresAt': 1}")
+})
+public class ProcessingJob {
+    @Id
+    private String id;
+    @Indexed
+    private String syllabusId;
+    private String userId;
+    private String uploadRef; // SyllabusUploadStore reference of the uploaded PDF
+    private String fileName;
+
+    private JobStatus status;
+    private int attempts; // counted when a lease is taken
+    private Instant availableAt; // not claimed before this, pushed back after a failed attempt
+    private String leaseOwner;
+    private Instant leaseExpiresAt;
+    private String lastError;
+    private Instant createdAt;
+}
@@ -0,0 +1,25 @@
+package com.syllabus.copilot.backend.model;
+
+import java.time.Instant;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// How many syllabi of one user have been admitted and not yet finished processing. Admission raises
+// it and the end of each job lowers it; a user idle past expiresAt starts over from zero.
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Document(collection = "processing_quotas")
+public class ProcessingQuota {
+    @Id
+    private String userId;
+    private long unfinished;
+    @Indexed(expireAfter = "0s")
+    private Instant expiresAt;
+}
@@ -0,0 +1,59 @@
+package com.syllabus.copilot.backend.model;
+
+import java.time.Instant;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One step of a syllabus' processing; only the fields that belong to the stage are set
+@Data
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProgressEvent {
+    private String syllabusId;
+    private String userId;
+    private ProgressStage stage;
+    private Instant timestamp;
+
+    // TEXT_EXTRACTED; pageCount is unknown when the text came from the extraction cache
+    private Integer pageCount;
+    private Integer characterCount;
+    private Boolean cached;
+
+    // EXTRACTOR_FINISHED
+    private String extractor;
+    private Integer itemCount;
+
+    // FAILED
+    private String error;
+
+    public ProgressEvent(String syllabusId, String userId, ProgressStage stage) {
+        this.syllabusId = syllabusId;
+        this.userId = userId;
+        this.stage = stage;
+        this.timestamp = Instant.now();
+    }
+
+    public static ProgressEvent textExtracted(Syllabus syllabus, Integer pageCount, int characterCount, boolean cached) {
+        ProgressEvent event = new ProgressEvent(syllabus.getId(), syllabus.getUserId(), ProgressStage.TEXT_EXTRACTED);
+        event.setPageCount(pageCount);
+        event.setCharacterCount(characterCount);
+        event.setCached(cached);
+        return event;
+    }
+
+    public static ProgressEvent extractorFinished(Syllabus syllabus, String extractor, Integer itemCount) {
+        ProgressEvent event = new ProgressEvent(syllabus.getId(), syllabus.getUserId(), ProgressStage.EXTRACTOR_FINISHED);
+        event.setExtractor(extractor);
+        event.setItemCount(itemCount);
+        return event;
+    }
+
+    public static ProgressEvent failed(String syllabusId, String userId, String error) {
+        ProgressEvent event = new ProgressEvent(syllabusId, userId, ProgressStage.FAILED);
+        event.setError(error);
+        return event;
+    }
+}
@@ -0,0 +1,15 @@
+package com.syllabus.copilot.backend.model;
+
+// Stages reported on the progress event stream, in the order a syllabus goes through them
+public enum ProgressStage {
+    RECEIVED,
+    PROCESSING,
+    TEXT_EXTRACTED,
+    EXTRACTOR_FINISHED,
+    SAVED,
+    FAILED;
+
+    public boolean isTerminal() {
+        return this == SAVED || this == FAILED;
+    }
+}
@@ -0,0 +1,17 @@
+package com.syllabus.copilot.backend.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProgressStreamStats {
+    private int openStreams;
+    private int maxStreams;
+    private long eventsPublished;
+    private long eventsSent;
+    private long streamsRejected;
+    private long slowStreamsDropped;
+}
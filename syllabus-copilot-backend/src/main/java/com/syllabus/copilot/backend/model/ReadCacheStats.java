@@ -0,0 +1,19 @@
+package com.syllabus.copilot.backend.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReadCacheStats {
+    private String cache;
+    private long hits;
+    private long misses;
+    private double hitRatio;
+    private long loads;
+    private double averageLoadMillis;
+    private long evictions;
+    private long entries;
+}
@@ -0,0 +1,37 @@
+package com.syllabus.copilot.backend.model;
+
+import java.time.Instant;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Progress and checkpoint of a bulk re-analysis; one run per analyzer version
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Document(collection = "reanalysis_runs")
+public class ReanalysisRun {
+    @Id
+    private String id;
+    private int analyzerVersion;
+    private ReanalysisStatus status;
+    private String owner; // instance running it
+    private Instant heartbeatAt;
+
+    // Every outdated syllabus up to this id has been handled; a resumed run continues after it
+    private String lastSyllabusId;
+    private long total; // outdated syllabi when the run last started, plus those already scanned
+    private long scanned;
+    private long updated;
+    private long skipped; // written by someone else since it was read, or no stored text
+    private long failed;
+
+    private double maxPerSecond; // 0 for no limit
+    private Instant startedAt;
+    private Instant finishedAt;
+    private String lastError;
+}
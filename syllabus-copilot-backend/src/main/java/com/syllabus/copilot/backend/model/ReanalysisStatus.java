@@ -0,0 +1,8 @@
+package com.syllabus.copilot.backend.model;
+
+public enum ReanalysisStatus {
+    RUNNING,
+    PAUSED,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,17 @@
+package com.syllabus.copilot.backend.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One syllabus matching a search, best first; the snippet is the passage with the most query words
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SearchHit {
+    private String syllabusId;
+    private String courseName;
+    private String courseCode;
+    private double score;
+    private String snippet;
+}
@@ -4,6 +4,11 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import lombok.AllArgsConstructor;
@@ -14,6 +19,14 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 @NoArgsConstructor
 @Document(collection = "syllabi")
+@CompoundIndexes({
+    // Per-user lookups by status and by upload date
+    @CompoundIndex(name = "userId_processingStatus", def = "{'userId': 1, 'processingStatus': 1}"),
+    @CompoundIndex(name = "userId_uploadDate", def = "{'userId': 1, 'uploadDate': -1}"),
+    // Keyset pages walk _id within a user or a status
+    @CompoundIndex(name = "userId_id", def = "{'userId': 1, '_id': 1}"),
+    @CompoundIndex(name = "processingStatus_id", def = "{'processingStatus': 1, '_id': 1}")
+})
 public class Syllabus {
     @Id
     private String id;
@@ -23,7 +36,12 @@ public class Syllabus {
     private String instructor;
     private String semester;
     private String fileName;
-    private String originalText;
+    @Transient
+    private String originalText; // only populated on demand, the stored copy lives in SyllabusTextStore
+    @Indexed(sparse = true)
+    private String originalTextRef;
+    private Integer originalTextLength;
+    private String contentHash; // SHA-256 of the uploaded PDF
     private LocalDateTime uploadDate;
     
     // Course details
@@ -43,8 +61,15 @@ public class Syllabus {
     // AI-generated content
     private String aiGeneratedSummary;
     private StudyPlan studyPlan;
+    private String summaryModel; // LLM that wrote the summary and study plan; null for the built-in heuristic
+    private Integer analyzerVersion; // SyllabusAnalysisService.ANALYZER_VERSION of the results; null before versioning
     
     // File processing status
     private ProcessingStatus processingStatus = ProcessingStatus.PENDING;
     private String processingError;
+
+    // Bumped on every write; drives ETags and optimistic locking
+    @Version
+    private Long version;
+    private LocalDateTime lastModifiedDate;
 }
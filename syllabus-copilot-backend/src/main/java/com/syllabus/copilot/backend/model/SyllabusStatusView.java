@@ -0,0 +1,12 @@
+package com.syllabus.copilot.backend.model;
+
+import java.time.LocalDateTime;
+
+// Closed projection used by the status polling endpoint; only these fields are read from Mongo
+public interface SyllabusStatusView {
+    String getId();
+    String getFileName();
+    LocalDateTime getUploadDate();
+    ProcessingStatus getProcessingStatus();
+    String getProcessingError();
+}
@@ -0,0 +1,25 @@
+package com.syllabus.copilot.backend.model;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Closed projection for listings; everything the calendar needs, without the text reference and the AI content
+public interface SyllabusSummary {
+    String getId();
+    String getUserId();
+    String getCourseName();
+    String getCourseCode();
+    String getInstructor();
+    String getSemester();
+    String getFileName();
+    LocalDateTime getUploadDate();
+    LocalDateTime getStartDate();
+    LocalDateTime getEndDate();
+    List<Assignment> getAssignments();
+    List<Exam> getExams();
+    List<ImportantDate> getImportantDates();
+    ProcessingStatus getProcessingStatus();
+    String getProcessingError();
+    Long getVersion();
+    LocalDateTime getLastModifiedDate();
+}
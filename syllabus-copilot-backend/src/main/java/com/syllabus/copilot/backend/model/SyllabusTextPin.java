@@ -0,0 +1,26 @@
+package com.syllabus.copilot.backend.model;
+
+import java.time.Instant;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Keeps a SyllabusTextStore blob alive while a document that will reference it is being written, or
+// marks the blob as being released. Either way the pin is a lease; Mongo drops it once it runs out.
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Document(collection = "syllabus_text_pins")
+public class SyllabusTextPin {
+    @Id
+    private String ref;
+    private int pins; // documents being written that will reference the text
+    private boolean releasing;
+    @Indexed(expireAfter = "0s")
+    private Instant expiresAt;
+}
@@ -0,0 +1,10 @@
+package com.syllabus.copilot.backend.model;
+
+import java.time.LocalDateTime;
+
+// Just enough to answer a conditional GET without reading the document itself
+public interface SyllabusVersionView {
+    String getId();
+    Long getVersion();
+    LocalDateTime getLastModifiedDate();
+}
@@ -0,0 +1,13 @@
+package com.syllabus.copilot.backend.repository;
+
+import java.util.List;
+
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+
+// Indexes on a collection without a @Document class, such as a GridFS bucket. MongoIndexManager
+// creates or verifies them together with the declared ones.
+public interface IndexedCollection {
+    String collection();
+
+    List<IndexDefinition> indexes();
+}
@@ -0,0 +1,195 @@
+package com.syllabus.copilot.backend.repository;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexField;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.repository.core.RepositoryInformation;
+import org.springframework.data.repository.query.parser.Part;
+import org.springframework.data.repository.query.parser.PartTree;
+import org.springframework.data.repository.support.Repositories;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+// Indexes are declared on the @Document classes. At startup every derived repository query is
+// checked against them, so a query that would scan the whole collection fails the boot instead of
+// production. Once the application is up the declared indexes, and those of IndexedCollection beans, are
+// created (or only verified) in Mongo.
+@Slf4j
+@Component
+public class MongoIndexManager implements SmartInitializingSingleton {
+    public enum Mode { CREATE, VERIFY, NONE }
+
+    private final MongoTemplate mongoTemplate;
+    private final MongoMappingContext mappingContext;
+    private final ApplicationContext applicationContext;
+    private final Mode mode;
+    private final boolean requireIndexedQueries;
+
+    public MongoIndexManager(MongoTemplate mongoTemplate,
+                             MongoMappingContext mappingContext,
+                             ApplicationContext applicationContext,
+                             @Value("${syllabus.mongo.indexes:create}") Mode mode,
+                             @Value("${syllabus.mongo.require-indexed-queries:true}") boolean requireIndexedQueries) {
+        this.mongoTemplate = mongoTemplate;
+        this.mappingContext = mappingContext;
+        this.applicationContext = applicationContext;
+        this.mode = mode;
+        this.requireIndexedQueries = requireIndexedQueries;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        verify(findUncoveredQueries());
+    }
+
+    // Fails the boot on uncovered queries, or only warns when indexed queries are not required
+    void verify(List<String> uncovered) {
+        if (uncovered.isEmpty()) {
+            return;
+        }
+        String message = "Repository queries without a supporting index: " + String.join(", ", uncovered);
+        if (requireIndexedQueries) {
+            throw new IllegalStateException(message);
+        }
+        log.warn(message);
+    }
+
+    // Talking to Mongo happens off the startup thread so an unreachable server does not hold up the boot
+    @EventListener(ApplicationReadyEvent.class)
+    public void applyIndexes() {
+        if (mode == Mode.NONE) {
+            return;
+        }
+        Thread thread = new Thread(() -> {
+            Map<String, List<IndexDefinition>> collections = new LinkedHashMap<>();
+            for (MongoPersistentEntity<?> entity : documentEntities()) {
+                List<IndexDefinition> indexes = new ArrayList<>();
+                IndexResolver.create(mappingContext).resolveIndexFor(entity.getType()).forEach(indexes::add);
+                collections.put(entity.getCollection(), indexes);
+            }
+            for (IndexedCollection collection : applicationContext.getBeansOfType(IndexedCollection.class).values()) {
+                collections.put(collection.collection(), collection.indexes());
+            }
+            collections.forEach((collection, indexes) -> {
+                try {
+                    applyIndexes(collection, indexes);
+                } catch (RuntimeException e) {
+                    log.error("Could not {} indexes on {}", mode.name().toLowerCase(), collection, e);
+                }
+            });
+        }, "mongo-index-manager");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    // Query methods of every repository whose criteria no declared index can serve
+    List<String> findUncoveredQueries() {
+        Repositories repositories = new Repositories(applicationContext);
+        List<String> uncovered = new ArrayList<>();
+        for (Class<?> domainType : repositories) {
+            RepositoryInformation repository = repositories.getRequiredRepositoryInformation(domainType);
+            uncovered.addAll(findUncoveredQueries(repository.getRepositoryInterface(), repository.getQueryMethods(),
+                    domainType));
+        }
+        return uncovered;
+    }
+
+    List<String> findUncoveredQueries(Class<?> repositoryInterface, Iterable<Method> queryMethods, Class<?> domainType) {
+        List<List<String>> indexes = declaredIndexKeys(mappingContext.getRequiredPersistentEntity(domainType));
+        List<String> uncovered = new ArrayList<>();
+        for (Method method : queryMethods) {
+            if (AnnotatedElementUtils.hasAnnotation(method, Query.class)) {
+                continue;
+            }
+            Set<String> fields = criteriaFields(method, domainType);
+            if (!fields.isEmpty() && !isCovered(fields, indexes)) {
+                uncovered.add(repositoryInterface.getSimpleName() + "." + method.getName() + " " + fields);
+            }
+        }
+        return uncovered;
+    }
+
+    // An index serves the query when its leading key is one of the query's criteria
+    static boolean isCovered(Set<String> fields, List<List<String>> indexes) {
+        return indexes.stream().anyMatch(keys -> !keys.isEmpty() && fields.contains(keys.get(0)));
+    }
+
+    private Set<String> criteriaFields(Method method, Class<?> domainType) {
+        PartTree tree = new PartTree(method.getName(), domainType);
+        return tree.getParts().stream()
+                .map(Part::getProperty)
+                .map(path -> mappingContext.getPersistentPropertyPath(path)
+                        .toDotPath(MongoPersistentProperty::getFieldName))
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    // Key lists of every index on the entity's collection, the implicit _id index included
+    private List<List<String>> declaredIndexKeys(MongoPersistentEntity<?> entity) {
+        List<List<String>> keys = new ArrayList<>();
+        keys.add(List.of("_id"));
+        for (IndexDefinition index : IndexResolver.create(mappingContext).resolveIndexFor(entity.getType())) {
+            keys.add(List.copyOf(index.getIndexKeys().keySet()));
+        }
+        return keys;
+    }
+
+    private void applyIndexes(String collection, List<IndexDefinition> indexes) {
+        IndexOperations indexOps = mongoTemplate.indexOps(collection);
+        Map<List<String>, IndexInfo> existing = new LinkedHashMap<>();
+        for (IndexInfo info : indexOps.getIndexInfo()) {
+            existing.put(info.getIndexFields().stream().map(IndexField::getKey).toList(), info);
+        }
+
+        int created = 0;
+        List<String> missing = new ArrayList<>();
+        for (IndexDefinition index : indexes) {
+            List<String> keys = List.copyOf(index.getIndexKeys().keySet());
+            if (existing.containsKey(keys)) {
+                continue;
+            }
+            if (mode == Mode.CREATE) {
+                indexOps.createIndex(index);
+                created++;
+            } else {
+                missing.add(index.getIndexKeys().toJson());
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            log.warn("Collection {} is missing declared indexes: {}", collection, missing);
+        } else {
+            log.info("Indexes on {} verified ({} created)", collection, created);
+        }
+    }
+
+    private List<MongoPersistentEntity<?>> documentEntities() {
+        return mappingContext.getPersistentEntities().stream()
+                .filter(entity -> entity.isAnnotationPresent(Document.class))
+                .<MongoPersistentEntity<?>>map(entity -> entity)
+                .toList();
+    }
+}
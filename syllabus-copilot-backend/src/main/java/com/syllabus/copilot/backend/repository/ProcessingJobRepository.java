@@ -0,0 +1,135 @@
+package com.syllabus.copilot.backend.repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+
+import com.syllabus.copilot.backend.model.JobStatus;
+import com.syllabus.copilot.backend.model.ProcessingJob;
+
+// Lease operations on the job queue. Claims are single find-and-modify calls, so two instances never
+// get the same job; every write by a lease holder is guarded on it still owning the lease.
+@Repository
+public class ProcessingJobRepository {
+    private final MongoTemplate mongoTemplate;
+
+    public ProcessingJobRepository(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    public ProcessingJob enqueue(ProcessingJob job) {
+        return mongoTemplate.insert(job);
+    }
+
+    // Jobs for many files in one round trip
+    public void enqueueAll(List<ProcessingJob> newJobs) {
+        mongoTemplate.insert(newJobs, ProcessingJob.class);
+    }
+
+    // Leases the oldest job that is due, or empty when there is none
+    public Optional<ProcessingJob> claimNext(String owner, Instant now, Instant leaseExpiresAt) {
+        return claim(due(now), owner, leaseExpiresAt);
+    }
+
+    // Leases the oldest due job of one user
+    public Optional<ProcessingJob> claimNext(String userId, String owner, Instant now, Instant leaseExpiresAt) {
+        return claim(due(now).addCriteria(Criteria.where("userId").is(userId)), owner, leaseExpiresAt);
+    }
+
+    // Users with at least one job due
+    public List<String> findUsersWithDueJobs(Instant now) {
+        return mongoTemplate.findDistinct(due(now), "userId", ProcessingJob.class, String.class);
+    }
+
+    private Optional<ProcessingJob> claim(Query due, String owner, Instant leaseExpiresAt) {
+        Update lease = new Update()
+                .set("status", JobStatus.RUNNING)
+                .set("leaseOwner", owner)
+                .set("leaseExpiresAt", leaseExpiresAt)
+                .inc("attempts", 1);
+        return Optional.ofNullable(mongoTemplate.findAndModify(
+                due.with(Sort.by("availableAt")), lease, FindAndModifyOptions.options().returnNew(true),
+                ProcessingJob.class));
+    }
+
+    // Heartbeat for every job the owner is running; returns how many leases it still holds
+    public long extendLeases(Collection<String> ids, String owner, Instant leaseExpiresAt) {
+        return mongoTemplate.updateMulti(leased(ids, owner),
+                new Update().set("leaseExpiresAt", leaseExpiresAt),
+                ProcessingJob.class).getMatchedCount();
+    }
+
+    // A finished job is removed; false if the lease was lost in the meantime
+    public boolean complete(String id, String owner) {
+        return mongoTemplate.remove(leased(id, owner), ProcessingJob.class).getDeletedCount() == 1;
+    }
+
+    // Removes the finished jobs the owner still holds and returns them; jobs whose lease was lost are left
+    public List<ProcessingJob> completeAll(Collection<String> ids, String owner) {
+        return mongoTemplate.findAllAndRemove(leased(ids, owner), ProcessingJob.class);
+    }
+
+    // Back to the queue after a failed attempt, not claimable before availableAt
+    public boolean retry(String id, String owner, String error, Instant availableAt) {
+        return mongoTemplate.updateFirst(leased(id, owner),
+                unleased(JobStatus.QUEUED).set("availableAt", availableAt).set("lastError", error),
+                ProcessingJob.class).getMatchedCount() == 1;
+    }
+
+    // Back to the queue without counting the attempt, for a job this instance could not start
+    public boolean release(String id, String owner, Instant now) {
+        return mongoTemplate.updateFirst(leased(id, owner),
+                unleased(JobStatus.QUEUED).set("availableAt", now).inc("attempts", -1),
+                ProcessingJob.class).getMatchedCount() == 1;
+    }
+
+    // Hands every job the owner still holds back to the queue, due right away
+    public long releaseAll(Collection<String> ids, String owner, Instant now) {
+        return mongoTemplate.updateMulti(leased(ids, owner),
+                unleased(JobStatus.QUEUED).set("availableAt", now),
+                ProcessingJob.class).getModifiedCount();
+    }
+
+    public boolean fail(String id, String owner, String error) {
+        return mongoTemplate.updateFirst(leased(id, owner),
+                unleased(JobStatus.FAILED).set("lastError", error),
+                ProcessingJob.class).getMatchedCount() == 1;
+    }
+
+    // Requeues jobs whose owner stopped sending heartbeats; returns how many were reclaimed
+    public long reclaimExpired(Instant now) {
+        return mongoTemplate.updateMulti(
+                Query.query(Criteria.where("status").is(JobStatus.RUNNING).and("leaseExpiresAt").lt(now)),
+                unleased(JobStatus.QUEUED).set("availableAt", now).set("lastError", "Lease expired"),
+                ProcessingJob.class).getModifiedCount();
+    }
+
+    public long countByStatus(JobStatus status) {
+        return mongoTemplate.count(Query.query(Criteria.where("status").is(status)), ProcessingJob.class);
+    }
+
+    private static Query due(Instant now) {
+        return Query.query(Criteria.where("status").is(JobStatus.QUEUED).and("availableAt").lte(now));
+    }
+
+    private static Query leased(String id, String owner) {
+        return Query.query(Criteria.where("_id").is(id).and("status").is(JobStatus.RUNNING).and("leaseOwner").is(owner));
+    }
+
+    private static Query leased(Collection<String> ids, String owner) {
+        return Query.query(Criteria.where("_id").in(ids).and("status").is(JobStatus.RUNNING).and("leaseOwner").is(owner));
+    }
+
+    private static Update unleased(JobStatus status) {
+        return new Update().set("status", status).unset("leaseOwner").unset("leaseExpiresAt");
+    }
+}
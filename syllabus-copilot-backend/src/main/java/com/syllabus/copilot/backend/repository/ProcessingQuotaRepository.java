@@ -0,0 +1,52 @@
+package com.syllabus.copilot.backend.repository;
+
+import java.time.Instant;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+
+import com.syllabus.copilot.backend.model.ProcessingQuota;
+
+// Per-user counts of admitted syllabi. The limit check and the increment are one conditional upsert,
+// so two instances admitting uploads for the same user at once cannot both pass it.
+@Repository
+public class ProcessingQuotaRepository {
+    private final MongoTemplate mongoTemplate;
+
+    public ProcessingQuotaRepository(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    // Adds count to the user's unfinished syllabi if that keeps them within max; false otherwise
+    public boolean reserve(String userId, int count, long max, Instant expiresAt) {
+        if (count > max) {
+            return false;
+        }
+        try {
+            mongoTemplate.upsert(
+                    Query.query(Criteria.where("_id").is(userId).and("unfinished").lte(max - count)),
+                    new Update().inc("unfinished", count).set("expiresAt", expiresAt),
+                    ProcessingQuota.class);
+            return true;
+        } catch (DuplicateKeyException e) {
+            // The user's document exists but is over the limit, so the upsert tried to insert another
+            return false;
+        }
+    }
+
+    public void release(String userId, int count, Instant expiresAt) {
+        mongoTemplate.updateFirst(
+                Query.query(Criteria.where("_id").is(userId)),
+                new Update().inc("unfinished", -count).set("expiresAt", expiresAt),
+                ProcessingQuota.class);
+    }
+
+    public long unfinished(String userId) {
+        ProcessingQuota quota = mongoTemplate.findById(userId, ProcessingQuota.class);
+        return quota == null ? 0 : quota.getUnfinished();
+    }
+}
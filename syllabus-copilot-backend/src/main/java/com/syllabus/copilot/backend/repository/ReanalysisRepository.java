@@ -0,0 +1,138 @@
+package com.syllabus.copilot.backend.repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import org.bson.types.ObjectId;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+
+import com.syllabus.copilot.backend.model.ProcessingStatus;
+import com.syllabus.copilot.backend.model.ReanalysisRun;
+import com.syllabus.copilot.backend.model.ReanalysisStatus;
+import com.syllabus.copilot.backend.model.Syllabus;
+
+// Run documents of the bulk re-analysis and the keyset pages of syllabi it walks. Only the instance
+// that claimed a run writes its checkpoints; a run whose owner stopped heartbeating can be taken over.
+@Repository
+public class ReanalysisRepository {
+    private final MongoTemplate mongoTemplate;
+
+    public ReanalysisRepository(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    public Optional<ReanalysisRun> find(String id) {
+        return Optional.ofNullable(mongoTemplate.findById(id, ReanalysisRun.class));
+    }
+
+    // Marks the run RUNNING for the owner, creating it on first start; fresh also clears the checkpoint
+    // and counters. Empty while another instance holds it.
+    public Optional<ReanalysisRun> claim(String id, int analyzerVersion, String owner, Instant now,
+                                         Instant staleBefore, double maxPerSecond, boolean fresh) {
+        Query claimable = Query.query(Criteria.where("_id").is(id).orOperator(
+                Criteria.where("status").ne(ReanalysisStatus.RUNNING),
+                Criteria.where("owner").is(owner),
+                Criteria.where("heartbeatAt").lt(staleBefore)));
+        Update update = new Update()
+                .set("analyzerVersion", analyzerVersion)
+                .set("status", ReanalysisStatus.RUNNING)
+                .set("owner", owner)
+                .set("heartbeatAt", now)
+                .set("maxPerSecond", maxPerSecond)
+                .unset("finishedAt")
+                .unset("lastError");
+        if (fresh) {
+            update.unset("lastSyllabusId")
+                  .set("scanned", 0L).set("updated", 0L).set("skipped", 0L).set("failed", 0L)
+                  .set("startedAt", now);
+        } else {
+            update.setOnInsert("startedAt", now);
+        }
+        try {
+            return Optional.ofNullable(mongoTemplate.findAndModify(claimable, update,
+                    FindAndModifyOptions.options().upsert(true).returnNew(true), ReanalysisRun.class));
+        } catch (DuplicateKeyException e) {
+            // The run exists but is not claimable, so the upsert tried to insert it again
+            return Optional.empty();
+        }
+    }
+
+    public void setTotal(String id, String owner, long total) {
+        mongoTemplate.updateFirst(owned(id, owner), new Update().set("total", total), ReanalysisRun.class);
+    }
+
+    // Records a finished page and heartbeats; returns the run as it is now, or empty once it was
+    // paused or taken over, which tells the owner to stop
+    public Optional<ReanalysisRun> checkpoint(String id, String owner, String lastSyllabusId, Instant now,
+                                              int scanned, int updated, int skipped, int failed) {
+        Update update = new Update()
+                .set("lastSyllabusId", lastSyllabusId)
+                .set("heartbeatAt", now)
+                .inc("scanned", scanned)
+                .inc("updated", updated)
+                .inc("skipped", skipped)
+                .inc("failed", failed);
+        return Optional.ofNullable(mongoTemplate.findAndModify(owned(id, owner), update,
+                FindAndModifyOptions.options().returnNew(true), ReanalysisRun.class));
+    }
+
+    public void finish(String id, String owner, ReanalysisStatus status, String error, Instant now) {
+        Update update = new Update().set("status", status).set("finishedAt", now).unset("owner");
+        if (error != null) {
+            update.set("lastError", error);
+        }
+        mongoTemplate.updateFirst(owned(id, owner), update, ReanalysisRun.class);
+    }
+
+    // The owner notices at its next checkpoint
+    public Optional<ReanalysisRun> pause(String id) {
+        return Optional.ofNullable(mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(id).and("status").is(ReanalysisStatus.RUNNING)),
+                new Update().set("status", ReanalysisStatus.PAUSED).unset("owner"),
+                FindAndModifyOptions.options().returnNew(true), ReanalysisRun.class));
+    }
+
+    // Picked up by the owner at its next checkpoint
+    public Optional<ReanalysisRun> setRate(String id, double maxPerSecond) {
+        return Optional.ofNullable(mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(id)),
+                new Update().set("maxPerSecond", maxPerSecond),
+                FindAndModifyOptions.options().returnNew(true), ReanalysisRun.class));
+    }
+
+    // Next page of completed syllabi analyzed by an older analyzer, in _id order after afterId;
+    // only the fields re-analysis needs are read
+    public List<Syllabus> findOutdated(String afterId, int analyzerVersion, int limit) {
+        Query query = outdated(afterId, analyzerVersion)
+                .with(Sort.by(Sort.Direction.ASC, "_id"))
+                .limit(limit);
+        query.fields().include("_id", "userId", "courseName", "originalTextRef", "summaryModel", "version");
+        return mongoTemplate.find(query, Syllabus.class);
+    }
+
+    public long countOutdated(String afterId, int analyzerVersion) {
+        return mongoTemplate.count(outdated(afterId, analyzerVersion), Syllabus.class);
+    }
+
+    // Walks the processingStatus_id index; documents without a version are older than every version
+    private static Query outdated(String afterId, int analyzerVersion) {
+        Criteria criteria = Criteria.where("processingStatus").is(ProcessingStatus.COMPLETED)
+                .and("analyzerVersion").not().gte(analyzerVersion);
+        if (afterId != null) {
+            criteria = criteria.and("_id").gt(new ObjectId(afterId));
+        }
+        return Query.query(criteria);
+    }
+
+    private static Query owned(String id, String owner) {
+        return Query.query(Criteria.where("_id").is(id).and("status").is(ReanalysisStatus.RUNNING).and("owner").is(owner));
+    }
+}
@@ -1,14 +1,25 @@
 package com.syllabus.copilot.backend.repository;
 
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
 import com.syllabus.copilot.backend.model.ProcessingStatus;
 import com.syllabus.copilot.backend.model.Syllabus;
+import com.syllabus.copilot.backend.model.SyllabusStatusView;
+import com.syllabus.copilot.backend.model.SyllabusSummary;
+import com.syllabus.copilot.backend.model.SyllabusVersionView;
 
 public interface SyllabusRepository extends MongoRepository<Syllabus, String> {
     List<Syllabus> findByUserId(String userId);
-    List<Syllabus> findByProcessingStatus(ProcessingStatus status);
     List<Syllabus> findByUserIdAndProcessingStatus(String userId, ProcessingStatus status);
+    Optional<SyllabusStatusView> findStatusById(String id);
+    Optional<SyllabusVersionView> findVersionById(String id);
+
+    // Keyset pages of summary projections; Mongo only returns the fields SyllabusSummary declares
+    List<SyllabusSummary> findSummariesByIdGreaterThanOrderByIdAsc(String afterId, Limit limit);
+    List<SyllabusSummary> findSummariesByUserIdAndIdGreaterThanOrderByIdAsc(String userId, String afterId, Limit limit);
+    List<SyllabusSummary> findSummariesByProcessingStatusAndIdGreaterThanOrderByIdAsc(ProcessingStatus status, String afterId, Limit limit);
 }
@@ -0,0 +1,132 @@
+package com.syllabus.copilot.backend.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+
+import com.syllabus.copilot.backend.model.ProcessingStatus;
+import com.syllabus.copilot.backend.model.Syllabus;
+
+// Partial $set and bulk writes for the processing pipeline. Every status change is guarded on the
+// status the caller expects, so a document moved on (or deleted) by someone else is left alone.
+@Repository
+public class SyllabusUpdateRepository {
+    private final MongoTemplate mongoTemplate;
+
+    public SyllabusUpdateRepository(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    // Moves the status and returns the updated document, or empty if it was not in the expected status
+    public Optional<Syllabus> transitionAndGet(String id, ProcessingStatus expected, ProcessingStatus next) {
+        return Optional.ofNullable(mongoTemplate.findAndModify(
+                inStatus(id, expected),
+                versioned(new Update().set("processingStatus", next)),
+                FindAndModifyOptions.options().returnNew(true),
+                Syllabus.class));
+    }
+
+    // Moves the status and sets the given fields in the same write; false if it was not in the expected status
+    public boolean transition(String id, ProcessingStatus expected, ProcessingStatus next, Update changes) {
+        return mongoTemplate.updateFirst(
+                inStatus(id, expected),
+                versioned(changes.set("processingStatus", next)),
+                Syllabus.class).getMatchedCount() == 1;
+    }
+
+    // Status change for one syllabus within a bulk write, if it is still at the version that was read
+    public record Transition(String id, Long version, ProcessingStatus next, Update changes) {
+    }
+
+    // New syllabi in one round trip; ids and versions must already be assigned
+    public void insertAll(List<Syllabus> syllabi) {
+        mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Syllabus.class)
+                .insert(syllabi)
+                .execute();
+    }
+
+    // Applies every transition in one unordered bulk write and returns the ids of the syllabi it wrote.
+    // The bulk result only has a count, so when some were skipped the written ones are told apart by
+    // having moved to their next status at exactly the version after the one that was read.
+    public Set<String> transitionAll(List<Transition> transitions, ProcessingStatus expected) {
+        if (transitions.isEmpty()) {
+            return Set.of();
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Syllabus.class);
+        for (Transition transition : transitions) {
+            bulk.updateOne(inStatus(transition.id(), expected).addCriteria(Criteria.where("version").is(transition.version())),
+                    versioned(transition.changes().set("processingStatus", transition.next())));
+        }
+        Set<String> ids = transitions.stream().map(Transition::id).collect(Collectors.toSet());
+        if (bulk.execute().getMatchedCount() == transitions.size()) {
+            return ids;
+        }
+        Query current = Query.query(Criteria.where("_id").in(ids));
+        current.fields().include("processingStatus", "version");
+        Map<String, Syllabus> byId = mongoTemplate.find(current, Syllabus.class).stream()
+                .collect(Collectors.toMap(Syllabus::getId, Function.identity()));
+        return transitions.stream()
+                .filter(transition -> {
+                    Syllabus syllabus = byId.get(transition.id());
+                    // A document without a version gets 1 from the write's $inc
+                    long writtenVersion = (transition.version() != null ? transition.version() : 0) + 1;
+                    return syllabus != null && syllabus.getProcessingStatus() == transition.next()
+                            && syllabus.getVersion() != null && syllabus.getVersion() == writtenVersion;
+                })
+                .map(Transition::id)
+                .collect(Collectors.toSet());
+    }
+
+    // Fields to set on one syllabus within a bulk write, if it is still at the version that was read
+    public record VersionedUpdate(String id, Long version, Update changes) {
+    }
+
+    // Applies every update in one unordered bulk write, skipping syllabi that were written since they
+    // were read or left the given status; returns how many were applied
+    public int updateAllIfUnchanged(List<VersionedUpdate> versionedUpdates, ProcessingStatus status) {
+        if (versionedUpdates.isEmpty()) {
+            return 0;
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Syllabus.class);
+        for (VersionedUpdate update : versionedUpdates) {
+            // A null version matches documents written before versioning, which have no version field
+            bulk.updateOne(inStatus(update.id(), status).addCriteria(Criteria.where("version").is(update.version())),
+                    versioned(update.changes()));
+        }
+        return bulk.execute().getMatchedCount();
+    }
+
+    // Sets fields on a syllabus only while it is in the given status; no status change
+    public boolean updateIfInStatus(String id, ProcessingStatus status, Update changes) {
+        return mongoTemplate.updateFirst(inStatus(id, status), versioned(changes), Syllabus.class).getMatchedCount() == 1;
+    }
+
+    // Gives a document written before versioning its first version; false if it has one or does not exist
+    public boolean initializeVersion(String id) {
+        return mongoTemplate.updateFirst(
+                Query.query(Criteria.where("_id").is(id).and("version").exists(false)),
+                new Update().set("version", 0L),
+                Syllabus.class).getModifiedCount() == 1;
+    }
+
+    // Partial writes bypass save(), so they bump the version themselves
+    private static Update versioned(Update update) {
+        return update.inc("version", 1).set("lastModifiedDate", LocalDateTime.now());
+    }
+
+    private static Query inStatus(String id, ProcessingStatus expected) {
+        return Query.query(Criteria.where("_id").is(id).and("processingStatus").is(expected));
+    }
+}
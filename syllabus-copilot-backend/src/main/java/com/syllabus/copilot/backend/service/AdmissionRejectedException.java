@@ -0,0 +1,17 @@
+package com.syllabus.copilot.backend.service;
+
+import java.time.Duration;
+
+// The processing queue is full for this user or overall; the client should come back after retryAfter
+public class AdmissionRejectedException extends RuntimeException {
+    private final Duration retryAfter;
+
+    public AdmissionRejectedException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
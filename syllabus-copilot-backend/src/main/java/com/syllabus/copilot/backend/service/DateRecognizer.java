@@ -0,0 +1,211 @@
+package com.syllabus.copilot.backend.service;
+
+import java.time.LocalDateTime;
+import java.time.Year;
+
+// Parses dates directly from offsets into the extracted text, without substrings, split arrays
+// or boxed numbers. Results are packed as yyyymmdd ints so recognizing a date allocates nothing;
+// a LocalDateTime is only created when the value is stored on a model object.
+public final class DateRecognizer {
+    public static final int INVALID = -1;
+
+    private static final String[] MONTHS = {
+        "january", "february", "march", "april", "may", "june",
+        "july", "august", "september", "october", "november", "december"
+    };
+
+    private DateRecognizer() {
+    }
+
+    // Numeric forms (MM/DD/YYYY, MM-DD-YYYY, M/D/YY, YYYY-MM-DD) or month-name forms ("Oct 20, 2025")
+    public static int parse(CharSequence text, int start, int end) {
+        if (start >= end) {
+            return INVALID;
+        }
+        return isAsciiLetter(text.charAt(start))
+                ? parseMonthName(text, start, end)
+                : parseNumeric(text, start, end);
+    }
+
+    public static int parse(CharSequence text) {
+        return parse(text, 0, text.length());
+    }
+
+    public static LocalDateTime toDateTime(int packed) {
+        return LocalDateTime.of(year(packed), month(packed), day(packed), 0, 0);
+    }
+
+    public static int year(int packed) {
+        return packed / 10000;
+    }
+
+    public static int month(int packed) {
+        return packed / 100 % 100;
+    }
+
+    public static int day(int packed) {
+        return packed % 100;
+    }
+
+    // Returns INVALID unless the whole span is a real calendar date
+    public static int pack(int year, int month, int day) {
+        if (year < 0 || year > 9999 || month < 1 || month > 12 || day < 1) {
+            return INVALID;
+        }
+        if (day > lengthOfMonth(year, month)) {
+            return INVALID;
+        }
+        return year * 10000 + month * 100 + day;
+    }
+
+    private static int parseNumeric(CharSequence text, int start, int end) {
+        int i = start;
+
+        int first = 0;
+        int firstDigits = 0;
+        for (; i < end && isDigit(text.charAt(i)) && firstDigits < 5; i++, firstDigits++) {
+            first = first * 10 + (text.charAt(i) - '0');
+        }
+        if (firstDigits == 0 || firstDigits > 4 || i >= end) {
+            return INVALID;
+        }
+
+        char separator = text.charAt(i++);
+        if (separator != '/' && separator != '-') {
+            return INVALID;
+        }
+
+        int second = 0;
+        int secondDigits = 0;
+        for (; i < end && isDigit(text.charAt(i)) && secondDigits < 5; i++, secondDigits++) {
+            second = second * 10 + (text.charAt(i) - '0');
+        }
+        if (secondDigits == 0 || secondDigits > 4 || i >= end || text.charAt(i) != separator) {
+            return INVALID;
+        }
+        i++;
+
+        int third = 0;
+        int thirdDigits = 0;
+        for (; i < end && isDigit(text.charAt(i)) && thirdDigits < 5; i++, thirdDigits++) {
+            third = third * 10 + (text.charAt(i) - '0');
+        }
+        if (thirdDigits == 0 || thirdDigits > 4 || i != end) {
+            return INVALID;
+        }
+
+        if (firstDigits == 4) {
+            // YYYY-MM-DD
+            return pack(first, second, third);
+        }
+        // MM/DD/YYYY or MM-DD-YYYY, with 2-digit years in the 2000s
+        return pack(third < 100 ? third + 2000 : third, first, second);
+    }
+
+    // "Oct 20, 2025", "October 20 2025", "Sept. 9, 25", "Nov 3rd, 2025"
+    private static int parseMonthName(CharSequence text, int start, int end) {
+        int i = start;
+        while (i < end && isAsciiLetter(text.charAt(i))) {
+            i++;
+        }
+        int month = monthNumber(text, start, i);
+        if (month == 0) {
+            return INVALID;
+        }
+        if (i < end && text.charAt(i) == '.') {
+            i++;
+        }
+
+        int spaces = i;
+        i = skipSpaces(text, i, end);
+        if (i == spaces) {
+            return INVALID;
+        }
+
+        int day = 0;
+        int dayDigits = 0;
+        for (; i < end && isDigit(text.charAt(i)) && dayDigits < 3; i++, dayDigits++) {
+            day = day * 10 + (text.charAt(i) - '0');
+        }
+        if (dayDigits == 0 || dayDigits > 2) {
+            return INVALID;
+        }
+        i = skipOrdinalSuffix(text, i, end);
+
+        boolean comma = i < end && text.charAt(i) == ',';
+        if (comma) {
+            i++;
+        }
+        spaces = i;
+        i = skipSpaces(text, i, end);
+        if (!comma && i == spaces) {
+            return INVALID;
+        }
+
+        int year = 0;
+        int yearDigits = 0;
+        for (; i < end && isDigit(text.charAt(i)) && yearDigits < 5; i++, yearDigits++) {
+            year = year * 10 + (text.charAt(i) - '0');
+        }
+        if ((yearDigits != 2 && yearDigits != 4) || i != end) {
+            return INVALID;
+        }
+        return pack(yearDigits == 2 ? year + 2000 : year, month, day);
+    }
+
+    // 1-12 when the letters are at least the first three of a month name, otherwise 0
+    static int monthNumber(CharSequence text, int start, int end) {
+        int length = end - start;
+        if (length < 3) {
+            return 0;
+        }
+        for (int m = 0; m < MONTHS.length; m++) {
+            String name = MONTHS[m];
+            if (length > name.length()) {
+                continue;
+            }
+            boolean matches = true;
+            for (int k = 0; k < length && matches; k++) {
+                matches = (text.charAt(start + k) | 0x20) == name.charAt(k);
+            }
+            if (matches) {
+                return m + 1;
+            }
+        }
+        return 0;
+    }
+
+    private static int skipOrdinalSuffix(CharSequence text, int i, int end) {
+        if (i + 1 < end && isAsciiLetter(text.charAt(i)) && isAsciiLetter(text.charAt(i + 1))) {
+            char a = (char) (text.charAt(i) | 0x20);
+            char b = (char) (text.charAt(i + 1) | 0x20);
+            if ((a == 's' && b == 't') || (a == 'n' && b == 'd') || (a == 'r' && b == 'd') || (a == 't' && b == 'h')) {
+                return i + 2;
+            }
+        }
+        return i;
+    }
+
+    private static int skipSpaces(CharSequence text, int i, int end) {
+        while (i < end && (text.charAt(i) == ' ' || text.charAt(i) == '\t')) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        return switch (month) {
+            case 2 -> Year.isLeap(year) ? 29 : 28;
+            case 4, 6, 9, 11 -> 30;
+            default -> 31;
+        };
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isAsciiLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+}
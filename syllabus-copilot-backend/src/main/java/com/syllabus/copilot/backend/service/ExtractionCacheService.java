@@ -0,0 +1,115 @@
+package com.syllabus.copilot.backend.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import com.syllabus.copilot.backend.model.ExtractionCacheEntry;
+import com.syllabus.copilot.backend.model.ExtractionCacheStats;
+import com.syllabus.copilot.backend.model.Syllabus;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Service
+public class ExtractionCacheService {
+    private final MongoTemplate mongoTemplate;
+    private final SyllabusTextStore textStore;
+    private final long maxEntries;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public ExtractionCacheService(MongoTemplate mongoTemplate,
+                                  SyllabusTextStore textStore,
+                                  @Value("${syllabus.extraction-cache.max-entries:1000}") long maxEntries) {
+        this.mongoTemplate = mongoTemplate;
+        this.textStore = textStore;
+        this.maxEntries = maxEntries;
+    }
+
+    public Optional<ExtractionCacheEntry> lookup(String contentHash) {
+        if (contentHash == null) {
+            return Optional.empty();
+        }
+
+        // Touch the entry in the same round trip so eviction sees it as recently used.
+        // Entries from before the text store carry no textRef and are treated as misses.
+        ExtractionCacheEntry entry = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(contentHash).and("textRef").exists(true)),
+                new Update().set("lastAccessedAt", LocalDateTime.now()),
+                FindAndModifyOptions.options().returnNew(true),
+                ExtractionCacheEntry.class);
+
+        if (entry == null) {
+            misses.incrementAndGet();
+            return Optional.empty();
+        }
+        hits.incrementAndGet();
+        log.debug("Extraction cache hit for {}", contentHash);
+        return Optional.of(entry);
+    }
+
+    public void store(String contentHash, Syllabus analyzed) {
+        if (contentHash == null) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        ExtractionCacheEntry entry = new ExtractionCacheEntry();
+        entry.setContentHash(contentHash);
+        entry.setTextRef(analyzed.getOriginalTextRef());
+        entry.setTextLength(analyzed.getOriginalTextLength());
+        entry.setCourseCode(analyzed.getCourseCode());
+        entry.setInstructor(analyzed.getInstructor());
+        entry.setSemester(analyzed.getSemester());
+        entry.setDescription(analyzed.getDescription());
+        entry.setAssignments(analyzed.getAssignments());
+        entry.setExams(analyzed.getExams());
+        entry.setImportantDates(analyzed.getImportantDates());
+        entry.setAnalyzerVersion(analyzed.getAnalyzerVersion());
+        entry.setCreatedAt(now);
+        entry.setLastAccessedAt(now);
+        mongoTemplate.save(entry);
+
+        evictLeastRecentlyUsed();
+    }
+
+    public ExtractionCacheStats getStats() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        long lookups = hitCount + missCount;
+        double hitRatio = lookups == 0 ? 0.0 : (double) hitCount / lookups;
+        long entries = mongoTemplate.estimatedCount(ExtractionCacheEntry.class);
+        return new ExtractionCacheStats(hitCount, missCount, hitRatio, entries, maxEntries);
+    }
+
+    private void evictLeastRecentlyUsed() {
+        long overflow = mongoTemplate.estimatedCount(ExtractionCacheEntry.class) - maxEntries;
+        if (overflow <= 0) {
+            return;
+        }
+
+        Query oldest = new Query()
+                .with(Sort.by(Sort.Direction.ASC, "lastAccessedAt"))
+                .limit((int) Math.min(overflow, Integer.MAX_VALUE));
+        oldest.fields().include("_id", "textRef");
+        List<ExtractionCacheEntry> evicted = mongoTemplate.find(oldest, ExtractionCacheEntry.class);
+        List<String> evictedHashes = evicted.stream()
+                .map(ExtractionCacheEntry::getContentHash)
+                .toList();
+
+        mongoTemplate.remove(Query.query(Criteria.where("_id").in(evictedHashes)), ExtractionCacheEntry.class);
+        evicted.forEach(entry -> textStore.releaseIfUnreferenced(entry.getTextRef()));
+        log.debug("Evicted {} extraction cache entries", evicted.size());
+    }
+}
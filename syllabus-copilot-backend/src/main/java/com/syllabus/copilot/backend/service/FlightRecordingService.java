@@ -0,0 +1,98 @@
+package com.syllabus.copilot.backend.service;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import lombok.extern.slf4j.Slf4j;
+
+// Keeps a continuous Java Flight Recording, the syllabus events in the diagnostics package plus
+// CPU and allocation sampling, so the minutes around a pathological upload can be dumped after the
+// fact. The settings come from jfr/syllabus.jfc, which leaves out the environment and system
+// property events so a dump holds no secrets. The recording rolls over on disk, bounded by maxAge
+// and maxSize.
+@Slf4j
+@Service
+public class FlightRecordingService implements DisposableBean {
+    private final Duration maxAge;
+    private final Recording recording;
+
+    public FlightRecordingService(@Value("${syllabus.jfr.enabled:false}") boolean enabled,
+                                  @Value("${syllabus.jfr.settings:classpath:jfr/syllabus.jfc}") Resource settings,
+                                  @Value("${syllabus.jfr.max-age:30m}") Duration maxAge,
+                                  @Value("${syllabus.jfr.max-size:250MB}") DataSize maxSize) {
+        this.maxAge = maxAge;
+        this.recording = enabled ? start(settings, maxAge, maxSize) : null;
+    }
+
+    private static Recording start(Resource settings, Duration maxAge, DataSize maxSize) {
+        if (!FlightRecorder.isAvailable()) {
+            log.warn("Java Flight Recorder is not available in this JVM, recordings cannot be dumped");
+            return null;
+        }
+        try (Reader reader = new InputStreamReader(settings.getInputStream(), StandardCharsets.UTF_8)) {
+            Recording recording = new Recording(Configuration.create(reader));
+            recording.setName("syllabus-continuous");
+            recording.setToDisk(true);
+            recording.setMaxAge(maxAge);
+            recording.setMaxSize(maxSize.toBytes());
+            recording.start();
+            log.info("Continuous flight recording started with the {} settings, keeping {}", settings.getFilename(), maxAge);
+            return recording;
+        } catch (IOException | ParseException | IllegalStateException e) {
+            log.warn("Could not start the continuous flight recording: {}", e.toString());
+            return null;
+        }
+    }
+
+    public boolean isRecording() {
+        return recording != null;
+    }
+
+    public Duration getMaxAge() {
+        return maxAge;
+    }
+
+    // Writes the last window of the recording to a temporary .jfr file that the caller deletes.
+    // Recordings are kept in whole chunks, so the file can reach back a little further than asked.
+    // Only this recording is copied, not a snapshot of every recording running in the JVM.
+    public Path dump(Duration window) throws IOException {
+        if (recording == null) {
+            throw new IllegalStateException("Flight recording is not running");
+        }
+        if (window.isZero() || window.isNegative() || window.compareTo(maxAge) > 0) {
+            throw new IllegalArgumentException("The window must be positive and at most " + maxAge.toMinutes() + " minutes");
+        }
+
+        Path file = Files.createTempFile("syllabus-recording-", ".jfr");
+        try (Recording copy = recording.copy(true)) {
+            copy.setMaxAge(window);
+            copy.dump(file);
+            return file;
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (recording != null) {
+            recording.close();
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package com.syllabus.copilot.backend.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.syllabus.copilot.backend.model.LlmResponseCacheEntry;
+import com.syllabus.copilot.backend.model.LlmStats;
+import com.syllabus.copilot.backend.model.StudyPlan;
+import com.theokanning.openai.client.OpenAiApi;
+import com.theokanning.openai.completion.chat.ChatCompletionRequest;
+import com.theokanning.openai.completion.chat.ChatCompletionResult;
+import com.theokanning.openai.completion.chat.ChatMessage;
+import com.theokanning.openai.completion.chat.ChatMessageRole;
+import com.theokanning.openai.service.OpenAiService;
+
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.OkHttpClient;
+import retrofit2.Retrofit;
+
+// Chat-completion client for course summaries and study plans. Answers are cached in Mongo by the
+// hash of the model and prompt, at most maxConcurrentRequests calls are in flight, and every call is
+// bounded by the timeout. Any failure returns empty so callers keep the heuristic summary.
+@Slf4j
+@Service
+public class LlmSummaryClient {
+    static final String SYSTEM_PROMPT = """
+            You summarize university course syllabi for students. Answer with a single JSON object and \
+            nothing else, using these fields: "summary" (at most 120 words), "overallStrategy" (one or two \
+            sentences), "difficultyAssessment" (Easy, Moderate or Hard), "estimatedStudyHours" (integer, \
+            whole semester) and "recommendedResources" (array of short strings).""";
+
+    private final MongoTemplate mongoTemplate;
+    private final ObjectMapper objectMapper;
+    private final OpenAiService openAi;
+    private final boolean enabled;
+    private final String model;
+    private final Duration timeout;
+    private final int maxConcurrentRequests;
+    private final int maxPromptChars;
+    private final Semaphore permits;
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder generated = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder totalLatencyMillis = new LongAdder();
+
+    // A generated summary and the study plan that goes with it
+    public record GeneratedSummary(String summary, StudyPlan studyPlan, String model) {
+    }
+
+    public LlmSummaryClient(MongoTemplate mongoTemplate,
+                            ObjectMapper objectMapper,
+                            @Value("${syllabus.llm.enabled:false}") boolean enabled,
+                            @Value("${openai.api.key:}") String apiKey,
+                            @Value("${openai.model:gpt-4}") String model,
+                            @Value("${syllabus.llm.base-url:https://api.openai.com/}") String baseUrl,
+                            @Value("${syllabus.llm.timeout:20s}") Duration timeout,
+                            @Value("${syllabus.llm.max-concurrent-requests:4}") int maxConcurrentRequests,
+                            @Value("${syllabus.llm.max-prompt-chars:12000}") int maxPromptChars) {
+        this.mongoTemplate = mongoTemplate;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.model = model;
+        this.timeout = timeout;
+        this.maxConcurrentRequests = maxConcurrentRequests;
+        this.maxPromptChars = maxPromptChars;
+        this.permits = new Semaphore(maxConcurrentRequests);
+        this.openAi = enabled ? openAiService(apiKey, baseUrl, timeout) : null;
+    }
+
+    // The library only knows the public endpoint; the base URL is swapped so the local stub can stand in
+    private static OpenAiService openAiService(String apiKey, String baseUrl, Duration timeout) {
+        OkHttpClient client = OpenAiService.defaultClient(apiKey, timeout).newBuilder()
+                .callTimeout(timeout)
+                .build();
+        Retrofit retrofit = OpenAiService.defaultRetrofit(client, OpenAiService.defaultObjectMapper()).newBuilder()
+                .baseUrl(baseUrl.endsWith("/") ? baseUrl : baseUrl + "/")
+                .build();
+        return new OpenAiService(retrofit.create(OpenAiApi.class));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Optional<GeneratedSummary> generate(String courseName, String text) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        requests.increment();
+        String prompt = userPrompt(courseName, text);
+        String promptHash = promptHash(model, prompt);
+
+        LlmResponseCacheEntry cached = mongoTemplate.findById(promptHash, LlmResponseCacheEntry.class);
+        if (cached != null) {
+            cacheHits.increment();
+            return Optional.of(new GeneratedSummary(cached.getSummary(), cached.getStudyPlan(), cached.getModel()));
+        }
+
+        Optional<GeneratedSummary> answer = call(prompt);
+        answer.ifPresent(generatedSummary -> cache(promptHash, generatedSummary));
+        return answer;
+    }
+
+    private Optional<GeneratedSummary> call(String prompt) {
+        try {
+            if (!permits.tryAcquire(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                rejected.increment();
+                log.warn("No LLM request slot within {}, keeping the heuristic summary", timeout);
+                return Optional.empty();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        }
+
+        long started = System.nanoTime();
+        try {
+            ChatCompletionRequest request = ChatCompletionRequest.builder()
+                    .model(model)
+                    .messages(List.of(
+                            new ChatMessage(ChatMessageRole.SYSTEM.value(), SYSTEM_PROMPT),
+                            new ChatMessage(ChatMessageRole.USER.value(), prompt)))
+                    .temperature(0.2)
+                    .build();
+            ChatCompletionResult result = openAi.createChatCompletion(request);
+            if (result.getChoices() == null || result.getChoices().isEmpty()) {
+                throw new IllegalStateException("no choices in the response");
+            }
+            Optional<GeneratedSummary> answer = parse(result.getChoices().get(0).getMessage().getContent(), model);
+            if (answer.isEmpty()) {
+                failures.increment();
+                log.warn("LLM answer could not be parsed, keeping the heuristic summary");
+            } else {
+                generated.increment();
+            }
+            return answer;
+        } catch (RuntimeException e) {
+            // Timeouts surface as RuntimeExceptions wrapping SocketTimeoutException or InterruptedIOException
+            failures.increment();
+            log.warn("LLM request failed, keeping the heuristic summary: {}", e.toString());
+            return Optional.empty();
+        } finally {
+            totalLatencyMillis.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+            permits.release();
+        }
+    }
+
+    private void cache(String promptHash, GeneratedSummary answer) {
+        try {
+            mongoTemplate.save(new LlmResponseCacheEntry(
+                    promptHash, answer.model(), answer.summary(), answer.studyPlan(), LocalDateTime.now()));
+        } catch (RuntimeException e) {
+            log.warn("Could not cache LLM answer {}: {}", promptHash, e.getMessage());
+        }
+    }
+
+    String userPrompt(String courseName, String text) {
+        String body = text.length() > maxPromptChars ? text.substring(0, maxPromptChars) : text;
+        return "Course: " + courseName + "\n\nSyllabus text:\n" + body;
+    }
+
+    static String promptHash(String model, String prompt) {
+        MessageDigest digest = SyllabusService.newContentDigest();
+        digest.update(model.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update(SYSTEM_PROMPT.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update(prompt.getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    // The model is asked for bare JSON but sometimes wraps it in a code fence
+    Optional<GeneratedSummary> parse(String content, String answeredBy) {
+        if (content == null) {
+            return Optional.empty();
+        }
+        String json = content.strip();
+        if (json.startsWith("```")) {
+            json = json.substring(json.indexOf('\n') + 1);
+            int fence = json.lastIndexOf("```");
+            json = fence >= 0 ? json.substring(0, fence) : json;
+        }
+        try {
+            JsonNode node = objectMapper.readTree(json);
+            String summary = node.path("summary").asText(null);
+            if (summary == null || summary.isBlank()) {
+                return Optional.empty();
+            }
+            StudyPlan plan = new StudyPlan();
+            plan.setOverallStrategy(node.path("overallStrategy").asText(null));
+            plan.setDifficultyAssessment(node.path("difficultyAssessment").asText(null));
+            plan.setEstimatedStudyHours(node.hasNonNull("estimatedStudyHours") ? node.get("estimatedStudyHours").asInt() : null);
+            List<String> resources = new ArrayList<>();
+            node.path("recommendedResources").forEach(resource -> resources.add(resource.asText()));
+            plan.setRecommendedResources(resources);
+            plan.setGeneratedAt(LocalDateTime.now());
+            return Optional.of(new GeneratedSummary(summary.strip(), plan, answeredBy));
+        } catch (JsonProcessingException e) {
+            return Optional.empty();
+        }
+    }
+
+    public LlmStats getStats() {
+        long calls = generated.sum() + failures.sum();
+        return new LlmStats(
+                enabled,
+                model,
+                requests.sum(),
+                cacheHits.sum(),
+                generated.sum(),
+                failures.sum(),
+                rejected.sum(),
+                maxConcurrentRequests - permits.availablePermits(),
+                calls == 0 ? 0 : (double) totalLatencyMillis.sum() / calls);
+    }
+
+    void recordRejected() {
+        rejected.increment();
+    }
+}
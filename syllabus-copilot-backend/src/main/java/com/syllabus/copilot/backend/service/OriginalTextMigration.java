@@ -0,0 +1,112 @@
+package com.syllabus.copilot.backend.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import com.syllabus.copilot.backend.model.ExtractionCacheEntry;
+import com.syllabus.copilot.backend.model.Syllabus;
+
+import lombok.extern.slf4j.Slf4j;
+
+// Moves originalText stored inline on older syllabus documents into SyllabusTextStore, a batch at a time
+@Slf4j
+@Component
+public class OriginalTextMigration {
+    private static final String INLINE_TEXT = "originalText";
+
+    private final MongoTemplate mongoTemplate;
+    private final SyllabusTextStore textStore;
+    private final boolean migrateOnStartup;
+    private final int batchSize;
+
+    public OriginalTextMigration(MongoTemplate mongoTemplate,
+                                 SyllabusTextStore textStore,
+                                 @Value("${syllabus.text-store.migrate-on-startup:false}") boolean migrateOnStartup,
+                                 @Value("${syllabus.text-store.migration-batch-size:100}") int batchSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.textStore = textStore;
+        this.migrateOnStartup = migrateOnStartup;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    // Runs off the startup thread so a large collection does not hold up the application
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateOnStartup() {
+        if (!migrateOnStartup) {
+            return;
+        }
+        Thread thread = new Thread(() -> {
+            try {
+                migrate();
+            } catch (RuntimeException e) {
+                log.error("Original text migration failed", e);
+            }
+        }, "original-text-migration");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    // Returns the number of syllabi migrated; safe to re-run, migrated documents no longer match
+    public long migrate() {
+        String collection = mongoTemplate.getCollectionName(Syllabus.class);
+        long migrated = 0;
+        List<Document> batch;
+        do {
+            Query pending = Query.query(Criteria.where(INLINE_TEXT).exists(true))
+                    .with(Sort.by(Sort.Direction.ASC, "_id"))
+                    .limit(batchSize);
+            pending.fields().include("_id", INLINE_TEXT);
+            batch = mongoTemplate.find(pending, Document.class, collection);
+
+            for (Document document : batch) {
+                Object text = document.get(INLINE_TEXT);
+                Update update = new Update().unset(INLINE_TEXT)
+                        .inc("version", 1)
+                        .set("lastModifiedDate", LocalDateTime.now());
+                String textRef = null;
+                if (text instanceof String inline) {
+                    textRef = textStore.store(inline);
+                    update.set("originalTextRef", textRef)
+                          .set("originalTextLength", inline.length());
+                }
+                try {
+                    mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(document.get("_id"))),
+                            update, collection);
+                } finally {
+                    textStore.unpin(textRef);
+                }
+            }
+            migrated += batch.size();
+            if (!batch.isEmpty()) {
+                log.info("Migrated original text of {} syllabi so far", migrated);
+            }
+        } while (batch.size() == batchSize);
+
+        // Cache entries with inline text are re-extracted on their next hit; drop them
+        long dropped = mongoTemplate.remove(Query.query(Criteria.where("extractedText").exists(true)),
+                ExtractionCacheEntry.class).getDeletedCount();
+        log.info("Original text migration finished: {} syllabi migrated, {} cache entries dropped",
+                migrated, dropped);
+        return migrated;
+    }
+
+    // Inline text of a syllabus that has not been migrated yet
+    public Optional<String> readInlineText(String syllabusId) {
+        Query query = Query.query(Criteria.where("_id").is(syllabusId).and(INLINE_TEXT).exists(true));
+        query.fields().include(INLINE_TEXT);
+        Document document = mongoTemplate.findOne(query, Document.class, mongoTemplate.getCollectionName(Syllabus.class));
+        return Optional.ofNullable(document).map(found -> found.getString(INLINE_TEXT));
+    }
+}
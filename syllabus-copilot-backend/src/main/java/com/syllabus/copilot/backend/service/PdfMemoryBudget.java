@@ -0,0 +1,72 @@
+package com.syllabus.copilot.backend.service;
+
+import java.util.Optional;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import lombok.extern.slf4j.Slf4j;
+
+// Caps the bytes of PDF parse state that may be live across all concurrent extractions
+@Slf4j
+@Component
+public class PdfMemoryBudget {
+    private static final long BYTES_PER_PERMIT = 1024;
+
+    private final Semaphore permits;
+    private final int totalPermits;
+
+    public PdfMemoryBudget(@Value("${syllabus.pdf.memory-budget:256MB}") DataSize budget) {
+        this.totalPermits = (int) Math.max(1, Math.min(Integer.MAX_VALUE, budget.toBytes() / BYTES_PER_PERMIT));
+        this.permits = new Semaphore(totalPermits, true);
+    }
+
+    // Blocks until the bytes are available. A request larger than the whole budget
+    // is clamped so a single oversized document can still run on its own.
+    public Reservation reserve(long bytes) throws InterruptedException {
+        int needed = toPermits(bytes);
+        if (!permits.tryAcquire(needed)) {
+            log.debug("Waiting for {} KB of PDF memory budget ({} KB free)", needed, permits.availablePermits());
+            permits.acquire(needed);
+        }
+        return new Reservation(needed);
+    }
+
+    // Non-blocking variant for optional extra work such as parallel page ranges
+    public Optional<Reservation> tryReserve(long bytes) {
+        int needed = toPermits(bytes);
+        return permits.tryAcquire(needed) ? Optional.of(new Reservation(needed)) : Optional.empty();
+    }
+
+    public long availableBytes() {
+        return permits.availablePermits() * BYTES_PER_PERMIT;
+    }
+
+    public long totalBytes() {
+        return totalPermits * BYTES_PER_PERMIT;
+    }
+
+    private int toPermits(long bytes) {
+        long needed = (bytes + BYTES_PER_PERMIT - 1) / BYTES_PER_PERMIT;
+        return (int) Math.max(1, Math.min(totalPermits, needed));
+    }
+
+    public final class Reservation implements AutoCloseable {
+        private final int reserved;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Reservation(int reserved) {
+            this.reserved = reserved;
+        }
+
+        @Override
+        public void close() {
+            if (released.compareAndSet(false, true)) {
+                permits.release(reserved);
+            }
+        }
+    }
+}
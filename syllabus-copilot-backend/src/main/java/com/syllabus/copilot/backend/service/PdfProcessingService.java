@@ -1,18 +1,55 @@
 package com.syllabus.copilot.backend.service;
 
+import org.apache.pdfbox.io.MemoryUsageSetting;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.text.PDFTextStripper;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.syllabus.copilot.backend.diagnostics.PageRangeStripEvent;
+import com.syllabus.copilot.backend.diagnostics.PdfLoadEvent;
+
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @Slf4j
 @Service
 public class PdfProcessingService {
+    private final ForkJoinPool extractionPool;
+    private final PdfMemoryBudget memoryBudget;
+    private final boolean parallelExtraction;
+    private final int minPagesPerRange;
+    private final long scratchMemoryPerDocument;
+    private final File scratchDir;
+
+    public PdfProcessingService(@Qualifier("pdfExtractionPool") ForkJoinPool extractionPool,
+                                PdfMemoryBudget memoryBudget,
+                                @Value("${syllabus.pdf.parallel-extraction:true}") boolean parallelExtraction,
+                                @Value("${syllabus.pdf.min-pages-per-range:8}") int minPagesPerRange,
+                                @Value("${syllabus.pdf.scratch-memory-per-document:8MB}") DataSize scratchMemoryPerDocument,
+                                @Value("${syllabus.pdf.scratch-dir:}") String scratchDir) {
+        this.extractionPool = extractionPool;
+        this.memoryBudget = memoryBudget;
+        this.parallelExtraction = parallelExtraction;
+        this.minPagesPerRange = Math.max(1, minPagesPerRange);
+        this.scratchMemoryPerDocument = scratchMemoryPerDocument.toBytes();
+        this.scratchDir = scratchDir.isBlank() ? null : new File(scratchDir);
+    }
 
     public String extractTextFromPdf(MultipartFile file) throws IOException {
         if (file.isEmpty()) {
@@ -23,27 +60,202 @@ public class PdfProcessingService {
             throw new IllegalArgumentException("File is not a PDF");
         }
 
-        try (InputStream inputStream = file.getInputStream();
-             PDDocument document = PDDocument.load(inputStream)) {
-            
-            PDFTextStripper pdfStripper = new PDFTextStripper();
-            String text = pdfStripper.getText(document);
-            
-            log.info("Successfully extracted text from PDF: {} ({} characters)", 
-                    file.getOriginalFilename(), text.length());
-            
-            return text;
+        Path spooled;
+        try (InputStream inputStream = file.getInputStream()) {
+            spooled = spoolToTempFile(inputStream);
+        }
+        try {
+            return extractTextFromPdf(spooled, file.getOriginalFilename());
+        } finally {
+            Files.deleteIfExists(spooled);
+        }
+    }
+
+    // Copies an upload to a scratch file so it never has to sit on the heap as a whole
+    public Path spoolToTempFile(InputStream inputStream) throws IOException {
+        Path spooled = scratchDir != null
+                ? Files.createTempFile(scratchDir.toPath(), "syllabus-upload-", ".pdf")
+                : Files.createTempFile("syllabus-upload-", ".pdf");
+        try {
+            Files.copy(inputStream, spooled, StandardCopyOption.REPLACE_EXISTING);
+            return spooled;
+        } catch (IOException e) {
+            Files.deleteIfExists(spooled);
+            throw e;
+        }
+    }
+
+    // Extracted text and the number of pages it came from
+    public record PdfText(String text, int pageCount) {
+    }
+
+    public String extractTextFromPdf(Path pdfFile, String fileName) throws IOException {
+        return extract(pdfFile, fileName).text();
+    }
+
+    public PdfText extract(Path pdfFile, String fileName) throws IOException {
+        return extract(pdfFile, fileName, null);
+    }
+
+    // The syllabus id only labels the flight recorder events
+    public PdfText extract(Path pdfFile, String fileName, String syllabusId) throws IOException {
+        long fileSize = Files.size(pdfFile);
+        if (fileSize == 0) {
+            throw new IllegalArgumentException("File is empty");
+        }
+
+        // Parsed objects are roughly proportional to the file; scratch buffers beyond
+        // the in-memory allowance spill to disk
+        long documentCost = fileSize + scratchMemoryPerDocument;
+
+        try (PdfMemoryBudget.Reservation reservation = reserve(documentCost);
+             PDDocument document = openDocument(pdfFile, fileName, syllabusId, false)) {
+            int pageCount = document.getNumberOfPages();
+            int ranges = rangeCount(pageCount);
+
+            // Extra ranges each open their own copy; only fan out if the budget allows it now
+            PdfMemoryBudget.Reservation rangeReservation = null;
+            if (ranges > 1) {
+                rangeReservation = memoryBudget.tryReserve(documentCost * (ranges - 1)).orElse(null);
+                if (rangeReservation == null) {
+                    log.debug("Memory budget exhausted, extracting {} on a single thread", fileName);
+                    ranges = 1;
+                }
+            }
+
+            String text;
+            try (PdfMemoryBudget.Reservation extra = rangeReservation) {
+                text = ranges > 1
+                        ? extractPageRanges(document, pdfFile, fileName, syllabusId, pageCount, ranges)
+                        : stripPages(document, syllabusId, 1, pageCount);
+            }
+
+            log.info("Successfully extracted text from PDF: {} ({} pages in {} range(s), {} characters)",
+                    fileName, pageCount, ranges, text.length());
+
+            return new PdfText(text, pageCount);
         } catch (IOException e) {
-            log.error("Error processing PDF file: {}", file.getOriginalFilename(), e);
+            log.error("Error processing PDF file: {}", fileName, e);
             throw new IOException("Failed to process PDF file: " + e.getMessage());
         }
     }
 
+    // Number of page ranges to extract in parallel; 1 means the single-threaded path
+    int rangeCount(int pageCount) {
+        if (!parallelExtraction) {
+            return 1;
+        }
+        return Math.max(1, Math.min(extractionPool.getParallelism(), pageCount / minPagesPerRange));
+    }
+
+    private String extractPageRanges(PDDocument document, Path pdfFile, String fileName, String syllabusId,
+                                     int pageCount, int ranges) throws IOException {
+        // PDDocument is not thread-safe, so every forked range parses its own copy.
+        // The first range reuses the document already open on this thread.
+        AtomicBoolean abandoned = new AtomicBoolean();
+        List<ForkJoinTask<String>> forked = new ArrayList<>(ranges - 1);
+        for (int i = 1; i < ranges; i++) {
+            int startPage = firstPageOfRange(i, pageCount, ranges);
+            int endPage = firstPageOfRange(i + 1, pageCount, ranges) - 1;
+            forked.add(extractionPool.submit(() -> abandoned.get()
+                    ? ""
+                    : extractPageRange(pdfFile, fileName, syllabusId, startPage, endPage)));
+        }
+
+        boolean joined = false;
+        try {
+            StringBuilder text = new StringBuilder(stripPages(document, syllabusId, 1, firstPageOfRange(1, pageCount, ranges) - 1));
+            // Join in page order so the result matches a single getText over the whole document
+            for (ForkJoinTask<String> range : forked) {
+                text.append(range.get());
+            }
+            joined = true;
+            return text.toString();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while extracting page ranges", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException("Page range extraction failed: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            if (!joined) {
+                // Cancelling does not stop a range that is already parsing, and its copy is paid for by the
+                // caller's memory reservation; ranges not started yet are skipped, the rest are waited out
+                abandoned.set(true);
+                forked.forEach(ForkJoinTask::quietlyJoin);
+            }
+        }
+    }
+
+    private String extractPageRange(Path pdfFile, String fileName, String syllabusId, int startPage, int endPage)
+            throws IOException {
+        try (PDDocument document = openDocument(pdfFile, fileName, syllabusId, true)) {
+            return stripPages(document, syllabusId, startPage, endPage);
+        }
+    }
+
+    // Reads through a random-access file with bounded in-memory scratch, spilling to scratch files
+    private PDDocument openDocument(Path pdfFile, String fileName, String syllabusId, boolean rangeCopy)
+            throws IOException {
+        MemoryUsageSetting memoryUsage = MemoryUsageSetting.setupMixed(scratchMemoryPerDocument);
+        if (scratchDir != null) {
+            memoryUsage.setTempDir(scratchDir);
+        }
+        PdfLoadEvent event = new PdfLoadEvent();
+        event.begin();
+        PDDocument document = PDDocument.load(pdfFile.toFile(), memoryUsage);
+        event.end();
+        if (event.shouldCommit()) {
+            event.syllabusId = syllabusId;
+            event.fileName = fileName;
+            event.bytes = Files.size(pdfFile);
+            event.pageCount = document.getNumberOfPages();
+            event.rangeCopy = rangeCopy;
+            event.commit();
+        }
+        return document;
+    }
+
+    private PdfMemoryBudget.Reservation reserve(long bytes) throws IOException {
+        try {
+            return memoryBudget.reserve(bytes);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for PDF memory budget", e);
+        }
+    }
+
+    private static String stripPages(PDDocument document, String syllabusId, int startPage, int endPage)
+            throws IOException {
+        PageRangeStripEvent event = new PageRangeStripEvent();
+        event.begin();
+        PDFTextStripper pdfStripper = new PDFTextStripper();
+        pdfStripper.setStartPage(startPage);
+        pdfStripper.setEndPage(endPage);
+        String text = pdfStripper.getText(document);
+        event.end();
+        if (event.shouldCommit()) {
+            event.syllabusId = syllabusId;
+            event.startPage = startPage;
+            event.endPage = endPage;
+            event.characters = text.length();
+            event.commit();
+        }
+        return text;
+    }
+
+    // 1-based first page of the given range when pageCount pages are split into evenly sized ranges
+    private static int firstPageOfRange(int range, int pageCount, int ranges) {
+        return 1 + (int) ((long) range * pageCount / ranges);
+    }
+
     private boolean isPdfFile(MultipartFile file) {
         String contentType = file.getContentType();
         String fileName = file.getOriginalFilename();
-        
-        return "application/pdf".equals(contentType) || 
+
+        return "application/pdf".equals(contentType) ||
                (fileName != null && fileName.toLowerCase().endsWith(".pdf"));
     }
 
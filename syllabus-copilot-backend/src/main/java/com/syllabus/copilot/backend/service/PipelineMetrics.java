@@ -0,0 +1,154 @@
+package com.syllabus.copilot.backend.service;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Component;
+
+import com.syllabus.copilot.backend.model.ProcessingStatus;
+import com.syllabus.copilot.backend.model.ProgressEvent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+// Micrometer meters for the processing pipeline: a latency histogram per stage and per extraction
+// rule, size distributions of the PDFs and their text, and a count of every status syllabi enter.
+// All meters are registered up front, so recording never looks anything up in the registry.
+@Component
+public class PipelineMetrics {
+    public enum Stage {
+        VALIDATE,
+        STORE_UPLOAD,
+        SAVE_PENDING,
+        ENQUEUE,
+        CLAIM,
+        CACHE_LOOKUP,
+        EXTRACT_TEXT,
+        EXTRACT_RULES,
+        SUMMARY,
+        STORE_TEXT,
+        CACHE_STORE,
+        SAVE_RESULTS,
+        MARK_FAILED,
+        BULK_INSERT,
+        BULK_WRITE
+    }
+
+    // How processSyllabusFile ended; RETRY is a Mongo failure handed back to the job queue, DISCARDED
+    // means the syllabus was deleted or left PROCESSING before its results could be saved
+    public enum Outcome {
+        COMPLETED,
+        FAILED,
+        RETRY,
+        DISCARDED
+    }
+
+    private final Map<Stage, Timer> stages = new EnumMap<>(Stage.class);
+    private final Map<Outcome, Timer> outcomes = new EnumMap<>(Outcome.class);
+    private final Map<ProcessingStatus, Counter> statuses = new EnumMap<>(ProcessingStatus.class);
+    private final Timer[] rules;
+    private final DistributionSummary pdfBytes;
+    private final DistributionSummary pageCount;
+    private final DistributionSummary characterCount;
+
+    public PipelineMetrics(MeterRegistry registry, ProgressEventBus progressEvents) {
+        for (Stage stage : Stage.values()) {
+            stages.put(stage, Timer.builder("syllabus.processing.stage")
+                    .description("Time spent in one stage of syllabus processing")
+                    .tag("stage", tag(stage))
+                    .publishPercentileHistogram()
+                    .register(registry));
+        }
+        for (Outcome outcome : Outcome.values()) {
+            outcomes.put(outcome, Timer.builder("syllabus.processing.duration")
+                    .description("Time from claiming a syllabus to its result being written")
+                    .tag("outcome", tag(outcome))
+                    .publishPercentileHistogram()
+                    .register(registry));
+        }
+        for (ProcessingStatus status : ProcessingStatus.values()) {
+            statuses.put(status, Counter.builder("syllabus.processing.status")
+                    .description("Syllabi entering each processing status")
+                    .tag("status", tag(status))
+                    .register(registry));
+        }
+
+        List<String> ruleNames = SyllabusExtractionEngine.ruleNames();
+        rules = new Timer[ruleNames.size()];
+        for (int i = 0; i < rules.length; i++) {
+            rules[i] = Timer.builder("syllabus.processing.rule")
+                    .description("Time spent matching one extraction rule over a syllabus")
+                    .tag("rule", ruleNames.get(i))
+                    .publishPercentileHistogram()
+                    .register(registry);
+        }
+
+        pdfBytes = DistributionSummary.builder("syllabus.pdf.size")
+                .description("Size of processed PDFs")
+                .baseUnit("bytes")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(1024.0)
+                .maximumExpectedValue(10.0 * 1024 * 1024)
+                .register(registry);
+        pageCount = DistributionSummary.builder("syllabus.pdf.pages")
+                .description("Pages per processed PDF")
+                .baseUnit("pages")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(1.0)
+                .maximumExpectedValue(2000.0)
+                .register(registry);
+        characterCount = DistributionSummary.builder("syllabus.text.characters")
+                .description("Characters of text extracted per PDF")
+                .baseUnit("characters")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(100.0)
+                .maximumExpectedValue(10_000_000.0)
+                .register(registry);
+
+        // Progress events mark every status change, wherever in the pipeline it happens
+        progressEvents.subscribeToAll(this::countStatus);
+    }
+
+    // Records the time since startedNanos, a System.nanoTime() reading, against the stage
+    public void stage(Stage stage, long startedNanos) {
+        stages.get(stage).record(System.nanoTime() - startedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void processed(Outcome outcome, long startedNanos) {
+        outcomes.get(outcome).record(System.nanoTime() - startedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void rules(SyllabusExtractionEngine.Trace trace) {
+        for (int i = 0; i < rules.length; i++) {
+            rules[i].record(trace.nanos(i), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void extracted(long bytes, int pages, int characters) {
+        pdfBytes.record(bytes);
+        pageCount.record(pages);
+        characterCount.record(characters);
+    }
+
+    private void countStatus(ProgressEvent event) {
+        ProcessingStatus status = switch (event.getStage()) {
+            case RECEIVED -> ProcessingStatus.PENDING;
+            case PROCESSING -> ProcessingStatus.PROCESSING;
+            case SAVED -> ProcessingStatus.COMPLETED;
+            case FAILED -> ProcessingStatus.FAILED;
+            default -> null;
+        };
+        if (status != null) {
+            statuses.get(status).increment();
+        }
+    }
+
+    private static String tag(Enum<?> value) {
+        return value.name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,197 @@
+package com.syllabus.copilot.backend.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import com.syllabus.copilot.backend.model.AdmissionStats;
+import com.syllabus.copilot.backend.model.JobStatus;
+import com.syllabus.copilot.backend.repository.ProcessingJobRepository;
+import com.syllabus.copilot.backend.repository.ProcessingQuotaRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+// Admission control in front of PDF processing. Uploads are refused once a user, or the queue as a
+// whole, has too much waiting; parses are capped by CPU cores and by how many parse states fit in the heap.
+// Every admitted syllabus holds a slot of its user's quota until its job finishes. Queue depth, wait
+// and parse times are published as syllabus.admission.* meters.
+@Slf4j
+@Service
+public class ProcessingAdmission {
+    private static final Duration MIN_RETRY_AFTER = Duration.ofSeconds(1);
+    private static final Duration MAX_RETRY_AFTER = Duration.ofMinutes(10);
+    private static final long ASSUMED_PARSE_MILLIS = 5000;
+
+    private final ProcessingJobRepository jobs;
+    private final ProcessingQuotaRepository quotas;
+    private final int maxConcurrentParses;
+    private final Semaphore parses;
+    private final long maxQueued;
+    private final long maxQueuedPerUser;
+    private final Duration quotaIdleExpiry;
+
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder dispatched = new LongAdder();
+    private final LongAdder totalWaitMillis = new LongAdder();
+    private final AtomicLong maxWaitMillis = new AtomicLong();
+    private final LongAdder parsesTimed = new LongAdder();
+    private final LongAdder totalParseMillis = new LongAdder();
+
+    private final Counter admittedMeter;
+    private final Counter rejectedMeter;
+    private final Timer waitMeter;
+    private final Timer parseMeter;
+
+    public ProcessingAdmission(ProcessingJobRepository jobs,
+                               ProcessingQuotaRepository quotas,
+                               MeterRegistry registry,
+                               @Value("${syllabus.admission.max-concurrent-parses:0}") int maxConcurrentParses,
+                               @Value("${syllabus.admission.heap-per-parse:64MB}") DataSize heapPerParse,
+                               @Value("${syllabus.admission.max-queued:1000}") long maxQueued,
+                               @Value("${syllabus.admission.max-queued-per-user:20}") long maxQueuedPerUser,
+                               @Value("${syllabus.admission.quota-idle-expiry:1d}") Duration quotaIdleExpiry) {
+        this.jobs = jobs;
+        this.quotas = quotas;
+        this.maxConcurrentParses = maxConcurrentParses > 0
+                ? maxConcurrentParses
+                : defaultConcurrency(Runtime.getRuntime().availableProcessors(), Runtime.getRuntime().maxMemory(),
+                        heapPerParse.toBytes());
+        this.parses = new Semaphore(this.maxConcurrentParses, true);
+        this.maxQueued = maxQueued;
+        this.maxQueuedPerUser = maxQueuedPerUser;
+        this.quotaIdleExpiry = quotaIdleExpiry;
+
+        Gauge.builder("syllabus.admission.queued", jobs, repository -> repository.countByStatus(JobStatus.QUEUED))
+                .description("Jobs waiting in the queue")
+                .register(registry);
+        Gauge.builder("syllabus.admission.parses.active", parses,
+                        semaphore -> this.maxConcurrentParses - semaphore.availablePermits())
+                .description("PDF parses running on this instance")
+                .register(registry);
+        admittedMeter = Counter.builder("syllabus.admission.decisions")
+                .description("Uploads admitted or rejected, counted per syllabus")
+                .tag("result", "admitted")
+                .register(registry);
+        rejectedMeter = Counter.builder("syllabus.admission.decisions")
+                .description("Uploads admitted or rejected, counted per syllabus")
+                .tag("result", "rejected")
+                .register(registry);
+        waitMeter = Timer.builder("syllabus.admission.wait")
+                .description("Time a job spent due in the queue before a worker claimed it")
+                .publishPercentileHistogram()
+                .register(registry);
+        parseMeter = Timer.builder("syllabus.admission.parse")
+                .description("Time a parse slot was held")
+                .publishPercentileHistogram()
+                .register(registry);
+        log.info("Allowing {} concurrent PDF parses", this.maxConcurrentParses);
+    }
+
+    // One parse per core, but no more than the heap can hold
+    static int defaultConcurrency(int cores, long maxHeapBytes, long heapPerParseBytes) {
+        long byMemory = maxHeapBytes / Math.max(1, heapPerParseBytes);
+        return (int) Math.max(1, Math.min(cores, byMemory));
+    }
+
+    // Reserves count slots of the user's quota, one per syllabus; pair with finished once each one's job
+    // ends. Throws AdmissionRejectedException when the user or the whole queue would be over its limit.
+    public void admit(String userId, int count) {
+        if (userId != null && !quotas.reserve(userId, count, maxQueuedPerUser, Instant.now().plus(quotaIdleExpiry))) {
+            long queuedForUser = quotas.unfinished(userId);
+            reject(userId, count, count > maxQueuedPerUser
+                    ? "At most " + maxQueuedPerUser + " syllabi can wait to be processed at once"
+                    : "You already have " + queuedForUser + " syllabi waiting to be processed", queuedForUser);
+        }
+        // Not reserved like the per-user quota, so concurrent uploads can overshoot it slightly
+        long queued = jobs.countByStatus(JobStatus.QUEUED);
+        if (queued + count > maxQueued) {
+            finished(userId, count);
+            reject(userId, count, "Too many syllabi are waiting to be processed", queued);
+        }
+        admitted.add(count);
+        admittedMeter.increment(count);
+    }
+
+    // Frees the quota slots of syllabi whose jobs completed or failed, or that were never queued
+    public void finished(String userId, int count) {
+        if (userId == null || count == 0) {
+            return;
+        }
+        try {
+            quotas.release(userId, count, Instant.now().plus(quotaIdleExpiry));
+        } catch (RuntimeException e) {
+            // The quota stays high until the user is idle long enough for it to expire
+            log.warn("Could not release {} quota slot(s) of user {}: {}", count, userId, e.getMessage());
+        }
+    }
+
+    private void reject(String userId, int count, String message, long queuedAhead) {
+        rejected.add(count);
+        rejectedMeter.increment(count);
+        Duration retryAfter = retryAfter(queuedAhead);
+        log.info("Rejecting upload for user {}: {} (retry after {})", userId, message, retryAfter);
+        throw new AdmissionRejectedException(message + ", please try again later", retryAfter);
+    }
+
+    // Roughly how long until the jobs ahead have been parsed
+    Duration retryAfter(long queuedAhead) {
+        long parsed = parsesTimed.sum();
+        double parseMillis = parsed == 0 ? ASSUMED_PARSE_MILLIS : (double) totalParseMillis.sum() / parsed;
+        Duration estimate = Duration.ofMillis((long) (parseMillis * queuedAhead / maxConcurrentParses));
+        if (estimate.compareTo(MIN_RETRY_AFTER) < 0) {
+            return MIN_RETRY_AFTER;
+        }
+        return estimate.compareTo(MAX_RETRY_AFTER) > 0 ? MAX_RETRY_AFTER : estimate;
+    }
+
+    // Blocks until a parse may start; pair with releaseParse
+    public void acquireParse() throws InterruptedException {
+        parses.acquire();
+    }
+
+    public void releaseParse() {
+        parses.release();
+    }
+
+    // Time a job spent due in the queue before a worker claimed it
+    public void recordDispatch(Duration waited) {
+        long millis = Math.max(0, waited.toMillis());
+        dispatched.increment();
+        totalWaitMillis.add(millis);
+        maxWaitMillis.accumulateAndGet(millis, Math::max);
+        waitMeter.record(millis, TimeUnit.MILLISECONDS);
+    }
+
+    public void recordParse(Duration took) {
+        parsesTimed.increment();
+        totalParseMillis.add(took.toMillis());
+        parseMeter.record(took);
+    }
+
+    public AdmissionStats getStats() {
+        long dispatchedCount = dispatched.sum();
+        long parsed = parsesTimed.sum();
+        return new AdmissionStats(
+                maxConcurrentParses,
+                maxConcurrentParses - parses.availablePermits(),
+                jobs.countByStatus(JobStatus.QUEUED),
+                admitted.sum(),
+                rejected.sum(),
+                dispatchedCount,
+                dispatchedCount == 0 ? 0 : (double) totalWaitMillis.sum() / dispatchedCount,
+                maxWaitMillis.get(),
+                parsed == 0 ? 0 : (double) totalParseMillis.sum() / parsed);
+    }
+}
@@ -0,0 +1,55 @@
+package com.syllabus.copilot.backend.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Service;
+
+import com.syllabus.copilot.backend.model.JobStatus;
+import com.syllabus.copilot.backend.model.ProcessingJob;
+import com.syllabus.copilot.backend.repository.ProcessingJobRepository;
+
+// Producer side of the job queue. Jobs enqueued here wake the local worker right away;
+// other instances find them on their next poll.
+@Service
+public class ProcessingJobQueue {
+    private final ProcessingJobRepository jobs;
+    private final Semaphore signal = new Semaphore(0);
+
+    public ProcessingJobQueue(ProcessingJobRepository jobs) {
+        this.jobs = jobs;
+    }
+
+    public ProcessingJob enqueue(String syllabusId, String userId, String uploadRef, String fileName) {
+        ProcessingJob queued = jobs.enqueue(newJob(syllabusId, userId, uploadRef, fileName));
+        signal.release();
+        return queued;
+    }
+
+    static ProcessingJob newJob(String syllabusId, String userId, String uploadRef, String fileName) {
+        Instant now = Instant.now();
+        ProcessingJob job = new ProcessingJob();
+        job.setSyllabusId(syllabusId);
+        job.setUserId(userId);
+        job.setUploadRef(uploadRef);
+        job.setFileName(fileName);
+        job.setStatus(JobStatus.QUEUED);
+        job.setAvailableAt(now);
+        job.setCreatedAt(now);
+        return job;
+    }
+
+    // Wakes the local worker, e.g. after jobs were requeued
+    void wake() {
+        signal.release();
+    }
+
+    // Waits until a job is enqueued on this instance or the timeout passes
+    void awaitWork(Duration timeout) throws InterruptedException {
+        if (signal.tryAcquire(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+            signal.drainPermits();
+        }
+    }
+}
@@ -0,0 +1,402 @@
+package com.syllabus.copilot.backend.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import com.mongodb.MongoException;
+import com.syllabus.copilot.backend.model.JobStatus;
+import com.syllabus.copilot.backend.model.ProcessingJob;
+import com.syllabus.copilot.backend.model.ProcessingStatus;
+import com.syllabus.copilot.backend.model.ProgressEvent;
+import com.syllabus.copilot.backend.repository.ProcessingJobRepository;
+import com.syllabus.copilot.backend.repository.SyllabusUpdateRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+// Consumer side of the job queue. Every instance runs one of these: it leases jobs as parse slots
+// free up, runs them on the processing pool, heartbeats the leases it holds, and requeues jobs
+// whose owner has died. Failed attempts are retried with exponential backoff up to a cap.
+@Slf4j
+@Component
+public class ProcessingJobWorker implements SmartLifecycle {
+    private final ProcessingJobRepository jobs;
+    private final ProcessingJobQueue queue;
+    private final SyllabusService syllabusService;
+    private final SyllabusUpdateRepository updates;
+    private final SyllabusReadCache readCache;
+    private final SyllabusUploadStore uploadStore;
+    private final PdfProcessingService pdfProcessingService;
+    private final ExecutorService processingExecutor;
+    private final ProcessingAdmission admission;
+    private final ProgressEventBus progressEvents;
+
+    private final boolean enabled;
+    private final String nodeId;
+    private final Duration leaseDuration;
+    private final Duration pollInterval;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    // Users with due jobs, served one job each in turn; only touched by the poller thread
+    private final Deque<String> rotation = new ArrayDeque<>();
+    private String lastServed;
+    private volatile boolean running;
+    private Thread poller;
+    private ScheduledExecutorService leaseKeeper;
+
+    public ProcessingJobWorker(ProcessingJobRepository jobs,
+                               ProcessingJobQueue queue,
+                               SyllabusService syllabusService,
+                               SyllabusUpdateRepository updates,
+                               SyllabusReadCache readCache,
+                               SyllabusUploadStore uploadStore,
+                               PdfProcessingService pdfProcessingService,
+                               @Qualifier("syllabusProcessingExecutor") ExecutorService processingExecutor,
+                               ProcessingAdmission admission,
+                               ProgressEventBus progressEvents,
+                               @Value("${syllabus.jobs.enabled:true}") boolean enabled,
+                               @Value("${syllabus.jobs.node-id:}") String nodeId,
+                               @Value("${syllabus.jobs.lease-duration:60s}") Duration leaseDuration,
+                               @Value("${syllabus.jobs.poll-interval:1s}") Duration pollInterval,
+                               @Value("${syllabus.jobs.max-attempts:5}") int maxAttempts,
+                               @Value("${syllabus.jobs.initial-backoff:5s}") Duration initialBackoff,
+                               @Value("${syllabus.jobs.max-backoff:10m}") Duration maxBackoff) {
+        this.jobs = jobs;
+        this.queue = queue;
+        this.syllabusService = syllabusService;
+        this.updates = updates;
+        this.readCache = readCache;
+        this.uploadStore = uploadStore;
+        this.pdfProcessingService = pdfProcessingService;
+        this.processingExecutor = processingExecutor;
+        this.admission = admission;
+        this.progressEvents = progressEvents;
+        this.enabled = enabled;
+        this.nodeId = nodeId.isBlank() ? defaultNodeId() : nodeId;
+        this.leaseDuration = leaseDuration;
+        this.pollInterval = pollInterval;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        leaseKeeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "syllabus-job-leases");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Held batch jobs are heartbeated even when this instance does not take jobs from the queue
+        long heartbeatMillis = Math.max(1, leaseDuration.toMillis() / 3);
+        leaseKeeper.scheduleWithFixedDelay(this::heartbeat, heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+        if (!enabled) {
+            log.info("Job queue worker is disabled on this instance");
+            return;
+        }
+        poller = new Thread(this::poll, "syllabus-job-poller");
+        poller.setDaemon(true);
+        poller.start();
+        leaseKeeper.scheduleWithFixedDelay(this::reclaimExpired, 0, leaseDuration.toMillis(), TimeUnit.MILLISECONDS);
+        log.info("Job queue worker {} started", nodeId);
+    }
+
+    // Jobs still running keep their leases until they finish or the leases expire and are reclaimed
+    @Override
+    public void stop() {
+        running = false;
+        if (poller != null) {
+            poller.interrupt();
+        }
+        if (leaseKeeper != null) {
+            leaseKeeper.shutdownNow();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void poll() {
+        while (running) {
+            try {
+                admission.acquireParse();
+                Optional<ProcessingJob> job;
+                try {
+                    job = claim();
+                } catch (RuntimeException e) {
+                    // Typically Mongo being unreachable; back off and try again
+                    admission.releaseParse();
+                    log.warn("Could not claim a processing job: {}", e.getMessage());
+                    sleepQuietly(pollInterval);
+                    continue;
+                }
+                if (job.isEmpty()) {
+                    admission.releaseParse();
+                    queue.awaitWork(pollInterval);
+                } else {
+                    dispatch(job.get());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    // Users take turns, so one user with a long queue cannot hold everyone else back.
+    // Jobs without a user are picked up once no user has anything due.
+    Optional<ProcessingJob> claim() {
+        Instant now = Instant.now();
+        Instant leaseExpiresAt = now.plus(leaseDuration);
+        if (rotation.isEmpty()) {
+            refillRotation(now);
+        }
+        Optional<ProcessingJob> job = Optional.empty();
+        while (job.isEmpty() && !rotation.isEmpty()) {
+            String userId = rotation.poll();
+            job = jobs.claimNext(userId, nodeId, now, leaseExpiresAt);
+            if (job.isPresent()) {
+                lastServed = userId;
+            }
+        }
+        if (job.isEmpty()) {
+            job = jobs.claimNext(nodeId, now, leaseExpiresAt);
+        }
+        job.ifPresent(claimed -> admission.recordDispatch(Duration.between(claimed.getAvailableAt(), now)));
+        return job;
+    }
+
+    // A new round starts after the user served last, so no user is favoured by sort order
+    private void refillRotation(Instant now) {
+        List<String> users = jobs.findUsersWithDueJobs(now).stream()
+                .filter(Objects::nonNull)
+                .sorted()
+                .toList();
+        int start = 0;
+        while (lastServed != null && start < users.size() && users.get(start).compareTo(lastServed) <= 0) {
+            start++;
+        }
+        rotation.addAll(users.subList(start, users.size()));
+        rotation.addAll(users.subList(0, start));
+    }
+
+    private void dispatch(ProcessingJob job) {
+        inFlight.add(job.getId());
+        try {
+            processingExecutor.execute(() -> {
+                long started = System.nanoTime();
+                try {
+                    runJob(job);
+                } finally {
+                    inFlight.remove(job.getId());
+                    admission.releaseParse();
+                    admission.recordParse(Duration.ofNanos(System.nanoTime() - started));
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // The pool is busy with batch uploads; hand the job back for anyone to take
+            inFlight.remove(job.getId());
+            admission.releaseParse();
+            try {
+                jobs.release(job.getId(), nodeId, Instant.now());
+            } catch (RuntimeException releaseFailure) {
+                // The lease runs out and the job is reclaimed
+                log.warn("Could not release job {}: {}", job.getId(), releaseFailure.getMessage());
+            }
+            sleepQuietly(pollInterval);
+        }
+    }
+
+    void runJob(ProcessingJob job) {
+        String syllabusId = job.getSyllabusId();
+        if (job.getAttempts() > maxAttempts) {
+            // Reclaimed after its owner died on the final attempt
+            giveUp(job, job.getLastError());
+            return;
+        }
+        if (job.getAttempts() > 1) {
+            // An earlier attempt may have stopped partway, after claiming the syllabus
+            updates.transition(syllabusId, ProcessingStatus.PROCESSING, ProcessingStatus.PENDING, new Update());
+        }
+
+        Path spooled = null;
+        try {
+            Optional<InputStream> pdf = uploadStore.open(job.getUploadRef());
+            if (pdf.isEmpty()) {
+                giveUp(job, "Uploaded file is no longer available");
+                return;
+            }
+            try (InputStream in = pdf.get()) {
+                spooled = pdfProcessingService.spoolToTempFile(in);
+            }
+
+            syllabusService.processSyllabusFile(syllabusId, spooled);
+
+            if (jobs.complete(job.getId(), nodeId)) {
+                admission.finished(job.getUserId(), 1);
+                uploadStore.delete(job.getUploadRef());
+            } else {
+                log.warn("Lease on job {} was lost before it completed", job.getId());
+            }
+        } catch (IOException | DataAccessException | MongoException e) {
+            retryOrGiveUp(job, e);
+        } finally {
+            if (spooled != null) {
+                SyllabusService.deleteSpooledFile(spooled);
+            }
+        }
+    }
+
+    private void retryOrGiveUp(ProcessingJob job, Exception e) {
+        String error = e.getClass().getSimpleName() + ": " + e.getMessage();
+        if (job.getAttempts() >= maxAttempts) {
+            giveUp(job, error);
+            return;
+        }
+        Duration delay = backoff(job.getAttempts());
+        log.warn("Attempt {} of job {} failed, retrying in {}: {}", job.getAttempts(), job.getId(), delay, error);
+        try {
+            jobs.retry(job.getId(), nodeId, error, Instant.now().plus(delay));
+        } catch (RuntimeException retryFailure) {
+            // The lease runs out and the job is reclaimed
+            log.error("Could not requeue job {}", job.getId(), retryFailure);
+        }
+    }
+
+    private void giveUp(ProcessingJob job, String error) {
+        log.error("Giving up on job {} for syllabus {} after {} attempt(s): {}",
+                job.getId(), job.getSyllabusId(), job.getAttempts(), error);
+        String message = "Processing failed after " + job.getAttempts() + " attempt(s): " + error;
+        // Whichever status the last attempt left it in
+        boolean failed = updates.transition(job.getSyllabusId(), ProcessingStatus.PROCESSING, ProcessingStatus.FAILED,
+                new Update().set("processingError", message))
+                || updates.transition(job.getSyllabusId(), ProcessingStatus.PENDING, ProcessingStatus.FAILED,
+                        new Update().set("processingError", message));
+        readCache.invalidate(job.getSyllabusId(), null);
+        if (failed) {
+            progressEvents.publish(ProgressEvent.failed(job.getSyllabusId(), job.getUserId(), message));
+        }
+        if (jobs.fail(job.getId(), nodeId, error)) {
+            admission.finished(job.getUserId(), 1);
+        }
+        uploadStore.delete(job.getUploadRef());
+    }
+
+    // Jobs for files this instance runs itself, such as the files of a batch upload. They are inserted
+    // already leased to it and heartbeated with the claimed ones, so if it dies their leases run out
+    // and whichever instance reclaims them runs the files from the upload store.
+    public void hold(List<ProcessingJob> held) {
+        Instant leaseExpiresAt = Instant.now().plus(leaseDuration);
+        for (ProcessingJob job : held) {
+            job.setStatus(JobStatus.RUNNING);
+            job.setLeaseOwner(nodeId);
+            job.setLeaseExpiresAt(leaseExpiresAt);
+            job.setAttempts(1);
+        }
+        jobs.enqueueAll(held);
+        held.forEach(job -> inFlight.add(job.getId()));
+    }
+
+    // Removes held jobs whose results are written and returns those still held, whose uploads can go;
+    // a job that lost its lease was reclaimed and is finished by whoever runs it
+    public List<ProcessingJob> completeHeld(Collection<String> ids) {
+        try {
+            return jobs.completeAll(ids, nodeId);
+        } finally {
+            inFlight.removeAll(ids);
+        }
+    }
+
+    // Hands held jobs back to the queue, for results that could not be written
+    public void releaseHeld(Collection<String> ids) {
+        inFlight.removeAll(ids);
+        try {
+            jobs.releaseAll(ids, nodeId, Instant.now());
+            queue.wake();
+        } catch (RuntimeException e) {
+            // The leases run out and the jobs are reclaimed
+            log.warn("Could not release {} batch job(s): {}", ids.size(), e.getMessage());
+        }
+    }
+
+    // initialBackoff doubled for every attempt already made, capped at maxBackoff
+    Duration backoff(int attempts) {
+        int doublings = Math.min(Math.max(attempts - 1, 0), 30);
+        Duration delay = initialBackoff.multipliedBy(1L << doublings);
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    private void heartbeat() {
+        if (inFlight.isEmpty()) {
+            return;
+        }
+        try {
+            long held = jobs.extendLeases(Set.copyOf(inFlight), nodeId, Instant.now().plus(leaseDuration));
+            if (held < inFlight.size()) {
+                log.warn("{} of {} running jobs lost their lease", inFlight.size() - held, inFlight.size());
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not extend job leases: {}", e.getMessage());
+        }
+    }
+
+    private void reclaimExpired() {
+        try {
+            long reclaimed = jobs.reclaimExpired(Instant.now());
+            if (reclaimed > 0) {
+                log.warn("Reclaimed {} job(s) whose lease expired", reclaimed);
+                queue.wake();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not reclaim expired jobs: {}", e.getMessage());
+        }
+    }
+
+    private static void sleepQuietly(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "unknown-host";
+        }
+        return host + "-" + ProcessHandle.current().pid();
+    }
+}
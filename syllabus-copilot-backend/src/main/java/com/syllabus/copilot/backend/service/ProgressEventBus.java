@@ -0,0 +1,87 @@
+package com.syllabus.copilot.backend.service;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import org.springframework.stereotype.Component;
+
+import com.syllabus.copilot.backend.model.ProgressEvent;
+
+import lombok.extern.slf4j.Slf4j;
+
+// In-process fan-out of processing progress, keyed by syllabus and by user. Publishing is called
+// from the processing threads and never blocks them: listeners only take the event and must queue
+// any I/O themselves. With nobody listening, a publish is two map lookups.
+@Slf4j
+@Component
+public class ProgressEventBus {
+    private final Map<String, Set<Consumer<ProgressEvent>>> bySyllabus = new ConcurrentHashMap<>();
+    private final Map<String, Set<Consumer<ProgressEvent>>> byUser = new ConcurrentHashMap<>();
+    private final Set<Consumer<ProgressEvent>> everything = ConcurrentHashMap.newKeySet();
+    private final LongAdder published = new LongAdder();
+
+    // Returns the action that removes the listener again
+    public Runnable subscribeToSyllabus(String syllabusId, Consumer<ProgressEvent> listener) {
+        return subscribe(bySyllabus, syllabusId, listener);
+    }
+
+    public Runnable subscribeToUser(String userId, Consumer<ProgressEvent> listener) {
+        return subscribe(byUser, userId, listener);
+    }
+
+    // Every event, for in-process consumers such as metrics; the listener must be cheap
+    public Runnable subscribeToAll(Consumer<ProgressEvent> listener) {
+        everything.add(listener);
+        return () -> everything.remove(listener);
+    }
+
+    public void publish(ProgressEvent event) {
+        published.increment();
+        deliver(everything, event);
+        if (event.getSyllabusId() != null) {
+            deliver(bySyllabus.get(event.getSyllabusId()), event);
+        }
+        if (event.getUserId() != null) {
+            deliver(byUser.get(event.getUserId()), event);
+        }
+    }
+
+    public long getPublishedCount() {
+        return published.sum();
+    }
+
+    int listenerCount() {
+        return bySyllabus.values().stream().mapToInt(Set::size).sum()
+                + byUser.values().stream().mapToInt(Set::size).sum();
+    }
+
+    private static Runnable subscribe(Map<String, Set<Consumer<ProgressEvent>>> listeners, String key,
+                                      Consumer<ProgressEvent> listener) {
+        listeners.compute(key, (k, set) -> {
+            Set<Consumer<ProgressEvent>> updated = set != null ? set : ConcurrentHashMap.newKeySet();
+            updated.add(listener);
+            return updated;
+        });
+        // Empty sets are dropped so finished syllabi do not pile up keys
+        return () -> listeners.computeIfPresent(key, (k, set) -> {
+            set.remove(listener);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    private static void deliver(Set<Consumer<ProgressEvent>> listeners, ProgressEvent event) {
+        if (listeners == null) {
+            return;
+        }
+        for (Consumer<ProgressEvent> listener : listeners) {
+            try {
+                listener.accept(event);
+            } catch (RuntimeException e) {
+                log.warn("Progress listener failed for syllabus {}", event.getSyllabusId(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package com.syllabus.copilot.backend.service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.syllabus.copilot.backend.model.ProgressEvent;
+import com.syllabus.copilot.backend.model.ProgressStage;
+import com.syllabus.copilot.backend.model.ProgressStreamStats;
+import com.syllabus.copilot.backend.model.SyllabusStatusView;
+
+import lombok.extern.slf4j.Slf4j;
+
+// Server-Sent Event streams fed from the progress event bus. An idle stream is an async request
+// and a bus subscription, with no thread of its own; events are queued per stream and written by
+// a small shared dispatcher, so a slow client never holds up processing or other clients. A
+// client that falls more than mailboxSize events behind is disconnected and can reconnect.
+@Slf4j
+@Service
+public class ProgressStreamService implements DisposableBean {
+    // Queued between events to keep idle connections open through proxies and detect dead clients
+    private static final ProgressEvent HEARTBEAT = new ProgressEvent();
+
+    private final ProgressEventBus bus;
+    private final SyllabusService syllabusService;
+    private final Duration timeout;
+    private final int maxStreams;
+    private final int mailboxSize;
+    private final ThreadPoolExecutor dispatcher;
+    private final ScheduledExecutorService heartbeats;
+
+    private final Set<ProgressStream> streams = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger openStreams = new AtomicInteger();
+    private final AtomicLong eventIds = new AtomicLong();
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    public ProgressStreamService(ProgressEventBus bus,
+                                 SyllabusService syllabusService,
+                                 @Value("${syllabus.events.timeout:30m}") Duration timeout,
+                                 @Value("${syllabus.events.heartbeat-interval:25s}") Duration heartbeatInterval,
+                                 @Value("${syllabus.events.max-streams:10000}") int maxStreams,
+                                 @Value("${syllabus.events.mailbox-size:64}") int mailboxSize,
+                                 @Value("${syllabus.events.dispatch-threads:2}") int dispatchThreads) {
+        this.bus = bus;
+        this.syllabusService = syllabusService;
+        this.timeout = timeout;
+        this.maxStreams = maxStreams;
+        this.mailboxSize = Math.max(1, mailboxSize);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.dispatcher = new ThreadPoolExecutor(dispatchThreads, dispatchThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, maxStreams)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "syllabus-events-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.heartbeats = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "syllabus-events-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = heartbeatInterval.toMillis();
+        heartbeats.scheduleWithFixedDelay(this::heartbeat, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    // Events for one syllabus, starting with its current status; closed once it is saved or fails.
+    // Empty when there is no such syllabus.
+    public Optional<SseEmitter> openForSyllabus(String syllabusId) {
+        ProgressStream stream = open(true);
+        // Subscribe before reading the status, so a stage reached in between is not missed
+        stream.subscribe(bus.subscribeToSyllabus(syllabusId, stream::offer));
+        Optional<SyllabusStatusView> current;
+        try {
+            current = syllabusService.findStatusById(syllabusId);
+        } catch (RuntimeException e) {
+            stream.close();
+            throw e;
+        }
+        if (current.isEmpty()) {
+            stream.close();
+            return Optional.empty();
+        }
+        stream.offer(snapshot(syllabusId, current.get()));
+        return Optional.of(stream.emitter);
+    }
+
+    // Events for every syllabus of the user; stays open until the client leaves or the timeout
+    public SseEmitter openForUser(String userId) {
+        ProgressStream stream = open(false);
+        stream.subscribe(bus.subscribeToUser(userId, stream::offer));
+        return stream.emitter;
+    }
+
+    public ProgressStreamStats getStats() {
+        return new ProgressStreamStats(openStreams.get(), maxStreams, bus.getPublishedCount(), sent.sum(),
+                rejected.sum(), dropped.sum());
+    }
+
+    private ProgressStream open(boolean closeWhenDone) {
+        if (openStreams.incrementAndGet() > maxStreams) {
+            openStreams.decrementAndGet();
+            rejected.increment();
+            throw new RejectedExecutionException("Too many open progress streams");
+        }
+        ProgressStream stream = new ProgressStream(new SseEmitter(timeout.toMillis()), closeWhenDone);
+        streams.add(stream);
+        return stream;
+    }
+
+    static ProgressEvent snapshot(String syllabusId, SyllabusStatusView current) {
+        return switch (current.getProcessingStatus()) {
+            case PENDING -> new ProgressEvent(syllabusId, null, ProgressStage.RECEIVED);
+            case PROCESSING -> new ProgressEvent(syllabusId, null, ProgressStage.PROCESSING);
+            case COMPLETED -> new ProgressEvent(syllabusId, null, ProgressStage.SAVED);
+            case FAILED -> ProgressEvent.failed(syllabusId, null, current.getProcessingError());
+        };
+    }
+
+    private void heartbeat() {
+        streams.forEach(stream -> stream.offer(HEARTBEAT));
+    }
+
+    @Override
+    public void destroy() {
+        heartbeats.shutdownNow();
+        dispatcher.shutdownNow();
+        streams.forEach(ProgressStream::close);
+    }
+
+    private final class ProgressStream {
+        private final SseEmitter emitter;
+        private final boolean closeWhenDone;
+        private final Queue<ProgressEvent> mailbox = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private volatile Runnable unsubscribe = () -> { };
+
+        ProgressStream(SseEmitter emitter, boolean closeWhenDone) {
+            this.emitter = emitter;
+            this.closeWhenDone = closeWhenDone;
+            emitter.onCompletion(this::close);
+            emitter.onError(error -> close());
+            emitter.onTimeout(() -> {
+                // The client reconnects on its own; completing avoids an error response
+                close();
+                emitter.complete();
+            });
+        }
+
+        void subscribe(Runnable unsubscribe) {
+            this.unsubscribe = unsubscribe;
+            if (closed.get()) {
+                unsubscribe.run();
+            }
+        }
+
+        // Called on publishing threads; only queues
+        void offer(ProgressEvent event) {
+            if (closed.get()) {
+                return;
+            }
+            if (queued.incrementAndGet() > mailboxSize) {
+                log.debug("Progress stream fell {} events behind, disconnecting it", mailboxSize);
+                dropped.increment();
+                close();
+                emitter.complete();
+                return;
+            }
+            mailbox.add(event);
+            schedule();
+        }
+
+        private void schedule() {
+            if (!draining.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                dispatcher.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                draining.set(false);
+                close();
+                emitter.complete();
+            }
+        }
+
+        private void drain() {
+            try {
+                ProgressEvent event;
+                while ((event = mailbox.poll()) != null) {
+                    queued.decrementAndGet();
+                    if (closed.get()) {
+                        return;
+                    }
+                    send(event);
+                    if (closeWhenDone && event != HEARTBEAT && event.getStage().isTerminal()) {
+                        close();
+                        emitter.complete();
+                        return;
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Client went away; the container reports it through onError as well
+                close();
+            } finally {
+                draining.set(false);
+            }
+            // An event may have arrived after the last poll but before draining was cleared
+            if (!mailbox.isEmpty() && !closed.get()) {
+                schedule();
+            }
+        }
+
+        private void send(ProgressEvent event) throws IOException {
+            if (event == HEARTBEAT) {
+                emitter.send(SseEmitter.event().comment("keep-alive"));
+                return;
+            }
+            emitter.send(SseEmitter.event()
+                    .id(Long.toString(eventIds.incrementAndGet()))
+                    .name(event.getStage().name())
+                    .data(event, MediaType.APPLICATION_JSON));
+            sent.increment();
+        }
+
+        void close() {
+            if (closed.compareAndSet(false, true)) {
+                unsubscribe.run();
+                streams.remove(this);
+                openStreams.decrementAndGet();
+                mailbox.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package com.syllabus.copilot.backend.service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import com.syllabus.copilot.backend.model.ProcessingStatus;
+import com.syllabus.copilot.backend.model.ReanalysisRun;
+import com.syllabus.copilot.backend.model.ReanalysisStatus;
+import com.syllabus.copilot.backend.model.Syllabus;
+import com.syllabus.copilot.backend.repository.ReanalysisRepository;
+import com.syllabus.copilot.backend.repository.SyllabusUpdateRepository;
+import com.syllabus.copilot.backend.repository.SyllabusUpdateRepository.VersionedUpdate;
+
+import lombok.extern.slf4j.Slf4j;
+
+// Re-runs the current analyzer over completed syllabi whose results came from an older one, using
+// their stored text instead of the PDF. Syllabi are read a keyset page at a time, analyzed in
+// parallel and written back with one bulk write per page. Each page is checkpointed on the run
+// document, so a paused or interrupted run resumes where it stopped; maxPerSecond throttles it.
+@Slf4j
+@Service
+public class ReanalysisService implements DisposableBean {
+    private final ReanalysisRepository runs;
+    private final SyllabusUpdateRepository updates;
+    private final SyllabusReadCache readCache;
+    private final SyllabusTextStore textStore;
+    private final OriginalTextMigration textMigration;
+    private final SyllabusAnalysisService analysisService;
+    private final SyllabusSearchIndex searchIndex;
+    private final String nodeId;
+    private final int batchSize;
+    private final double defaultMaxPerSecond;
+    private final Duration staleAfter;
+    private final ExecutorService analysisPool;
+
+    private Thread runner;
+
+    // What happened to one syllabus of a page
+    private record Outcome(VersionedUpdate update, boolean failed) {
+        static final Outcome SKIPPED = new Outcome(null, false);
+        static final Outcome FAILED = new Outcome(null, true);
+    }
+
+    public ReanalysisService(ReanalysisRepository runs,
+                             SyllabusUpdateRepository updates,
+                             SyllabusReadCache readCache,
+                             SyllabusTextStore textStore,
+                             OriginalTextMigration textMigration,
+                             SyllabusAnalysisService analysisService,
+                             SyllabusSearchIndex searchIndex,
+                             @Value("${syllabus.jobs.node-id:}") String nodeId,
+                             @Value("${syllabus.reanalysis.batch-size:200}") int batchSize,
+                             @Value("${syllabus.reanalysis.parallelism:0}") int parallelism,
+                             @Value("${syllabus.reanalysis.max-per-second:0}") double defaultMaxPerSecond,
+                             @Value("${syllabus.reanalysis.stale-after:10m}") Duration staleAfter) {
+        this.runs = runs;
+        this.updates = updates;
+        this.readCache = readCache;
+        this.textStore = textStore;
+        this.textMigration = textMigration;
+        this.analysisService = analysisService;
+        this.searchIndex = searchIndex;
+        this.nodeId = nodeId.isBlank() ? ProcessingJobWorker.defaultNodeId() : nodeId;
+        this.batchSize = Math.max(1, batchSize);
+        this.defaultMaxPerSecond = defaultMaxPerSecond;
+        this.staleAfter = staleAfter;
+
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.analysisPool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "syllabus-reanalysis-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    static String runId() {
+        return "analyzer-v" + SyllabusAnalysisService.ANALYZER_VERSION;
+    }
+
+    // Starts the run for the current analyzer, or resumes it from its checkpoint; a run that already
+    // completed starts over, which picks up syllabi that were skipped. While it is running here,
+    // only the rate is changed.
+    public synchronized ReanalysisRun start(Double maxPerSecond) {
+        if (maxPerSecond != null && maxPerSecond < 0) {
+            throw new IllegalArgumentException("maxPerSecond must not be negative");
+        }
+        String id = runId();
+        if (runner != null && runner.isAlive()) {
+            return (maxPerSecond != null ? runs.setRate(id, maxPerSecond) : runs.find(id))
+                    .orElseThrow(() -> new IllegalStateException("Re-analysis run " + id + " disappeared"));
+        }
+
+        Optional<ReanalysisRun> existing = runs.find(id);
+        boolean fresh = existing.isEmpty() || existing.get().getStatus() == ReanalysisStatus.COMPLETED;
+        double rate = maxPerSecond != null ? maxPerSecond
+                : existing.map(ReanalysisRun::getMaxPerSecond).orElse(defaultMaxPerSecond);
+        Instant now = Instant.now();
+        ReanalysisRun run = runs.claim(id, SyllabusAnalysisService.ANALYZER_VERSION, nodeId, now,
+                        now.minus(staleAfter), rate, fresh)
+                .orElseThrow(() -> new IllegalStateException("Re-analysis is already running on another instance"));
+
+        run.setTotal(run.getScanned() + runs.countOutdated(run.getLastSyllabusId(), run.getAnalyzerVersion()));
+        runs.setTotal(id, nodeId, run.getTotal());
+        log.info("{} re-analysis {} with {} syllabi to go", fresh ? "Starting" : "Resuming", id,
+                run.getTotal() - run.getScanned());
+
+        runner = new Thread(() -> run(run), "syllabus-reanalysis");
+        runner.setDaemon(true);
+        runner.start();
+        return run;
+    }
+
+    // Stops the run after the page in progress; start() resumes it
+    public Optional<ReanalysisRun> pause() {
+        return runs.pause(runId());
+    }
+
+    public Optional<ReanalysisRun> getCurrentRun() {
+        return runs.find(runId());
+    }
+
+    // Works through the pages until none are left, the run is paused or taken over, or it fails
+    void run(ReanalysisRun run) {
+        String after = run.getLastSyllabusId();
+        double maxPerSecond = run.getMaxPerSecond();
+        try {
+            while (true) {
+                long pageStarted = System.nanoTime();
+                int limit = pageSize(maxPerSecond);
+                List<Syllabus> page = runs.findOutdated(after, run.getAnalyzerVersion(), limit);
+                if (page.isEmpty()) {
+                    break;
+                }
+
+                List<Outcome> outcomes = analyze(page);
+                List<VersionedUpdate> results = outcomes.stream()
+                        .filter(outcome -> outcome.update() != null)
+                        .map(Outcome::update)
+                        .toList();
+                int written = updates.updateAllIfUnchanged(results, ProcessingStatus.COMPLETED);
+                page.forEach(syllabus -> {
+                    readCache.invalidate(syllabus.getId(), syllabus.getUserId());
+                    // Re-analysis can change assignment and exam titles
+                    searchIndex.update(syllabus.getId(), syllabus.getUserId());
+                });
+                int failed = (int) outcomes.stream().filter(Outcome::failed).count();
+
+                after = page.get(page.size() - 1).getId();
+                Optional<ReanalysisRun> current = runs.checkpoint(run.getId(), nodeId, after, Instant.now(),
+                        page.size(), written, page.size() - written - failed, failed);
+                if (current.isEmpty()) {
+                    log.info("Re-analysis {} was paused or taken over, stopping after {}", run.getId(), after);
+                    return;
+                }
+                maxPerSecond = current.get().getMaxPerSecond();
+                if (page.size() < limit) {
+                    break;
+                }
+                throttle(page.size(), maxPerSecond, pageStarted);
+            }
+            runs.finish(run.getId(), nodeId, ReanalysisStatus.COMPLETED, null, Instant.now());
+            log.info("Re-analysis {} completed", run.getId());
+        } catch (InterruptedException e) {
+            // Shutting down; start() resumes it from the last checkpoint
+            Thread.currentThread().interrupt();
+            try {
+                runs.finish(run.getId(), nodeId, ReanalysisStatus.PAUSED, null, Instant.now());
+            } catch (RuntimeException finishFailure) {
+                // Left RUNNING; another start() takes it over once its heartbeat is stale
+                log.warn("Could not pause re-analysis {} on shutdown", run.getId(), finishFailure);
+            }
+        } catch (RuntimeException e) {
+            log.error("Re-analysis {} failed after {}", run.getId(), after, e);
+            runs.finish(run.getId(), nodeId, ReanalysisStatus.FAILED, e.toString(), Instant.now());
+        }
+    }
+
+    // Smaller pages at low rates, so checkpoints and heartbeats stay about half a minute apart
+    int pageSize(double maxPerSecond) {
+        if (maxPerSecond <= 0) {
+            return batchSize;
+        }
+        return (int) Math.max(1, Math.min(batchSize, Math.ceil(maxPerSecond * 30)));
+    }
+
+    private List<Outcome> analyze(List<Syllabus> page) throws InterruptedException {
+        List<Callable<Outcome>> tasks = new ArrayList<>(page.size());
+        page.forEach(syllabus -> tasks.add(() -> reanalyze(syllabus)));
+        List<Outcome> outcomes = new ArrayList<>(page.size());
+        for (Future<Outcome> future : analysisPool.invokeAll(tasks)) {
+            try {
+                outcomes.add(future.get());
+            } catch (ExecutionException e) {
+                log.warn("Re-analysis of a syllabus failed", e.getCause());
+                outcomes.add(Outcome.FAILED);
+            }
+        }
+        return outcomes;
+    }
+
+    private Outcome reanalyze(Syllabus stored) throws IOException {
+        Optional<String> text = stored.getOriginalTextRef() != null
+                ? textStore.load(stored.getOriginalTextRef())
+                : textMigration.readInlineText(stored.getId());
+        if (text.isEmpty()) {
+            return Outcome.SKIPPED;
+        }
+
+        Syllabus analyzed = new Syllabus();
+        analyzed.setId(stored.getId());
+        analyzed.setUserId(stored.getUserId());
+        analyzed.setCourseName(stored.getCourseName());
+        analysisService.analyzeSyllabusContent(analyzed, text.get());
+        if (stored.getSummaryModel() != null) {
+            // A generated summary is better than the heuristic one; keep it
+            analyzed.setAiGeneratedSummary(null);
+            analyzed.setStudyPlan(null);
+        }
+
+        // Course information the new analyzer no longer finds is cleared rather than kept
+        Update changes = SyllabusService.analysisResults(analyzed)
+                .set("courseCode", analyzed.getCourseCode())
+                .set("instructor", analyzed.getInstructor())
+                .set("semester", analyzed.getSemester())
+                .set("description", analyzed.getDescription());
+        return new Outcome(new VersionedUpdate(stored.getId(), stored.getVersion(), changes), false);
+    }
+
+    private static void throttle(int handled, double maxPerSecond, long pageStarted) throws InterruptedException {
+        if (maxPerSecond <= 0) {
+            return;
+        }
+        long targetNanos = (long) (handled / maxPerSecond * TimeUnit.SECONDS.toNanos(1));
+        long remaining = targetNanos - (System.nanoTime() - pageStarted);
+        if (remaining > 0) {
+            TimeUnit.NANOSECONDS.sleep(remaining);
+        }
+    }
+
+    @Override
+    public synchronized void destroy() {
+        if (runner != null) {
+            runner.interrupt();
+        }
+        analysisPool.shutdownNow();
+    }
+}
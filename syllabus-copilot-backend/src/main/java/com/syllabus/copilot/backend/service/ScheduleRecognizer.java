@@ -0,0 +1,571 @@
+package com.syllabus.copilot.backend.service;
+
+import java.util.Arrays;
+
+// Finds dates, date ranges and assignment and exam keywords in extracted text in time linear in its
+// length. A character-class scanner cuts the text into numbers, words, punctuation and line ends,
+// reading every character once; words are classified while they are read by a trie compiled into a
+// transition table. Dates are then matched over the tokens by a deterministic automaton without
+// cycles, so a match never looks at more than MAX_DATE_TOKENS tokens, and the longest match is taken
+// the way a lexer does. Nothing is retried from further back, whatever the input.
+//
+// Recognized: 9/10/2025, 9-10-25, 2025-09-10, 9/10 and month names ("Oct 20", "Sept. 9th, 2025"),
+// optionally after a weekday ("Tuesday, September 9"), and ranges of them joined by a dash or
+// "to"/"through" ("11/24–11/28", "Nov 24–28", "Dec 22 to Jan 5"). Dates without a year take it from
+// the last year seen, a semester ("Fall 2025") or an earlier date, moving to the next year when the
+// month goes back by more than half a year; before any year is known they are skipped.
+public final class ScheduleRecognizer {
+    public enum EventKind {
+        ASSIGNMENT, // "Homework 3", "Lab #2", "HW1"
+        MIDTERM,    // "Midterm", "Midterm Exam 2"
+        FINAL_EXAM, // "Final Exam"
+        EXAM        // "Exam 2"
+    }
+
+    public interface Listener {
+        // A date or range at [start, end) of the text. first and last are packed like DateRecognizer
+        // and equal for a single day; first is INVALID when the text has the shape of a date with a
+        // year but is not one in the calendar ("02/30/2025")
+        void date(int start, int end, int first, int last);
+
+        // An event keyword at [start, end) and its number at [numberStart, numberEnd), -1 when none
+        void event(EventKind kind, int start, int end, int numberStart, int numberEnd);
+
+        // Called at every '\n' with its offset, and at the end of the text
+        void endOfLine(int end);
+    }
+
+    // The longest path through the date automaton: weekday, comma, month, dot, day, ordinal, comma,
+    // year, then a separator and the same again
+    static final int MAX_DATE_TOKENS = 17;
+
+    private static final int NUMBER = 1;
+    private static final int WORD = 2;
+    private static final int MONTH = 3;
+    private static final int WEEKDAY = 4;
+    private static final int ORDINAL = 5;
+    private static final int RANGE_WORD = 6;
+    private static final int SEASON = 7;
+    private static final int ASSIGNMENT_WORD = 8;
+    private static final int MIDTERM_WORD = 9;
+    private static final int FINAL_WORD = 10;
+    private static final int EXAM_WORD = 11;
+    private static final int SLASH = 12;
+    private static final int HYPHEN = 13;
+    private static final int DASH = 14;
+    private static final int COMMA = 15;
+    private static final int PERIOD = 16;
+    private static final int HASH = 17;
+    private static final int NEWLINE = 18;
+    private static final int OTHER = 19;
+
+    // States of the date automaton; the second date of a range reuses them in phase 1
+    private static final int DEAD = 0;
+    private static final int START = 1;
+    private static final int AFTER_WEEKDAY = 2;
+    private static final int AFTER_WEEKDAY_PUNCT = 3;
+    private static final int AFTER_MONTH = 4;
+    private static final int AFTER_MONTH_DOT = 5;
+    private static final int MONTH_DAY = 6;              // accepting
+    private static final int MONTH_DAY_ORDINAL = 7;      // accepting
+    private static final int MONTH_DAY_COMMA = 8;
+    private static final int MONTH_DAY_YEAR = 9;         // accepting
+    private static final int NUM_A = 10;                 // accepting in phase 1, a day in the first date's month
+    private static final int NUM_A_SEP = 11;
+    private static final int NUM_AB = 12;                // accepting with '/', month and day
+    private static final int NUM_AB_SEP = 13;
+    private static final int NUM_ABC = 14;               // accepting, month, day and year
+    private static final int ISO_Y = 15;
+    private static final int ISO_Y_SEP = 16;
+    private static final int ISO_YM = 17;
+    private static final int ISO_YM_SEP = 18;
+    private static final int ISO_YMD = 19;               // accepting
+
+    // Words that mean something to the recognizer, by class; months map to their number
+    private static final String[][] MONTHS = {
+        {"january", "jan"}, {"february", "feb"}, {"march", "mar"}, {"april", "apr"}, {"may"},
+        {"june", "jun"}, {"july", "jul"}, {"august", "aug"}, {"september", "sep", "sept"},
+        {"october", "oct"}, {"november", "nov"}, {"december", "dec"},
+    };
+    private static final String[] WEEKDAYS = {"monday", "mon", "tuesday", "tue", "tues", "wednesday", "wed",
+        "thursday", "thu", "thur", "thurs", "friday", "fri", "saturday", "sat", "sunday", "sun"};
+    private static final String[] ORDINALS = {"st", "nd", "rd", "th"};
+    private static final String[] RANGE_WORDS = {"to", "through", "thru", "until", "till"};
+    private static final String[] SEASONS = {"fall", "spring", "summer", "winter"};
+    private static final String[] ASSIGNMENT_WORDS = {"homework", "hw", "assignment", "project", "lab", "quiz"};
+    private static final String[] EXAM_WORDS = {"exam", "exams", "examination"};
+
+    // The words compiled into a trie: 26 transitions per node (-1 for none), and each node's class and value
+    private static final int[] TRIE_NEXT;
+    private static final int[] TRIE_KIND;
+    private static final int[] TRIE_VALUE;
+
+    static {
+        int[] next = new int[26 * 256];
+        Arrays.fill(next, -1);
+        int[] kind = new int[256];
+        int[] value = new int[256];
+        int nodes = 1;
+        for (int month = 0; month < MONTHS.length; month++) {
+            for (String word : MONTHS[month]) {
+                nodes = insert(next, kind, value, nodes, word, MONTH, month + 1);
+            }
+        }
+        String[][] classes = {WEEKDAYS, ORDINALS, RANGE_WORDS, SEASONS, ASSIGNMENT_WORDS, {"midterm"}, {"final"},
+            EXAM_WORDS};
+        int[] classKinds = {WEEKDAY, ORDINAL, RANGE_WORD, SEASON, ASSIGNMENT_WORD, MIDTERM_WORD, FINAL_WORD, EXAM_WORD};
+        for (int c = 0; c < classes.length; c++) {
+            for (String word : classes[c]) {
+                nodes = insert(next, kind, value, nodes, word, classKinds[c], 0);
+            }
+        }
+        TRIE_NEXT = Arrays.copyOf(next, 26 * nodes);
+        TRIE_KIND = Arrays.copyOf(kind, nodes);
+        TRIE_VALUE = Arrays.copyOf(value, nodes);
+    }
+
+    private static int insert(int[] next, int[] kind, int[] value, int nodes, String word, int wordKind, int wordValue) {
+        int node = 0;
+        for (int i = 0; i < word.length(); i++) {
+            int edge = node * 26 + (word.charAt(i) - 'a');
+            if (next[edge] < 0) {
+                next[edge] = nodes++;
+            }
+            node = next[edge];
+        }
+        kind[node] = wordKind;
+        value[node] = wordValue;
+        return nodes;
+    }
+
+    private final CharSequence text;
+    private final Listener listener;
+
+    // Tokens, in parallel arrays; value is a number's value, capped at nine digits, or a month
+    private int count;
+    private int[] kinds;
+    private int[] starts;
+    private int[] ends;
+    private int[] values;
+    private int[] digits;
+    private boolean[] spaced; // whitespace before the token
+
+    private int contextYear;
+    private int lastMonth;
+
+    // Tokens looked at by recognize() and the date automaton, for the tests' linearity checks
+    private long steps;
+
+    // The longest date match so far, and the first date of it
+    private int matchEnd;
+    private int firstEnd;
+    private boolean firstPartial;
+    private final int[] month = new int[2];
+    private final int[] day = new int[2];
+    private final int[] year = new int[2];
+
+    private ScheduleRecognizer(CharSequence text, Listener listener) {
+        this.text = text;
+        this.listener = listener;
+        int capacity = Math.max(16, text.length() / 4);
+        kinds = new int[capacity];
+        starts = new int[capacity];
+        ends = new int[capacity];
+        values = new int[capacity];
+        digits = new int[capacity];
+        spaced = new boolean[capacity];
+    }
+
+    public static void scan(CharSequence text, Listener listener) {
+        steps(text, listener);
+    }
+
+    // Scans and returns how many tokens were looked at, at most MAX_DATE_TOKENS + 1 per token
+    static long steps(CharSequence text, Listener listener) {
+        ScheduleRecognizer recognizer = new ScheduleRecognizer(text, listener);
+        recognizer.tokenize();
+        recognizer.recognize();
+        return recognizer.steps;
+    }
+
+    private void tokenize() {
+        int length = text.length();
+        int i = 0;
+        boolean space = false;
+        while (i < length) {
+            char c = text.charAt(i);
+            int start = i;
+            if (c == '\n') {
+                add(NEWLINE, start, ++i, 0, 0, space);
+            } else if (isSpace(c)) {
+                i++;
+                space = true;
+                continue;
+            } else if (c >= '0' && c <= '9') {
+                int value = 0;
+                int n = 0;
+                do {
+                    if (n < 9) {
+                        value = value * 10 + (c - '0');
+                    }
+                    n++;
+                } while (++i < length && (c = text.charAt(i)) >= '0' && c <= '9');
+                add(NUMBER, start, i, value, n, space);
+            } else if (Character.isLetter(c)) {
+                int node = 0;
+                do {
+                    if (node >= 0) {
+                        char lower = (char) (c | 0x20);
+                        node = lower >= 'a' && lower <= 'z' && c < 128 ? TRIE_NEXT[node * 26 + (lower - 'a')] : -1;
+                    }
+                } while (++i < length && Character.isLetter(c = text.charAt(i)));
+                int kind = node > 0 && TRIE_KIND[node] != 0 ? TRIE_KIND[node] : WORD;
+                add(kind, start, i, node > 0 ? TRIE_VALUE[node] : 0, 0, space);
+            } else {
+                add(punctuation(c), start, ++i, 0, 0, space);
+            }
+            space = false;
+        }
+    }
+
+    private void add(int kind, int start, int end, int value, int n, boolean space) {
+        if (count == kinds.length) {
+            int capacity = count * 2;
+            kinds = Arrays.copyOf(kinds, capacity);
+            starts = Arrays.copyOf(starts, capacity);
+            ends = Arrays.copyOf(ends, capacity);
+            values = Arrays.copyOf(values, capacity);
+            digits = Arrays.copyOf(digits, capacity);
+            spaced = Arrays.copyOf(spaced, capacity);
+        }
+        kinds[count] = kind;
+        starts[count] = start;
+        ends[count] = end;
+        values[count] = value;
+        digits[count] = n;
+        spaced[count] = space;
+        count++;
+    }
+
+    private void recognize() {
+        int t = 0;
+        while (t < count) {
+            steps++;
+            t = switch (kinds[t]) {
+                case NEWLINE -> {
+                    listener.endOfLine(starts[t]);
+                    yield t + 1;
+                }
+                case SEASON -> {
+                    if (isNumber(t + 1, 4, 4)) {
+                        contextYear = values[t + 1];
+                        lastMonth = 0;
+                        yield t + 2;
+                    }
+                    yield t + 1;
+                }
+                case ASSIGNMENT_WORD, MIDTERM_WORD, FINAL_WORD, EXAM_WORD -> matchEvent(t);
+                case NUMBER, MONTH, WEEKDAY -> matchDate(t);
+                default -> t + 1;
+            };
+        }
+        listener.endOfLine(text.length());
+    }
+
+    // Returns the token after the event, or t + 1 when the keyword is not one
+    private int matchEvent(int t) {
+        int next = t + 1;
+        switch (kinds[t]) {
+            case ASSIGNMENT_WORD -> {
+                if (next < count && kinds[next] == HASH) {
+                    next++;
+                }
+                if (!isEventNumber(next)) {
+                    return t + 1;
+                }
+                listener.event(EventKind.ASSIGNMENT, starts[t], ends[t], starts[next], ends[next]);
+                return next + 1;
+            }
+            case MIDTERM_WORD -> {
+                if (next < count && kinds[next] == EXAM_WORD) {
+                    next++;
+                }
+                if (isEventNumber(next)) {
+                    listener.event(EventKind.MIDTERM, starts[t], ends[t], starts[next], ends[next]);
+                    return next + 1;
+                }
+                listener.event(EventKind.MIDTERM, starts[t], ends[t], -1, -1);
+                return next;
+            }
+            case FINAL_WORD -> {
+                if (next >= count || kinds[next] != EXAM_WORD) {
+                    return t + 1;
+                }
+                listener.event(EventKind.FINAL_EXAM, starts[t], ends[t], -1, -1);
+                return next + 1;
+            }
+            default -> {
+                if (!isEventNumber(next)) {
+                    return t + 1;
+                }
+                listener.event(EventKind.EXAM, starts[t], ends[t], starts[next], ends[next]);
+                return next + 1;
+            }
+        }
+    }
+
+    // A number of up to three digits that does not start a date ("Quiz 9/15")
+    private boolean isEventNumber(int t) {
+        if (!isNumber(t, 1, 3)) {
+            return false;
+        }
+        int after = t + 1;
+        return after >= count || spaced[after] || (kinds[after] != SLASH && kinds[after] != HYPHEN);
+    }
+
+    // Runs the date automaton from token t and reports the longest match; returns the token after it,
+    // or t + 1 when there is none
+    private int matchDate(int from) {
+        // The middle of "3.5/4" or "1/2/3"
+        if (kinds[from] == NUMBER && from > 0 && !spaced[from] && isNumericSeparator(kinds[from - 1])) {
+            return from + 1;
+        }
+        matchEnd = -1;
+        firstEnd = -1;
+        int state = START;
+        int phase = 0;
+        int a = 0;
+        int b = 0;
+        int separator = 0;
+
+        for (int t = from; t < count && t - from < MAX_DATE_TOKENS; t++) {
+            steps++;
+            int kind = kinds[t];
+            boolean adjacent = !spaced[t];
+            int next = DEAD;
+            switch (state) {
+                case START, AFTER_WEEKDAY, AFTER_WEEKDAY_PUNCT -> {
+                    if (kind == WEEKDAY && state == START) {
+                        next = AFTER_WEEKDAY;
+                    } else if ((kind == COMMA || kind == PERIOD) && state == AFTER_WEEKDAY) {
+                        next = AFTER_WEEKDAY_PUNCT;
+                    } else if (kind == MONTH) {
+                        month[phase] = values[t];
+                        next = AFTER_MONTH;
+                    } else if (isNumber(t, 1, 2)) {
+                        a = values[t];
+                        next = NUM_A;
+                    } else if (isNumber(t, 4, 4) && state == START) {
+                        a = values[t];
+                        next = ISO_Y;
+                    }
+                }
+                case AFTER_MONTH, AFTER_MONTH_DOT -> {
+                    if (kind == PERIOD && adjacent && state == AFTER_MONTH) {
+                        next = AFTER_MONTH_DOT;
+                    } else if (isNumber(t, 1, 2)) {
+                        day[phase] = values[t];
+                        year[phase] = 0;
+                        next = MONTH_DAY;
+                    }
+                }
+                case MONTH_DAY, MONTH_DAY_ORDINAL -> {
+                    if (kind == ORDINAL && adjacent && state == MONTH_DAY) {
+                        next = MONTH_DAY_ORDINAL;
+                    } else if (kind == COMMA) {
+                        next = MONTH_DAY_COMMA;
+                    } else if (isNumber(t, 4, 4) && !adjacent) {
+                        year[phase] = values[t];
+                        next = MONTH_DAY_YEAR;
+                    } else if (phase == 0 && isRangeSeparator(kind)) {
+                        phase = 1;
+                        next = START;
+                    }
+                }
+                case MONTH_DAY_COMMA -> {
+                    if (isNumber(t, 4, 4)) {
+                        year[phase] = values[t];
+                        next = MONTH_DAY_YEAR;
+                    }
+                }
+                case NUM_A -> {
+                    if (adjacent && (kind == SLASH || kind == HYPHEN)) {
+                        separator = kind;
+                        next = NUM_A_SEP;
+                    }
+                }
+                case NUM_A_SEP -> {
+                    if (adjacent && isNumber(t, 1, 2)) {
+                        b = values[t];
+                        next = NUM_AB;
+                    }
+                }
+                case NUM_AB -> {
+                    if (adjacent && kind == separator) {
+                        next = NUM_AB_SEP;
+                    } else if (phase == 0 && separator == SLASH && isRangeSeparator(kind)) {
+                        phase = 1;
+                        next = START;
+                    }
+                }
+                case NUM_AB_SEP -> {
+                    if (adjacent && (isNumber(t, 2, 2) || isNumber(t, 4, 4))) {
+                        month[phase] = a;
+                        day[phase] = b;
+                        year[phase] = digits[t] == 2 ? 2000 + values[t] : values[t];
+                        next = NUM_ABC;
+                    }
+                }
+                case ISO_Y -> {
+                    if (adjacent && (kind == SLASH || kind == HYPHEN)) {
+                        separator = kind;
+                        next = ISO_Y_SEP;
+                    }
+                }
+                case ISO_Y_SEP -> {
+                    if (adjacent && isNumber(t, 1, 2)) {
+                        b = values[t];
+                        next = ISO_YM;
+                    }
+                }
+                case ISO_YM -> {
+                    if (adjacent && kind == separator) {
+                        next = ISO_YM_SEP;
+                    }
+                }
+                case ISO_YM_SEP -> {
+                    if (adjacent && isNumber(t, 1, 2)) {
+                        year[phase] = a;
+                        month[phase] = b;
+                        day[phase] = values[t];
+                        next = ISO_YMD;
+                    }
+                }
+                case NUM_ABC, ISO_YMD, MONTH_DAY_YEAR -> {
+                    if (phase == 0 && isRangeSeparator(kind)) {
+                        phase = 1;
+                        next = START;
+                    }
+                }
+                default -> {
+                }
+            }
+            if (next == DEAD) {
+                break;
+            }
+            state = next;
+            accept(state, phase, t, a, b, separator);
+        }
+
+        if (firstEnd < 0) {
+            return from + 1;
+        }
+        return report(from);
+    }
+
+    private void accept(int state, int phase, int t, int a, int b, int separator) {
+        switch (state) {
+            case MONTH_DAY, MONTH_DAY_ORDINAL, MONTH_DAY_YEAR, NUM_ABC, ISO_YMD -> {
+            }
+            case NUM_AB -> {
+                if (separator != SLASH || continuesNumerically(t + 1)) {
+                    return;
+                }
+                month[phase] = a;
+                day[phase] = b;
+                year[phase] = 0;
+            }
+            case NUM_A -> {
+                if (phase == 0) {
+                    return;
+                }
+                month[phase] = 0;
+                day[phase] = a;
+                year[phase] = 0;
+            }
+            default -> {
+                return;
+            }
+        }
+        matchEnd = t + 1;
+        if (phase == 0) {
+            firstEnd = t + 1;
+            firstPartial = state == NUM_AB;
+        }
+    }
+
+    // Resolves missing months and years, reports the match and returns the token after it
+    private int report(int from) {
+        boolean range = matchEnd > firstEnd;
+        int firstYear = year[0];
+        if (firstYear == 0) {
+            if (contextYear == 0) {
+                return firstEnd;
+            }
+            firstYear = contextYear + (lastMonth != 0 && month[0] + 6 < lastMonth ? 1 : 0);
+        }
+        int first = DateRecognizer.pack(firstYear, month[0], day[0]);
+        if (first == DateRecognizer.INVALID) {
+            // "3/4" or "24/7" is more likely a fraction than a date
+            if (!firstPartial) {
+                listener.date(starts[from], ends[firstEnd - 1], DateRecognizer.INVALID, DateRecognizer.INVALID);
+            }
+            return firstEnd;
+        }
+
+        int last = first;
+        int lastMonthSeen = month[0];
+        if (range) {
+            int endMonth = month[1] != 0 ? month[1] : month[0];
+            int endYear = year[1] != 0 ? year[1] : firstYear + (endMonth < month[0] ? 1 : 0);
+            int end = DateRecognizer.pack(endYear, endMonth, day[1]);
+            if (end != DateRecognizer.INVALID && end > first) {
+                last = end;
+                firstYear = endYear;
+                lastMonthSeen = endMonth;
+            } else {
+                range = false;
+            }
+        }
+        contextYear = range ? firstYear : DateRecognizer.year(first);
+        lastMonth = lastMonthSeen;
+
+        int endToken = range ? matchEnd : firstEnd;
+        listener.date(starts[from], ends[endToken - 1], first, last);
+        return endToken;
+    }
+
+    private boolean isNumber(int t, int minDigits, int maxDigits) {
+        return t < count && kinds[t] == NUMBER && digits[t] >= minDigits && digits[t] <= maxDigits;
+    }
+
+    // A separator and a number right after token t, as in the "/3" of "1/2/3"
+    private boolean continuesNumerically(int t) {
+        return t + 1 < count && !spaced[t] && !spaced[t + 1] && isNumericSeparator(kinds[t]) && kinds[t + 1] == NUMBER;
+    }
+
+    // Not a hyphen, which also joins the dates of a range ("11/24-11/28")
+    private static boolean isNumericSeparator(int kind) {
+        return kind == SLASH || kind == PERIOD;
+    }
+
+    private static boolean isRangeSeparator(int kind) {
+        return kind == HYPHEN || kind == DASH || kind == RANGE_WORD;
+    }
+
+    private static int punctuation(char c) {
+        return switch (c) {
+            case '/' -> SLASH;
+            case '-' -> HYPHEN;
+            case '\u2012', '\u2013', '\u2014', '\u2015' -> DASH; // figure, en, em and horizontal bar dashes
+            case ',' -> COMMA;
+            case '.' -> PERIOD;
+            case '#' -> HASH;
+            default -> OTHER;
+        };
+    }
+
+    private static boolean isSpace(char c) {
+        return c == ' ' || c == '\t' || c == '\r' || c == '\u00A0' || Character.isWhitespace(c);
+    }
+}
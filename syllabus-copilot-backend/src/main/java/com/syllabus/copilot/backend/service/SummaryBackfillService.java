@@ -0,0 +1,104 @@
+package com.syllabus.copilot.backend.service;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import com.syllabus.copilot.backend.model.ProcessingStatus;
+import com.syllabus.copilot.backend.model.Syllabus;
+import com.syllabus.copilot.backend.repository.SyllabusUpdateRepository;
+import com.syllabus.copilot.backend.service.LlmSummaryClient.GeneratedSummary;
+
+import lombok.extern.slf4j.Slf4j;
+
+// Replaces the heuristic summary and study plan with LLM-generated ones after a syllabus completes.
+// Processing never waits on the model: the syllabus is completed with the heuristic first, and the
+// generated version is written over it when it arrives. When the queue is full the heuristic stays.
+@Slf4j
+@Service
+public class SummaryBackfillService implements DisposableBean {
+    private final LlmSummaryClient llmClient;
+    private final SyllabusReadCache readCache;
+    private final SyllabusTextStore textStore;
+    private final SyllabusUpdateRepository updates;
+    private final ThreadPoolExecutor executor;
+
+    public SummaryBackfillService(LlmSummaryClient llmClient,
+                                  SyllabusReadCache readCache,
+                                  SyllabusTextStore textStore,
+                                  SyllabusUpdateRepository updates,
+                                  @Value("${syllabus.llm.max-concurrent-requests:4}") int threads,
+                                  @Value("${syllabus.llm.queue-capacity:200}") int queueCapacity) {
+        this.llmClient = llmClient;
+        this.readCache = readCache;
+        this.textStore = textStore;
+        this.updates = updates;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "llm-backfill-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    // Queues generation for a completed syllabus; returns immediately
+    public void schedule(String syllabusId) {
+        if (!llmClient.isEnabled()) {
+            return;
+        }
+        try {
+            executor.execute(() -> backfill(syllabusId));
+        } catch (RejectedExecutionException e) {
+            llmClient.recordRejected();
+            log.warn("Summary back-fill queue is full, syllabus {} keeps its heuristic summary", syllabusId);
+        }
+    }
+
+    void backfill(String syllabusId) {
+        try {
+            Optional<Syllabus> syllabus = readCache.findById(syllabusId);
+            if (syllabus.isEmpty() || syllabus.get().getOriginalTextRef() == null) {
+                return;
+            }
+            Optional<String> text = textStore.load(syllabus.get().getOriginalTextRef());
+            if (text.isEmpty()) {
+                return;
+            }
+
+            Optional<GeneratedSummary> generated = llmClient.generate(syllabus.get().getCourseName(), text.get());
+            if (generated.isEmpty()) {
+                return;
+            }
+
+            Update changes = new Update()
+                    .set("aiGeneratedSummary", generated.get().summary())
+                    .set("studyPlan", generated.get().studyPlan())
+                    .set("summaryModel", generated.get().model());
+            if (updates.updateIfInStatus(syllabusId, ProcessingStatus.COMPLETED, changes)) {
+                readCache.invalidate(syllabusId, syllabus.get().getUserId());
+                log.debug("Back-filled generated summary for syllabus {}", syllabusId);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Summary back-fill for syllabus {} failed, keeping the heuristic summary: {}",
+                    syllabusId, e.toString());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
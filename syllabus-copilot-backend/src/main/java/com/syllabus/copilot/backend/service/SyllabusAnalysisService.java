@@ -2,220 +2,110 @@ package com.syllabus.copilot.backend.service;
 
 import org.springframework.stereotype.Service;
 
+import com.syllabus.copilot.backend.diagnostics.RuleEvaluationEvent;
+import com.syllabus.copilot.backend.diagnostics.SyllabusAnalysisEvent;
 import com.syllabus.copilot.backend.model.*;
 
+import com.syllabus.copilot.backend.service.PipelineMetrics.Stage;
+
 import lombok.extern.slf4j.Slf4j;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 @Slf4j
 @Service
 public class SyllabusAnalysisService {
+    // Bump whenever the extraction rules change; stored syllabi from older versions are picked up
+    // by ReanalysisService and cached extractions from them are re-analyzed on their next hit
+    public static final int ANALYZER_VERSION = 2;
+
+    private static final List<String> RULE_NAMES = SyllabusExtractionEngine.ruleNames();
+
+    private final SyllabusExtractionEngine extractionEngine;
+    private final PipelineMetrics metrics;
+
+    public SyllabusAnalysisService(SyllabusExtractionEngine extractionEngine, PipelineMetrics metrics) {
+        this.extractionEngine = extractionEngine;
+        this.metrics = metrics;
+    }
 
     public void analyzeSyllabusContent(Syllabus syllabus, String extractedText) {
         log.info("Starting syllabus analysis for course: {}", syllabus.getCourseName());
         
         syllabus.setOriginalText(extractedText);
+        SyllabusAnalysisEvent event = new SyllabusAnalysisEvent();
+        event.begin();
         
-        // Extract course information
-        extractCourseInfo(syllabus, extractedText);
-        
-        // Extract assignments
-        extractAssignments(syllabus, extractedText);
-        
-        // Extract exams
-        extractExams(syllabus, extractedText);
-        
-        // Extract important dates
-        extractImportantDates(syllabus, extractedText);
+        // Extract course information, assignments, exams and important dates in one pass
+        long started = System.nanoTime();
+        SyllabusExtractionEngine.Trace trace = new SyllabusExtractionEngine.Trace(syllabus.getId());
+        extractionEngine.extract(syllabus, extractedText, trace);
+        metrics.stage(Stage.EXTRACT_RULES, started);
+        metrics.rules(trace);
         
         // Generate AI summary (placeholder for now)
-        generateAISummary(syllabus, extractedText);
+        started = System.nanoTime();
+        generateAISummary(syllabus, extractedText.length());
+        metrics.stage(Stage.SUMMARY, started);
         
-        syllabus.setProcessingStatus(ProcessingStatus.COMPLETED);
-        log.info("Completed syllabus analysis for course: {}", syllabus.getCourseName());
-    }
-
-    private void extractCourseInfo(Syllabus syllabus, String text) {
-        // Extract course code
-        Pattern courseCodePattern = Pattern.compile("(?i)course\\s+(?:code|number)?:?\\s*([A-Z]{2,4}\\s*\\d{3,4})", Pattern.CASE_INSENSITIVE);
-        Matcher courseCodeMatcher = courseCodePattern.matcher(text);
-        if (courseCodeMatcher.find()) {
-            syllabus.setCourseCode(courseCodeMatcher.group(1).trim());
-        }
-
-        // Extract instructor
-        Pattern instructorPattern = Pattern.compile("(?i)instructor:?\\s*([A-Za-z\\s,\\.]+?)(?:\\n|$|professor|dr\\.|email)", Pattern.CASE_INSENSITIVE);
-        Matcher instructorMatcher = instructorPattern.matcher(text);
-        if (instructorMatcher.find()) {
-            syllabus.setInstructor(instructorMatcher.group(1).trim());
-        }
-
-        // Extract semester/term
-        Pattern semesterPattern = Pattern.compile("(?i)(fall|spring|summer|winter)\\s*(\\d{4})", Pattern.CASE_INSENSITIVE);
-        Matcher semesterMatcher = semesterPattern.matcher(text);
-        if (semesterMatcher.find()) {
-            syllabus.setSemester(semesterMatcher.group(0));
-        }
-
-        // Extract course description
-        Pattern descPattern = Pattern.compile("(?i)(?:course\\s+)?description:?\\s*([^\\n]{50,500})", Pattern.CASE_INSENSITIVE);
-        Matcher descMatcher = descPattern.matcher(text);
-        if (descMatcher.find()) {
-            syllabus.setDescription(descMatcher.group(1).trim());
-        }
-    }
-
-    private void extractAssignments(Syllabus syllabus, String text) {
-        List<Assignment> assignments = new ArrayList<>();
-        
-        // Pattern to capture: "Homework 1 — Due 09/10/2025" or "Quiz 1 — 09/15/2025" format
-        // Must have: type + number + separator (— or -) + optional "Due" + valid date
-        Pattern assignmentPattern = Pattern.compile(
-            "(?i)(homework|assignment|project|lab|quiz)\\s+(\\d+)\\s*[—\\-]\\s*(?:due\\s+)?(\\d{2}/\\d{2}/\\d{4})",
-            Pattern.CASE_INSENSITIVE
-        );
-        Matcher matcher = assignmentPattern.matcher(text);
-        
-        while (matcher.find()) {
-            Assignment assignment = new Assignment();
-            String type = matcher.group(1);
-            String number = matcher.group(2);
-            String dateStr = matcher.group(3);
-            
-            assignment.setTitle(type + " " + number);
-            assignment.setType(type.toLowerCase());
-            assignment.setDescription(type + " " + number + " - Due " + dateStr);
-            
-            try {
-                assignment.setDueDate(parseDateString(dateStr));
-            } catch (Exception e) {
-                log.warn("Failed to parse assignment date: {}", dateStr);
-            }
-            
-            assignments.add(assignment);
+        event.end();
+        if (event.shouldCommit()) {
+            commitFlightEvents(event, syllabus, extractedText.length(), trace);
         }
         
-        syllabus.setAssignments(assignments);
+        syllabus.setAnalyzerVersion(ANALYZER_VERSION);
+        syllabus.setProcessingStatus(ProcessingStatus.COMPLETED);
+        log.info("Completed syllabus analysis for course: {}", syllabus.getCourseName());
     }
 
-    private void extractExams(Syllabus syllabus, String text) {
-        List<Exam> exams = new ArrayList<>();
-        
-        // Pattern to capture: "Midterm Exam — 10/20/2025"
-        // Must have: type + "Exam" + separator (— or -) + valid date
-        Pattern examPattern = Pattern.compile(
-            "(?i)(midterm|final)\\s+exam\\s*[—\\-]\\s*(\\d{2}/\\d{2}/\\d{4})",
-            Pattern.CASE_INSENSITIVE
-        );
-        Matcher matcher = examPattern.matcher(text);
-        
-        while (matcher.find()) {
-            Exam exam = new Exam();
-            String type = matcher.group(1);
-            String dateStr = matcher.group(2);
-            
-            exam.setTitle(type + " Exam");
-            exam.setType(type.toLowerCase());
-            exam.setCoverageTopics("See syllabus for details");
-            
-            try {
-                exam.setDateTime(parseDateString(dateStr));
-            } catch (Exception e) {
-                log.warn("Failed to parse exam date: {}", dateStr);
-            }
-            
-            exams.add(exam);
-        }
+    public void applyCachedAnalysis(Syllabus syllabus, ExtractionCacheEntry cached) {
+        log.info("Reusing cached analysis for course: {}", syllabus.getCourseName());
+        
+        syllabus.setOriginalTextRef(cached.getTextRef());
+        syllabus.setOriginalTextLength(cached.getTextLength());
+        syllabus.setCourseCode(cached.getCourseCode());
+        syllabus.setInstructor(cached.getInstructor());
+        syllabus.setSemester(cached.getSemester());
+        syllabus.setDescription(cached.getDescription());
+        syllabus.setAssignments(cached.getAssignments());
+        syllabus.setExams(cached.getExams());
+        syllabus.setImportantDates(cached.getImportantDates());
+        syllabus.setAnalyzerVersion(cached.getAnalyzerVersion());
+        
+        // The summary depends on the course name the user entered, so it is not cached
+        long started = System.nanoTime();
+        generateAISummary(syllabus, cached.getTextLength());
+        metrics.stage(Stage.SUMMARY, started);
         
-        syllabus.setExams(exams);
+        syllabus.setProcessingStatus(ProcessingStatus.COMPLETED);
     }
 
-    private void extractImportantDates(Syllabus syllabus, String text) {
-        List<ImportantDate> dates = new ArrayList<>();
-        
-        // Look for date patterns with context
-        Pattern datePattern = Pattern.compile(
-            "(?i)(\\d{1,2}[/\\-]\\d{1,2}[/\\-]\\d{2,4})\\s*[:-]?\\s*([^\\n]+)",
-            Pattern.CASE_INSENSITIVE
-        );
-        Matcher matcher = datePattern.matcher(text);
-        
-        while (matcher.find()) {
-            String dateStr = matcher.group(1);
-            String description = matcher.group(2).trim();
-            
-            // Skip if already captured as assignment or exam
-            if (description.toLowerCase().matches(".*(assignment|homework|exam|quiz|midterm|final).*")) {
-                continue;
-            }
-            
-            ImportantDate date = new ImportantDate();
-            date.setTitle(description.length() > 50 ? description.substring(0, 50) + "..." : description);
-            date.setDescription(description);
-            date.setType(determineImportantDateType(description));
-            
-            try {
-                date.setDate(parseDateString(dateStr));
-            } catch (Exception e) {
-                log.warn("Failed to parse important date: {}", dateStr);
-            }
-            
-            dates.add(date);
+    // Flight recorder events for a pathological syllabus: totals, then what each rule cost
+    private static void commitFlightEvents(SyllabusAnalysisEvent event, Syllabus syllabus, int characters,
+                                           SyllabusExtractionEngine.Trace trace) {
+        event.syllabusId = syllabus.getId();
+        event.characters = characters;
+        event.assignments = syllabus.getAssignments().size();
+        event.exams = syllabus.getExams().size();
+        event.importantDates = syllabus.getImportantDates().size();
+        event.datesParsed = trace.getDatesParsed();
+        event.datesInvalid = trace.getDatesInvalid();
+        event.commit();
+        
+        for (int rule = 0; rule < RULE_NAMES.size(); rule++) {
+            RuleEvaluationEvent ruleEvent = new RuleEvaluationEvent();
+            ruleEvent.syllabusId = syllabus.getId();
+            ruleEvent.rule = RULE_NAMES.get(rule);
+            ruleEvent.attempts = trace.attempts(rule);
+            ruleEvent.matches = trace.matches(rule);
+            ruleEvent.matchTime = trace.nanos(rule);
+            ruleEvent.commit();
         }
-        
-        syllabus.setImportantDates(dates);
-    }
-    
-    private String determineImportantDateType(String description) {
-        String lower = description.toLowerCase();
-        if (lower.contains("holiday") || lower.contains("no class") || lower.contains("break")) {
-            return "holiday";
-        } else if (lower.contains("deadline") || lower.contains("due")) {
-            return "deadline";
-        } else if (lower.contains("drop") || lower.contains("withdraw")) {
-            return "administrative";
-        }
-        return "other";
-    }
-    
-    private LocalDateTime parseDateString(String dateStr) {
-        // Parse MM/DD/YYYY or MM-DD-YYYY or YYYY-MM-DD
-        String[] parts;
-        if (dateStr.contains("/")) {
-            parts = dateStr.split("/");
-        } else {
-            parts = dateStr.split("-");
-        }
-        
-        int year, month, day;
-        
-        if (parts[0].length() == 4) {
-            // YYYY-MM-DD format
-            year = Integer.parseInt(parts[0]);
-            month = Integer.parseInt(parts[1]);
-            day = Integer.parseInt(parts[2]);
-        } else {
-            // MM/DD/YYYY or MM-DD-YYYY format
-            month = Integer.parseInt(parts[0]);
-            day = Integer.parseInt(parts[1]);
-            year = Integer.parseInt(parts[2]);
-            
-            // Handle 2-digit years
-            if (year < 100) {
-                year += 2000;
-            }
-        }
-        
-        return LocalDateTime.of(year, month, day, 0, 0);
     }
 
-    private void generateAISummary(Syllabus syllabus, String text) {
+    private void generateAISummary(Syllabus syllabus, int textLength) {
         // For now, generate a simple summary based on the extracted text
         // In a real implementation, this would call OpenAI API
         
@@ -230,7 +120,7 @@ public class SyllabusAnalysisService {
             summary.append("Instructor: ").append(syllabus.getInstructor()).append("\n");
         }
         
-        summary.append("Text Length: ").append(text.length()).append(" characters\n");
+        summary.append("Text Length: ").append(textLength).append(" characters\n");
         summary.append("Assignments: ").append(syllabus.getAssignments().size()).append("\n");
         summary.append("Exams: ").append(syllabus.getExams().size()).append("\n");
         
@@ -0,0 +1,529 @@
+package com.syllabus.copilot.backend.service;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.syllabus.copilot.backend.model.BatchFileResult;
+import com.syllabus.copilot.backend.model.ProcessingJob;
+import com.syllabus.copilot.backend.model.ProcessingStatus;
+import com.syllabus.copilot.backend.model.ProgressEvent;
+import com.syllabus.copilot.backend.model.ProgressStage;
+import com.syllabus.copilot.backend.model.Syllabus;
+import com.syllabus.copilot.backend.repository.SyllabusUpdateRepository;
+import com.syllabus.copilot.backend.repository.SyllabusUpdateRepository.Transition;
+import com.syllabus.copilot.backend.service.PipelineMetrics.Outcome;
+import com.syllabus.copilot.backend.service.PipelineMetrics.Stage;
+
+import lombok.extern.slf4j.Slf4j;
+
+// Many PDFs, or zip archives of PDFs, submitted in one request. The syllabi are inserted with a
+// single bulk write, analyzed on a bounded number of worker lanes, and their results written
+// back in bulk batches instead of one round trip per document. Every file also gets a queue job,
+// held by this instance until its result is written, so the files of a batch that was cut short
+// by the instance dying are run by another one.
+@Slf4j
+@Service
+public class SyllabusBatchService {
+    private static final long MAX_PDF_BYTES = 10 * 1024 * 1024;
+
+    private final SyllabusService syllabusService;
+    private final PdfProcessingService pdfProcessingService;
+    private final SyllabusUpdateRepository updates;
+    private final SyllabusReadCache readCache;
+    private final SyllabusTextStore textStore;
+    private final SyllabusUploadStore uploadStore;
+    private final ProcessingJobWorker jobWorker;
+    private final ExecutorService processingExecutor;
+    private final ProcessingAdmission admission;
+    private final SummaryBackfillService summaryBackfill;
+    private final ProgressEventBus progressEvents;
+    private final PipelineMetrics metrics;
+    private final int maxFiles;
+    private final int maxZipEntries;
+    private final int parallelism;
+    private final int flushSize;
+
+    public SyllabusBatchService(SyllabusService syllabusService,
+                                PdfProcessingService pdfProcessingService,
+                                SyllabusUpdateRepository updates,
+                                SyllabusReadCache readCache,
+                                SyllabusTextStore textStore,
+                                SyllabusUploadStore uploadStore,
+                                ProcessingJobWorker jobWorker,
+                                @Qualifier("syllabusProcessingExecutor") ExecutorService processingExecutor,
+                                ProcessingAdmission admission,
+                                SummaryBackfillService summaryBackfill,
+                                ProgressEventBus progressEvents,
+                                PipelineMetrics metrics,
+                                @Value("${syllabus.batch.max-files:10}") int maxFiles,
+                                @Value("${syllabus.batch.max-zip-entries:1000}") int maxZipEntries,
+                                @Value("${syllabus.batch.parallelism:4}") int parallelism,
+                                @Value("${syllabus.batch.flush-size:20}") int flushSize) {
+        this.syllabusService = syllabusService;
+        this.pdfProcessingService = pdfProcessingService;
+        this.updates = updates;
+        this.readCache = readCache;
+        this.textStore = textStore;
+        this.uploadStore = uploadStore;
+        this.jobWorker = jobWorker;
+        this.processingExecutor = processingExecutor;
+        this.admission = admission;
+        this.summaryBackfill = summaryBackfill;
+        this.progressEvents = progressEvents;
+        this.metrics = metrics;
+        this.maxFiles = maxFiles;
+        this.maxZipEntries = maxZipEntries;
+        this.parallelism = Math.max(1, parallelism);
+        this.flushSize = Math.max(1, flushSize);
+    }
+
+    // One result per file in upload order; rejected files carry an error and no id
+    public List<BatchFileResult> submitBatch(List<MultipartFile> uploads, String userId) throws IOException {
+        log.info("Received batch of {} upload(s) for user: {}", uploads.size(), userId);
+
+        List<BatchFileResult> results = new ArrayList<>();
+        List<SpooledPdf> accepted = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            int zipEntries = 0;
+            for (MultipartFile upload : uploads) {
+                if (isZip(upload)) {
+                    zipEntries += expandZip(upload, userId, now, maxZipEntries - zipEntries, accepted, results);
+                } else {
+                    addPdf(upload, userId, now, accepted, results);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            accepted.forEach(pdf -> SyllabusService.deleteSpooledFile(pdf.file()));
+            throw e;
+        }
+
+        if (accepted.isEmpty()) {
+            return results;
+        }
+
+        // Every file counts against the user's quota, the same as one upload each
+        try {
+            admission.admit(userId, accepted.size());
+        } catch (RuntimeException e) {
+            accepted.forEach(pdf -> SyllabusService.deleteSpooledFile(pdf.file()));
+            throw e;
+        }
+
+        List<ProcessingJob> held;
+        try {
+            held = holdJobs(accepted, userId);
+        } catch (IOException | RuntimeException e) {
+            accepted.forEach(pdf -> SyllabusService.deleteSpooledFile(pdf.file()));
+            admission.finished(userId, accepted.size());
+            throw e;
+        }
+
+        long started = System.nanoTime();
+        try {
+            updates.insertAll(accepted.stream().map(SpooledPdf::syllabus).toList());
+            metrics.stage(Stage.BULK_INSERT, started);
+        } catch (RuntimeException e) {
+            accepted.forEach(pdf -> SyllabusService.deleteSpooledFile(pdf.file()));
+            // Jobs that cannot be removed now find their syllabus missing once reclaimed, and release their slots then
+            List<ProcessingJob> removed = List.of();
+            try {
+                removed = jobWorker.completeHeld(held.stream().map(ProcessingJob::getId).toList());
+                removed.forEach(job -> uploadStore.delete(job.getUploadRef()));
+            } catch (RuntimeException cleanupFailure) {
+                log.warn("Could not remove the jobs of a failed batch: {}", cleanupFailure.getMessage());
+            }
+            admission.finished(userId, removed.size());
+            throw e;
+        }
+        readCache.invalidate(null, userId);
+        accepted.forEach(pdf -> progressEvents.publish(
+                new ProgressEvent(pdf.syllabus().getId(), userId, ProgressStage.RECEIVED)));
+
+        new BatchRun(accepted, held, userId).start();
+        return results;
+    }
+
+    // Copies each file to the upload store and inserts its job, leased to this instance, in one bulk write
+    private List<ProcessingJob> holdJobs(List<SpooledPdf> accepted, String userId) throws IOException {
+        List<ProcessingJob> held = new ArrayList<>();
+        long started = System.nanoTime();
+        try {
+            for (SpooledPdf pdf : accepted) {
+                Syllabus syllabus = pdf.syllabus();
+                try (InputStream in = Files.newInputStream(pdf.file())) {
+                    String uploadRef = uploadStore.store(in, syllabus.getFileName());
+                    ProcessingJob job = ProcessingJobQueue.newJob(syllabus.getId(), userId, uploadRef, syllabus.getFileName());
+                    job.setId(new ObjectId().toHexString());
+                    held.add(job);
+                }
+            }
+            metrics.stage(Stage.STORE_UPLOAD, started);
+            jobWorker.hold(held);
+            return held;
+        } catch (IOException | RuntimeException e) {
+            held.forEach(job -> uploadStore.delete(job.getUploadRef()));
+            throw e;
+        }
+    }
+
+    // Returns how many entries were read; an archive with more than `budget` is cut off there, so a
+    // request cannot make the service walk an unbounded number of (possibly empty) entries
+    private int expandZip(MultipartFile upload, String userId, LocalDateTime now, int budget,
+                          List<SpooledPdf> accepted, List<BatchFileResult> results) throws IOException {
+        int read = 0;
+        try (ZipInputStream zip = new ZipInputStream(upload.getInputStream())) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                if (read >= budget) {
+                    results.add(rejected(upload.getOriginalFilename(),
+                            "Archives are limited to " + maxZipEntries + " entries per request"));
+                    break;
+                }
+                read++;
+                // Skip folders and the resource forks macOS adds to archives
+                if (entry.isDirectory() || entry.getName().startsWith("__MACOSX/")) {
+                    continue;
+                }
+                String fileName = baseName(entry.getName());
+                if (!fileName.toLowerCase(Locale.ROOT).endsWith(".pdf")) {
+                    results.add(rejected(fileName, "Only PDF files are supported"));
+                } else if (entry.getSize() > MAX_PDF_BYTES) {
+                    results.add(rejected(fileName, "File size exceeds maximum limit of 10MB"));
+                } else {
+                    spool(zip, fileName, userId, now, accepted, results);
+                }
+            }
+        }
+        return read;
+    }
+
+    private void addPdf(MultipartFile upload, String userId, LocalDateTime now,
+                        List<SpooledPdf> accepted, List<BatchFileResult> results) throws IOException {
+        String fileName = upload.getOriginalFilename();
+        if (upload.isEmpty()) {
+            results.add(rejected(fileName, "File cannot be empty"));
+        } else if (!pdfProcessingService.isValidPdfSize(upload)) {
+            results.add(rejected(fileName, "File size exceeds maximum limit of 10MB"));
+        } else if (!"application/pdf".equals(upload.getContentType())
+                && (fileName == null || !fileName.toLowerCase(Locale.ROOT).endsWith(".pdf"))) {
+            results.add(rejected(fileName, "Only PDF files are supported"));
+        } else {
+            try (InputStream in = upload.getInputStream()) {
+                spool(in, fileName, userId, now, accepted, results);
+            }
+        }
+    }
+
+    // Copies one PDF to a scratch file, hashing it on the way, and assigns its syllabus id up front
+    private void spool(InputStream in, String fileName, String userId, LocalDateTime now,
+                       List<SpooledPdf> accepted, List<BatchFileResult> results) throws IOException {
+        if (accepted.size() >= maxFiles) {
+            results.add(rejected(fileName, "Batch limit of " + maxFiles + " files reached"));
+            return;
+        }
+
+        MessageDigest digest = SyllabusService.newContentDigest();
+        Path spooled;
+        try {
+            // Not closed here: for zip entries that would close the whole archive
+            spooled = pdfProcessingService.spoolToTempFile(
+                    new DigestInputStream(new SizeLimitedInputStream(in, MAX_PDF_BYTES), digest));
+        } catch (SizeLimitExceededException e) {
+            results.add(rejected(fileName, "File size exceeds maximum limit of 10MB"));
+            return;
+        }
+
+        Syllabus syllabus = new Syllabus();
+        syllabus.setId(new ObjectId().toHexString());
+        syllabus.setVersion(0L);
+        syllabus.setUserId(userId);
+        syllabus.setCourseName(courseName(fileName));
+        syllabus.setFileName(fileName);
+        syllabus.setContentHash(HexFormat.of().formatHex(digest.digest()));
+        syllabus.setUploadDate(now);
+        syllabus.setLastModifiedDate(now);
+        syllabus.setProcessingStatus(ProcessingStatus.PENDING);
+
+        accepted.add(new SpooledPdf(syllabus, spooled));
+        results.add(new BatchFileResult(fileName, syllabus.getId(), ProcessingStatus.PENDING, null));
+    }
+
+    private static boolean isZip(MultipartFile upload) {
+        String contentType = upload.getContentType();
+        String fileName = upload.getOriginalFilename();
+        return "application/zip".equals(contentType)
+                || "application/x-zip-compressed".equals(contentType)
+                || (fileName != null && fileName.toLowerCase(Locale.ROOT).endsWith(".zip"));
+    }
+
+    private static BatchFileResult rejected(String fileName, String error) {
+        return new BatchFileResult(fileName, null, ProcessingStatus.FAILED, error);
+    }
+
+    private static String baseName(String entryName) {
+        int slash = Math.max(entryName.lastIndexOf('/'), entryName.lastIndexOf('\\'));
+        return entryName.substring(slash + 1);
+    }
+
+    // "COSC412-fall.pdf" -> "COSC412-fall"
+    static String courseName(String fileName) {
+        if (fileName == null) {
+            return null;
+        }
+        String name = baseName(fileName);
+        return name.toLowerCase(Locale.ROOT).endsWith(".pdf") ? name.substring(0, name.length() - 4) : name;
+    }
+
+    private record SpooledPdf(Syllabus syllabus, Path file) {
+    }
+
+    // Worker lanes pull files from a shared queue, so no more than `parallelism` of the
+    // processing pool's threads are spent on one batch; results are flushed every flushSize files
+    private class BatchRun {
+        private final Queue<SpooledPdf> queue;
+        private final String userId;
+        private final Map<String, ProcessingJob> jobs = new ConcurrentHashMap<>(); // by syllabus id, until flushed
+        private final AtomicInteger remaining;
+        private final List<Transition> results = new ArrayList<>();
+        // Failure reasons until their results are written and reported
+        private final Map<String, String> errors = new ConcurrentHashMap<>();
+        private final Map<String, String> textRefs = new ConcurrentHashMap<>(); // pinned until flushed
+        private final Map<String, Long> startedAt = new ConcurrentHashMap<>();
+
+        BatchRun(List<SpooledPdf> files, List<ProcessingJob> held, String userId) {
+            this.queue = new ConcurrentLinkedQueue<>(files);
+            this.userId = userId;
+            held.forEach(job -> jobs.put(job.getSyllabusId(), job));
+            this.remaining = new AtomicInteger(files.size());
+        }
+
+        void start() {
+            int lanes = Math.min(parallelism, remaining.get());
+            int started = 0;
+            for (int i = 0; i < lanes; i++) {
+                try {
+                    processingExecutor.execute(this::drain);
+                    started++;
+                } catch (RejectedExecutionException e) {
+                    break;
+                }
+            }
+            if (started == 0) {
+                log.warn("Processing queue is full, rejecting batch of {} file(s)", remaining.get());
+                failQueued("Processing queue is full, please try again later");
+                throw new RejectedExecutionException("Processing queue is full");
+            }
+        }
+
+        private void drain() {
+            SpooledPdf pdf;
+            while ((pdf = queue.poll()) != null) {
+                complete(process(pdf));
+            }
+        }
+
+        private Transition process(SpooledPdf pdf) {
+            Syllabus syllabus = pdf.syllabus();
+            log.info("Processing syllabus file: {} for user: {}", syllabus.getFileName(), userId);
+            startedAt.put(syllabus.getId(), System.nanoTime());
+            try {
+                // Batch parses count against the same global limit as queued jobs
+                admission.acquireParse();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                SyllabusService.deleteSpooledFile(pdf.file());
+                return failed(syllabus, "Processing was interrupted");
+            }
+            long started = System.nanoTime();
+            progressEvents.publish(new ProgressEvent(syllabus.getId(), userId, ProgressStage.PROCESSING));
+            try {
+                syllabusService.analyze(syllabus, pdf.file());
+                if (syllabus.getOriginalTextRef() != null) {
+                    textRefs.put(syllabus.getId(), syllabus.getOriginalTextRef());
+                }
+                return new Transition(syllabus.getId(), syllabus.getVersion(), ProcessingStatus.COMPLETED,
+                        SyllabusService.analysisResults(syllabus));
+            } catch (IOException e) {
+                log.error("Error processing syllabus file", e);
+                return failed(syllabus, "Failed to extract text from PDF: " + e.getMessage());
+            } catch (Exception e) {
+                log.error("Unexpected error during syllabus processing", e);
+                return failed(syllabus, "Unexpected error: " + e.getMessage());
+            } finally {
+                admission.releaseParse();
+                admission.recordParse(Duration.ofNanos(System.nanoTime() - started));
+                SyllabusService.deleteSpooledFile(pdf.file());
+            }
+        }
+
+        private void complete(Transition transition) {
+            List<Transition> batch = null;
+            boolean last = remaining.decrementAndGet() == 0;
+            synchronized (results) {
+                results.add(transition);
+                if (results.size() >= flushSize || last) {
+                    batch = new ArrayList<>(results);
+                    results.clear();
+                }
+            }
+            if (batch != null) {
+                flush(batch);
+            }
+        }
+
+        private void flush(List<Transition> batch) {
+            Set<String> written;
+            Outcome notWritten = Outcome.DISCARDED;
+            try {
+                // Still PENDING: the bulk insert is the only write a batch syllabus gets before its results
+                long started = System.nanoTime();
+                written = updates.transitionAll(batch, ProcessingStatus.PENDING);
+                metrics.stage(Stage.BULK_WRITE, started);
+            } catch (RuntimeException e) {
+                log.error("Failed to write results for {} batch syllabi, requeueing them", batch.size(), e);
+                written = Set.of();
+                notWritten = Outcome.RETRY;
+            }
+            if (written.size() < batch.size()) {
+                log.warn("{} of {} batch syllabi were not written, handing them back to the job queue",
+                        batch.size() - written.size(), batch.size());
+            }
+            batch.forEach(transition -> textStore.unpin(textRefs.remove(transition.id())));
+            batch.forEach(transition -> readCache.invalidate(transition.id(), null));
+            readCache.invalidate(null, userId);
+
+            List<String> finishedJobs = new ArrayList<>();
+            List<String> unfinishedJobs = new ArrayList<>();
+            for (Transition transition : batch) {
+                ProcessingJob job = jobs.remove(transition.id());
+                String error = errors.remove(transition.id());
+                long started = startedAt.remove(transition.id());
+                if (!written.contains(transition.id())) {
+                    // Not written, removed, or moved on by an instance that reclaimed the job; a syllabus still
+                    // PENDING is processed again by whoever runs the job, the others are skipped there
+                    metrics.processed(notWritten, started);
+                    if (job != null) {
+                        unfinishedJobs.add(job.getId());
+                    }
+                    continue;
+                }
+                if (job != null) {
+                    finishedJobs.add(job.getId());
+                }
+                if (transition.next() == ProcessingStatus.COMPLETED) {
+                    metrics.processed(Outcome.COMPLETED, started);
+                    progressEvents.publish(new ProgressEvent(transition.id(), userId, ProgressStage.SAVED));
+                    summaryBackfill.schedule(transition.id());
+                } else {
+                    metrics.processed(Outcome.FAILED, started);
+                    progressEvents.publish(ProgressEvent.failed(transition.id(), userId, error));
+                }
+            }
+            if (!unfinishedJobs.isEmpty()) {
+                jobWorker.releaseHeld(unfinishedJobs);
+            }
+            if (!finishedJobs.isEmpty()) {
+                completeJobs(finishedJobs);
+            }
+        }
+
+        // A job that cannot be removed here runs out its lease, and its run finds the result already written
+        private void completeJobs(List<String> jobIds) {
+            try {
+                List<ProcessingJob> completed = jobWorker.completeHeld(jobIds);
+                admission.finished(userId, completed.size());
+                completed.forEach(job -> uploadStore.delete(job.getUploadRef()));
+            } catch (RuntimeException e) {
+                log.warn("Could not remove {} finished batch job(s): {}", jobIds.size(), e.getMessage());
+            }
+        }
+
+        private void failQueued(String error) {
+            List<Transition> failed = new ArrayList<>();
+            SpooledPdf pdf;
+            while ((pdf = queue.poll()) != null) {
+                SyllabusService.deleteSpooledFile(pdf.file());
+                failed.add(failed(pdf.syllabus(), error));
+            }
+            flush(failed);
+        }
+
+        private Transition failed(Syllabus syllabus, String error) {
+            errors.put(syllabus.getId(), error);
+            startedAt.putIfAbsent(syllabus.getId(), System.nanoTime());
+            return new Transition(syllabus.getId(), syllabus.getVersion(), ProcessingStatus.FAILED,
+                    new Update().set("processingError", error));
+        }
+    }
+
+    private static class SizeLimitExceededException extends IOException {
+        SizeLimitExceededException() {
+            super("File size exceeds maximum limit");
+        }
+    }
+
+    // Zip entry sizes are only a claim in the archive, so the bytes are counted as they are read
+    private static class SizeLimitedInputStream extends FilterInputStream {
+        private final long limit;
+        private long count;
+
+        SizeLimitedInputStream(InputStream in, long limit) {
+            super(in);
+            this.limit = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                count(n);
+            }
+            return n;
+        }
+
+        private void count(long n) throws IOException {
+            count += n;
+            if (count > limit) {
+                throw new SizeLimitExceededException();
+            }
+        }
+    }
+}
@@ -0,0 +1,481 @@
+package com.syllabus.copilot.backend.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.stereotype.Component;
+
+import com.syllabus.copilot.backend.diagnostics.DateParseEvent;
+import com.syllabus.copilot.backend.model.Assignment;
+import com.syllabus.copilot.backend.model.Exam;
+import com.syllabus.copilot.backend.model.ImportantDate;
+import com.syllabus.copilot.backend.model.Syllabus;
+
+import lombok.extern.slf4j.Slf4j;
+
+// All extraction rules compiled once and evaluated in a single left-to-right walk of the text.
+// At each position only the rules whose first character can match there are tried, anchored at
+// that position; this yields the same matches as running Matcher.find() per rule. The instructor
+// is scanned by hand and the schedule (assignments, exams and important dates) comes from
+// ScheduleRecognizer, so that no input makes extraction super-linear.
+@Slf4j
+@Component
+public class SyllabusExtractionEngine {
+
+    private enum Rule {
+        // "Course Code: COSC 412"; possessive where giving characters back cannot help the match
+        COURSE_CODE("course\\s++(?:code|number)?:?\\s*+([A-Z]{2,4}\\s*+\\d{3,4})", "c"),
+        // "Instructor: Dr. Jane Smith", see instructor()
+        INSTRUCTOR(null, ""),
+        // "Fall 2025"
+        SEMESTER("(fall|spring|summer|winter)\\s*+(\\d{4})", "fsw"),
+        // "Course Description: ..."; each attempt gives back at most the whitespace after the colon
+        DESCRIPTION("(?:course\\s+)?description:?\\s*([^\\n]{50,500})", "cd"),
+        // Dates, date ranges and event keywords, see ScheduleRecognizer
+        SCHEDULE(null, "");
+
+        private final Pattern pattern;
+        private final String firstChars;
+
+        Rule(String regex, String firstChars) {
+            this.pattern = regex != null ? Pattern.compile(regex, Pattern.CASE_INSENSITIVE) : null;
+            this.firstChars = firstChars;
+        }
+    }
+
+    private static final Rule[] RULES = Rule.values();
+
+    // Bit set of rules that can start a match at each ASCII character; every rule begins with
+    // an ASCII letter and case folding is ASCII-only, so nothing else can start a match
+    private static final int[] RULES_BY_FIRST_CHAR = new int[128];
+
+    private static final int PATTERN_RULES;
+
+    static {
+        int patternRules = 0;
+        for (Rule rule : RULES) {
+            if (rule.pattern != null) {
+                patternRules |= 1 << rule.ordinal();
+            }
+            for (char c : rule.firstChars.toCharArray()) {
+                RULES_BY_FIRST_CHAR[c] |= 1 << rule.ordinal();
+                RULES_BY_FIRST_CHAR[Character.toUpperCase(c)] |= 1 << rule.ordinal();
+            }
+        }
+        PATTERN_RULES = patternRules;
+    }
+
+    // What one extract() call did per rule, indexed like ruleNames(), and how its dates parsed
+    public static final class Trace {
+        private final String syllabusId;
+        private final long[] nanos = new long[RULES.length];
+        private final int[] attempts = new int[RULES.length];
+        private final int[] matches = new int[RULES.length];
+        private int datesParsed;
+        private int datesInvalid;
+
+        public Trace(String syllabusId) {
+            this.syllabusId = syllabusId;
+        }
+
+        public long nanos(int rule) {
+            return nanos[rule];
+        }
+
+        public int attempts(int rule) {
+            return attempts[rule];
+        }
+
+        public int matches(int rule) {
+            return matches[rule];
+        }
+
+        public int getDatesParsed() {
+            return datesParsed;
+        }
+
+        public int getDatesInvalid() {
+            return datesInvalid;
+        }
+    }
+
+    // Rule names, in the order a Trace reports them
+    public static List<String> ruleNames() {
+        return Arrays.stream(RULES).map(rule -> rule.name().toLowerCase(Locale.ROOT)).toList();
+    }
+
+    public void extract(Syllabus syllabus, String text) {
+        extract(syllabus, text, null);
+    }
+
+    // With a trace, also times and counts every match attempt; without one nothing extra is measured
+    public void extract(Syllabus syllabus, String text, Trace trace) {
+        matchCourseInfo(syllabus, text, trace);
+
+        long started = trace != null ? System.nanoTime() : 0L;
+        String instructor = instructor(text);
+        if (instructor != null) {
+            syllabus.setInstructor(instructor);
+        }
+        record(trace, Rule.INSTRUCTOR, started, instructor != null ? 1 : 0);
+
+        started = trace != null ? System.nanoTime() : 0L;
+        Schedule schedule = new Schedule(text, trace);
+        ScheduleRecognizer.scan(text, schedule);
+        record(trace, Rule.SCHEDULE, started, schedule.found);
+
+        syllabus.setAssignments(schedule.assignments);
+        syllabus.setExams(schedule.exams);
+        syllabus.setImportantDates(schedule.dates);
+    }
+
+    private void matchCourseInfo(Syllabus syllabus, String text, Trace trace) {
+        Matcher[] matchers = new Matcher[RULES.length];
+        int pending = PATTERN_RULES;
+        int length = text.length();
+
+        for (int i = 0; i < length && pending != 0; i++) {
+            char c = text.charAt(i);
+            if (c >= 128) {
+                continue;
+            }
+            int candidates = RULES_BY_FIRST_CHAR[c] & pending;
+            while (candidates != 0) {
+                int ordinal = Integer.numberOfTrailingZeros(candidates);
+                candidates &= candidates - 1;
+
+                Rule rule = RULES[ordinal];
+                Matcher matcher = matchers[ordinal];
+                if (matcher == null) {
+                    matcher = matchers[ordinal] = rule.pattern.matcher(text);
+                }
+                long attemptStarted = trace != null ? System.nanoTime() : 0L;
+                matcher.region(i, length);
+                boolean matched = matcher.lookingAt();
+                if (trace != null) {
+                    trace.nanos[ordinal] += System.nanoTime() - attemptStarted;
+                    trace.attempts[ordinal]++;
+                    if (matched) {
+                        trace.matches[ordinal]++;
+                    }
+                }
+                if (!matched) {
+                    continue;
+                }
+
+                switch (rule) {
+                    case COURSE_CODE -> syllabus.setCourseCode(matcher.group(1).trim());
+                    case SEMESTER -> syllabus.setSemester(matcher.group(0));
+                    case DESCRIPTION -> syllabus.setDescription(matcher.group(1).trim());
+                    default -> throw new IllegalStateException("Rule without a pattern: " + rule);
+                }
+                pending &= ~(1 << ordinal);
+            }
+        }
+    }
+
+    private static void record(Trace trace, Rule rule, long started, int matches) {
+        if (trace != null) {
+            trace.nanos[rule.ordinal()] += System.nanoTime() - started;
+            trace.attempts[rule.ordinal()]++;
+            trace.matches[rule.ordinal()] += matches;
+        }
+    }
+
+    // The trimmed name the first match of
+    //     (?i)instructor:?\s*([A-Za-z\s,.]+?)(?:\n|$|professor|dr\.|email)
+    // captures, or null. The lazy group made that regex look for a terminator after every character
+    // of the name, and start over for each whitespace character it gave back and for each later
+    // "instructor"; here the end of the name run and the next terminator are found once and only
+    // move forward, so the scan is linear.
+    static String instructor(CharSequence text) {
+        int length = text.length();
+        int nameEnd = -1;    // the first character at or after the current name start outside the class
+        int terminator = -1; // the first terminator at or after the current name start + 1
+        for (int keyword = indexOfIgnoreCase(text, "instructor", 0); keyword >= 0;
+             keyword = indexOfIgnoreCase(text, "instructor", keyword + 1)) {
+            int colon = keyword + "instructor".length();
+            if (colon < length && text.charAt(colon) == ':') {
+                colon++;
+            }
+            int name = colon;
+            while (name < length && isRegexSpace(text.charAt(name))) {
+                name++;
+            }
+
+            if (nameEnd < name) {
+                nameEnd = name;
+                while (nameEnd < length && isNameChar(text.charAt(nameEnd))) {
+                    nameEnd++;
+                }
+            }
+            if (terminator <= name) {
+                terminator = name + 1;
+                while (!isInstructorTerminator(text, terminator)) {
+                    terminator++;
+                }
+            }
+            if (name < nameEnd && terminator <= nameEnd) {
+                return text.subSequence(name, terminator).toString().trim();
+            }
+            // Otherwise the group can only be whitespace after the colon, ending at a terminator
+            for (int end = name; end > colon; end--) {
+                if (isInstructorTerminator(text, end)) {
+                    return "";
+                }
+            }
+        }
+        return null;
+    }
+
+    // \n, $ (the end, or before a line terminator that ends the text), professor, dr. or email
+    private static boolean isInstructorTerminator(CharSequence text, int i) {
+        int length = text.length();
+        if (i >= length) {
+            return true;
+        }
+        char c = text.charAt(i);
+        if (c == '\n') {
+            return true;
+        }
+        if (i == length - 2 && c == '\r' && text.charAt(i + 1) == '\n') {
+            return true;
+        }
+        if (i == length - 1 && (c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029')) {
+            return true;
+        }
+        return regionMatchesIgnoreCase(text, i, "professor") || regionMatchesIgnoreCase(text, i, "dr.")
+                || regionMatchesIgnoreCase(text, i, "email");
+    }
+
+    private static boolean isNameChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == ',' || c == '.' || isRegexSpace(c);
+    }
+
+    // \s without UNICODE_CHARACTER_CLASS
+    private static boolean isRegexSpace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    private static int indexOfIgnoreCase(CharSequence text, String lowerCaseWord, int from) {
+        int last = text.length() - lowerCaseWord.length();
+        for (int i = from; i <= last; i++) {
+            if (regionMatchesIgnoreCase(text, i, lowerCaseWord)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // ASCII-only case folding, as the patterns use
+    private static boolean regionMatchesIgnoreCase(CharSequence text, int at, String lowerCaseWord) {
+        if (at + lowerCaseWord.length() > text.length()) {
+            return false;
+        }
+        for (int j = 0; j < lowerCaseWord.length(); j++) {
+            char c = text.charAt(at + j);
+            if (c >= 'A' && c <= 'Z') {
+                c = (char) (c + ('a' - 'A'));
+            }
+            if (c != lowerCaseWord.charAt(j)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Turns what ScheduleRecognizer reports into models one line at a time. An event takes the first
+    // date after it on its line, else the last one before it; a line with dates but no events is an
+    // important date described by the rest of the line.
+    private final class Schedule implements ScheduleRecognizer.Listener {
+        private final String text;
+        private final Trace trace;
+        private final List<Assignment> assignments = new ArrayList<>();
+        private final List<Exam> exams = new ArrayList<>();
+        private final List<ImportantDate> dates = new ArrayList<>();
+        private final List<DateSpan> lineDates = new ArrayList<>();
+        private final List<EventSpan> lineEvents = new ArrayList<>();
+        private int lineStart;
+        private int found;
+
+        Schedule(String text, Trace trace) {
+            this.text = text;
+            this.trace = trace;
+        }
+
+        @Override
+        public void date(int start, int end, int first, int last) {
+            lineDates.add(new DateSpan(start, end, first, last));
+            found++;
+            if (trace != null) {
+                trace.datesParsed++;
+                if (first == DateRecognizer.INVALID) {
+                    trace.datesInvalid++;
+                }
+            }
+        }
+
+        @Override
+        public void event(ScheduleRecognizer.EventKind kind, int start, int end, int numberStart, int numberEnd) {
+            lineEvents.add(new EventSpan(kind, start, end, numberStart, numberEnd));
+        }
+
+        @Override
+        public void endOfLine(int end) {
+            if (!lineDates.isEmpty()) {
+                if (lineEvents.isEmpty()) {
+                    addImportantDate(lineDates.get(0), end);
+                }
+                for (EventSpan event : lineEvents) {
+                    DateSpan date = dateFor(event);
+                    if (event.kind() == ScheduleRecognizer.EventKind.ASSIGNMENT) {
+                        addAssignment(event, date);
+                    } else {
+                        addExam(event, date);
+                    }
+                }
+                for (DateSpan date : lineDates) {
+                    commit(date);
+                }
+            }
+            lineDates.clear();
+            lineEvents.clear();
+            lineStart = end + 1;
+        }
+
+        private DateSpan dateFor(EventSpan event) {
+            DateSpan before = null;
+            for (DateSpan date : lineDates) {
+                if (date.start >= event.end()) {
+                    return date;
+                }
+                before = date;
+            }
+            return before;
+        }
+
+        private void addAssignment(EventSpan event, DateSpan date) {
+            String type = text.substring(event.start(), event.end());
+            String title = type + " " + text.substring(event.numberStart(), event.numberEnd());
+            Assignment assignment = new Assignment();
+            assignment.setTitle(title);
+            assignment.setType(type.equalsIgnoreCase("hw") ? "homework" : type.toLowerCase(Locale.ROOT));
+            assignment.setDescription(title + " - Due " + text.substring(date.start, date.end));
+            assignment.setDueDate(resolve(date, "assignment", date.last));
+            assignments.add(assignment);
+        }
+
+        private void addExam(EventSpan event, DateSpan date) {
+            String keyword = text.substring(event.start(), event.end());
+            String number = event.numberStart() >= 0 ? " " + text.substring(event.numberStart(), event.numberEnd()) : "";
+            Exam exam = new Exam();
+            exam.setTitle(event.kind() == ScheduleRecognizer.EventKind.EXAM ? keyword + number : keyword + " Exam" + number);
+            exam.setType(keyword.toLowerCase(Locale.ROOT));
+            exam.setCoverageTopics("See syllabus for details");
+            exam.setDateTime(resolve(date, "exam", date.first));
+            exams.add(exam);
+        }
+
+        private void addImportantDate(DateSpan date, int lineEnd) {
+            String description = stripSeparators(text, date.end, lineEnd);
+            if (description.isEmpty()) {
+                description = stripSeparators(text, lineStart, date.start);
+            }
+            if (description.isEmpty()) {
+                return;
+            }
+            ImportantDate important = new ImportantDate();
+            important.setTitle(description.length() > 50 ? description.substring(0, 50) + "..." : description);
+            important.setDescription(description);
+            important.setType(determineImportantDateType(description));
+            important.setDate(resolve(date, "important", date.first));
+            if (date.last != date.first) {
+                important.setEndDate(DateRecognizer.toDateTime(date.last));
+            }
+            dates.add(important);
+        }
+
+        private LocalDateTime resolve(DateSpan date, String kind, int packed) {
+            date.kind = kind;
+            if (packed == DateRecognizer.INVALID) {
+                log.warn("Failed to parse {} date: {}", kind, text.substring(date.start, date.end));
+                return null;
+            }
+            return DateRecognizer.toDateTime(packed);
+        }
+
+        // Dates are recognized inline with the scan, so the event records the outcome without a duration
+        private void commit(DateSpan date) {
+            DateParseEvent event = new DateParseEvent();
+            if (event.shouldCommit()) {
+                event.syllabusId = trace != null ? trace.syllabusId : null;
+                event.kind = date.kind;
+                event.text = text.substring(date.start, date.end);
+                event.valid = date.first != DateRecognizer.INVALID;
+                event.commit();
+            }
+        }
+    }
+
+    private static final class DateSpan {
+        private final int start;
+        private final int end;
+        private final int first;
+        private final int last;
+        private String kind = "unused";
+
+        DateSpan(int start, int end, int first, int last) {
+            this.start = start;
+            this.end = end;
+            this.first = first;
+            this.last = last;
+        }
+    }
+
+    private record EventSpan(ScheduleRecognizer.EventKind kind, int start, int end, int numberStart, int numberEnd) {
+    }
+
+    // The text in [start, end) without the whitespace, colons and dashes around it
+    private static String stripSeparators(String text, int start, int end) {
+        while (start < end && isSeparator(text.charAt(start))) {
+            start++;
+        }
+        while (end > start && isSeparator(text.charAt(end - 1))) {
+            end--;
+        }
+        return text.substring(start, end);
+    }
+
+    private static boolean isSeparator(char c) {
+        return Character.isWhitespace(c) || c == ':' || c == '-' || c == '|' || c == ','
+                || (c >= '\u2012' && c <= '\u2015');
+    }
+
+    private String determineImportantDateType(String description) {
+        if (containsIgnoreCase(description, "holiday") || containsIgnoreCase(description, "no class")
+                || containsIgnoreCase(description, "break")) {
+            return "holiday";
+        } else if (containsIgnoreCase(description, "deadline") || containsIgnoreCase(description, "due")) {
+            return "deadline";
+        } else if (containsIgnoreCase(description, "drop") || containsIgnoreCase(description, "withdraw")) {
+            return "administrative";
+        }
+        return "other";
+    }
+
+    // Case-insensitive contains without allocating a lowercased copy
+    private static boolean containsIgnoreCase(String text, String lowerCaseWord) {
+        int last = text.length() - lowerCaseWord.length();
+        for (int i = 0; i <= last; i++) {
+            if (text.regionMatches(true, i, lowerCaseWord, 0, lowerCaseWord.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,227 @@
+package com.syllabus.copilot.backend.service;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+import com.syllabus.copilot.backend.model.CursorPage;
+import com.syllabus.copilot.backend.model.ProcessingStatus;
+import com.syllabus.copilot.backend.model.Syllabus;
+import com.syllabus.copilot.backend.model.SyllabusSummary;
+import com.syllabus.copilot.backend.repository.SyllabusRepository;
+
+// Listing reads: keyset pages ordered by _id, or a cursor-backed stream of every match.
+// Both return summary projections, or sparse maps when specific fields are requested.
+@Service
+public class SyllabusListingService {
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+
+    // Sorts before every ObjectId, so it is the cursor for the first page
+    private static final String FIRST_PAGE = new ObjectId(new byte[12]).toHexString();
+
+    private static final Set<String> SPARSE_FIELDS = sparseFieldNames();
+
+    private final SyllabusRepository repo;
+    private final MongoTemplate mongoTemplate;
+
+    public SyllabusListingService(SyllabusRepository repo, MongoTemplate mongoTemplate) {
+        this.repo = repo;
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    public CursorPage<?> listAll(Collection<String> fields, String cursor, Integer limit) {
+        return page(new Criteria(), fields, cursor, limit,
+                (after, fetch) -> repo.findSummariesByIdGreaterThanOrderByIdAsc(after, fetch));
+    }
+
+    public CursorPage<?> listForUser(String userId, Collection<String> fields, String cursor, Integer limit) {
+        return page(Criteria.where("userId").is(userId), fields, cursor, limit,
+                (after, fetch) -> repo.findSummariesByUserIdAndIdGreaterThanOrderByIdAsc(userId, after, fetch));
+    }
+
+    public CursorPage<?> listByProcessingStatus(ProcessingStatus status, Collection<String> fields,
+                                                String cursor, Integer limit) {
+        return page(Criteria.where("processingStatus").is(status), fields, cursor, limit,
+                (after, fetch) -> repo.findSummariesByProcessingStatusAndIdGreaterThanOrderByIdAsc(status, after, fetch));
+    }
+
+    // Version tag of the page the matching list call would return, read from _id and version only
+    public String versionTagForAll(Collection<String> fields, String cursor, Integer limit) {
+        return versionTag(new Criteria(), fields, cursor, limit);
+    }
+
+    public String versionTagForUser(String userId, Collection<String> fields, String cursor, Integer limit) {
+        return versionTag(Criteria.where("userId").is(userId), fields, cursor, limit);
+    }
+
+    public String versionTagByProcessingStatus(ProcessingStatus status, Collection<String> fields,
+                                               String cursor, Integer limit) {
+        return versionTag(Criteria.where("processingStatus").is(status), fields, cursor, limit);
+    }
+
+    // Streams hold an open Mongo cursor; callers must close them
+    public Stream<?> streamAll(Collection<String> fields) {
+        return stream(new Criteria(), fields);
+    }
+
+    public Stream<?> streamForUser(String userId, Collection<String> fields) {
+        return stream(Criteria.where("userId").is(userId), fields);
+    }
+
+    public Stream<?> streamByProcessingStatus(ProcessingStatus status, Collection<String> fields) {
+        return stream(Criteria.where("processingStatus").is(status), fields);
+    }
+
+    private CursorPage<?> page(Criteria filter, Collection<String> fields, String cursor, Integer limit,
+                               SummaryPageQuery summaries) {
+        String after = cursor == null || cursor.isBlank() ? FIRST_PAGE : validCursor(cursor);
+        int pageSize = pageSize(limit);
+        // One extra row tells us whether another page exists without a count
+        Limit fetch = Limit.of(pageSize + 1);
+
+        if (fields == null || fields.isEmpty()) {
+            return toPage(summaries.find(after, fetch), pageSize, fields,
+                    SyllabusSummary::getId, SyllabusSummary::getVersion);
+        }
+
+        Query query = sparseQuery(filter.and("_id").gt(new ObjectId(after)), fields)
+                .with(Sort.by(Sort.Direction.ASC, "_id"))
+                .limit(fetch.max());
+        query.fields().include("version");
+        CursorPage<Syllabus> page = toPage(mongoTemplate.find(query, Syllabus.class), pageSize, fields,
+                Syllabus::getId, Syllabus::getVersion);
+        List<Map<String, Object>> rows = page.getItems().stream()
+                .map(syllabus -> toSparse(syllabus, fields))
+                .toList();
+        return new CursorPage<>(rows, page.getNextCursor(), page.getVersionTag());
+    }
+
+    private String versionTag(Criteria filter, Collection<String> fields, String cursor, Integer limit) {
+        String after = cursor == null || cursor.isBlank() ? FIRST_PAGE : validCursor(cursor);
+        int pageSize = pageSize(limit);
+        validateFields(fields);
+
+        Query query = new Query(filter.and("_id").gt(new ObjectId(after)))
+                .with(Sort.by(Sort.Direction.ASC, "_id"))
+                .limit(pageSize + 1);
+        query.fields().include("_id", "version");
+        List<Document> rows = mongoTemplate.find(query, Document.class, mongoTemplate.getCollectionName(Syllabus.class));
+        return toPage(rows, pageSize, fields,
+                row -> row.getObjectId("_id").toHexString(),
+                row -> row.get("version") instanceof Number version ? version.longValue() : null)
+                .getVersionTag();
+    }
+
+    private Stream<?> stream(Criteria filter, Collection<String> fields) {
+        Query query = fields == null || fields.isEmpty()
+                ? new Query(filter)
+                : sparseQuery(filter, fields);
+        query.with(Sort.by(Sort.Direction.ASC, "_id"));
+
+        if (fields == null || fields.isEmpty()) {
+            return mongoTemplate.query(Syllabus.class).as(SyllabusSummary.class).matching(query).stream();
+        }
+        return mongoTemplate.stream(query, Syllabus.class).map(syllabus -> toSparse(syllabus, fields));
+    }
+
+    // Sparse fieldsets: only the requested fields (plus id) are read from Mongo
+    private static Query sparseQuery(Criteria filter, Collection<String> fields) {
+        validateFields(fields);
+        Query query = new Query(filter);
+        query.fields().include(fields.toArray(new String[0]));
+        return query;
+    }
+
+    private static void validateFields(Collection<String> fields) {
+        if (fields == null) {
+            return;
+        }
+        for (String field : fields) {
+            if (!SPARSE_FIELDS.contains(field)) {
+                throw new IllegalArgumentException("Unknown or unsupported field: " + field);
+            }
+        }
+    }
+
+    private static Map<String, Object> toSparse(Syllabus syllabus, Collection<String> fields) {
+        BeanWrapper bean = new BeanWrapperImpl(syllabus);
+        Map<String, Object> sparse = new LinkedHashMap<>();
+        sparse.put("id", syllabus.getId());
+        for (String field : fields) {
+            sparse.put(field, bean.getPropertyValue(field));
+        }
+        return sparse;
+    }
+
+    private static <T> CursorPage<T> toPage(List<T> rows, int pageSize, Collection<String> fields,
+                                            Function<T, String> idOf, Function<T, Long> versionOf) {
+        List<T> items = rows.size() <= pageSize ? rows : rows.subList(0, pageSize);
+        String nextCursor = rows.size() <= pageSize ? null : idOf.apply(items.get(pageSize - 1));
+
+        // Hash of what identifies this representation: the rows and their versions, where the page
+        // ends and which fields were asked for
+        StringBuilder tag = new StringBuilder(fields == null ? "" : String.join(",", fields));
+        for (T item : items) {
+            tag.append(';').append(idOf.apply(item)).append(':').append(versionOf.apply(item));
+        }
+        tag.append(';').append(nextCursor);
+        String versionTag = '"' + DigestUtils.md5DigestAsHex(tag.toString().getBytes(StandardCharsets.UTF_8)) + '"';
+
+        return new CursorPage<>(items, nextCursor, versionTag);
+    }
+
+    private static String validCursor(String cursor) {
+        if (!ObjectId.isValid(cursor)) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+        return cursor;
+    }
+
+    private static int pageSize(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be at least 1");
+        }
+        return Math.min(limit, MAX_PAGE_SIZE);
+    }
+
+    // Every persisted Syllabus property except the full text, which only the detail call returns
+    private static Set<String> sparseFieldNames() {
+        Set<String> names = new HashSet<>();
+        for (Field field : Syllabus.class.getDeclaredFields()) {
+            if (!Modifier.isStatic(field.getModifiers())) {
+                names.add(field.getName());
+            }
+        }
+        names.remove("originalText");
+        return Set.copyOf(names);
+    }
+
+    @FunctionalInterface
+    private interface SummaryPageQuery {
+        List<SyllabusSummary> find(String afterId, Limit limit);
+    }
+}
@@ -0,0 +1,76 @@
+package com.syllabus.copilot.backend.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.syllabus.copilot.backend.model.ReadCacheStats;
+import com.syllabus.copilot.backend.model.Syllabus;
+import com.syllabus.copilot.backend.repository.SyllabusRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+// Read-through cache in front of the by-id and per-user lookups. Concurrent misses on a key wait
+// for a single Mongo load. Entries expire after the TTL, and SyllabusService invalidates them on
+// every write; cached syllabi are shared between callers and must not be modified. Hit ratio and
+// load time are published under cache=syllabus.read.byId and cache=syllabus.read.byUser.
+@Component
+public class SyllabusReadCache {
+    private final LoadingCache<String, Optional<Syllabus>> byId;
+    private final LoadingCache<String, List<Syllabus>> byUser;
+
+    public SyllabusReadCache(SyllabusRepository repo, MeterRegistry registry,
+                             @Value("${syllabus.read-cache.max-syllabi:10000}") long maxSyllabi,
+                             @Value("${syllabus.read-cache.ttl:5m}") Duration ttl) {
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(maxSyllabi)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build(repo::findById);
+        // Weighed by list length so a few large users cannot pin more syllabi than the bound
+        this.byUser = Caffeine.newBuilder()
+                .maximumWeight(maxSyllabi)
+                .<String, List<Syllabus>>weigher((userId, syllabi) -> 1 + syllabi.size())
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build(userId -> List.copyOf(repo.findByUserId(userId)));
+        CaffeineCacheMetrics.monitor(registry, byId, "syllabus.read.byId");
+        CaffeineCacheMetrics.monitor(registry, byUser, "syllabus.read.byUser");
+    }
+
+    public Optional<Syllabus> findById(String id) {
+        return byId.get(id);
+    }
+
+    public List<Syllabus> findByUserId(String userId) {
+        return byUser.get(userId);
+    }
+
+    // Waits for a load of the same key already in flight, so a stale result is not left behind
+    public void invalidate(String id, String userId) {
+        if (id != null) {
+            byId.invalidate(id);
+        }
+        if (userId != null) {
+            byUser.invalidate(userId);
+        }
+    }
+
+    public List<ReadCacheStats> getStats() {
+        return List.of(toStats("byId", byId), toStats("byUser", byUser));
+    }
+
+    private static ReadCacheStats toStats(String name, LoadingCache<?, ?> cache) {
+        CacheStats stats = cache.stats();
+        return new ReadCacheStats(name, stats.hitCount(), stats.missCount(), stats.hitRate(),
+                stats.loadCount(), stats.averageLoadPenalty() / 1_000_000.0, stats.evictionCount(),
+                cache.estimatedSize());
+    }
+}
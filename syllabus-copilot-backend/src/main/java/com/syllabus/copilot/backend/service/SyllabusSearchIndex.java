@@ -0,0 +1,423 @@
+package com.syllabus.copilot.backend.service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.syllabus.copilot.backend.model.ImportantDate;
+import com.syllabus.copilot.backend.model.ProcessingStatus;
+import com.syllabus.copilot.backend.model.ProgressStage;
+import com.syllabus.copilot.backend.model.SearchHit;
+import com.syllabus.copilot.backend.model.Syllabus;
+
+import lombok.extern.slf4j.Slf4j;
+
+// Full-text search over a user's completed syllabi: the extracted text, the course name and code, and
+// the titles of assignments, exams and important dates, ranked with BM25. A user's inverted index is
+// built from the read cache and text store on their first search and then kept in memory; a syllabus
+// is re-indexed when it is saved and dropped when it is deleted. An index expires ttl after it was
+// built, whatever was updated since, which is how writes made on other instances show up.
+@Slf4j
+@Service
+public class SyllabusSearchIndex implements DisposableBean {
+    static final int MAX_LIMIT = 50;
+
+    // The usual BM25 parameters
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    // A word in a title counts as this many occurrences in the text
+    private static final int TITLE_WEIGHT = 3;
+    private static final int SNIPPET_LENGTH = 160;
+    private static final int MAX_QUERY_TERMS = 32;
+    private static final Set<String> STOP_WORDS = Set.of("an", "and", "are", "as", "at", "be", "by", "for",
+            "from", "in", "is", "it", "of", "on", "or", "the", "to", "with");
+
+    private final SyllabusReadCache readCache;
+    private final SyllabusTextStore textStore;
+    private final LoadingCache<String, UserIndex> indexes;
+    private final ThreadPoolExecutor indexer;
+    private final Runnable unsubscribe;
+
+    // One indexed syllabus; frequencies are weighted by field and length is their sum
+    record Document(Syllabus syllabus, String text, Map<String, Integer> frequencies, int length, long characters) {
+    }
+
+    private record Scored(Document document, double score) {
+    }
+
+    public SyllabusSearchIndex(SyllabusReadCache readCache,
+                               SyllabusTextStore textStore,
+                               ProgressEventBus progressEvents,
+                               @Value("${syllabus.search.max-characters:50000000}") long maxCharacters,
+                               @Value("${syllabus.search.ttl:10m}") Duration ttl,
+                               @Value("${syllabus.search.queue-capacity:1000}") int queueCapacity) {
+        this.readCache = readCache;
+        this.textStore = textStore;
+        // Weighed by the characters held, so a few users with long syllabi cannot fill the heap;
+        // Caffeine weighs an entry only when it is written, so indexes change only through change()
+        this.indexes = Caffeine.newBuilder()
+                .maximumWeight(maxCharacters)
+                .<String, UserIndex>weigher((userId, index) -> (int) Math.min(Integer.MAX_VALUE, index.characters()))
+                .expireAfter(Expiry.<String, UserIndex>creating((userId, index) -> ttl))
+                .build(this::build);
+
+        this.indexer = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "syllabus-search-index");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.unsubscribe = progressEvents.subscribeToAll(event -> {
+            if (event.getStage() == ProgressStage.SAVED) {
+                update(event.getSyllabusId(), event.getUserId());
+            }
+        });
+    }
+
+    // The user's completed syllabi best matching the query, at most limit of them
+    public List<SearchHit> search(String userId, String query, int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        List<String> terms = queryTerms(query);
+        if (terms.isEmpty()) {
+            throw new IllegalArgumentException("The query must contain at least one word");
+        }
+        return indexes.get(userId).search(terms, limit).stream()
+                .map(scored -> hit(scored, terms))
+                .toList();
+    }
+
+    // Queues re-indexing of a syllabus; returns immediately. Only loaded indexes are updated, the
+    // others pick the syllabus up when they are built. When the queue is full the user's index is
+    // dropped instead and rebuilt on their next search.
+    public void update(String syllabusId, String userId) {
+        if (syllabusId == null || userId == null) {
+            return;
+        }
+        try {
+            indexer.execute(() -> refresh(syllabusId, userId));
+        } catch (RejectedExecutionException e) {
+            log.warn("Search index queue is full, dropping the index of user {}", userId);
+            indexes.invalidate(userId);
+        }
+    }
+
+    // Waits for a build of the user's index in flight, so the syllabus is not left behind in it
+    public void remove(String syllabusId, String userId) {
+        if (userId == null) {
+            return;
+        }
+        change(userId, index -> index.remove(syllabusId));
+    }
+
+    // Changes a loaded index inside the cache's compute, which weighs the entry again; a change made
+    // to an index outside it would leave its weight at what it was loaded with
+    private void change(String userId, Consumer<UserIndex> change) {
+        indexes.asMap().computeIfPresent(userId, (key, index) -> {
+            change.accept(index);
+            return index;
+        });
+    }
+
+    void refresh(String syllabusId, String userId) {
+        try {
+            // Also waits for a build in flight, which may have read the syllabus before it was saved
+            if (indexes.asMap().computeIfPresent(userId, (key, index) -> index) == null) {
+                return;
+            }
+            Optional<Document> document = readCache.findById(syllabusId)
+                    .filter(syllabus -> userId.equals(syllabus.getUserId()))
+                    .filter(syllabus -> syllabus.getProcessingStatus() == ProcessingStatus.COMPLETED)
+                    .map(this::document);
+            change(userId, index -> document.ifPresentOrElse(index::put, () -> index.remove(syllabusId)));
+        } catch (RuntimeException e) {
+            log.warn("Re-indexing syllabus {} failed, dropping the index of user {}: {}", syllabusId, userId,
+                    e.toString());
+            indexes.invalidate(userId);
+        }
+    }
+
+    private UserIndex build(String userId) {
+        UserIndex index = new UserIndex();
+        for (Syllabus syllabus : readCache.findByUserId(userId)) {
+            if (syllabus.getProcessingStatus() == ProcessingStatus.COMPLETED) {
+                index.put(document(syllabus));
+            }
+        }
+        log.debug("Built the search index of user {} over {} syllabi", userId, index.size());
+        return index;
+    }
+
+    boolean isLoaded(String userId) {
+        return indexes.asMap().containsKey(userId);
+    }
+
+    // Runs pending evictions now rather than on a later access
+    void cleanUp() {
+        indexes.cleanUp();
+    }
+
+    Document document(Syllabus syllabus) {
+        String text = "";
+        if (syllabus.getOriginalTextRef() != null) {
+            try {
+                text = textStore.load(syllabus.getOriginalTextRef()).orElse("");
+            } catch (IOException e) {
+                log.warn("Could not load the text of syllabus {}, indexing its titles only: {}", syllabus.getId(),
+                        e.toString());
+            }
+        }
+
+        Map<String, Integer> frequencies = new HashMap<>();
+        int[] length = new int[1];
+        long characters = 0;
+        for (String title : titles(syllabus)) {
+            characters += title.length();
+            words(title, (word, start, end) -> {
+                frequencies.merge(word, TITLE_WEIGHT, Integer::sum);
+                length[0] += TITLE_WEIGHT;
+            });
+        }
+        for (String body : bodies(syllabus, text)) {
+            characters += body.length();
+            words(body, (word, start, end) -> {
+                frequencies.merge(word, 1, Integer::sum);
+                length[0]++;
+            });
+        }
+        return new Document(syllabus, text, frequencies, length[0], characters);
+    }
+
+    private static List<String> titles(Syllabus syllabus) {
+        List<String> titles = new ArrayList<>();
+        addIfPresent(titles, syllabus.getCourseName());
+        addIfPresent(titles, syllabus.getCourseCode());
+        if (syllabus.getAssignments() != null) {
+            syllabus.getAssignments().forEach(assignment -> addIfPresent(titles, assignment.getTitle()));
+        }
+        if (syllabus.getExams() != null) {
+            syllabus.getExams().forEach(exam -> addIfPresent(titles, exam.getTitle()));
+        }
+        if (syllabus.getImportantDates() != null) {
+            syllabus.getImportantDates().forEach(date -> addIfPresent(titles, date.getTitle()));
+        }
+        return titles;
+    }
+
+    private static List<String> bodies(Syllabus syllabus, String text) {
+        List<String> bodies = new ArrayList<>();
+        bodies.add(text);
+        if (syllabus.getImportantDates() != null) {
+            syllabus.getImportantDates().stream()
+                    .map(ImportantDate::getDescription)
+                    .forEach(description -> addIfPresent(bodies, description));
+        }
+        return bodies;
+    }
+
+    private static void addIfPresent(List<String> values, String value) {
+        if (value != null && !value.isBlank()) {
+            values.add(value);
+        }
+    }
+
+    private static SearchHit hit(Scored scored, List<String> terms) {
+        Syllabus syllabus = scored.document().syllabus();
+        return new SearchHit(syllabus.getId(), syllabus.getCourseName(), syllabus.getCourseCode(), scored.score(),
+                snippet(scored.document(), terms));
+    }
+
+    // The window of the text holding the most distinct query words, or the first matching title
+    static String snippet(Document document, List<String> terms) {
+        String text = document.text();
+        List<int[]> matches = new ArrayList<>();
+        words(text, (word, start, end) -> {
+            int term = terms.indexOf(word);
+            if (term >= 0) {
+                matches.add(new int[] {start, end, term});
+            }
+        });
+        if (matches.isEmpty()) {
+            return matchingTitle(document.syllabus(), terms);
+        }
+
+        int best = 0;
+        int bestCount = 0;
+        for (int first = 0; first < matches.size(); first++) {
+            long seen = 0;
+            int windowEnd = matches.get(first)[0] + SNIPPET_LENGTH;
+            for (int i = first; i < matches.size() && matches.get(i)[1] <= windowEnd; i++) {
+                seen |= 1L << matches.get(i)[2];
+            }
+            if (Long.bitCount(seen) > bestCount) {
+                best = first;
+                bestCount = Long.bitCount(seen);
+            }
+        }
+
+        // Starts a little before the first word so it reads in context
+        int from = Math.max(0, matches.get(best)[0] - SNIPPET_LENGTH / 4);
+        int to = Math.min(text.length(), from + SNIPPET_LENGTH);
+        while (from > 0 && from < to && Character.isLetterOrDigit(text.charAt(from - 1))) {
+            from++;
+        }
+        while (to < text.length() && to > from && Character.isLetterOrDigit(text.charAt(to))) {
+            to--;
+        }
+        String passage = text.substring(from, to).replaceAll("\\s+", " ").strip();
+        return (from > 0 ? "…" : "") + passage + (to < text.length() ? "…" : "");
+    }
+
+    private static String matchingTitle(Syllabus syllabus, List<String> terms) {
+        for (String title : titles(syllabus)) {
+            boolean[] matched = new boolean[1];
+            words(title, (word, start, end) -> matched[0] |= terms.contains(word));
+            if (matched[0]) {
+                return title;
+            }
+        }
+        return null;
+    }
+
+    static List<String> queryTerms(String query) {
+        Set<String> terms = new LinkedHashSet<>();
+        if (query != null) {
+            words(query, (word, start, end) -> terms.add(word));
+        }
+        return terms.stream().limit(MAX_QUERY_TERMS).toList();
+    }
+
+    interface WordVisitor {
+        void visit(String word, int start, int end);
+    }
+
+    // Splits on anything that is not a letter or digit and normalizes each word: lower case, stop
+    // words and single letters dropped, a plural s removed so "exams" finds "exam"
+    static void words(String text, WordVisitor visitor) {
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            while (i < length && !Character.isLetterOrDigit(text.charAt(i))) {
+                i++;
+            }
+            int start = i;
+            while (i < length && Character.isLetterOrDigit(text.charAt(i))) {
+                i++;
+            }
+            if (i > start) {
+                String word = normalize(text.substring(start, i));
+                if (word != null) {
+                    visitor.visit(word, start, i);
+                }
+            }
+        }
+    }
+
+    private static String normalize(String raw) {
+        String word = raw.toLowerCase(Locale.ROOT);
+        if ((word.length() < 2 && !Character.isDigit(word.charAt(0))) || STOP_WORDS.contains(word)) {
+            return null;
+        }
+        if (word.length() > 3 && word.endsWith("s") && !word.endsWith("ss")) {
+            return word.substring(0, word.length() - 1);
+        }
+        return word;
+    }
+
+    @Override
+    public void destroy() {
+        unsubscribe.run();
+        indexer.shutdownNow();
+    }
+
+    // Postings of one user, term to syllabus id to weighted frequency
+    static final class UserIndex {
+        private final Map<String, Document> documents = new HashMap<>();
+        private final Map<String, Map<String, Integer>> postings = new HashMap<>();
+        private long totalLength;
+        private long characters;
+
+        synchronized void put(Document document) {
+            String id = document.syllabus().getId();
+            remove(id);
+            documents.put(id, document);
+            document.frequencies().forEach((term, frequency) ->
+                    postings.computeIfAbsent(term, key -> new HashMap<>()).put(id, frequency));
+            totalLength += document.length();
+            characters += document.characters();
+        }
+
+        synchronized void remove(String id) {
+            Document removed = documents.remove(id);
+            if (removed == null) {
+                return;
+            }
+            for (String term : removed.frequencies().keySet()) {
+                postings.computeIfPresent(term, (key, bySyllabus) -> {
+                    bySyllabus.remove(id);
+                    return bySyllabus.isEmpty() ? null : bySyllabus;
+                });
+            }
+            totalLength -= removed.length();
+            characters -= removed.characters();
+        }
+
+        synchronized List<Scored> search(List<String> terms, int limit) {
+            if (documents.isEmpty()) {
+                return List.of();
+            }
+            int count = documents.size();
+            double averageLength = Math.max(1.0, (double) totalLength / count);
+            Map<String, Double> scores = new HashMap<>();
+            for (String term : terms) {
+                Map<String, Integer> bySyllabus = postings.get(term);
+                if (bySyllabus == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (count - bySyllabus.size() + 0.5) / (bySyllabus.size() + 0.5));
+                bySyllabus.forEach((id, frequency) -> {
+                    double lengthRatio = documents.get(id).length() / averageLength;
+                    double score = idf * frequency * (K1 + 1) / (frequency + K1 * (1 - B + B * lengthRatio));
+                    scores.merge(id, score, Double::sum);
+                });
+            }
+            return scores.entrySet().stream()
+                    .sorted(Map.Entry.<String, Double>comparingByValue(Comparator.reverseOrder())
+                            .thenComparing(Map.Entry.comparingByKey()))
+                    .limit(limit)
+                    .map(entry -> new Scored(documents.get(entry.getKey()), entry.getValue()))
+                    .toList();
+        }
+
+        synchronized int size() {
+            return documents.size();
+        }
+
+        synchronized long characters() {
+            return characters;
+        }
+    }
+}
@@ -1,16 +1,39 @@
 package com.syllabus.copilot.backend.service;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.mongodb.MongoException;
+import com.syllabus.copilot.backend.model.ExtractionCacheEntry;
+import com.syllabus.copilot.backend.model.ExtractionCacheStats;
 import com.syllabus.copilot.backend.model.ProcessingStatus;
+import com.syllabus.copilot.backend.model.ProgressEvent;
+import com.syllabus.copilot.backend.model.ProgressStage;
+import com.syllabus.copilot.backend.model.ReadCacheStats;
 import com.syllabus.copilot.backend.model.Syllabus;
+import com.syllabus.copilot.backend.model.SyllabusStatusView;
+import com.syllabus.copilot.backend.model.SyllabusVersionView;
 import com.syllabus.copilot.backend.repository.SyllabusRepository;
+import com.syllabus.copilot.backend.repository.SyllabusUpdateRepository;
+import com.syllabus.copilot.backend.service.PipelineMetrics.Outcome;
+import com.syllabus.copilot.backend.service.PipelineMetrics.Stage;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -18,66 +41,339 @@ import lombok.extern.slf4j.Slf4j;
 @Service
 public class SyllabusService {
     private final SyllabusRepository repo;
+    private final SyllabusUpdateRepository updates;
+    private final SyllabusReadCache readCache;
     private final PdfProcessingService pdfProcessingService;
     private final SyllabusAnalysisService analysisService;
+    private final ExtractionCacheService extractionCache;
+    private final SyllabusTextStore textStore;
+    private final OriginalTextMigration textMigration;
+    private final SyllabusUploadStore uploadStore;
+    private final ProcessingJobQueue jobQueue;
+    private final ProcessingAdmission admission;
+    private final SummaryBackfillService summaryBackfill;
+    private final SyllabusSearchIndex searchIndex;
+    private final ProgressEventBus progressEvents;
+    private final PipelineMetrics metrics;
 
     public SyllabusService(SyllabusRepository repo, 
+                          SyllabusUpdateRepository updates,
+                          SyllabusReadCache readCache,
                           PdfProcessingService pdfProcessingService,
-                          SyllabusAnalysisService analysisService) {
+                          SyllabusAnalysisService analysisService,
+                          ExtractionCacheService extractionCache,
+                          SyllabusTextStore textStore,
+                          OriginalTextMigration textMigration,
+                          SyllabusUploadStore uploadStore,
+                          ProcessingJobQueue jobQueue,
+                          ProcessingAdmission admission,
+                          SummaryBackfillService summaryBackfill,
+                          SyllabusSearchIndex searchIndex,
+                          ProgressEventBus progressEvents,
+                          PipelineMetrics metrics) {
         this.repo = repo;
+        this.updates = updates;
+        this.readCache = readCache;
         this.pdfProcessingService = pdfProcessingService;
         this.analysisService = analysisService;
+        this.extractionCache = extractionCache;
+        this.textStore = textStore;
+        this.textMigration = textMigration;
+        this.uploadStore = uploadStore;
+        this.jobQueue = jobQueue;
+        this.admission = admission;
+        this.summaryBackfill = summaryBackfill;
+        this.searchIndex = searchIndex;
+        this.progressEvents = progressEvents;
+        this.metrics = metrics;
     }
 
     public List<Syllabus> getAllForUser(String userId) {
-        return repo.findByUserId(userId);
+        return readCache.findByUserId(userId);
     }
 
-    public List<Syllabus> getAll() {
-        return repo.findAll();
+    public Optional<Syllabus> findById(String id) {
+        return readCache.findById(id);
     }
 
-    public Optional<Syllabus> findById(String id) {
-        return repo.findById(id);
+    // The full document with its extracted text loaded from the text store
+    public Optional<Syllabus> findByIdWithText(String id) throws IOException {
+        Optional<Syllabus> syllabus = repo.findById(id);
+        if (syllabus.isPresent()) {
+            Optional<InputStream> text = openOriginalText(syllabus.get());
+            if (text.isPresent()) {
+                try (InputStream in = text.get()) {
+                    syllabus.get().setOriginalText(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+                }
+            }
+        }
+        return syllabus;
+    }
+
+    // UTF-8 extracted text, streamed from the text store; empty until processing has stored it
+    public Optional<InputStream> openOriginalText(String id) throws IOException {
+        Optional<Syllabus> syllabus = repo.findById(id);
+        return syllabus.isEmpty() ? Optional.empty() : openOriginalText(syllabus.get());
     }
 
-    public Syllabus processSyllabusFile(MultipartFile file, String userId, String courseName) {
-        log.info("Processing syllabus file: {} for user: {}", file.getOriginalFilename(), userId);
+    public Optional<SyllabusStatusView> findStatusById(String id) {
+        return repo.findStatusById(id);
+    }
+
+    public Syllabus submitSyllabusFile(MultipartFile file, String userId, String courseName) throws IOException {
+        log.info("Received syllabus file: {} for user: {}", file.getOriginalFilename(), userId);
         
         // Validate file
+        long started = System.nanoTime();
         validateFile(file);
+        metrics.stage(Stage.VALIDATE, started);
+        admission.admit(userId, 1);
+        
+        // Keep the PDF in the upload store, hashing the bytes as they stream through, so that
+        // any instance can pick up the job; the multipart temp file is gone once the request completes
+        MessageDigest digest = newContentDigest();
+        String uploadRef;
+        started = System.nanoTime();
+        try (InputStream in = new DigestInputStream(file.getInputStream(), digest)) {
+            uploadRef = uploadStore.store(in, file.getOriginalFilename());
+        } catch (IOException | RuntimeException e) {
+            admission.finished(userId, 1);
+            throw e;
+        }
+        String contentHash = HexFormat.of().formatHex(digest.digest());
+        metrics.stage(Stage.STORE_UPLOAD, started);
         
-        // Create initial syllabus record
         Syllabus syllabus = new Syllabus();
-        syllabus.setUserId(userId);
-        syllabus.setCourseName(courseName);
-        syllabus.setFileName(file.getOriginalFilename());
-        syllabus.setUploadDate(LocalDateTime.now());
-        syllabus.setProcessingStatus(ProcessingStatus.PROCESSING);
+        boolean queued = false;
+        try {
+            // Create pending syllabus record
+            syllabus.setUserId(userId);
+            syllabus.setCourseName(courseName);
+            syllabus.setFileName(file.getOriginalFilename());
+            syllabus.setContentHash(contentHash);
+            syllabus.setUploadDate(LocalDateTime.now());
+            syllabus.setLastModifiedDate(syllabus.getUploadDate());
+            syllabus.setProcessingStatus(ProcessingStatus.PENDING);
+            started = System.nanoTime();
+            syllabus = repo.save(syllabus);
+            readCache.invalidate(syllabus.getId(), syllabus.getUserId());
+            metrics.stage(Stage.SAVE_PENDING, started);
+            
+            started = System.nanoTime();
+            jobQueue.enqueue(syllabus.getId(), syllabus.getUserId(), uploadRef, syllabus.getFileName());
+            queued = true;
+            metrics.stage(Stage.ENQUEUE, started);
+            progressEvents.publish(new ProgressEvent(syllabus.getId(), userId, ProgressStage.RECEIVED));
+        } catch (RuntimeException e) {
+            uploadStore.delete(uploadRef);
+            if (!queued) {
+                admission.finished(userId, 1);
+            }
+            if (syllabus.getId() != null) {
+                markFailed(syllabus, ProcessingStatus.PENDING, "Could not queue the syllabus for processing");
+            }
+            throw e;
+        }
         
-        // Save initial record
-        syllabus = repo.save(syllabus);
+        return syllabus;
+    }
+
+    // Mongo failures are rethrown so the job queue can retry the attempt; anything wrong with the
+    // PDF itself fails the syllabus, since another attempt would fail the same way
+    void processSyllabusFile(String syllabusId, Path pdfFile) {
+        // Claim the syllabus; a document that was deleted or already moved on is skipped
+        long processingStarted = System.nanoTime();
+        Optional<Syllabus> claimed = updates.transitionAndGet(syllabusId, ProcessingStatus.PENDING, ProcessingStatus.PROCESSING);
+        metrics.stage(Stage.CLAIM, processingStarted);
+        if (claimed.isEmpty()) {
+            log.warn("Syllabus {} was removed or is no longer pending, skipping processing", syllabusId);
+            return;
+        }
+        
+        Syllabus syllabus = claimed.get();
+        readCache.invalidate(syllabusId, syllabus.getUserId());
+        progressEvents.publish(new ProgressEvent(syllabusId, syllabus.getUserId(), ProgressStage.PROCESSING));
+        log.info("Processing syllabus file: {} for user: {}", syllabus.getFileName(), syllabus.getUserId());
         
         try {
-            // Extract text from PDF
-            String extractedText = pdfProcessingService.extractTextFromPdf(file);
+            analyze(syllabus, pdfFile);
             
-            // Analyze syllabus content
-            analysisService.analyzeSyllabusContent(syllabus, extractedText);
-            
-            // Save updated syllabus
-            return repo.save(syllabus);
+            // Write only the analysis results
+            long started = System.nanoTime();
+            boolean completed;
+            try {
+                completed = updates.transition(syllabusId, ProcessingStatus.PROCESSING, ProcessingStatus.COMPLETED,
+                        analysisResults(syllabus));
+            } finally {
+                textStore.unpin(syllabus.getOriginalTextRef());
+            }
+            readCache.invalidate(syllabusId, syllabus.getUserId());
+            metrics.stage(Stage.SAVE_RESULTS, started);
+            if (completed) {
+                metrics.processed(Outcome.COMPLETED, processingStarted);
+                progressEvents.publish(new ProgressEvent(syllabusId, syllabus.getUserId(), ProgressStage.SAVED));
+                summaryBackfill.schedule(syllabusId);
+            } else {
+                log.warn("Syllabus {} was removed or is no longer processing, discarding its results", syllabusId);
+                metrics.processed(Outcome.DISCARDED, processingStarted);
+            }
             
+        } catch (DataAccessException | MongoException e) {
+            metrics.processed(Outcome.RETRY, processingStarted);
+            throw e;
         } catch (IOException e) {
             log.error("Error processing syllabus file", e);
-            syllabus.setProcessingStatus(ProcessingStatus.FAILED);
-            syllabus.setProcessingError("Failed to extract text from PDF: " + e.getMessage());
-            return repo.save(syllabus);
+            markFailed(syllabus, ProcessingStatus.PROCESSING, "Failed to extract text from PDF: " + e.getMessage());
+            metrics.processed(Outcome.FAILED, processingStarted);
         } catch (Exception e) {
             log.error("Unexpected error during syllabus processing", e);
-            syllabus.setProcessingStatus(ProcessingStatus.FAILED);
-            syllabus.setProcessingError("Unexpected error: " + e.getMessage());
-            return repo.save(syllabus);
+            markFailed(syllabus, ProcessingStatus.PROCESSING, "Unexpected error: " + e.getMessage());
+            metrics.processed(Outcome.FAILED, processingStarted);
+        }
+    }
+
+    public List<ReadCacheStats> getReadCacheStats() {
+        return readCache.getStats();
+    }
+
+    public ExtractionCacheStats getExtractionCacheStats() {
+        return extractionCache.getStats();
+    }
+
+    // Fills in the analysis results on the in-memory syllabus; nothing is written to the syllabus itself.
+    // Its text stays pinned in the text store until the caller has written the results and unpins it.
+    void analyze(Syllabus syllabus, Path pdfFile) throws IOException {
+        long started = System.nanoTime();
+        Optional<ExtractionCacheEntry> cached = extractionCache.lookup(syllabus.getContentHash());
+        metrics.stage(Stage.CACHE_LOOKUP, started);
+        if (cached.isPresent() && Integer.valueOf(SyllabusAnalysisService.ANALYZER_VERSION).equals(cached.get().getAnalyzerVersion())
+                && textStore.retain(cached.get().getTextRef())) {
+            // Same PDF was analyzed before; skip PDFBox and the extractors
+            analysisService.applyCachedAnalysis(syllabus, cached.get());
+            progressEvents.publish(ProgressEvent.textExtracted(syllabus, null, cached.get().getTextLength(), true));
+            publishExtractorResults(syllabus);
+            return;
+        }
+        
+        // Analyzed by an older analyzer: its text is still good, only the extractors run again
+        Optional<String> cachedText = cached.isPresent() ? textStore.load(cached.get().getTextRef()) : Optional.empty();
+        String extractedText;
+        if (cachedText.isPresent()) {
+            extractedText = cachedText.get();
+            progressEvents.publish(ProgressEvent.textExtracted(syllabus, null, extractedText.length(), true));
+        } else {
+            // Extract text from PDF
+            started = System.nanoTime();
+            PdfProcessingService.PdfText pdfText = pdfProcessingService.extract(pdfFile, syllabus.getFileName(), syllabus.getId());
+            extractedText = pdfText.text();
+            metrics.stage(Stage.EXTRACT_TEXT, started);
+            metrics.extracted(Files.size(pdfFile), pdfText.pageCount(), extractedText.length());
+            progressEvents.publish(ProgressEvent.textExtracted(syllabus, pdfText.pageCount(), extractedText.length(), false));
+        }
+        
+        // Analyze syllabus content
+        analysisService.analyzeSyllabusContent(syllabus, extractedText);
+        publishExtractorResults(syllabus);
+        started = System.nanoTime();
+        syllabus.setOriginalTextRef(textStore.store(extractedText));
+        syllabus.setOriginalTextLength(extractedText.length());
+        metrics.stage(Stage.STORE_TEXT, started);
+        started = System.nanoTime();
+        try {
+            extractionCache.store(syllabus.getContentHash(), syllabus);
+        } catch (RuntimeException e) {
+            textStore.unpin(syllabus.getOriginalTextRef());
+            throw e;
+        }
+        metrics.stage(Stage.CACHE_STORE, started);
+    }
+
+    // The extractors run in one pass over the text, so their results are reported together
+    private void publishExtractorResults(Syllabus syllabus) {
+        int courseInfo = countPresent(syllabus.getCourseCode(), syllabus.getInstructor(),
+                syllabus.getSemester(), syllabus.getDescription());
+        progressEvents.publish(ProgressEvent.extractorFinished(syllabus, "courseInfo", courseInfo));
+        progressEvents.publish(ProgressEvent.extractorFinished(syllabus, "assignments", sizeOf(syllabus.getAssignments())));
+        progressEvents.publish(ProgressEvent.extractorFinished(syllabus, "exams", sizeOf(syllabus.getExams())));
+        progressEvents.publish(ProgressEvent.extractorFinished(syllabus, "importantDates", sizeOf(syllabus.getImportantDates())));
+        progressEvents.publish(ProgressEvent.extractorFinished(syllabus, "summary", null));
+    }
+
+    private static int countPresent(Object... values) {
+        int present = 0;
+        for (Object value : values) {
+            if (value != null) {
+                present++;
+            }
+        }
+        return present;
+    }
+
+    private static int sizeOf(List<?> items) {
+        return items == null ? 0 : items.size();
+    }
+
+    private void markFailed(Syllabus syllabus, ProcessingStatus expected, String error) {
+        long started = System.nanoTime();
+        boolean failed = updates.transition(syllabus.getId(), expected, ProcessingStatus.FAILED,
+                new Update().set("processingError", error));
+        readCache.invalidate(syllabus.getId(), syllabus.getUserId());
+        metrics.stage(Stage.MARK_FAILED, started);
+        if (failed) {
+            progressEvents.publish(ProgressEvent.failed(syllabus.getId(), syllabus.getUserId(), error));
+        }
+    }
+
+    // $set of the fields analysis fills in; unset results are left out of the write
+    static Update analysisResults(Syllabus analyzed) {
+        Update update = new Update();
+        setIfPresent(update, "courseCode", analyzed.getCourseCode());
+        setIfPresent(update, "instructor", analyzed.getInstructor());
+        setIfPresent(update, "semester", analyzed.getSemester());
+        setIfPresent(update, "description", analyzed.getDescription());
+        setIfPresent(update, "learningObjectives", analyzed.getLearningObjectives());
+        setIfPresent(update, "gradingPolicy", analyzed.getGradingPolicy());
+        setIfPresent(update, "assignments", analyzed.getAssignments());
+        setIfPresent(update, "exams", analyzed.getExams());
+        setIfPresent(update, "startDate", analyzed.getStartDate());
+        setIfPresent(update, "endDate", analyzed.getEndDate());
+        setIfPresent(update, "importantDates", analyzed.getImportantDates());
+        setIfPresent(update, "aiGeneratedSummary", analyzed.getAiGeneratedSummary());
+        setIfPresent(update, "studyPlan", analyzed.getStudyPlan());
+        setIfPresent(update, "originalTextRef", analyzed.getOriginalTextRef());
+        setIfPresent(update, "originalTextLength", analyzed.getOriginalTextLength());
+        setIfPresent(update, "analyzerVersion", analyzed.getAnalyzerVersion());
+        return update;
+    }
+
+    private static void setIfPresent(Update update, String field, Object value) {
+        if (value != null) {
+            update.set(field, value);
+        }
+    }
+
+    private Optional<InputStream> openOriginalText(Syllabus syllabus) throws IOException {
+        if (syllabus.getOriginalTextRef() != null) {
+            return textStore.open(syllabus.getOriginalTextRef());
+        }
+        // Not migrated yet, the text is still inline on the document
+        return textMigration.readInlineText(syllabus.getId())
+            .map(text -> new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    static void deleteSpooledFile(Path spooled) {
+        try {
+            Files.deleteIfExists(spooled);
+        } catch (IOException e) {
+            log.warn("Could not delete spooled upload {}", spooled, e);
+        }
+    }
+
+    static MessageDigest newContentDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
         }
     }
 
@@ -96,18 +392,57 @@ public class SyllabusService {
         }
     }
 
+    // Optimistically locked on version; a stale copy fails with OptimisticLockingFailureException
     public Syllabus save(Syllabus syllabus) {
         if (syllabus.getUploadDate() == null) {
             syllabus.setUploadDate(LocalDateTime.now());
         }
-        return repo.save(syllabus);
+        if (syllabus.getId() != null && syllabus.getVersion() == null) {
+            // Written before versioning; without a version save() would try to insert it again
+            if (updates.initializeVersion(syllabus.getId())) {
+                syllabus.setVersion(0L);
+            } else if (repo.existsById(syllabus.getId())) {
+                throw new OptimisticLockingFailureException("Syllabus " + syllabus.getId() + " was modified concurrently");
+            }
+        }
+        syllabus.setLastModifiedDate(LocalDateTime.now());
+        Syllabus saved = repo.save(syllabus);
+        readCache.invalidate(saved.getId(), saved.getUserId());
+        return saved;
+    }
+
+    public Optional<SyllabusVersionView> findVersionById(String id) {
+        return repo.findVersionById(id);
+    }
+
+    // Deletes only if the syllabus is still at the expected version; false when it has moved on
+    public boolean delete(String id, long expectedVersion) {
+        Optional<Syllabus> syllabus = repo.findById(id);
+        if (syllabus.isEmpty()) {
+            return true;
+        }
+        if (!Long.valueOf(expectedVersion).equals(syllabus.get().getVersion())) {
+            return false;
+        }
+        try {
+            // delete(entity) matches on the version as well, so a concurrent write still fails it
+            repo.delete(syllabus.get());
+        } catch (OptimisticLockingFailureException e) {
+            return false;
+        }
+        readCache.invalidate(id, syllabus.get().getUserId());
+        searchIndex.remove(id, syllabus.get().getUserId());
+        textStore.releaseIfUnreferenced(syllabus.get().getOriginalTextRef());
+        return true;
     }
 
     public void delete(String id) {
+        Optional<Syllabus> syllabus = repo.findById(id);
         repo.deleteById(id);
-    }
-    
-    public List<Syllabus> findByProcessingStatus(ProcessingStatus status) {
-        return repo.findByProcessingStatus(status);
+        readCache.invalidate(id, syllabus.map(Syllabus::getUserId).orElse(null));
+        syllabus.ifPresent(deleted -> {
+            searchIndex.remove(id, deleted.getUserId());
+            textStore.releaseIfUnreferenced(deleted.getOriginalTextRef());
+        });
     }
 }
@@ -0,0 +1,268 @@
+package com.syllabus.copilot.backend.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterInputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.gridfs.GridFsResource;
+import org.springframework.data.mongodb.gridfs.GridFsTemplate;
+import org.springframework.data.mongodb.gridfs.GridFsUpload;
+import org.springframework.stereotype.Service;
+
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoWriteException;
+import com.mongodb.client.gridfs.model.GridFSFile;
+import com.syllabus.copilot.backend.model.ExtractionCacheEntry;
+import com.syllabus.copilot.backend.model.Syllabus;
+import com.syllabus.copilot.backend.model.SyllabusTextPin;
+import com.syllabus.copilot.backend.repository.IndexedCollection;
+
+import lombok.extern.slf4j.Slf4j;
+
+// Deflate-compressed extracted text in its own GridFS bucket, addressed by the SHA-256 of the text.
+// Syllabi and extraction cache entries only hold the reference, so identical text is stored once.
+//
+// Whoever is about to point a document at some text pins it first, and a release only deletes text
+// nobody has pinned. The release pins the text itself while it deletes, so a store waits for it and
+// then writes the text again. Filenames are unique, so concurrent stores of the same text keep one copy.
+@Slf4j
+@Service
+public class SyllabusTextStore implements IndexedCollection {
+    private static final String ENCODING = "deflate";
+    // A release takes milliseconds; one that holds its pin longer than this is presumed dead
+    private static final Duration RELEASE_TIMEOUT = Duration.ofMinutes(1);
+    private static final long PIN_RETRY_MILLIS = 20;
+
+    private final GridFsTemplate gridFs;
+    private final MongoTemplate mongoTemplate;
+    private final String bucket;
+    private final int compressionLevel;
+    private final Duration pinDuration;
+
+    @Autowired
+    public SyllabusTextStore(MongoDatabaseFactory databaseFactory,
+                             MongoConverter converter,
+                             MongoTemplate mongoTemplate,
+                             @Value("${syllabus.text-store.bucket:syllabus_text}") String bucket,
+                             @Value("${syllabus.text-store.compression-level:6}") int compressionLevel,
+                             @Value("${syllabus.text-store.pin-duration:1h}") Duration pinDuration) {
+        this(new GridFsTemplate(databaseFactory, converter, bucket), mongoTemplate, bucket, compressionLevel,
+                pinDuration);
+    }
+
+    SyllabusTextStore(GridFsTemplate gridFs, MongoTemplate mongoTemplate, String bucket, int compressionLevel,
+                      Duration pinDuration) {
+        this.gridFs = gridFs;
+        this.mongoTemplate = mongoTemplate;
+        this.bucket = bucket;
+        this.compressionLevel = compressionLevel;
+        this.pinDuration = pinDuration;
+    }
+
+    @Override
+    public String collection() {
+        return bucket + ".files";
+    }
+
+    @Override
+    public List<IndexDefinition> indexes() {
+        return List.of(new Index("filename", Sort.Direction.ASC).unique());
+    }
+
+    // Returns the reference to keep on the owning document. The text stays pinned until unpin is
+    // called, once that document is written or given up on.
+    public String store(String text) {
+        byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+        String ref = sha256(utf8);
+        pin(ref);
+        try {
+            if (find(ref) == null) {
+                write(ref, text.length(), utf8);
+            }
+        } catch (RuntimeException e) {
+            unpin(ref);
+            throw e;
+        }
+        return ref;
+    }
+
+    // Pins text that another document is about to reference; false, and not pinned, if it is gone
+    public boolean retain(String ref) {
+        if (ref == null) {
+            return false;
+        }
+        pin(ref);
+        if (find(ref) == null) {
+            unpin(ref);
+            return false;
+        }
+        return true;
+    }
+
+    // The last pin to go releases the text if no document ended up referencing it. A pin that cannot
+    // be dropped here runs out on its own.
+    public void unpin(String ref) {
+        if (ref == null) {
+            return;
+        }
+        try {
+            SyllabusTextPin pin = mongoTemplate.findAndModify(
+                    Query.query(Criteria.where("_id").is(ref).and("releasing").is(false).and("pins").gt(0)),
+                    new Update().inc("pins", -1), FindAndModifyOptions.options().returnNew(true),
+                    SyllabusTextPin.class);
+            if (pin != null && pin.getPins() == 0) {
+                releaseIfUnreferenced(ref);
+            }
+        } catch (DataAccessException e) {
+            log.warn("Could not unpin syllabus text {}: {}", ref, e.getMessage());
+        }
+    }
+
+    // UTF-8 bytes of the text, decompressed as they are read
+    public Optional<InputStream> open(String ref) throws IOException {
+        GridFSFile file = find(ref);
+        if (file == null) {
+            return Optional.empty();
+        }
+        GridFsResource resource = gridFs.getResource(file);
+        return Optional.of(new InflaterInputStream(resource.getInputStream()));
+    }
+
+    public Optional<String> load(String ref) throws IOException {
+        Optional<InputStream> stream = open(ref);
+        if (stream.isEmpty()) {
+            return Optional.empty();
+        }
+        try (InputStream in = stream.get()) {
+            return Optional.of(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    // Deletes the blob once neither a syllabus nor a cache entry points at it. Pinned text is left
+    // alone; its last unpin checks again.
+    public void releaseIfUnreferenced(String ref) {
+        if (ref == null) {
+            return;
+        }
+        Instant now = now();
+        Instant claimExpiresAt = now.plus(RELEASE_TIMEOUT);
+        Query releasable = Query.query(Criteria.where("_id").is(ref).orOperator(
+                Criteria.where("pins").lte(0).and("releasing").is(false),
+                Criteria.where("expiresAt").lt(now)));
+        try {
+            mongoTemplate.upsert(releasable,
+                    new Update().set("pins", 0).set("releasing", true).set("expiresAt", claimExpiresAt),
+                    SyllabusTextPin.class);
+        } catch (DuplicateKeyException e) {
+            log.debug("Syllabus text {} is pinned, not releasing it", ref);
+            return;
+        }
+
+        try {
+            boolean referenced = mongoTemplate.exists(
+                            Query.query(Criteria.where("originalTextRef").is(ref)), Syllabus.class)
+                    || mongoTemplate.exists(
+                            Query.query(Criteria.where("textRef").is(ref)), ExtractionCacheEntry.class);
+            if (!referenced) {
+                gridFs.delete(Query.query(Criteria.where("filename").is(ref)));
+                log.debug("Released syllabus text {}", ref);
+            }
+        } finally {
+            mongoTemplate.remove(Query.query(Criteria.where("_id").is(ref).and("releasing").is(true)
+                    .and("expiresAt").is(claimExpiresAt)), SyllabusTextPin.class);
+        }
+    }
+
+    // Waits out a release that holds the text, or takes over one that ran out
+    private void pin(String ref) {
+        while (true) {
+            Instant now = now();
+            Query pinnable = Query.query(Criteria.where("_id").is(ref).orOperator(
+                    Criteria.where("releasing").is(false),
+                    Criteria.where("expiresAt").lt(now)));
+            try {
+                mongoTemplate.upsert(pinnable,
+                        new Update().set("releasing", false).inc("pins", 1).max("expiresAt", now.plus(pinDuration)),
+                        SyllabusTextPin.class);
+                return;
+            } catch (DuplicateKeyException e) {
+                try {
+                    Thread.sleep(PIN_RETRY_MILLIS);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while pinning syllabus text " + ref, interrupted);
+                }
+            }
+        }
+    }
+
+    private void write(String ref, int length, byte[] utf8) {
+        Document metadata = new Document("encoding", ENCODING)
+                .append("length", length)
+                .append("bytes", utf8.length);
+        ObjectId id = new ObjectId();
+        Deflater deflater = new Deflater(compressionLevel);
+        try (InputStream compressed = new DeflaterInputStream(new ByteArrayInputStream(utf8), deflater)) {
+            gridFs.store(GridFsUpload.fromStream(compressed).id(id).filename(ref).contentType("text/plain")
+                    .metadata(metadata).build());
+            log.debug("Stored syllabus text {} ({} bytes uncompressed)", ref, utf8.length);
+        } catch (MongoWriteException e) {
+            if (e.getError().getCategory() != ErrorCategory.DUPLICATE_KEY) {
+                throw e;
+            }
+            // A concurrent store of the same text got its file in first; our chunks are orphans
+            mongoTemplate.remove(Query.query(Criteria.where("files_id").is(id)), bucket + ".chunks");
+            log.debug("Syllabus text {} was stored concurrently", ref);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private GridFSFile find(String ref) {
+        return gridFs.find(Query.query(Criteria.where("filename").is(ref))).first();
+    }
+
+    // Mongo keeps milliseconds, and a release finds its own claim by exact time
+    private static Instant now() {
+        return Instant.now().truncatedTo(ChronoUnit.MILLIS);
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.syllabus.copilot.backend.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Optional;
+
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.gridfs.GridFsTemplate;
+import org.springframework.stereotype.Service;
+
+import com.mongodb.client.gridfs.model.GridFSFile;
+
+// Uploaded PDFs waiting in the job queue. They live in GridFS rather than on local disk so that
+// whichever instance claims the job can read the file; the blob is removed once the job is done.
+@Service
+public class SyllabusUploadStore {
+    private final GridFsTemplate gridFs;
+
+    public SyllabusUploadStore(MongoDatabaseFactory databaseFactory,
+                               MongoConverter converter,
+                               @Value("${syllabus.jobs.upload-bucket:syllabus_uploads}") String bucket) {
+        this.gridFs = new GridFsTemplate(databaseFactory, converter, bucket);
+    }
+
+    // Returns the reference to keep on the job
+    public String store(InputStream pdf, String fileName) {
+        return gridFs.store(pdf, fileName, "application/pdf").toHexString();
+    }
+
+    public Optional<InputStream> open(String ref) throws IOException {
+        GridFSFile file = gridFs.findOne(byRef(ref));
+        if (file == null) {
+            return Optional.empty();
+        }
+        return Optional.of(gridFs.getResource(file).getInputStream());
+    }
+
+    public void delete(String ref) {
+        gridFs.delete(byRef(ref));
+    }
+
+    private static Query byRef(String ref) {
+        return Query.query(Criteria.where("_id").is(new ObjectId(ref)));
+    }
+}
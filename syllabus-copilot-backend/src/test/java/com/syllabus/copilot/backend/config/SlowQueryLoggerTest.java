@@ -0,0 +1,56 @@
+package com.syllabus.copilot.backend.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.stream.IntStream;
+
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.BsonDocumentCodec;
+import org.junit.jupiter.api.Test;
+
+class SlowQueryLoggerTest {
+
+    @Test
+    void keepsTheFilterOfEachExplainableCommand() {
+        BsonDocument filter = BsonDocument.parse("{userId: 'u1', processingStatus: 'COMPLETED'}");
+
+        assertThat(SlowQueryLogger.filterSample("find", new BsonDocument("find", new BsonString("syllabi"))
+                .append("filter", filter))).isEqualTo(filter);
+        assertThat(SlowQueryLogger.filterSample("findAndModify", new BsonDocument("findAndModify", new BsonString("jobs"))
+                .append("query", filter))).isEqualTo(filter);
+        assertThat(SlowQueryLogger.filterSample("aggregate", BsonDocument.parse(
+                "{aggregate: 'syllabi', pipeline: [{$match: {userId: 'u1'}}, {$group: {_id: '$userId'}}]}")))
+            .isEqualTo(BsonDocument.parse("{userId: 'u1'}"));
+        assertThat(SlowQueryLogger.filterSample("insert", BsonDocument.parse("{insert: 'syllabi'}")))
+            .isEqualTo(new BsonDocument());
+    }
+
+    // A bulk update of many statements, each with a long $in, keeps one statement's filter and one element
+    @Test
+    void largeCommandsAreCutToABoundedSample() {
+        BsonArray ids = new BsonArray(IntStream.range(0, 10_000).mapToObj(BsonInt32::new).toList());
+        BsonDocument statement = new BsonDocument("q", new BsonDocument("_id", new BsonDocument("$in", ids)))
+                .append("u", BsonDocument.parse("{$set: {status: 'DONE'}}"));
+        BsonArray updates = new BsonArray(IntStream.range(0, 100).mapToObj(i -> (BsonValue) statement).toList());
+        BsonDocument command = new RawBsonDocument(new BsonDocument("update", new BsonString("jobs"))
+                .append("updates", updates), new BsonDocumentCodec());
+
+        assertThat(SlowQueryLogger.filterSample("update", command))
+            .isEqualTo(BsonDocument.parse("{_id: {$in: [0]}}"));
+    }
+
+    @Test
+    void deepAndWideFiltersAreTruncated() {
+        BsonDocument wide = new BsonDocument();
+        IntStream.range(0, 40).forEach(i -> wide.put("f" + i, new BsonInt32(i)));
+        BsonDocument deep = BsonDocument.parse("{a: {b: {c: {d: {e: {f: 1}}}}}}");
+
+        assertThat(SlowQueryLogger.sample(wide)).hasSize(SlowQueryLogger.SAMPLE_FIELDS);
+        assertThat(SlowQueryLogger.sample(deep).toJson()).isEqualTo("{\"a\": {\"b\": {\"c\": {\"d\": {}}}}}");
+    }
+}
@@ -0,0 +1,21 @@
+package com.syllabus.copilot.backend.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.web.servlet.MultipartProperties;
+
+import jakarta.servlet.MultipartConfigElement;
+
+class UploadConfigTest {
+
+    @Test
+    void requestLimitFollowsTheBatchSize() {
+        MultipartConfigElement ten = new UploadConfig().multipartConfigElement(new MultipartProperties(), 10);
+        MultipartConfigElement fifty = new UploadConfig().multipartConfigElement(new MultipartProperties(), 50);
+
+        assertThat(ten.getMaxRequestSize()).isEqualTo(101L * 1024 * 1024);
+        assertThat(ten.getMaxFileSize()).isEqualTo(ten.getMaxRequestSize());
+        assertThat(fifty.getMaxRequestSize()).isEqualTo(501L * 1024 * 1024);
+    }
+}
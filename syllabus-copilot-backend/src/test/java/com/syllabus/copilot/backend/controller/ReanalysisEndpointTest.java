@@ -0,0 +1,45 @@
+package com.syllabus.copilot.backend.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+import com.syllabus.copilot.backend.model.ReanalysisRun;
+import com.syllabus.copilot.backend.service.ReanalysisService;
+
+class ReanalysisEndpointTest {
+    private final ReanalysisService service = mock(ReanalysisService.class);
+    private final ReanalysisEndpoint endpoint = new ReanalysisEndpoint(service);
+
+    @Test
+    void startIsAcceptedWithTheRun() {
+        ReanalysisRun run = new ReanalysisRun();
+        when(service.start(2.0)).thenReturn(run);
+
+        assertThat(endpoint.control("start", 2.0).getStatus()).isEqualTo(202);
+        verify(service).start(2.0);
+    }
+
+    @Test
+    void rejectedStartsMapToClientErrors() {
+        when(service.start(-1.0)).thenThrow(new IllegalArgumentException("rate"));
+        when(service.start(null)).thenThrow(new IllegalStateException("running"));
+
+        assertThat(endpoint.control("start", -1.0).getStatus()).isEqualTo(400);
+        assertThat(endpoint.control("start", null).getStatus()).isEqualTo(409);
+    }
+
+    @Test
+    void pauseWithoutARunConflicts() {
+        when(service.pause()).thenReturn(Optional.empty());
+
+        assertThat(endpoint.control("pause", null).getStatus()).isEqualTo(409);
+        assertThat(endpoint.control("resume", null).getStatus()).isEqualTo(404);
+        assertThat(endpoint.currentRun().getStatus()).isEqualTo(404);
+    }
+}
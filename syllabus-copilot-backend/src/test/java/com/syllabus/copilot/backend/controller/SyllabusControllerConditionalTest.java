@@ -0,0 +1,168 @@
+package com.syllabus.copilot.backend.controller;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.syllabus.copilot.backend.model.CursorPage;
+import com.syllabus.copilot.backend.model.Syllabus;
+import com.syllabus.copilot.backend.model.SyllabusVersionView;
+import com.syllabus.copilot.backend.service.AdmissionRejectedException;
+import com.syllabus.copilot.backend.service.LlmSummaryClient;
+import com.syllabus.copilot.backend.service.ProcessingAdmission;
+import com.syllabus.copilot.backend.service.ProgressStreamService;
+import com.syllabus.copilot.backend.service.SyllabusBatchService;
+import com.syllabus.copilot.backend.service.SyllabusListingService;
+import com.syllabus.copilot.backend.service.SyllabusSearchIndex;
+import com.syllabus.copilot.backend.service.SyllabusService;
+
+@WebMvcTest(SyllabusController.class)
+class SyllabusControllerConditionalTest {
+    private static final String ID = "6718a0c2e4b0a1b2c3d4e5f6";
+    private static final LocalDateTime MODIFIED = LocalDateTime.of(2025, 9, 1, 12, 0);
+
+    @Autowired
+    private MockMvc mvc;
+
+    @MockitoBean
+    private SyllabusService service;
+
+    @MockitoBean
+    private SyllabusListingService listingService;
+
+    @MockitoBean
+    private SyllabusBatchService batchService;
+
+    @MockitoBean
+    private ProcessingAdmission admission;
+
+    @MockitoBean
+    private LlmSummaryClient llmClient;
+
+    @MockitoBean
+    private ProgressStreamService progressStreams;
+
+    @MockitoBean
+    private SyllabusSearchIndex searchIndex;
+
+    @Test
+    void detailCarriesValidators() throws Exception {
+        when(service.findById(ID)).thenReturn(Optional.of(syllabus(3L)));
+
+        mvc.perform(get("/api/syllabi/{id}", ID))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+            .andExpect(header().exists(HttpHeaders.LAST_MODIFIED));
+    }
+
+    @Test
+    void matchingRevalidationIsAnsweredWithoutLoadingTheDocument() throws Exception {
+        when(service.findVersionById(ID)).thenReturn(Optional.of(version(3L)));
+
+        mvc.perform(get("/api/syllabi/{id}", ID).header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"3\""));
+
+        verify(service, never()).findById(anyString());
+    }
+
+    @Test
+    void staleRevalidationReturnsTheNewVersion() throws Exception {
+        when(service.findVersionById(ID)).thenReturn(Optional.of(version(4L)));
+        when(service.findById(ID)).thenReturn(Optional.of(syllabus(4L)));
+
+        mvc.perform(get("/api/syllabi/{id}", ID).header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"4\""));
+    }
+
+    @Test
+    void listingRevalidationSkipsTheQuery() throws Exception {
+        when(listingService.versionTagForUser("u1", null, null, null)).thenReturn("\"abc\"");
+
+        mvc.perform(get("/api/syllabi/user/{userId}", "u1").header(HttpHeaders.IF_NONE_MATCH, "\"abc\""))
+            .andExpect(status().isNotModified());
+
+        verify(listingService, never()).listForUser("u1", null, null, null);
+    }
+
+    @Test
+    void listingCarriesVersionTag() throws Exception {
+        when(listingService.listForUser("u1", null, null, null))
+            .thenAnswer(call -> new CursorPage<>(List.of(), null, "\"abc\""));
+
+        mvc.perform(get("/api/syllabi/user/{userId}", "u1"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"abc\""));
+    }
+
+    @Test
+    void deleteOfStaleVersionIsRejected() throws Exception {
+        when(service.findById(ID)).thenReturn(Optional.of(syllabus(4L)));
+        when(service.delete(ID, 3L)).thenReturn(false);
+
+        mvc.perform(delete("/api/syllabi/{id}", ID).header(HttpHeaders.IF_MATCH, "\"3\""))
+            .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void fullQueueAnswersTooManyRequests() throws Exception {
+        when(service.submitSyllabusFile(any(), eq("u1"), eq("COSC 412")))
+            .thenThrow(new AdmissionRejectedException("Queue is full", Duration.ofMillis(2500)));
+
+        mvc.perform(multipart("/api/syllabi/upload")
+                .file(new MockMultipartFile("file", "s.pdf", "application/pdf", new byte[] {1}))
+                .param("userId", "u1")
+                .param("courseName", "COSC 412"))
+            .andExpect(status().isTooManyRequests())
+            .andExpect(header().string(HttpHeaders.RETRY_AFTER, "3"));
+    }
+
+    private static Syllabus syllabus(long version) {
+        Syllabus syllabus = new Syllabus();
+        syllabus.setId(ID);
+        syllabus.setVersion(version);
+        syllabus.setLastModifiedDate(MODIFIED);
+        return syllabus;
+    }
+
+    private static SyllabusVersionView version(long version) {
+        return new SyllabusVersionView() {
+            @Override
+            public String getId() {
+                return ID;
+            }
+
+            @Override
+            public Long getVersion() {
+                return version;
+            }
+
+            @Override
+            public LocalDateTime getLastModifiedDate() {
+                return MODIFIED;
+            }
+        };
+    }
+}
@@ -0,0 +1,81 @@
+package com.syllabus.copilot.backend.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationContext;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+
+import com.syllabus.copilot.backend.model.Syllabus;
+
+class MongoIndexManagerTest {
+    private final MongoMappingContext mappingContext = new MongoMappingContext();
+
+    // java.time types are simple values, as in the application's mapping context
+    MongoIndexManagerTest() {
+        mappingContext.setSimpleTypeHolder(new MongoCustomConversions(List.of()).getSimpleTypeHolder());
+    }
+
+    @Document("courses")
+    static class Course {
+        @Id
+        String id;
+        @Indexed
+        String code;
+        String title;
+    }
+
+    interface CourseRepository extends MongoRepository<Course, String> {
+        List<Course> findByCode(String code);
+
+        List<Course> findByTitleAndCode(String title, String code);
+
+        List<Course> findByTitle(String title);
+
+        @Query("{ title: ?0 }")
+        List<Course> searchByTitle(String title);
+    }
+
+    @Test
+    void queriesWithoutAnIndexOnAnyCriterionAreReported() {
+        List<String> uncovered = manager(true).findUncoveredQueries(CourseRepository.class,
+                List.of(CourseRepository.class.getDeclaredMethods()), Course.class);
+
+        // findByCode and findByTitleAndCode use the code index, searchByTitle is a hand-written query
+        assertThat(uncovered).containsExactly("CourseRepository.findByTitle [title]");
+    }
+
+    @Test
+    void uncoveredQueriesFailTheBootUnlessOnlyWarned() {
+        List<String> uncovered = List.of("CourseRepository.findByTitle [title]");
+
+        assertThatThrownBy(() -> manager(true).verify(uncovered))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("CourseRepository.findByTitle");
+        assertThatCode(() -> manager(false).verify(uncovered)).doesNotThrowAnyException();
+        assertThatCode(() -> manager(true).verify(List.of())).doesNotThrowAnyException();
+    }
+
+    @Test
+    void everySyllabusRepositoryQueryHasAnIndex() {
+        assertThat(manager(true).findUncoveredQueries(SyllabusRepository.class,
+                List.of(SyllabusRepository.class.getDeclaredMethods()), Syllabus.class)).isEmpty();
+    }
+
+    private MongoIndexManager manager(boolean requireIndexedQueries) {
+        return new MongoIndexManager(mock(MongoTemplate.class), mappingContext, mock(ApplicationContext.class),
+                MongoIndexManager.Mode.VERIFY, requireIndexedQueries);
+    }
+}
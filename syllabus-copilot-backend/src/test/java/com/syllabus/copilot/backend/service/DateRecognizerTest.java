@@ -0,0 +1,91 @@
+package com.syllabus.copilot.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.Random;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class DateRecognizerTest {
+
+    @ParameterizedTest
+    @MethodSource("numericDates")
+    void numericFormsMatchLegacyParser(String date) {
+        LocalDateTime expected;
+        try {
+            expected = LegacySyllabusExtractors.parseDateString(date);
+        } catch (Exception e) {
+            expected = null;
+        }
+
+        int packed = DateRecognizer.parse(date);
+        LocalDateTime actual = packed == DateRecognizer.INVALID ? null : DateRecognizer.toDateTime(packed);
+
+        assertThat(actual).as(date).isEqualTo(expected);
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+        "Oct 20, 2025       | 2025-10-20",
+        "October 20 2025    | 2025-10-20",
+        "oct 20,2025        | 2025-10-20",
+        "Sept. 9, 2025      | 2025-09-09",
+        "SEP 9 25           | 2025-09-09",
+        "Nov 3rd, 2025      | 2025-11-03",
+        "February 29, 2024  | 2024-02-29",
+    })
+    void parsesMonthNameForms(String text, String expected) {
+        int packed = DateRecognizer.parse(text.strip());
+
+        assertThat(DateRecognizer.toDateTime(packed)).isEqualTo(LocalDateTime.parse(expected + "T00:00"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"Oc 20, 2025", "Octo20 2025", "Oct 20", "Oct 2025", "February 29, 2025",
+            "Mayo 5, 2025", "Oct 20 2025 extra", "Oct 123, 2025", ""})
+    void rejectsMalformedMonthNameForms(String text) {
+        assertThat(DateRecognizer.parse(text)).isEqualTo(DateRecognizer.INVALID);
+    }
+
+    @Test
+    void parsesSpanInsideLargerText() {
+        String line = "Homework 3 — Due 09/10/2025 at noon";
+        int start = line.indexOf("09/");
+
+        int packed = DateRecognizer.parse(line, start, start + "09/10/2025".length());
+
+        assertThat(packed).isEqualTo(20250910);
+    }
+
+    // Every shape the extraction rules can hand to the parser, valid and invalid
+    static Stream<String> numericDates() {
+        Random random = new Random(7);
+        Stream<String> generated = IntStream.range(0, 500).mapToObj(i -> {
+            String separator = random.nextBoolean() ? "/" : "-";
+            String first = digits(random, 1 + random.nextInt(2));
+            String second = digits(random, 1 + random.nextInt(2));
+            String third = digits(random, 2 + random.nextInt(3));
+            return random.nextInt(10) == 0
+                    ? digits(random, 4) + separator + second + separator + first
+                    : first + separator + second + separator + third;
+        });
+        Stream<String> edges = Stream.of("02/29/2024", "02/29/2025", "2/29/00", "12/31/99", "00/10/2025",
+                "13/01/2025", "04/31/2025", "1-2-03", "2025-02-28", "10/20-2025", "0/0/00");
+        return Stream.concat(edges, generated);
+    }
+
+    private static String digits(Random random, int count) {
+        StringBuilder digits = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            digits.append((char) ('0' + random.nextInt(random.nextBoolean() ? 10 : 4)));
+        }
+        return digits.toString();
+    }
+}
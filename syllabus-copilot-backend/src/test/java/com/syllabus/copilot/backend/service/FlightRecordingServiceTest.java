@@ -0,0 +1,116 @@
+package com.syllabus.copilot.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.util.unit.DataSize;
+
+import com.syllabus.copilot.backend.model.Syllabus;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+class FlightRecordingServiceTest {
+    private static final String TEXT = """
+            Course Code: COSC 412
+            Homework 1 — Due 09/10/2025
+            Midterm Exam — 10/20/2025
+            11/26/2025 - Thanksgiving break, no class
+            13/45/2025 - Not a date
+            """;
+
+    private static final ClassPathResource SETTINGS = new ClassPathResource("jfr/syllabus.jfc");
+
+    private final FlightRecordingService recorder = new FlightRecordingService(true, SETTINGS,
+            Duration.ofMinutes(5), DataSize.ofMegabytes(50));
+
+    @AfterEach
+    void tearDown() {
+        recorder.destroy();
+    }
+
+    @Test
+    void dumpContainsTheAnalysisEventsOfASyllabus() throws IOException {
+        Syllabus syllabus = new Syllabus();
+        syllabus.setId("syllabus-jfr-1");
+        syllabus.setCourseName("Software Engineering");
+        new SyllabusAnalysisService(new SyllabusExtractionEngine(),
+                new PipelineMetrics(new SimpleMeterRegistry(), new ProgressEventBus()))
+            .analyzeSyllabusContent(syllabus, TEXT);
+
+        Path dump = recorder.dump(Duration.ofMinutes(1));
+        try {
+            List<RecordedEvent> events = RecordingFile.readAllEvents(dump).stream()
+                .filter(event -> event.getEventType().getName().startsWith("syllabus."))
+                .filter(event -> "syllabus-jfr-1".equals(event.getString("syllabusId")))
+                .toList();
+
+            RecordedEvent analysis = only(events, "syllabus.Analysis");
+            assertThat(analysis.getInt("assignments")).isEqualTo(1);
+            assertThat(analysis.getInt("exams")).isEqualTo(1);
+            assertThat(analysis.getInt("datesParsed")).isEqualTo(4);
+            assertThat(analysis.getInt("datesInvalid")).isEqualTo(1);
+
+            assertThat(events).filteredOn(event -> event.getEventType().getName().equals("syllabus.RuleEvaluation"))
+                .hasSize(SyllabusExtractionEngine.ruleNames().size())
+                .anySatisfy(rule -> {
+                    assertThat(rule.getString("rule")).isEqualTo("schedule");
+                    assertThat(rule.getInt("matches")).isEqualTo(4);
+                    assertThat(rule.getInt("attempts")).isEqualTo(1);
+                });
+            assertThat(events).filteredOn(event -> event.getEventType().getName().equals("syllabus.DateParse"))
+                .extracting(event -> event.getString("text"))
+                .contains("09/10/2025", "13/45/2025");
+        } finally {
+            Files.deleteIfExists(dump);
+        }
+    }
+
+    @Test
+    void dumpLeavesOutTheEnvironmentAndSystemProperties() throws IOException {
+        Path dump = recorder.dump(Duration.ofMinutes(1));
+        try {
+            assertThat(RecordingFile.readAllEvents(dump))
+                .extracting(event -> event.getEventType().getName())
+                .doesNotContain("jdk.InitialEnvironmentVariable", "jdk.InitialSystemProperty", "jdk.JVMInformation");
+        } finally {
+            Files.deleteIfExists(dump);
+        }
+    }
+
+    @Test
+    void windowMustFitTheRecording() {
+        assertThatThrownBy(() -> recorder.dump(Duration.ofMinutes(6)))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> recorder.dump(Duration.ZERO))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void disabledRecordingCannotBeDumped() {
+        FlightRecordingService disabled = new FlightRecordingService(false, SETTINGS,
+                Duration.ofMinutes(5), DataSize.ofMegabytes(50));
+
+        assertThat(disabled.isRecording()).isFalse();
+        assertThatThrownBy(() -> disabled.dump(Duration.ofMinutes(1)))
+            .isInstanceOf(IllegalStateException.class);
+    }
+
+    private static RecordedEvent only(List<RecordedEvent> events, String type) {
+        List<RecordedEvent> matching = events.stream()
+            .filter(event -> event.getEventType().getName().equals(type))
+            .toList();
+        assertThat(matching).as(type).hasSize(1);
+        return matching.get(0);
+    }
+}
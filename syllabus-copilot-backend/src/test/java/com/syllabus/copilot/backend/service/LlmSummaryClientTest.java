@@ -0,0 +1,115 @@
+package com.syllabus.copilot.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.syllabus.copilot.backend.config.LlmStubServer;
+import com.syllabus.copilot.backend.model.LlmResponseCacheEntry;
+import com.syllabus.copilot.backend.service.LlmSummaryClient.GeneratedSummary;
+
+// Runs the client against the local stub server over real HTTP
+class LlmSummaryClientTest {
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private LlmStubServer stub;
+
+    @AfterEach
+    void tearDown() {
+        if (stub != null) {
+            stub.destroy();
+        }
+    }
+
+    @Test
+    void generatedAnswerIsParsedAndCached() throws IOException {
+        stub = new LlmStubServer(0, Duration.ZERO);
+        LlmSummaryClient client = client(Duration.ofSeconds(5));
+
+        Optional<GeneratedSummary> answer = client.generate("Software Engineering", "Homework 1 — Due 09/10/2025");
+
+        assertThat(answer).isPresent();
+        assertThat(answer.get().summary()).isEqualTo("Stub summary of Software Engineering.");
+        assertThat(answer.get().studyPlan().getEstimatedStudyHours()).isEqualTo(90);
+        assertThat(answer.get().studyPlan().getRecommendedResources()).containsExactly("Textbook", "Office hours");
+
+        ArgumentCaptor<LlmResponseCacheEntry> cached = ArgumentCaptor.forClass(LlmResponseCacheEntry.class);
+        verify(mongoTemplate).save(cached.capture());
+        assertThat(cached.getValue().getSummary()).isEqualTo(answer.get().summary());
+        assertThat(client.getStats().getGenerated()).isEqualTo(1);
+    }
+
+    @Test
+    void cachedAnswerSkipsTheCall() throws IOException {
+        stub = new LlmStubServer(0, Duration.ZERO);
+        when(mongoTemplate.findById(anyString(), eq(LlmResponseCacheEntry.class)))
+            .thenReturn(new LlmResponseCacheEntry("h", "stub-model", "Cached summary", null, null));
+        LlmSummaryClient client = client(Duration.ofSeconds(5));
+
+        assertThat(client.generate("Software Engineering", "text")).map(GeneratedSummary::summary)
+            .contains("Cached summary");
+        assertThat(stub.getRequestCount()).isZero();
+        assertThat(client.getStats().getCacheHits()).isEqualTo(1);
+    }
+
+    @Test
+    void slowModelTimesOutToEmpty() throws IOException {
+        stub = new LlmStubServer(0, Duration.ofSeconds(2));
+        LlmSummaryClient client = client(Duration.ofMillis(200));
+
+        long started = System.nanoTime();
+        assertThat(client.generate("Software Engineering", "text")).isEmpty();
+
+        assertThat(Duration.ofNanos(System.nanoTime() - started)).isLessThan(Duration.ofSeconds(2));
+        assertThat(client.getStats().getFailures()).isEqualTo(1);
+    }
+
+    @Test
+    void disabledClientNeverCalls() {
+        LlmSummaryClient client = new LlmSummaryClient(mongoTemplate, new ObjectMapper(), false, "", "stub-model",
+                "http://localhost:1/", Duration.ofSeconds(1), 1, 1000);
+
+        assertThat(client.generate("Software Engineering", "text")).isEmpty();
+        assertThat(client.getStats().getRequests()).isZero();
+    }
+
+    @Test
+    void fencedAnswerIsParsed() {
+        LlmSummaryClient client = new LlmSummaryClient(mongoTemplate, new ObjectMapper(), false, "", "stub-model",
+                "http://localhost:1/", Duration.ofSeconds(1), 1, 1000);
+
+        Optional<GeneratedSummary> answer = client.parse("""
+                ```json
+                {"summary": "Intro course.", "estimatedStudyHours": 40}
+                ```""", "m");
+
+        assertThat(answer).map(GeneratedSummary::summary).contains("Intro course.");
+        assertThat(client.parse("not json", "m")).isEmpty();
+    }
+
+    @Test
+    void promptIsTruncatedAndHashedWithTheModel() {
+        LlmSummaryClient client = new LlmSummaryClient(mongoTemplate, new ObjectMapper(), false, "", "stub-model",
+                "http://localhost:1/", Duration.ofSeconds(1), 1, 10);
+
+        assertThat(client.userPrompt("C", "0123456789abcdef")).endsWith("0123456789");
+        assertThat(LlmSummaryClient.promptHash("a", "p")).isNotEqualTo(LlmSummaryClient.promptHash("b", "p"));
+    }
+
+    private LlmSummaryClient client(Duration timeout) {
+        return new LlmSummaryClient(mongoTemplate, new ObjectMapper(), true, "test-key", "stub-model",
+                "http://localhost:" + stub.getPort(), timeout, 2, 12000);
+    }
+}
@@ -0,0 +1,183 @@
+package com.syllabus.copilot.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.util.unit.DataSize;
+
+class PdfProcessingServiceTest {
+    private static ForkJoinPool pool;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeAll
+    static void startPool() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterAll
+    static void stopPool() {
+        pool.shutdown();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 7, 9, 33, 61})
+    void parallelExtractionMatchesSingleThreaded(int pageCount) throws IOException {
+        Path pdf = tempDir.resolve("syllabus-" + pageCount + ".pdf");
+        Files.write(pdf, syntheticSyllabus(pageCount, pageCount));
+
+        PdfProcessingService sequential = service(false, 8, DataSize.ofMegabytes(256));
+        PdfProcessingService parallel = service(true, 2, DataSize.ofMegabytes(256));
+
+        String expected = sequential.extractTextFromPdf(pdf, "syllabus.pdf");
+        String actual = parallel.extractTextFromPdf(pdf, "syllabus.pdf");
+
+        assertThat(actual).isEqualTo(expected);
+        assertThat(expected).contains("Week 1");
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 7, 8, 16, 60, 1000})
+    void rangeCountScalesWithPagesAndIsCappedByParallelism(int pageCount) {
+        PdfProcessingService service = service(true, 8, DataSize.ofMegabytes(256));
+
+        int ranges = service.rangeCount(pageCount);
+
+        assertThat(ranges).isBetween(1, pool.getParallelism());
+        assertThat(ranges).isEqualTo(Math.max(1, Math.min(pool.getParallelism(), pageCount / 8)));
+    }
+
+    @Test
+    void fallsBackToSingleRangeWhenMemoryBudgetIsExhausted() throws IOException {
+        Path pdf = tempDir.resolve("syllabus-budget.pdf");
+        Files.write(pdf, syntheticSyllabus(40, 40));
+
+        // Budget only fits the primary document, so no extra ranges can be opened
+        PdfProcessingService constrained = service(true, 2, DataSize.ofMegabytes(1));
+        PdfProcessingService sequential = service(false, 8, DataSize.ofMegabytes(256));
+
+        assertThat(constrained.extractTextFromPdf(pdf, "syllabus.pdf"))
+                .isEqualTo(sequential.extractTextFromPdf(pdf, "syllabus.pdf"));
+    }
+
+    @Test
+    void failedExtractionWaitsForRangesStillParsing() throws IOException {
+        Path pdf = tempDir.resolve("syllabus-interrupted.pdf");
+        Files.write(pdf, syntheticSyllabus(40, 40));
+        RangeTrackingPool ranges = new RangeTrackingPool(4);
+        PdfMemoryBudget budget = new PdfMemoryBudget(DataSize.ofMegabytes(256));
+        try {
+            PdfProcessingService service = new PdfProcessingService(ranges, budget, true, 2,
+                    DataSize.ofKilobytes(512), tempDir.toString());
+
+            // The join is interrupted while the forked ranges are still busy
+            Thread.currentThread().interrupt();
+            assertThatThrownBy(() -> service.extract(pdf, "syllabus.pdf")).isInstanceOf(IOException.class);
+
+            assertThat(Thread.interrupted()).isTrue();
+            assertThat(ranges.submitted.get()).isEqualTo(3);
+            assertThat(ranges.running.get()).isZero();
+            assertThat(budget.availableBytes()).isEqualTo(budget.totalBytes());
+        } finally {
+            ranges.shutdownNow();
+        }
+    }
+
+    @Test
+    void spoolsUploadToScratchFile() throws IOException {
+        byte[] pdf = syntheticSyllabus(3, 3);
+
+        Path spooled = service(false, 8, DataSize.ofMegabytes(256)).spoolToTempFile(new ByteArrayInputStream(pdf));
+
+        assertThat(spooled.getParent()).isEqualTo(tempDir);
+        assertThat(Files.readAllBytes(spooled)).isEqualTo(pdf);
+    }
+
+    // Counts the forked ranges that are still running. Each range takes a while and, like a PDFBox
+    // parse, does not notice being interrupted.
+    private static final class RangeTrackingPool extends ForkJoinPool {
+        final AtomicInteger submitted = new AtomicInteger();
+        final AtomicInteger running = new AtomicInteger();
+
+        RangeTrackingPool(int parallelism) {
+            super(parallelism);
+        }
+
+        @Override
+        public <T> ForkJoinTask<T> submit(Callable<T> task) {
+            submitted.incrementAndGet();
+            return super.submit(() -> {
+                running.incrementAndGet();
+                try {
+                    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(300);
+                    while (System.nanoTime() < deadline) {
+                        LockSupport.parkNanos(deadline - System.nanoTime());
+                    }
+                    return task.call();
+                } finally {
+                    running.decrementAndGet();
+                }
+            });
+        }
+    }
+
+    private PdfProcessingService service(boolean parallel, int minPagesPerRange, DataSize budget) {
+        return new PdfProcessingService(pool, new PdfMemoryBudget(budget), parallel, minPagesPerRange,
+                DataSize.ofKilobytes(512), tempDir.toString());
+    }
+
+    // Schedule-style pages with a header and table rows at varying x offsets
+    private static byte[] syntheticSyllabus(int pageCount, long seed) throws IOException {
+        Random random = new Random(seed);
+        try (PDDocument document = new PDDocument()) {
+            for (int p = 0; p < pageCount; p++) {
+                PDPage page = new PDPage();
+                document.addPage(page);
+                try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                    content.setFont(PDType1Font.HELVETICA, 11);
+                    writeLine(content, 50, 740, "Week " + (p + 1) + " - COSC 412 Schedule");
+                    for (int row = 0; row < 30; row++) {
+                        int y = 710 - row * 20;
+                        writeLine(content, 50, y, String.format("%02d/%02d/2025", 1 + random.nextInt(12), 1 + random.nextInt(28)));
+                        writeLine(content, 150 + random.nextInt(20), y, "Homework " + random.nextInt(20) + " due");
+                        writeLine(content, 350, y, "Chapter " + random.nextInt(15));
+                    }
+                }
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            document.save(out);
+            return out.toByteArray();
+        }
+    }
+
+    private static void writeLine(PDPageContentStream content, float x, float y, String text) throws IOException {
+        content.beginText();
+        content.newLineAtOffset(x, y);
+        content.showText(text);
+        content.endText();
+    }
+}
@@ -0,0 +1,100 @@
+package com.syllabus.copilot.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import com.syllabus.copilot.backend.model.AdmissionStats;
+import com.syllabus.copilot.backend.model.JobStatus;
+import com.syllabus.copilot.backend.repository.ProcessingJobRepository;
+import com.syllabus.copilot.backend.repository.ProcessingQuotaRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ProcessingAdmissionTest {
+    private final ProcessingJobRepository jobs = mock(ProcessingJobRepository.class);
+    private final ProcessingQuotaRepository quotas = mock(ProcessingQuotaRepository.class);
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private final ProcessingAdmission admission = new ProcessingAdmission(jobs, quotas, registry, 2,
+            DataSize.ofMegabytes(64), 100, 3, Duration.ofDays(1));
+
+    @Test
+    void concurrencyIsLimitedByCoresAndHeap() {
+        long mb = 1024 * 1024;
+        assertThat(ProcessingAdmission.defaultConcurrency(8, 4096 * mb, 64 * mb)).isEqualTo(8);
+        assertThat(ProcessingAdmission.defaultConcurrency(8, 256 * mb, 64 * mb)).isEqualTo(4);
+        assertThat(ProcessingAdmission.defaultConcurrency(8, 32 * mb, 64 * mb)).isEqualTo(1);
+    }
+
+    @Test
+    void everyFileOfABatchTakesAQuotaSlot() {
+        when(quotas.reserve(eq("u1"), eq(2), eq(3L), any())).thenReturn(true);
+
+        admission.admit("u1", 2);
+
+        verify(quotas).reserve(eq("u1"), eq(2), eq(3L), any());
+        assertThat(admission.getStats().getAdmitted()).isEqualTo(2);
+        assertThat(registry.get("syllabus.admission.decisions").tag("result", "admitted").counter().count())
+            .isEqualTo(2);
+    }
+
+    @Test
+    void userWithAFullQueueIsRejected() {
+        when(quotas.reserve(eq("u1"), anyInt(), anyLong(), any())).thenReturn(false);
+        when(quotas.unfinished("u1")).thenReturn(3L);
+
+        assertThatThrownBy(() -> admission.admit("u1", 1))
+            .isInstanceOf(AdmissionRejectedException.class)
+            .satisfies(e -> assertThat(((AdmissionRejectedException) e).getRetryAfter())
+                .isGreaterThanOrEqualTo(Duration.ofSeconds(1)));
+        assertThat(admission.getStats().getRejected()).isEqualTo(1);
+    }
+
+    @Test
+    void fullGlobalQueueRejectsEveryone() {
+        when(quotas.reserve(eq("u2"), anyInt(), anyLong(), any())).thenReturn(true);
+        when(jobs.countByStatus(JobStatus.QUEUED)).thenReturn(99L);
+
+        assertThatThrownBy(() -> admission.admit("u2", 2)).isInstanceOf(AdmissionRejectedException.class);
+        // The slots reserved for the user are handed back
+        verify(quotas).release(eq("u2"), eq(2), any());
+        assertThat(registry.get("syllabus.admission.queued").gauge().value()).isEqualTo(99);
+    }
+
+    @Test
+    void retryAfterFollowsObservedParseTime() {
+        admission.recordParse(Duration.ofSeconds(4));
+        admission.recordParse(Duration.ofSeconds(6));
+
+        // 10 jobs ahead at 5s each over 2 parse slots
+        assertThat(admission.retryAfter(10)).isEqualTo(Duration.ofSeconds(25));
+        assertThat(admission.retryAfter(100_000)).isEqualTo(Duration.ofMinutes(10));
+    }
+
+    @Test
+    void statsReportWaitTimes() throws InterruptedException {
+        admission.recordDispatch(Duration.ofMillis(100));
+        admission.recordDispatch(Duration.ofMillis(300));
+        admission.acquireParse();
+
+        AdmissionStats stats = admission.getStats();
+        assertThat(stats.getDispatched()).isEqualTo(2);
+        assertThat(stats.getAverageWaitMillis()).isEqualTo(200.0);
+        assertThat(stats.getMaxWaitMillis()).isEqualTo(300);
+        assertThat(stats.getActiveParses()).isEqualTo(1);
+        assertThat(registry.get("syllabus.admission.wait").timer().count()).isEqualTo(2);
+        assertThat(registry.get("syllabus.admission.parses.active").gauge().value()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,189 @@
+package com.syllabus.copilot.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.syllabus.copilot.backend.model.JobStatus;
+import com.syllabus.copilot.backend.model.ProcessingJob;
+import com.syllabus.copilot.backend.model.ProcessingStatus;
+import com.syllabus.copilot.backend.repository.ProcessingJobRepository;
+import com.syllabus.copilot.backend.repository.SyllabusUpdateRepository;
+
+class ProcessingJobWorkerTest {
+    private static final String NODE = "node-a";
+
+    private final ProcessingJobRepository jobs = mock(ProcessingJobRepository.class);
+    private final SyllabusService syllabusService = mock(SyllabusService.class);
+    private final SyllabusUpdateRepository updates = mock(SyllabusUpdateRepository.class);
+    private final SyllabusUploadStore uploadStore = mock(SyllabusUploadStore.class);
+    private final PdfProcessingService pdfProcessingService = mock(PdfProcessingService.class);
+    private final ProcessingAdmission admission = mock(ProcessingAdmission.class);
+    private ProcessingJobWorker worker;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        when(uploadStore.open("upload-1")).thenAnswer(call -> Optional.of(new ByteArrayInputStream(new byte[] {1})));
+        when(pdfProcessingService.spoolToTempFile(any(InputStream.class)))
+            .thenAnswer(call -> Files.createTempFile("job-test-", ".pdf"));
+        when(jobs.complete("job-1", NODE)).thenReturn(true);
+        worker = new ProcessingJobWorker(jobs, mock(ProcessingJobQueue.class), syllabusService, updates,
+                mock(SyllabusReadCache.class), uploadStore, pdfProcessingService, mock(ExecutorService.class),
+                admission, mock(ProgressEventBus.class), true, NODE, Duration.ofSeconds(60),
+                Duration.ofSeconds(1), 3, Duration.ofSeconds(5), Duration.ofSeconds(15));
+    }
+
+    @Test
+    void finishedJobIsRemovedWithItsUpload() {
+        worker.runJob(job(1));
+
+        verify(syllabusService).processSyllabusFile(eq("s1"), any(Path.class));
+        verify(jobs).complete("job-1", NODE);
+        verify(admission).finished("u1", 1);
+        verify(uploadStore).delete("upload-1");
+        // A first attempt has nothing to undo
+        verify(updates, never()).transition(anyString(), any(), any(), any());
+    }
+
+    @Test
+    void mongoFailureIsRetriedWithBackoff() {
+        doThrow(new DataAccessResourceFailureException("connection refused"))
+            .when(syllabusService).processSyllabusFile(eq("s1"), any(Path.class));
+
+        Instant before = Instant.now();
+        worker.runJob(job(2));
+
+        ArgumentCaptor<Instant> availableAt = ArgumentCaptor.forClass(Instant.class);
+        verify(jobs).retry(eq("job-1"), eq(NODE), anyString(), availableAt.capture());
+        assertThat(availableAt.getValue()).isAfterOrEqualTo(before.plusSeconds(10));
+        verify(uploadStore, never()).delete(anyString());
+        verify(admission, never()).finished(anyString(), anyInt());
+        // The earlier attempt's claim on the syllabus is released first
+        verify(updates).transition(eq("s1"), eq(ProcessingStatus.PROCESSING), eq(ProcessingStatus.PENDING),
+                any(Update.class));
+    }
+
+    @Test
+    void lastAttemptFailsTheSyllabus() {
+        doThrow(new DataAccessResourceFailureException("connection refused"))
+            .when(syllabusService).processSyllabusFile(eq("s1"), any(Path.class));
+        when(updates.transition(eq("s1"), eq(ProcessingStatus.PROCESSING), eq(ProcessingStatus.FAILED),
+                any(Update.class))).thenReturn(true);
+
+        worker.runJob(job(3));
+
+        verify(jobs).fail(eq("job-1"), eq(NODE), anyString());
+        verify(jobs, never()).retry(anyString(), anyString(), anyString(), any());
+        verify(uploadStore).delete("upload-1");
+    }
+
+    @Test
+    void reclaimedJobPastItsAttemptsIsNotRunAgain() {
+        worker.runJob(job(4));
+
+        verify(syllabusService, never()).processSyllabusFile(anyString(), any(Path.class));
+        verify(jobs).fail(eq("job-1"), eq(NODE), any());
+    }
+
+    @Test
+    void heldJobsAreInsertedLeasedToThisInstance() {
+        ProcessingJob job = new ProcessingJob();
+        job.setId("job-1");
+
+        worker.hold(List.of(job));
+
+        verify(jobs).enqueueAll(List.of(job));
+        assertThat(job.getStatus()).isEqualTo(JobStatus.RUNNING);
+        assertThat(job.getLeaseOwner()).isEqualTo(NODE);
+        assertThat(job.getLeaseExpiresAt()).isAfter(Instant.now());
+        assertThat(job.getAttempts()).isEqualTo(1);
+
+        worker.releaseHeld(List.of("job-1"));
+        verify(jobs).releaseAll(eq(List.of("job-1")), eq(NODE), any(Instant.class));
+    }
+
+    @Test
+    void usersTakeTurns() {
+        // "heavy" has a long queue, "light" has two jobs; claims alternate between them
+        Deque<String> heavy = new ArrayDeque<>(List.of("h1", "h2", "h3", "h4"));
+        Deque<String> light = new ArrayDeque<>(List.of("l1", "l2"));
+        when(jobs.findUsersWithDueJobs(any(Instant.class))).thenAnswer(call -> {
+            List<String> users = new ArrayList<>();
+            if (!heavy.isEmpty()) {
+                users.add("heavy");
+            }
+            if (!light.isEmpty()) {
+                users.add("light");
+            }
+            return users;
+        });
+        when(jobs.claimNext(anyString(), eq(NODE), any(Instant.class), any(Instant.class))).thenAnswer(call -> {
+            Deque<String> queue = "heavy".equals(call.getArgument(0)) ? heavy : light;
+            return Optional.ofNullable(queue.poll()).map(ProcessingJobWorkerTest::queued);
+        });
+        when(jobs.claimNext(eq(NODE), any(Instant.class), any(Instant.class))).thenReturn(Optional.empty());
+
+        List<String> order = new ArrayList<>();
+        Optional<ProcessingJob> job;
+        while ((job = worker.claim()).isPresent()) {
+            order.add(job.get().getId());
+        }
+
+        assertThat(order).containsExactly("h1", "l1", "h2", "l2", "h3", "h4");
+    }
+
+    @Test
+    void backoffDoublesUpToTheCap() {
+        assertThat(worker.backoff(1)).isEqualTo(Duration.ofSeconds(5));
+        assertThat(worker.backoff(2)).isEqualTo(Duration.ofSeconds(10));
+        assertThat(worker.backoff(3)).isEqualTo(Duration.ofSeconds(15));
+        assertThat(worker.backoff(40)).isEqualTo(Duration.ofSeconds(15));
+    }
+
+    private static ProcessingJob queued(String id) {
+        ProcessingJob job = new ProcessingJob();
+        job.setId(id);
+        job.setAvailableAt(Instant.now());
+        return job;
+    }
+
+    private static ProcessingJob job(int attempts) {
+        ProcessingJob job = new ProcessingJob();
+        job.setId("job-1");
+        job.setSyllabusId("s1");
+        job.setUserId("u1");
+        job.setUploadRef("upload-1");
+        job.setFileName("syllabus.pdf");
+        job.setStatus(JobStatus.RUNNING);
+        job.setAttempts(attempts);
+        job.setLeaseOwner(NODE);
+        return job;
+    }
+}
@@ -0,0 +1,125 @@
+package com.syllabus.copilot.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.syllabus.copilot.backend.model.ProcessingStatus;
+import com.syllabus.copilot.backend.model.ProgressEvent;
+import com.syllabus.copilot.backend.model.ProgressStage;
+import com.syllabus.copilot.backend.model.SyllabusStatusView;
+
+class ProgressStreamServiceTest {
+    private final ProgressEventBus bus = new ProgressEventBus();
+    private final SyllabusService syllabusService = mock(SyllabusService.class);
+    private ProgressStreamService streams;
+
+    @AfterEach
+    void tearDown() {
+        streams.destroy();
+    }
+
+    @Test
+    void syllabusStreamStartsWithItsStatusAndEndsWhenSaved() throws Exception {
+        streams = streams(10);
+        status("s1", ProcessingStatus.PENDING);
+        MockMvc mvc = MockMvcBuilders.standaloneSetup(new StreamController(streams)).build();
+
+        MvcResult result = mvc.perform(get("/events/s1")).andExpect(request().asyncStarted()).andReturn();
+        bus.publish(new ProgressEvent("s1", "u1", ProgressStage.PROCESSING));
+        bus.publish(new ProgressEvent("s2", "u1", ProgressStage.PROCESSING));
+        bus.publish(new ProgressEvent("s1", "u1", ProgressStage.SAVED));
+        awaitClosed();
+
+        String body = result.getResponse().getContentAsString();
+        assertThat(body).containsSubsequence("event:RECEIVED", "event:PROCESSING", "event:SAVED");
+        assertThat(body).doesNotContain("s2");
+        assertThat(bus.listenerCount()).isZero();
+        assertThat(streams.getStats().getEventsSent()).isEqualTo(3);
+    }
+
+    @Test
+    void finishedSyllabusGetsOneEvent() throws Exception {
+        streams = streams(10);
+        status("s1", ProcessingStatus.FAILED);
+        MockMvc mvc = MockMvcBuilders.standaloneSetup(new StreamController(streams)).build();
+
+        MvcResult result = mvc.perform(get("/events/s1")).andExpect(request().asyncStarted()).andReturn();
+        awaitClosed();
+
+        assertThat(result.getResponse().getContentAsString())
+            .contains("event:FAILED", "\"error\":\"broken xref table\"");
+    }
+
+    @Test
+    void unknownSyllabusLeavesNoSubscription() {
+        streams = streams(10);
+        when(syllabusService.findStatusById("missing")).thenReturn(Optional.empty());
+
+        assertThat(streams.openForSyllabus("missing")).isEmpty();
+        assertThat(bus.listenerCount()).isZero();
+        assertThat(streams.getStats().getOpenStreams()).isZero();
+    }
+
+    @Test
+    void streamsBeyondTheLimitAreRejected() {
+        streams = streams(2);
+        streams.openForUser("u1");
+        streams.openForUser("u2");
+
+        assertThatThrownBy(() -> streams.openForUser("u3")).isInstanceOf(RejectedExecutionException.class);
+        assertThat(streams.getStats().getStreamsRejected()).isEqualTo(1);
+        assertThat(bus.listenerCount()).isEqualTo(2);
+    }
+
+    private ProgressStreamService streams(int maxStreams) {
+        return new ProgressStreamService(bus, syllabusService, Duration.ofMinutes(1), Duration.ofMinutes(1),
+                maxStreams, 16, 1);
+    }
+
+    private void status(String id, ProcessingStatus processingStatus) {
+        SyllabusStatusView view = mock(SyllabusStatusView.class);
+        when(view.getProcessingStatus()).thenReturn(processingStatus);
+        when(view.getProcessingError()).thenReturn("broken xref table");
+        when(syllabusService.findStatusById(id)).thenReturn(Optional.of(view));
+    }
+
+    private void awaitClosed() throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (streams.getStats().getOpenStreams() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(streams.getStats().getOpenStreams()).isZero();
+    }
+
+    @RestController
+    static class StreamController {
+        private final ProgressStreamService streams;
+
+        StreamController(ProgressStreamService streams) {
+            this.streams = streams;
+        }
+
+        @GetMapping("/events/{id}")
+        SseEmitter events(@PathVariable String id) {
+            return streams.openForSyllabus(id).orElseThrow();
+        }
+    }
+}
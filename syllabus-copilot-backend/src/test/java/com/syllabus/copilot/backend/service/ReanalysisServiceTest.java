@@ -0,0 +1,175 @@
+package com.syllabus.copilot.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import com.syllabus.copilot.backend.model.ProcessingStatus;
+import com.syllabus.copilot.backend.model.ReanalysisRun;
+import com.syllabus.copilot.backend.model.ReanalysisStatus;
+import com.syllabus.copilot.backend.model.Syllabus;
+import com.syllabus.copilot.backend.repository.ReanalysisRepository;
+import com.syllabus.copilot.backend.repository.SyllabusUpdateRepository;
+import com.syllabus.copilot.backend.repository.SyllabusUpdateRepository.VersionedUpdate;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ReanalysisServiceTest {
+    private static final String NODE = "node-a";
+    private static final String TEXT = """
+            Course Code: COSC 412
+            Homework 1 — Due 09/10/2025
+            Midterm Exam — 10/20/2025
+            """;
+
+    private final ReanalysisRepository runs = mock(ReanalysisRepository.class);
+    private final SyllabusUpdateRepository updates = mock(SyllabusUpdateRepository.class);
+    private final SyllabusTextStore textStore = mock(SyllabusTextStore.class);
+    private final OriginalTextMigration textMigration = mock(OriginalTextMigration.class);
+    private ReanalysisService service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        SyllabusAnalysisService analysisService = new SyllabusAnalysisService(new SyllabusExtractionEngine(),
+                new PipelineMetrics(new SimpleMeterRegistry(), new ProgressEventBus()));
+        service = new ReanalysisService(runs, updates, mock(SyllabusReadCache.class), textStore, textMigration,
+                analysisService, mock(SyllabusSearchIndex.class), NODE, 3, 2, 0, Duration.ofMinutes(10));
+        when(textStore.load("text-1")).thenReturn(Optional.of(TEXT));
+        when(textStore.load("text-gone")).thenReturn(Optional.empty());
+        when(textMigration.readInlineText("s2")).thenReturn(Optional.of(TEXT));
+        when(updates.updateAllIfUnchanged(anyList(), eq(ProcessingStatus.COMPLETED)))
+            .thenAnswer(call -> call.<List<?>>getArgument(0).size());
+        when(runs.checkpoint(anyString(), eq(NODE), anyString(), any(Instant.class), anyInt(), anyInt(), anyInt(), anyInt()))
+            .thenAnswer(call -> Optional.of(run(null, 0)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.destroy();
+    }
+
+    @Test
+    void pageIsAnalyzedFromStoredTextAndWrittenInOneBulk() {
+        when(runs.findOutdated(isNull(), anyInt(), eq(3))).thenReturn(List.of(
+                stored("s1", "text-1", 7L), stored("s2", null, 2L), stored("s3", "text-gone", 1L)));
+        when(runs.findOutdated(eq("s3"), anyInt(), eq(3))).thenReturn(List.of());
+
+        service.run(run(null, 0));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<VersionedUpdate>> written = ArgumentCaptor.forClass(List.class);
+        verify(updates).updateAllIfUnchanged(written.capture(), eq(ProcessingStatus.COMPLETED));
+        // s3 has no stored text left and is skipped
+        assertThat(written.getValue()).extracting(VersionedUpdate::id).containsExactly("s1", "s2");
+        assertThat(written.getValue()).extracting(VersionedUpdate::version).containsExactly(7L, 2L);
+        Document set = written.getValue().get(0).changes().getUpdateObject().get("$set", Document.class);
+        assertThat(set).containsEntry("courseCode", "COSC 412")
+            .containsEntry("analyzerVersion", SyllabusAnalysisService.ANALYZER_VERSION)
+            .containsKey("aiGeneratedSummary");
+
+        verify(runs).checkpoint(eq(ReanalysisService.runId()), eq(NODE), eq("s3"), any(Instant.class), eq(3), eq(2), eq(1), eq(0));
+        verify(runs).finish(eq(ReanalysisService.runId()), eq(NODE), eq(ReanalysisStatus.COMPLETED), isNull(),
+                any(Instant.class));
+    }
+
+    @Test
+    void generatedSummaryIsKept() {
+        Syllabus summarized = stored("s1", "text-1", 1L);
+        summarized.setSummaryModel("gpt-4");
+        when(runs.findOutdated(isNull(), anyInt(), eq(3))).thenReturn(List.of(summarized));
+
+        service.run(run(null, 0));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<VersionedUpdate>> written = ArgumentCaptor.forClass(List.class);
+        verify(updates).updateAllIfUnchanged(written.capture(), eq(ProcessingStatus.COMPLETED));
+        assertThat(written.getValue().get(0).changes().getUpdateObject().get("$set", Document.class))
+            .doesNotContainKeys("aiGeneratedSummary", "studyPlan");
+    }
+
+    @Test
+    void resumedRunStartsAfterItsCheckpoint() {
+        when(runs.findOutdated(eq("s9"), anyInt(), eq(3))).thenReturn(List.of());
+
+        service.run(run("s9", 0));
+
+        verify(runs).findOutdated(eq("s9"), anyInt(), eq(3));
+        verify(runs, never()).findOutdated(isNull(), anyInt(), anyInt());
+    }
+
+    @Test
+    void pausedRunStopsAtTheNextCheckpoint() {
+        when(runs.findOutdated(isNull(), anyInt(), eq(3))).thenReturn(List.of(
+                stored("s1", "text-1", 1L), stored("s2", null, 1L), stored("s3", "text-1", 1L)));
+        when(runs.checkpoint(anyString(), eq(NODE), anyString(), any(Instant.class), anyInt(), anyInt(), anyInt(), anyInt()))
+            .thenReturn(Optional.empty());
+
+        service.run(run(null, 0));
+
+        verify(runs, times(1)).findOutdated(any(), anyInt(), anyInt());
+        verify(runs, never()).finish(anyString(), anyString(), any(), any(), any());
+    }
+
+    @Test
+    void rateLimitSpacesOutPages() {
+        when(runs.findOutdated(isNull(), anyInt(), eq(3))).thenReturn(List.of(
+                stored("s1", "text-1", 1L), stored("s2", null, 1L), stored("s3", "text-1", 1L)));
+        when(runs.findOutdated(eq("s3"), anyInt(), eq(3))).thenReturn(List.of());
+        when(runs.checkpoint(anyString(), eq(NODE), anyString(), any(Instant.class), anyInt(), anyInt(), anyInt(), anyInt()))
+            .thenAnswer(call -> Optional.of(run(null, 10)));
+
+        long started = System.nanoTime();
+        service.run(run(null, 10));
+
+        // Three syllabi at ten per second
+        assertThat(Duration.ofNanos(System.nanoTime() - started)).isGreaterThanOrEqualTo(Duration.ofMillis(300));
+    }
+
+    @Test
+    void lowRatesUseSmallerPages() {
+        assertThat(service.pageSize(0)).isEqualTo(3);
+        assertThat(service.pageSize(0.01)).isEqualTo(1);
+    }
+
+    private static ReanalysisRun run(String lastSyllabusId, double maxPerSecond) {
+        ReanalysisRun run = new ReanalysisRun();
+        run.setId(ReanalysisService.runId());
+        run.setAnalyzerVersion(SyllabusAnalysisService.ANALYZER_VERSION);
+        run.setStatus(ReanalysisStatus.RUNNING);
+        run.setOwner(NODE);
+        run.setLastSyllabusId(lastSyllabusId);
+        run.setMaxPerSecond(maxPerSecond);
+        return run;
+    }
+
+    private static Syllabus stored(String id, String textRef, Long version) {
+        Syllabus syllabus = new Syllabus();
+        syllabus.setId(id);
+        syllabus.setUserId("u1");
+        syllabus.setCourseName("Software Engineering");
+        syllabus.setOriginalTextRef(textRef);
+        syllabus.setVersion(version);
+        return syllabus;
+    }
+}
@@ -0,0 +1,233 @@
+package com.syllabus.copilot.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class ScheduleRecognizerTest {
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+        "due 09/10/2025 at noon          | 09/10/2025          | 2025-09-10",
+        "9-1-25: Labor Day               | 9-1-25              | 2025-09-01",
+        "2025-09-03 first day            | 2025-09-03          | 2025-09-03",
+        "Quiz on Oct 20                  | Oct 20              | 2025-10-20",
+        "Tuesday, September 9: HW 1      | Tuesday, September 9 | 2025-09-09",
+        "Sept. 9th, 2025 - lab           | Sept. 9th, 2025     | 2025-09-09",
+        "Wed 10/1 review                 | Wed 10/1            | 2025-10-01",
+        "11/24–11/28 Thanksgiving        | 11/24–11/28         | 2025-11-24..2025-11-28",
+        "Nov 24–28 break                 | Nov 24–28           | 2025-11-24..2025-11-28",
+        "Dec 22 to Jan 5                 | Dec 22 to Jan 5     | 2025-12-22..2026-01-05",
+        "Mon, Oct 6 through Fri, Oct 10  | Mon, Oct 6 through Fri, Oct 10 | 2025-10-06..2025-10-10",
+        "10/10/2025 - 10/11/2025 reading | 10/10/2025 - 10/11/2025 | 2025-10-10..2025-10-11",
+        "02/30/2025 leap day             | 02/30/2025          | invalid",
+    })
+    void recognizesDateFormats(String line, String span, String expected) {
+        List<String> found = dates("Fall 2025\n" + line);
+
+        assertThat(found).first().isEqualTo(span + " = " + expected);
+    }
+
+    @Test
+    void rangesThatDoNotEndLaterAreSingleDates() {
+        assertThat(dates("Fall 2025\nOct 20 - 5 points\n11/28-11/24\n"))
+            .containsExactly("Oct 20 = 2025-10-20", "11/28 = 2025-11-28", "11/24 = 2025-11-24");
+    }
+
+    @Test
+    void yearsComeFromTheContextAndRollOver() {
+        assertThat(dates("Nov 3 before any year\nSpring 2026\nJan 12\nMay 1\n12/01/2025 exam\nJan 5\n"))
+            .containsExactly("Jan 12 = 2026-01-12", "May 1 = 2026-05-01", "12/01/2025 = 2025-12-01",
+                    "Jan 5 = 2026-01-05");
+    }
+
+    @Test
+    void fractionsAndNumbersAreNotDates() {
+        assertThat(dates("Fall 2025\n24/7 support, 3.5/4 GPA, 40% homework, COSC 412, 1/2/3 odd\n"))
+            .isEmpty();
+    }
+
+    @Test
+    void recognizesEventKeywords() {
+        String text = "HW1, Lab #2, Project 10 and quiz 3 due\n"
+                + "Midterm Exam 2; midterm; Final exam; semifinal exam; Exam 4; exams\n"
+                + "Quiz 9/15/2025 and homework review\n";
+
+        assertThat(events(text)).containsExactly("ASSIGNMENT HW 1", "ASSIGNMENT Lab 2", "ASSIGNMENT Project 10",
+                "ASSIGNMENT quiz 3", "MIDTERM Midterm 2", "MIDTERM midterm", "FINAL_EXAM Final", "EXAM Exam 4");
+        assertThat(dates("Fall 2025\n" + text)).containsExactly("9/15/2025 = 2025-09-15");
+    }
+
+    @Test
+    void reportsLineEnds() {
+        List<Integer> ends = new ArrayList<>();
+        ScheduleRecognizer.scan("a\nbb\n\nc", new Recorder() {
+            @Override
+            public void endOfLine(int end) {
+                ends.add(end);
+            }
+        });
+
+        assertThat(ends).containsExactly(1, 4, 5, 7);
+    }
+
+    // Full numeric dates agree with DateRecognizer, which the rest of the analysis already trusts
+    @Test
+    void numericDatesAgreeWithDateRecognizer() {
+        Random random = new Random(7);
+        for (int i = 0; i < 5_000; i++) {
+            String date = random.nextInt(15) + (random.nextBoolean() ? "/" : "-") + random.nextInt(35)
+                    + (random.nextBoolean() ? "/" : "-") + (random.nextBoolean() ? 2000 + random.nextInt(40) : random.nextInt(100));
+            int[] packed = {Integer.MIN_VALUE};
+            ScheduleRecognizer.scan(date, new Recorder() {
+                @Override
+                public void date(int start, int end, int first, int last) {
+                    if (start == 0 && end == date.length()) {
+                        packed[0] = first;
+                    }
+                }
+            });
+            if (packed[0] != Integer.MIN_VALUE) {
+                assertThat(packed[0]).as(date).isEqualTo(DateRecognizer.parse(date));
+            }
+        }
+    }
+
+    // Random documents over the recognizer's own vocabulary, and repetitions that keep the date
+    // automaton one token short of a match, never cost more than a constant per character
+    @ParameterizedTest
+    @MethodSource("fuzzTexts")
+    void workIsLinearInTheText(String text) {
+        CountingText counting = new CountingText(text);
+        int[] callbacks = {0};
+        long steps = ScheduleRecognizer.steps(counting, new Recorder() {
+            @Override
+            public void date(int start, int end, int first, int last) {
+                callbacks[0]++;
+            }
+
+            @Override
+            public void event(ScheduleRecognizer.EventKind kind, int start, int end, int numberStart, int numberEnd) {
+                callbacks[0]++;
+            }
+        });
+
+        assertThat(counting.reads).isLessThanOrEqualTo(2L * text.length());
+        assertThat(steps).isLessThanOrEqualTo((ScheduleRecognizer.MAX_DATE_TOKENS + 1L) * text.length() + 1);
+        assertThat(callbacks[0]).isLessThanOrEqualTo(text.length());
+    }
+
+    static Stream<String> fuzzTexts() {
+        String[] vocabulary = {"11", "9", "2025", "25", "/", "-", "–", " to ", "Nov", "Sept", ".", "th", ",", " ",
+            "Monday", "Tue", "Fall 2025", "\n", "Homework", "#", "Midterm", "exam", "Final", "x", "12345"};
+        Stream<String> random = IntStream.range(0, 200).mapToObj(seed -> {
+            Random rng = new Random(seed);
+            StringBuilder text = new StringBuilder();
+            int length = 1 + rng.nextInt(20_000);
+            while (text.length() < length) {
+                text.append(vocabulary[rng.nextInt(vocabulary.length)]);
+            }
+            return text.toString();
+        });
+        int n = 100_000;
+        Stream<String> adversarial = Stream.of(
+                "Monday, Nov 3rd, " .repeat(n / 17),
+                "Fall 2025 Nov 3 - ".repeat(n / 18),
+                "Fall 2025 Monday, Nov 3rd - Tuesday, Nov 4th ".repeat(n / 45),
+                "1/1/1/1/1/".repeat(n / 10),
+                "2025-11-".repeat(n / 8),
+                "11/24-".repeat(n / 6),
+                "Midterm exam Midterm ".repeat(n / 21),
+                "Homework # ".repeat(n / 11),
+                "9".repeat(n),
+                "Nov".repeat(n / 3),
+                "-".repeat(n),
+                "\n".repeat(n));
+        return Stream.concat(random, adversarial);
+    }
+
+    private static List<String> dates(String text) {
+        List<String> found = new ArrayList<>();
+        ScheduleRecognizer.scan(text, new Recorder() {
+            @Override
+            public void date(int start, int end, int first, int last) {
+                String span = text.substring(start, end);
+                if (first == DateRecognizer.INVALID) {
+                    found.add(span + " = invalid");
+                } else if (first == last) {
+                    found.add(span + " = " + DateRecognizer.toDateTime(first).toLocalDate());
+                } else {
+                    found.add(span + " = " + DateRecognizer.toDateTime(first).toLocalDate() + ".."
+                            + DateRecognizer.toDateTime(last).toLocalDate());
+                }
+            }
+        });
+        return found;
+    }
+
+    private static List<String> events(String text) {
+        List<String> found = new ArrayList<>();
+        ScheduleRecognizer.scan(text, new Recorder() {
+            @Override
+            public void event(ScheduleRecognizer.EventKind kind, int start, int end, int numberStart, int numberEnd) {
+                found.add(kind + " " + text.substring(start, end)
+                        + (numberStart >= 0 ? " " + text.substring(numberStart, numberEnd) : ""));
+            }
+        });
+        return found;
+    }
+
+    private static class Recorder implements ScheduleRecognizer.Listener {
+        @Override
+        public void date(int start, int end, int first, int last) {
+        }
+
+        @Override
+        public void event(ScheduleRecognizer.EventKind kind, int start, int end, int numberStart, int numberEnd) {
+        }
+
+        @Override
+        public void endOfLine(int end) {
+        }
+    }
+
+    // Counts the characters the recognizer reads
+    private static final class CountingText implements CharSequence {
+        private final String text;
+        private long reads;
+
+        CountingText(String text) {
+            this.text = text;
+        }
+
+        @Override
+        public int length() {
+            return text.length();
+        }
+
+        @Override
+        public char charAt(int index) {
+            reads++;
+            return text.charAt(index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public String toString() {
+            return text;
+        }
+    }
+}
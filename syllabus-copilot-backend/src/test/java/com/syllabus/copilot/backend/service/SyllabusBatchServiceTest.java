@@ -0,0 +1,259 @@
+package com.syllabus.copilot.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.syllabus.copilot.backend.model.BatchFileResult;
+import com.syllabus.copilot.backend.model.ProcessingJob;
+import com.syllabus.copilot.backend.model.ProcessingStatus;
+import com.syllabus.copilot.backend.model.ProgressEvent;
+import com.syllabus.copilot.backend.model.ProgressStage;
+import com.syllabus.copilot.backend.model.Syllabus;
+import com.syllabus.copilot.backend.repository.SyllabusUpdateRepository;
+import com.syllabus.copilot.backend.repository.SyllabusUpdateRepository.Transition;
+import com.syllabus.copilot.backend.service.PipelineMetrics.Outcome;
+
+class SyllabusBatchServiceTest {
+    private final SyllabusService syllabusService = mock(SyllabusService.class);
+    private final SyllabusUpdateRepository updates = mock(SyllabusUpdateRepository.class);
+    private final ExecutorService executor = mock(ExecutorService.class);
+    private final SyllabusUploadStore uploadStore = mock(SyllabusUploadStore.class);
+    private final ProcessingJobWorker jobWorker = mock(ProcessingJobWorker.class);
+    private final ProcessingAdmission admission = mock(ProcessingAdmission.class);
+    private final ProgressEventBus progressEvents = mock(ProgressEventBus.class);
+    private final SummaryBackfillService summaryBackfill = mock(SummaryBackfillService.class);
+    private final PipelineMetrics metrics = mock(PipelineMetrics.class);
+    private final List<List<Transition>> flushes = new ArrayList<>();
+    private final List<Path> spooled = new ArrayList<>();
+    private final List<ProcessingJob> held = new ArrayList<>();
+    private PdfProcessingService pdfProcessingService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        pdfProcessingService = mock(PdfProcessingService.class);
+        when(pdfProcessingService.isValidPdfSize(any(MultipartFile.class))).thenReturn(true);
+        when(pdfProcessingService.spoolToTempFile(any(InputStream.class))).thenAnswer(call -> {
+            Path file = Files.createTempFile("batch-test-", ".pdf");
+            Files.copy(call.<InputStream>getArgument(0), file, StandardCopyOption.REPLACE_EXISTING);
+            spooled.add(file);
+            return file;
+        });
+        // Lanes run inline so the whole batch completes inside submitBatch
+        doAnswer(call -> {
+            call.<Runnable>getArgument(0).run();
+            return null;
+        }).when(executor).execute(any(Runnable.class));
+        when(uploadStore.store(any(InputStream.class), anyString())).thenAnswer(call -> "upload-" + call.getArgument(1));
+        doAnswer(call -> held.addAll(call.getArgument(0))).when(jobWorker).hold(anyList());
+        when(jobWorker.completeHeld(anyCollection())).thenAnswer(call -> held.stream()
+                .filter(job -> call.<Collection<String>>getArgument(0).contains(job.getId()))
+                .toList());
+        when(updates.transitionAll(anyList(), eq(ProcessingStatus.PENDING))).thenAnswer(call -> {
+            List<Transition> batch = call.getArgument(0);
+            flushes.add(batch);
+            return batch.stream().map(Transition::id).collect(Collectors.toSet());
+        });
+    }
+
+    @Test
+    void zipIsExpandedAndWrittenInBulk() throws IOException {
+        MultipartFile zip = zip("syllabi.zip",
+                "fall/COSC412.pdf", "%PDF-1.4 a",
+                "fall/MATH273.pdf", "%PDF-1.4 b",
+                "__MACOSX/fall/._COSC412.pdf", "resource fork",
+                "notes.txt", "not a pdf");
+        MultipartFile pdf = new MockMultipartFile("files", "HIST101.pdf", "application/pdf",
+                "%PDF-1.4 c".getBytes(StandardCharsets.UTF_8));
+
+        List<BatchFileResult> results = service(2, 2).submitBatch(List.of(zip, pdf), "u1");
+
+        assertThat(results).extracting(BatchFileResult::getFileName)
+            .containsExactly("COSC412.pdf", "MATH273.pdf", "notes.txt", "HIST101.pdf");
+        assertThat(results).extracting(BatchFileResult::getProcessingStatus)
+            .containsExactly(ProcessingStatus.PENDING, ProcessingStatus.PENDING, ProcessingStatus.FAILED,
+                    ProcessingStatus.PENDING);
+        assertThat(results.get(2).getId()).isNull();
+
+        // One bulk insert for the three PDFs, then results in batches of two
+        verify(updates, times(1)).insertAll(anyList());
+        verify(syllabusService, times(3)).analyze(any(Syllabus.class), any(Path.class));
+        assertThat(flushes).extracting(List::size).containsExactly(2, 1);
+        assertThat(flushes.stream().flatMap(List::stream).map(Transition::next))
+            .containsOnly(ProcessingStatus.COMPLETED);
+        assertThat(spooled).hasSize(3).noneMatch(Files::exists);
+    }
+
+    @Test
+    void failedFilesAreReportedInTheSameBulkWrite() throws IOException {
+        doThrow(new IOException("broken xref table"))
+            .when(syllabusService).analyze(any(Syllabus.class), any(Path.class));
+
+        service(4, 20).submitBatch(List.of(pdf("a.pdf"), pdf("b.pdf")), "u1");
+
+        assertThat(flushes).hasSize(1);
+        assertThat(flushes.get(0)).extracting(Transition::next)
+            .containsOnly(ProcessingStatus.FAILED);
+    }
+
+    @Test
+    void everyFileIsHeldAsAJobUntilItsResultIsWritten() throws IOException {
+        service(4, 20).submitBatch(List.of(pdf("a.pdf"), pdf("b.pdf")), "u1");
+
+        assertThat(held).extracting(ProcessingJob::getUploadRef).containsExactly("upload-a.pdf", "upload-b.pdf");
+        assertThat(held).extracting(ProcessingJob::getUserId).containsOnly("u1");
+        verify(jobWorker).completeHeld(List.of(held.get(0).getId(), held.get(1).getId()));
+        verify(admission).finished("u1", 2);
+        verify(uploadStore).delete("upload-a.pdf");
+        verify(uploadStore).delete("upload-b.pdf");
+        verify(jobWorker, never()).releaseHeld(anyCollection());
+    }
+
+    @Test
+    void resultsThatCannotBeWrittenAreRequeued() throws IOException {
+        when(updates.transitionAll(anyList(), eq(ProcessingStatus.PENDING)))
+            .thenThrow(new DataAccessResourceFailureException("connection refused"));
+
+        service(4, 20).submitBatch(List.of(pdf("a.pdf"), pdf("b.pdf")), "u1");
+
+        verify(jobWorker).releaseHeld(argThat(ids -> ids.size() == 2));
+        verify(jobWorker, never()).completeHeld(anyCollection());
+        verify(uploadStore, never()).delete(anyString());
+        verify(admission, never()).finished(anyString(), anyInt());
+    }
+
+    @Test
+    void onlyWrittenResultsAreReported() throws IOException {
+        when(updates.transitionAll(anyList(), eq(ProcessingStatus.PENDING))).thenAnswer(call -> {
+            List<Transition> batch = call.getArgument(0);
+            return Set.of(batch.get(0).id());
+        });
+
+        List<BatchFileResult> results = service(4, 20).submitBatch(List.of(pdf("a.pdf"), pdf("b.pdf")), "u1");
+
+        String written = results.get(0).getId();
+        String skipped = results.get(1).getId();
+        verify(progressEvents).publish(argThat(event -> saved(event, written)));
+        verify(progressEvents, never()).publish(argThat(event -> saved(event, skipped)));
+        verify(summaryBackfill).schedule(written);
+        verify(summaryBackfill, never()).schedule(skipped);
+        verify(metrics).processed(eq(Outcome.COMPLETED), anyLong());
+        verify(metrics).processed(eq(Outcome.DISCARDED), anyLong());
+        // The skipped file's job goes back to the queue, whoever runs it sees where its syllabus is
+        verify(jobWorker).completeHeld(List.of(held.get(0).getId()));
+        verify(jobWorker).releaseHeld(List.of(held.get(1).getId()));
+        verify(admission).finished("u1", 1);
+    }
+
+    @Test
+    void zipEntriesAreCappedPerRequest() throws IOException {
+        MultipartFile first = zip("first.zip", "a.pdf", "%PDF-1.4 a", "b.pdf", "%PDF-1.4 b");
+        MultipartFile second = zip("second.zip", "c.pdf", "%PDF-1.4 c", "d.pdf", "%PDF-1.4 d");
+
+        List<BatchFileResult> results = service(4, 20, 3).submitBatch(List.of(first, second), "u1");
+
+        assertThat(results).extracting(BatchFileResult::getFileName)
+            .containsExactly("a.pdf", "b.pdf", "c.pdf", "second.zip");
+        assertThat(results.get(3).getError()).contains("3 entries");
+    }
+
+    @Test
+    void fullQueueFailsTheWholeBatch() throws IOException {
+        doThrow(new RejectedExecutionException()).when(executor).execute(any(Runnable.class));
+
+        assertThatThrownBy(() -> service(4, 20).submitBatch(List.of(pdf("a.pdf"), pdf("b.pdf")), "u1"))
+            .isInstanceOf(RejectedExecutionException.class);
+
+        assertThat(flushes).hasSize(1);
+        assertThat(flushes.get(0)).extracting(Transition::next)
+            .containsOnly(ProcessingStatus.FAILED);
+        assertThat(spooled).noneMatch(Files::exists);
+    }
+
+    @Test
+    void filesBeyondTheLimitAreRejected() throws IOException {
+        SyllabusBatchService service = new SyllabusBatchService(syllabusService, pdfProcessingService, updates,
+                mock(SyllabusReadCache.class), mock(SyllabusTextStore.class), uploadStore, jobWorker, executor, admission,
+                mock(SummaryBackfillService.class), mock(ProgressEventBus.class),
+                mock(PipelineMetrics.class), 1, 1000, 4, 20);
+
+        List<BatchFileResult> results = service.submitBatch(List.of(pdf("a.pdf"), pdf("b.pdf")), "u1");
+
+        assertThat(results.get(0).getProcessingStatus()).isEqualTo(ProcessingStatus.PENDING);
+        assertThat(results.get(1).getProcessingStatus()).isEqualTo(ProcessingStatus.FAILED);
+        assertThat(results.get(1).getError()).contains("limit");
+    }
+
+    @Test
+    void courseNameDefaultsToTheFileName() {
+        assertThat(SyllabusBatchService.courseName("COSC412-fall.PDF")).isEqualTo("COSC412-fall");
+        assertThat(SyllabusBatchService.courseName("dir/notes")).isEqualTo("notes");
+    }
+
+    private SyllabusBatchService service(int parallelism, int flushSize) {
+        return service(parallelism, flushSize, 1000);
+    }
+
+    private SyllabusBatchService service(int parallelism, int flushSize, int maxZipEntries) {
+        return new SyllabusBatchService(syllabusService, pdfProcessingService, updates,
+                mock(SyllabusReadCache.class), mock(SyllabusTextStore.class), uploadStore, jobWorker, executor, admission,
+                summaryBackfill, progressEvents, metrics, 200, maxZipEntries, parallelism, flushSize);
+    }
+
+    private static boolean saved(ProgressEvent event, String syllabusId) {
+        return event.getStage() == ProgressStage.SAVED && event.getSyllabusId().equals(syllabusId);
+    }
+
+    private static MultipartFile pdf(String name) {
+        return new MockMultipartFile("files", name, "application/pdf", "%PDF-1.4".getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static MultipartFile zip(String name, String... entries) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+            for (int i = 0; i < entries.length; i += 2) {
+                zip.putNextEntry(new ZipEntry(entries[i]));
+                zip.write(entries[i + 1].getBytes(StandardCharsets.UTF_8));
+                zip.closeEntry();
+            }
+        }
+        return new MockMultipartFile("files", name, "application/zip", bytes.toByteArray());
+    }
+}
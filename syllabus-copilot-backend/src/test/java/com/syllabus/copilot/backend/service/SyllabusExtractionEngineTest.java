@@ -0,0 +1,256 @@
+package com.syllabus.copilot.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import com.syllabus.copilot.backend.model.Assignment;
+import com.syllabus.copilot.backend.model.Exam;
+import com.syllabus.copilot.backend.model.ImportantDate;
+import com.syllabus.copilot.backend.model.Syllabus;
+
+class SyllabusExtractionEngineTest {
+    private final SyllabusExtractionEngine engine = new SyllabusExtractionEngine();
+    private final LegacySyllabusExtractors legacy = new LegacySyllabusExtractors();
+
+    private static final String[] FRAGMENTS = {
+        "Course Code: COSC 412\n",
+        "course number CS101 ",
+        "COURSE\n\nMATH 2210\n",
+        "Instructor: Dr. Jane Smith\n",
+        "Instructor:\n\nProf. Alan Turing, PhD email: alan@example.edu\n",
+        "INSTRUCTOR  John Q. Public professor of CS\n",
+        "Instructor:   \n",
+        "instructor 42 instructor ",
+        "Instructor: Grace Hopper\r\n",
+        "Course  \n  Number:  cs 2210 ",
+        "Fall 2025\n",
+        "spring2026 ",
+        "Winter   2024\n",
+        "Course Description: This course introduces software engineering principles, teamwork and agile process.\n",
+        "description: too short\n",
+        "Description:  " + "x".repeat(600) + "\n",
+        "Homework 1 — Due 09/10/2025\n",
+        "HOMEWORK 12 - due 10/01/2025\n",
+        "Quiz 3 - 09/15/2025\n",
+        "Project 2 — 11/30/2025 final submission\n",
+        "Lab 4 -09/22/2025",
+        "Assignment 7 — Due 13/45/2025\n",
+        "Midterm Exam — 10/20/2025\n",
+        "final exam - 12/12/2025 in room 101\n",
+        "semifinal exam - 12/01/2025\n",
+        "11/26/2025 - Thanksgiving break, no class\n",
+        "9/1/25: Labor Day holiday\n",
+        "10/15/2025 Last day to drop or withdraw\n",
+        "12/05/2025 - Project deadline\n",
+        "2025-09-03 - First day of class\n",
+        "1/2/3 odd date\n",
+        "02-30-2025 - Invalid leap day\n",
+        "10/10/2025 10/11/2025 Reading days\n",
+        "10/22/2025 - Homework 5 review\r\n",
+        "Office hours: Tue 2-4pm, café on 3rd floor\n",
+        "Grading: 40% homework, 30% exams, 30% project\n",
+        "\n\n",
+        "    ",
+    };
+
+    @Test
+    void matchesLegacyExtractorsOnSampleSyllabus() {
+        String text = """
+                COSC 412 Software Engineering
+                Course Code: COSC 412
+                Instructor: Dr. Jane Smith
+                Fall 2025
+                Course Description: A project-driven course covering requirements, design, testing and delivery.
+
+                Schedule
+                Homework 1 — Due 09/10/2025
+                Quiz 1 — 09/15/2025
+                Midterm Exam — 10/20/2025
+                11/26/2025 - Thanksgiving break, no class
+                10/15/2025 Last day to drop
+                Final Exam — 12/12/2025
+                """;
+
+        Syllabus expected = new Syllabus();
+        legacy.extract(expected, text);
+        Syllabus actual = new Syllabus();
+        engine.extract(actual, text);
+
+        // The legacy date rule let \s* run past the end of a line, pairing "10/20/2025" with the
+        // Thanksgiving line below it, and backtracked "12/12/2025" into the year 202 described by "5"
+        assertThat(actual).usingRecursiveComparison().ignoringFields("importantDates").isEqualTo(expected);
+        assertThat(actual.getImportantDates()).extracting(ImportantDate::getTitle, ImportantDate::getDate)
+            .containsExactly(tuple("Thanksgiving break, no class", LocalDateTime.of(2025, 11, 26, 0, 0)),
+                    tuple("Last day to drop", LocalDateTime.of(2025, 10, 15, 0, 0)));
+        assertThat(actual.getCourseCode()).isEqualTo("COSC 412");
+        assertThat(actual.getAssignments()).hasSize(2);
+        assertThat(actual.getExams()).hasSize(2);
+    }
+
+    @Test
+    void matchesLegacyExtractorsOnEmptyText() {
+        Syllabus expected = new Syllabus();
+        legacy.extract(expected, "");
+        Syllabus actual = new Syllabus();
+        engine.extract(actual, "");
+
+        assertThat(actual).isEqualTo(expected);
+    }
+
+    // Assignments, exams and dates are read by ScheduleRecognizer, which finds more than the legacy
+    // regexes did (see the tests below and ScheduleRecognizerTest), so only course info is compared
+    @ParameterizedTest
+    @MethodSource("generatedCorpus")
+    void courseInfoMatchesLegacyExtractorsOnGeneratedCorpus(String text) {
+        Syllabus expected = new Syllabus();
+        legacy.extract(expected, text);
+        Syllabus actual = new Syllabus();
+        engine.extract(actual, text);
+
+        assertThat(actual).usingRecursiveComparison()
+            .comparingOnlyFields("courseCode", "instructor", "semester", "description")
+            .isEqualTo(expected);
+    }
+
+    @Test
+    void readsScheduleFormatsTheLegacyRegexesMissed() {
+        String text = """
+                Fall 2025
+                Tuesday, September 9: Homework 1 due
+                Quiz 2 due Oct 20
+                11/24–11/28 Thanksgiving break
+                Nov 3rd - exam 2
+                Dec 22 to Jan 5 - Winter recess
+                Final exam: Dec. 12, 2025
+                """;
+
+        Syllabus syllabus = new Syllabus();
+        engine.extract(syllabus, text);
+
+        assertThat(syllabus.getAssignments()).extracting(Assignment::getTitle, Assignment::getDueDate)
+            .containsExactly(tuple("Homework 1", LocalDateTime.of(2025, 9, 9, 0, 0)),
+                    tuple("Quiz 2", LocalDateTime.of(2025, 10, 20, 0, 0)));
+        assertThat(syllabus.getAssignments().get(0).getDescription()).isEqualTo("Homework 1 - Due Tuesday, September 9");
+        assertThat(syllabus.getExams()).extracting(Exam::getTitle, Exam::getType, Exam::getDateTime)
+            .containsExactly(tuple("exam 2", "exam", LocalDateTime.of(2025, 11, 3, 0, 0)),
+                    tuple("Final Exam", "final", LocalDateTime.of(2025, 12, 12, 0, 0)));
+        assertThat(syllabus.getImportantDates())
+            .extracting(ImportantDate::getTitle, ImportantDate::getType, ImportantDate::getDate, ImportantDate::getEndDate)
+            .containsExactly(
+                    tuple("Thanksgiving break", "holiday", LocalDateTime.of(2025, 11, 24, 0, 0), LocalDateTime.of(2025, 11, 28, 0, 0)),
+                    tuple("Winter recess", "other", LocalDateTime.of(2025, 12, 22, 0, 0), LocalDateTime.of(2026, 1, 5, 0, 0)));
+    }
+
+    @Test
+    void anEventTakesTheNextDateOnItsLineElseTheLastOne() {
+        String text = "09/01/2025 Homework 2 and Quiz 1 due 09/08/2025\n"
+                + "Lab 3 is due 09/15/2025 (late until 09/17/2025)\n"
+                + "Project 1 ... 09/30/2025 ... Midterm\n";
+
+        Syllabus syllabus = new Syllabus();
+        engine.extract(syllabus, text);
+
+        assertThat(syllabus.getAssignments()).extracting(Assignment::getTitle, Assignment::getDueDate)
+            .containsExactly(tuple("Homework 2", LocalDateTime.of(2025, 9, 8, 0, 0)),
+                    tuple("Quiz 1", LocalDateTime.of(2025, 9, 8, 0, 0)),
+                    tuple("Lab 3", LocalDateTime.of(2025, 9, 15, 0, 0)),
+                    tuple("Project 1", LocalDateTime.of(2025, 9, 30, 0, 0)));
+        assertThat(syllabus.getExams()).extracting(Exam::getTitle, Exam::getDateTime)
+            .containsExactly(tuple("Midterm Exam", LocalDateTime.of(2025, 9, 30, 0, 0)));
+        assertThat(syllabus.getImportantDates()).isEmpty();
+    }
+
+    @Test
+    void invalidDatesAreKeptWithoutADate() {
+        Syllabus syllabus = new Syllabus();
+        engine.extract(syllabus, "Assignment 7 — Due 13/45/2025\n02-30-2025 - Invalid leap day\n");
+
+        assertThat(syllabus.getAssignments()).singleElement()
+            .satisfies(assignment -> assertThat(assignment.getDueDate()).isNull());
+        assertThat(syllabus.getImportantDates()).singleElement()
+            .satisfies(date -> assertThat(date.getTitle()).isEqualTo("Invalid leap day"))
+            .satisfies(date -> assertThat(date.getDate()).isNull());
+    }
+
+    @Test
+    void traceCountsTheScheduleAndTheInstructorScan() {
+        SyllabusExtractionEngine.Trace trace = new SyllabusExtractionEngine.Trace("s1");
+        engine.extract(new Syllabus(), "Instructor: Ada Lovelace\nFall 2025\nOct 20 - review\n02/30/2025 - bad\n", trace);
+
+        List<String> rules = SyllabusExtractionEngine.ruleNames();
+        assertThat(rules).containsExactly("course_code", "instructor", "semester", "description", "schedule");
+        assertThat(trace.matches(rules.indexOf("instructor"))).isEqualTo(1);
+        assertThat(trace.matches(rules.indexOf("schedule"))).isEqualTo(2);
+        assertThat(trace.getDatesParsed()).isEqualTo(2);
+        assertThat(trace.getDatesInvalid()).isEqualTo(1);
+    }
+
+    // Inputs on which the legacy regexes backtrack quadratically finish in linear time
+    @ParameterizedTest
+    @MethodSource("adversarialTexts")
+    void adversarialTextsAreExtractedInLinearTime(String text) {
+        assertTimeoutPreemptively(Duration.ofSeconds(2), () -> engine.extract(new Syllabus(), text));
+    }
+
+    static Stream<String> adversarialTexts() {
+        int n = 200_000;
+        return Stream.of(
+                "course" + " ".repeat(n) + "!",
+                "Instructor:" + " ".repeat(n) + "1",
+                "instructor " + "a".repeat(n) + "1",
+                "instructor ".repeat(n / 11),
+                "Fall" + " ".repeat(n) + "x",
+                "11/26/2025 " + "x".repeat(n),
+                "Homework 1 - ".repeat(n / 13),
+                "1/1/1/1/1/1-".repeat(n / 12),
+                "Monday, Monday, ".repeat(n / 16));
+    }
+
+    @Test
+    void instructorScanMatchesTheRegexOnEdgeCases() {
+        Pattern pattern = Pattern.compile("(?i)instructor:?\\s*([A-Za-z\\s,\\.]+?)(?:\\n|$|professor|dr\\.|email)",
+                Pattern.CASE_INSENSITIVE);
+        String[] texts = {
+            "Instructor: Ada Lovelace", "Instructor:   \n", "Instructor:", "Instructor: 42\ninstructor Bob\n",
+            "INSTRUCTOR: Smith\r\n", "Instructor: Smith\r", "Instructor: Smith\u2028", "instructor  \r\n",
+            "instructor \t  dr. Who", "instructorinstructor Jane", "Instructor: Jane, Ph.D. Professor of CS",
+            "instructor:email", "instructor: 1 instructor: \n", "instructor:\n\n\n2 instructor Dr.",
+        };
+        for (String text : texts) {
+            Matcher matcher = pattern.matcher(text);
+            String expected = matcher.find() ? matcher.group(1).trim() : null;
+            assertThat(SyllabusExtractionEngine.instructor(text)).as(text).isEqualTo(expected);
+        }
+    }
+
+    // Seeded documents built from tricky fragments, sometimes glued together without separators
+    static Stream<String> generatedCorpus() {
+        return IntStream.range(0, 300).mapToObj(seed -> {
+            Random random = new Random(seed);
+            StringBuilder text = new StringBuilder();
+            int fragments = 1 + random.nextInt(40);
+            for (int i = 0; i < fragments; i++) {
+                String fragment = FRAGMENTS[random.nextInt(FRAGMENTS.length)];
+                if (random.nextInt(5) == 0) {
+                    fragment = fragment.strip();
+                }
+                text.append(fragment);
+            }
+            return text.toString();
+        });
+    }
+}
@@ -0,0 +1,124 @@
+package com.syllabus.copilot.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.syllabus.copilot.backend.model.ReadCacheStats;
+import com.syllabus.copilot.backend.model.Syllabus;
+import com.syllabus.copilot.backend.repository.SyllabusRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class SyllabusReadCacheTest {
+    private final SyllabusRepository repo = mock(SyllabusRepository.class);
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private final ExecutorService callers = Executors.newFixedThreadPool(8);
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+    }
+
+    @Test
+    void concurrentMissesShareOneLoad() throws Exception {
+        CountDownLatch loadStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoad = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        when(repo.findById("s1")).thenAnswer(call -> {
+            loads.incrementAndGet();
+            loadStarted.countDown();
+            releaseLoad.await(5, TimeUnit.SECONDS);
+            return Optional.of(syllabus("s1", "u1"));
+        });
+        SyllabusReadCache cache = new SyllabusReadCache(repo, registry, 100, Duration.ofMinutes(5));
+
+        List<Future<Optional<Syllabus>>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            results.add(callers.submit(() -> cache.findById("s1")));
+        }
+        assertThat(loadStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        releaseLoad.countDown();
+
+        for (Future<Optional<Syllabus>> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).map(Syllabus::getId).contains("s1");
+        }
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void invalidationReloadsBothCaches() {
+        when(repo.findById("s1")).thenReturn(Optional.of(syllabus("s1", "u1")));
+        when(repo.findByUserId("u1")).thenReturn(List.of(syllabus("s1", "u1")));
+        SyllabusReadCache cache = new SyllabusReadCache(repo, registry, 100, Duration.ofMinutes(5));
+
+        cache.findById("s1");
+        cache.findById("s1");
+        cache.findByUserId("u1");
+        cache.findByUserId("u1");
+        verify(repo, times(1)).findById("s1");
+        verify(repo, times(1)).findByUserId("u1");
+
+        cache.invalidate("s1", "u1");
+        cache.findById("s1");
+        cache.findByUserId("u1");
+        verify(repo, times(2)).findById("s1");
+        verify(repo, times(2)).findByUserId("u1");
+    }
+
+    @Test
+    void statsReportHitRatio() {
+        when(repo.findById("s1")).thenReturn(Optional.of(syllabus("s1", "u1")));
+        SyllabusReadCache cache = new SyllabusReadCache(repo, registry, 100, Duration.ofMinutes(5));
+
+        for (int i = 0; i < 4; i++) {
+            cache.findById("s1");
+        }
+
+        ReadCacheStats byId = cache.getStats().get(0);
+        assertThat(byId.getCache()).isEqualTo("byId");
+        assertThat(byId.getHits()).isEqualTo(3);
+        assertThat(byId.getMisses()).isEqualTo(1);
+        assertThat(byId.getHitRatio()).isEqualTo(0.75);
+        assertThat(byId.getLoads()).isEqualTo(1);
+    }
+
+    @Test
+    void bothCachesArePublishedAsMeters() {
+        when(repo.findById("s1")).thenReturn(Optional.of(syllabus("s1", "u1")));
+        SyllabusReadCache cache = new SyllabusReadCache(repo, registry, 100, Duration.ofMinutes(5));
+
+        cache.findById("s1");
+        cache.findById("s1");
+
+        assertThat(registry.get("cache.gets").tags("cache", "syllabus.read.byId", "result", "hit")
+                .functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("cache.gets").tags("cache", "syllabus.read.byId", "result", "miss")
+                .functionCounter().count()).isEqualTo(1);
+        assertThat(registry.find("cache.size").tag("cache", "syllabus.read.byUser").gauge()).isNotNull();
+    }
+
+    private static Syllabus syllabus(String id, String userId) {
+        Syllabus syllabus = new Syllabus();
+        syllabus.setId(id);
+        syllabus.setUserId(userId);
+        return syllabus;
+    }
+}
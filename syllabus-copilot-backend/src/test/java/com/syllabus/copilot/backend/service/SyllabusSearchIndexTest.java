@@ -0,0 +1,139 @@
+package com.syllabus.copilot.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.syllabus.copilot.backend.model.Assignment;
+import com.syllabus.copilot.backend.model.ProcessingStatus;
+import com.syllabus.copilot.backend.model.SearchHit;
+import com.syllabus.copilot.backend.model.Syllabus;
+
+class SyllabusSearchIndexTest {
+    private final SyllabusReadCache readCache = mock(SyllabusReadCache.class);
+    private final SyllabusTextStore textStore = mock(SyllabusTextStore.class);
+    private final List<Syllabus> syllabi = new ArrayList<>();
+    private SyllabusSearchIndex index;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        index = new SyllabusSearchIndex(readCache, textStore, new ProgressEventBus(), 1_000_000,
+                Duration.ofMinutes(10), 10);
+        when(readCache.findByUserId("u1")).thenReturn(syllabi);
+
+        syllabus("s1", "Operating Systems", "The midterm exam covers processes and threads. "
+                + "Office hours are on Tuesdays. The final exam is cumulative.");
+        syllabus("s2", "Calculus II", "Integration techniques, series and sequences. "
+                + "There is no midterm; weekly quizzes replace it.");
+        syllabus("s3", "Modern Poetry", "Readings of Eliot, Pound and Moore. Essays are due every other week.");
+        syllabi.get(2).setAssignments(List.of(new Assignment("Sonnet workshop", null, null, null, null, null, false)));
+        Syllabus pending = syllabus("s4", "Databases", "The midterm exam is on relational algebra.");
+        pending.setProcessingStatus(ProcessingStatus.PENDING);
+    }
+
+    @AfterEach
+    void tearDown() {
+        index.destroy();
+    }
+
+    @Test
+    void documentsAreRankedByBm25WithASnippet() {
+        List<SearchHit> hits = index.search("u1", "midterm exams", 10);
+
+        // Both words, then one; the pending syllabus is not searchable
+        assertThat(hits).extracting(SearchHit::getSyllabusId).containsExactly("s1", "s2");
+        assertThat(hits.get(0).getScore()).isGreaterThan(hits.get(1).getScore());
+        assertThat(hits.get(0).getSnippet()).startsWith("The midterm exam covers");
+        assertThat(hits.get(1).getSnippet()).contains("no midterm");
+    }
+
+    @Test
+    void titlesAreSearchedToo() {
+        List<SearchHit> hits = index.search("u1", "sonnet", 10);
+
+        assertThat(hits).extracting(SearchHit::getSyllabusId).containsExactly("s3");
+        assertThat(hits.get(0).getSnippet()).isEqualTo("Sonnet workshop");
+        assertThat(index.search("u1", "poetry", 1)).extracting(SearchHit::getCourseName)
+            .containsExactly("Modern Poetry");
+    }
+
+    @Test
+    void savedAndDeletedSyllabiUpdateALoadedIndex() throws IOException {
+        assertThat(index.search("u1", "relational", 10)).isEmpty();
+
+        Syllabus saved = syllabi.get(3);
+        saved.setProcessingStatus(ProcessingStatus.COMPLETED);
+        when(readCache.findById("s4")).thenReturn(Optional.of(saved));
+        index.refresh("s4", "u1");
+        assertThat(index.search("u1", "relational", 10)).extracting(SearchHit::getSyllabusId)
+            .containsExactly("s4");
+
+        index.remove("s1", "u1");
+        assertThat(index.search("u1", "midterm", 10)).extracting(SearchHit::getSyllabusId)
+            .containsExactlyInAnyOrder("s2", "s4");
+    }
+
+    // Indexes are weighed again when they change, not only when they are loaded
+    @Test
+    void anIndexGrownPastTheLimitIsEvicted() throws IOException {
+        index.destroy();
+        index = new SyllabusSearchIndex(readCache, textStore, new ProgressEventBus(), 2_000,
+                Duration.ofMinutes(10), 10);
+        assertThat(index.search("u1", "midterm", 10)).isNotEmpty();
+        index.cleanUp();
+        assertThat(index.isLoaded("u1")).isTrue();
+
+        Syllabus grown = syllabi.get(3);
+        grown.setProcessingStatus(ProcessingStatus.COMPLETED);
+        when(textStore.load("text-s4")).thenReturn(Optional.of("Relational algebra and normal forms. ".repeat(60)));
+        when(readCache.findById("s4")).thenReturn(Optional.of(grown));
+        index.refresh("s4", "u1");
+        index.cleanUp();
+
+        assertThat(index.isLoaded("u1")).isFalse();
+    }
+
+    @Test
+    void longTextsGetAPassageAroundTheMatch() throws IOException {
+        String filler = "Lecture notes are posted weekly. ".repeat(40);
+        syllabus("s5", "Compilers", filler + "The parser project is due in November. " + filler);
+
+        String snippet = index.search("u1", "parser project", 1).get(0).getSnippet();
+
+        assertThat(snippet).startsWith("…").endsWith("…").contains("The parser project is due");
+        assertThat(snippet.length()).isLessThanOrEqualTo(162);
+    }
+
+    @Test
+    void queriesAreNormalizedLikeTheText() {
+        assertThat(SyllabusSearchIndex.queryTerms("The Midterm EXAMS, exam 2 & a quiz"))
+            .containsExactly("midterm", "exam", "2", "quiz");
+        assertThatThrownBy(() -> index.search("u1", "the and of", 10))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> index.search("u1", "midterm", SyllabusSearchIndex.MAX_LIMIT + 1))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private Syllabus syllabus(String id, String courseName, String text) throws IOException {
+        Syllabus syllabus = new Syllabus();
+        syllabus.setId(id);
+        syllabus.setUserId("u1");
+        syllabus.setCourseName(courseName);
+        syllabus.setOriginalTextRef("text-" + id);
+        syllabus.setProcessingStatus(ProcessingStatus.COMPLETED);
+        when(textStore.load("text-" + id)).thenReturn(Optional.of(text));
+        syllabi.add(syllabus);
+        return syllabus;
+    }
+}
@@ -0,0 +1,190 @@
+package com.syllabus.copilot.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Set;
+
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import org.springframework.data.mongodb.gridfs.GridFsTemplate;
+import org.springframework.data.mongodb.gridfs.GridFsUpload;
+
+import com.mongodb.MongoWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.WriteError;
+import com.mongodb.client.gridfs.GridFSFindIterable;
+import com.mongodb.client.gridfs.model.GridFSFile;
+import com.mongodb.client.result.UpdateResult;
+import com.syllabus.copilot.backend.model.ExtractionCacheEntry;
+import com.syllabus.copilot.backend.model.Syllabus;
+import com.syllabus.copilot.backend.model.SyllabusTextPin;
+
+// Mongo does the locking, so these check the guarded writes the store sends rather than real races
+class SyllabusTextStoreTest {
+    private static final String TEXT = "Course Code: COSC 412";
+
+    private GridFsTemplate gridFs;
+    private MongoTemplate mongoTemplate;
+    private GridFSFindIterable files;
+    private SyllabusTextStore store;
+
+    @BeforeEach
+    void setUp() {
+        gridFs = mock(GridFsTemplate.class);
+        mongoTemplate = mock(MongoTemplate.class);
+        files = mock(GridFSFindIterable.class);
+        when(gridFs.find(any(Query.class))).thenReturn(files);
+        when(mongoTemplate.upsert(any(Query.class), any(UpdateDefinition.class), eq(SyllabusTextPin.class)))
+            .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+        store = new SyllabusTextStore(gridFs, mongoTemplate, "syllabus_text", 6, Duration.ofHours(1));
+    }
+
+    @Test
+    void storePinsTheTextBeforeWritingIt() {
+        String ref = store.store(TEXT);
+
+        ArgumentCaptor<Query> pin = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<UpdateDefinition> update = ArgumentCaptor.forClass(UpdateDefinition.class);
+        verify(mongoTemplate).upsert(pin.capture(), update.capture(), eq(SyllabusTextPin.class));
+        assertThat(pin.getValue().getQueryObject()).containsEntry("_id", ref);
+        assertThat(pin.getValue().getQueryObject().get("$or").toString()).contains("releasing=false");
+        assertThat(update.getValue().getUpdateObject().get("$inc", Document.class)).containsEntry("pins", 1);
+        verify(gridFs).store(anyUpload());
+    }
+
+    @Test
+    void storedTextIsNotWrittenAgain() {
+        when(files.first()).thenReturn(mock(GridFSFile.class));
+
+        store.store(TEXT);
+
+        verify(gridFs, never()).store(anyUpload());
+    }
+
+    @Test
+    void storeWaitsForARunningRelease() {
+        when(mongoTemplate.upsert(any(Query.class), any(UpdateDefinition.class), eq(SyllabusTextPin.class)))
+            .thenThrow(new DuplicateKeyException("releasing"))
+            .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+        store.store(TEXT);
+
+        verify(mongoTemplate, times(2)).upsert(any(Query.class), any(UpdateDefinition.class), eq(SyllabusTextPin.class));
+        verify(gridFs).store(anyUpload());
+    }
+
+    @Test
+    void losingAConcurrentWriteDropsItsChunks() {
+        when(gridFs.store(anyUpload())).thenThrow(
+                new MongoWriteException(new WriteError(11000, "E11000 duplicate key", new BsonDocument()),
+                        new ServerAddress(), Set.of()));
+
+        String ref = store.store(TEXT);
+
+        assertThat(ref).hasSize(64);
+        ArgumentCaptor<Query> chunks = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).remove(chunks.capture(), eq("syllabus_text.chunks"));
+        assertThat(chunks.getValue().getQueryObject()).containsKey("files_id");
+    }
+
+    @Test
+    void filenamesAreUnique() {
+        assertThat(store.collection()).isEqualTo("syllabus_text.files");
+        assertThat(store.indexes()).singleElement().satisfies(index -> {
+            assertThat(index.getIndexKeys()).containsOnlyKeys("filename");
+            assertThat(index.getIndexOptions()).containsEntry("unique", true);
+        });
+    }
+
+    @Test
+    void pinnedTextIsNotReleased() {
+        when(mongoTemplate.upsert(any(Query.class), any(UpdateDefinition.class), eq(SyllabusTextPin.class)))
+            .thenThrow(new DuplicateKeyException("pinned"));
+
+        store.releaseIfUnreferenced("ref");
+
+        verify(mongoTemplate, never()).exists(any(Query.class), any(Class.class));
+        verify(gridFs, never()).delete(any(Query.class));
+    }
+
+    @Test
+    void unreferencedTextIsDeletedUnderTheReleasePin() {
+        store.releaseIfUnreferenced("ref");
+
+        ArgumentCaptor<Query> claim = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<UpdateDefinition> update = ArgumentCaptor.forClass(UpdateDefinition.class);
+        verify(mongoTemplate).upsert(claim.capture(), update.capture(), eq(SyllabusTextPin.class));
+        assertThat(claim.getValue().getQueryObject().get("$or").toString()).contains("pins=Document{{$lte=0}}");
+        assertThat(update.getValue().getUpdateObject().get("$set", Document.class)).containsEntry("releasing", true);
+        verify(gridFs).delete(any(Query.class));
+        ArgumentCaptor<Query> removed = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).remove(removed.capture(), eq(SyllabusTextPin.class));
+        assertThat(removed.getValue().getQueryObject())
+            .containsEntry("_id", "ref")
+            .containsEntry("releasing", true)
+            .containsEntry("expiresAt", update.getValue().getUpdateObject().get("$set", Document.class).get("expiresAt"));
+    }
+
+    @Test
+    void referencedTextIsKept() {
+        when(mongoTemplate.exists(any(Query.class), eq(ExtractionCacheEntry.class))).thenReturn(true);
+
+        store.releaseIfUnreferenced("ref");
+
+        verify(mongoTemplate).exists(any(Query.class), eq(Syllabus.class));
+        verify(gridFs, never()).delete(any(Query.class));
+        verify(mongoTemplate).remove(any(Query.class), eq(SyllabusTextPin.class));
+    }
+
+    @Test
+    void onlyTheLastUnpinReleases() {
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(SyllabusTextPin.class)))
+            .thenReturn(new SyllabusTextPin("ref", 1, false, null))
+            .thenReturn(new SyllabusTextPin("ref", 0, false, null));
+
+        store.unpin("ref");
+        verify(gridFs, never()).delete(any(Query.class));
+
+        store.unpin("ref");
+        verify(gridFs).delete(any(Query.class));
+    }
+
+    @Test
+    void textThatIsGoneIsNotRetained() {
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(SyllabusTextPin.class)))
+            .thenReturn(new SyllabusTextPin("ref", 0, false, null));
+
+        assertThat(store.retain("ref")).isFalse();
+        assertThat(store.retain(null)).isFalse();
+
+        when(files.first()).thenReturn(mock(GridFSFile.class));
+        assertThat(store.retain("ref")).isTrue();
+        verify(mongoTemplate, times(1)).findAndModify(any(Query.class), any(Update.class),
+                any(FindAndModifyOptions.class), eq(SyllabusTextPin.class));
+    }
+
+    private static GridFsUpload<ObjectId> anyUpload() {
+        return ArgumentMatchers.any();
+    }
+}
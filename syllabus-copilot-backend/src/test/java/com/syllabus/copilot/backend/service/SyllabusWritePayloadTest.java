@@ -0,0 +1,314 @@
+package com.syllabus.copilot.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DocumentCodec;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.convert.UpdateMapper;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+
+import com.mongodb.MongoClientSettings;
+import com.mongodb.client.result.UpdateResult;
+import com.syllabus.copilot.backend.model.ExtractionCacheEntry;
+import com.syllabus.copilot.backend.model.ProcessingStatus;
+import com.syllabus.copilot.backend.model.ProgressEvent;
+import com.syllabus.copilot.backend.model.ProgressStage;
+import com.syllabus.copilot.backend.model.Syllabus;
+import com.syllabus.copilot.backend.repository.SyllabusRepository;
+import com.syllabus.copilot.backend.repository.SyllabusUpdateRepository;
+import com.syllabus.copilot.backend.service.PdfProcessingService.PdfText;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// Counts the BSON bytes processSyllabusFile sends to Mongo, mapped the way MongoTemplate maps them
+class SyllabusWritePayloadTest {
+    private static final String ID = "6718a0c2e4b0a1b2c3d4e5f6";
+    private static final String USER_ID = "student-42";
+    private static final String TEXT_REF = "a".repeat(64);
+
+    private static final String TEXT = """
+            Course Code: COSC 412
+            Instructor: Dr. Jane Smith
+            Fall 2025
+            Course Description: This course introduces software engineering principles, teamwork and agile process.
+            Homework 1 — Due 09/10/2025
+            Homework 2 — Due 09/24/2025
+            Homework 3 — Due 10/08/2025
+            Quiz 1 - 09/15/2025
+            Project 1 — 11/30/2025
+            Midterm Exam — 10/20/2025
+            Final Exam — 12/12/2025
+            09/01/2025 - Labor Day, no class
+            10/13/2025 - Fall break
+            11/07/2025 - Last day to withdraw
+            11/26/2025 - Thanksgiving break, no class
+            """;
+
+    private MappingMongoConverter converter;
+    private MongoPersistentEntity<?> entity;
+    private MongoTemplate mongoTemplate;
+    private PdfProcessingService pdfProcessingService;
+    private ExtractionCacheService extractionCache;
+    private SyllabusTextStore textStore;
+    private SyllabusService service;
+    private final ProgressEventBus progressEvents = new ProgressEventBus();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PipelineMetrics metrics = new PipelineMetrics(meterRegistry, progressEvents);
+    private Path pdf;
+    private final List<Integer> writes = new ArrayList<>();
+    private final List<Document> updates = new ArrayList<>();
+
+    @BeforeEach
+    void setUp(@TempDir Path tempDir) throws IOException {
+        pdf = Files.write(tempDir.resolve("syllabus.pdf"), new byte[4096]);
+
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        entity = mappingContext.getRequiredPersistentEntity(Syllabus.class);
+
+        mongoTemplate = mock(MongoTemplate.class);
+        when(mongoTemplate.findAndModify(any(Query.class), any(UpdateDefinition.class),
+                any(FindAndModifyOptions.class), eq(Syllabus.class)))
+            .thenAnswer(call -> {
+                record(call.getArgument(0), call.getArgument(1));
+                Syllabus claimed = pendingSyllabus();
+                claimed.setProcessingStatus(ProcessingStatus.PROCESSING);
+                return claimed;
+            });
+        when(mongoTemplate.updateFirst(any(Query.class), any(UpdateDefinition.class), eq(Syllabus.class)))
+            .thenAnswer(call -> {
+                record(call.getArgument(0), call.getArgument(1));
+                return UpdateResult.acknowledged(1, 1L, null);
+            });
+
+        pdfProcessingService = mock(PdfProcessingService.class);
+        when(pdfProcessingService.extract(any(Path.class), anyString(), anyString())).thenReturn(new PdfText(TEXT, 3));
+
+        extractionCache = mock(ExtractionCacheService.class);
+        when(extractionCache.lookup(anyString())).thenReturn(Optional.empty());
+        textStore = mock(SyllabusTextStore.class);
+        when(textStore.store(anyString())).thenReturn(TEXT_REF);
+
+        service = new SyllabusService(
+                mock(SyllabusRepository.class),
+                new SyllabusUpdateRepository(mongoTemplate),
+                mock(SyllabusReadCache.class),
+                pdfProcessingService,
+                new SyllabusAnalysisService(new SyllabusExtractionEngine(), metrics),
+                extractionCache,
+                textStore,
+                mock(OriginalTextMigration.class),
+                mock(SyllabusUploadStore.class),
+                mock(ProcessingJobQueue.class),
+                mock(ProcessingAdmission.class),
+                mock(SummaryBackfillService.class),
+                mock(SyllabusSearchIndex.class),
+                progressEvents,
+                metrics);
+    }
+
+    @Test
+    void processingWritesFewerBytesThanFullDocumentSaves() {
+        service.processSyllabusFile(ID, pdf);
+
+        // What the old pipeline sent: the whole document at PROCESSING, then again when completed
+        Syllabus processing = pendingSyllabus();
+        processing.setProcessingStatus(ProcessingStatus.PROCESSING);
+        Syllabus completed = pendingSyllabus();
+        new SyllabusAnalysisService(new SyllabusExtractionEngine(), metrics).analyzeSyllabusContent(completed, TEXT);
+        completed.setOriginalTextRef(TEXT_REF);
+        completed.setOriginalTextLength(TEXT.length());
+        int fullSaveBytes = fullSaveSize(processing) + fullSaveSize(completed);
+
+        assertThat(writes).hasSize(2);
+        int partialBytes = writes.get(0) + writes.get(1);
+        assertThat(partialBytes).isLessThan(fullSaveBytes);
+
+        // The claim is a status-only write, far smaller than re-saving the document
+        assertThat(writes.get(0)).isLessThan(fullSaveSize(processing) / 2);
+        assertThat(set(updates.get(0)).keySet()).containsExactlyInAnyOrder("processingStatus", "lastModifiedDate");
+        assertThat(updates.get(0).get("$inc", Document.class)).containsEntry("version", 1);
+
+        // Fields fixed at upload are not rewritten
+        assertThat(set(updates.get(1)).keySet())
+            .contains("processingStatus", "assignments", "exams", "importantDates", "originalTextRef")
+            .doesNotContain("userId", "courseName", "fileName", "contentHash", "uploadDate");
+    }
+
+    @Test
+    void processingPublishesEachStage() {
+        List<ProgressEvent> events = new ArrayList<>();
+        progressEvents.subscribeToSyllabus(ID, events::add);
+
+        service.processSyllabusFile(ID, pdf);
+
+        assertThat(events).extracting(ProgressEvent::getStage).containsExactly(
+                ProgressStage.PROCESSING, ProgressStage.TEXT_EXTRACTED,
+                ProgressStage.EXTRACTOR_FINISHED, ProgressStage.EXTRACTOR_FINISHED, ProgressStage.EXTRACTOR_FINISHED,
+                ProgressStage.EXTRACTOR_FINISHED, ProgressStage.EXTRACTOR_FINISHED, ProgressStage.SAVED);
+        assertThat(events.get(1).getPageCount()).isEqualTo(3);
+        assertThat(events.get(1).getCharacterCount()).isEqualTo(TEXT.length());
+        assertThat(events).filteredOn(event -> "exams".equals(event.getExtractor()))
+            .extracting(ProgressEvent::getItemCount).containsExactly(2);
+    }
+
+    @Test
+    void processingRecordsStageTimingsAndSizes() {
+        service.processSyllabusFile(ID, pdf);
+
+        for (String stage : List.of("claim", "cache_lookup", "extract_text", "extract_rules", "summary",
+                "store_text", "cache_store", "save_results")) {
+            assertThat(meterRegistry.get("syllabus.processing.stage").tag("stage", stage).timer().count())
+                .as(stage).isEqualTo(1);
+        }
+        assertThat(meterRegistry.get("syllabus.processing.rule").timers())
+            .hasSize(SyllabusExtractionEngine.ruleNames().size());
+        assertThat(meterRegistry.get("syllabus.processing.duration").tag("outcome", "completed").timer().count())
+            .isEqualTo(1);
+        assertThat(meterRegistry.get("syllabus.pdf.size").summary().totalAmount()).isEqualTo(4096);
+        assertThat(meterRegistry.get("syllabus.pdf.pages").summary().totalAmount()).isEqualTo(3);
+        assertThat(meterRegistry.get("syllabus.text.characters").summary().totalAmount()).isEqualTo(TEXT.length());
+        assertThat(meterRegistry.get("syllabus.processing.status").tag("status", "processing").counter().count())
+            .isEqualTo(1);
+        assertThat(meterRegistry.get("syllabus.processing.status").tag("status", "completed").counter().count())
+            .isEqualTo(1);
+    }
+
+    @Test
+    void cacheEntryFromAnOlderAnalyzerOnlyReusesTheText() throws IOException {
+        ExtractionCacheEntry stale = new ExtractionCacheEntry();
+        stale.setTextRef(TEXT_REF);
+        stale.setTextLength(TEXT.length());
+        stale.setCourseCode("OLD 100");
+        when(extractionCache.lookup(anyString())).thenReturn(Optional.of(stale));
+        when(textStore.load(TEXT_REF)).thenReturn(Optional.of(TEXT));
+
+        service.processSyllabusFile(ID, pdf);
+
+        verify(pdfProcessingService, never()).extract(any(Path.class), anyString(), anyString());
+        assertThat(set(updates.get(1)))
+            .containsEntry("courseCode", "COSC 412")
+            .containsEntry("analyzerVersion", SyllabusAnalysisService.ANALYZER_VERSION);
+    }
+
+    @Test
+    void failureWritesOnlyStatusAndError() throws IOException {
+        List<ProgressEvent> failures = new ArrayList<>();
+        progressEvents.subscribeToUser(USER_ID, event -> {
+            if (event.getStage() == ProgressStage.FAILED) {
+                failures.add(event);
+            }
+        });
+        when(pdfProcessingService.extract(any(Path.class), anyString(), anyString()))
+            .thenThrow(new IOException("broken xref table"));
+
+        service.processSyllabusFile(ID, pdf);
+
+        assertThat(writes).hasSize(2);
+        assertThat(set(updates.get(1)))
+            .containsOnlyKeys("processingStatus", "processingError", "lastModifiedDate")
+            .containsEntry("processingStatus", "FAILED");
+        assertThat(writes.get(1)).isLessThan(fullSaveSize(pendingSyllabus()));
+        assertThat(failures).extracting(ProgressEvent::getError)
+            .singleElement().asString().contains("broken xref table");
+    }
+
+    @Test
+    void syllabusNoLongerPendingIsNotProcessed() throws IOException {
+        when(mongoTemplate.findAndModify(any(Query.class), any(UpdateDefinition.class),
+                any(FindAndModifyOptions.class), eq(Syllabus.class)))
+            .thenReturn(null);
+
+        service.processSyllabusFile(ID, pdf);
+
+        verify(pdfProcessingService, never()).extract(any(Path.class), anyString(), anyString());
+        verify(mongoTemplate, never()).updateFirst(any(Query.class), any(UpdateDefinition.class), eq(Syllabus.class));
+    }
+
+    @Test
+    void resultsForASyllabusThatLeftProcessingAreNotCountedAsCompleted() {
+        List<ProgressStage> stages = new ArrayList<>();
+        progressEvents.subscribeToUser(USER_ID, event -> stages.add(event.getStage()));
+        when(mongoTemplate.updateFirst(any(Query.class), any(UpdateDefinition.class), eq(Syllabus.class)))
+            .thenReturn(UpdateResult.acknowledged(0, 0L, null));
+
+        service.processSyllabusFile(ID, pdf);
+
+        assertThat(meterRegistry.get("syllabus.processing.duration").tag("outcome", "completed").timer().count())
+            .isZero();
+        assertThat(meterRegistry.get("syllabus.processing.duration").tag("outcome", "discarded").timer().count())
+            .isEqualTo(1);
+        assertThat(meterRegistry.get("syllabus.processing.status").tag("status", "completed").counter().count())
+            .isZero();
+        assertThat(stages).doesNotContain(ProgressStage.SAVED);
+    }
+
+    private void record(Query query, UpdateDefinition update) {
+        Document filter = new QueryMapper(converter).getMappedObject(query.getQueryObject(), entity);
+        Document mapped = new UpdateMapper(converter).getMappedObject(update.getUpdateObject(), entity);
+        assertThat(filter).containsEntry("processingStatus", query.getQueryObject().get("processingStatus").toString());
+        updates.add(mapped);
+        writes.add(bsonSize(filter) + bsonSize(mapped));
+    }
+
+    // A save is a replace of the whole document matched by _id
+    private int fullSaveSize(Syllabus syllabus) {
+        Document document = new Document();
+        converter.write(syllabus, document);
+        Document filter = new QueryMapper(converter).getMappedObject(new Document("_id", ID), entity);
+        return bsonSize(filter) + bsonSize(document);
+    }
+
+    private static Document set(Document update) {
+        return update.get("$set", Document.class);
+    }
+
+    private static int bsonSize(Document document) {
+        return new RawBsonDocument(document, new DocumentCodec(MongoClientSettings.getDefaultCodecRegistry()))
+                .getByteBuffer().remaining();
+    }
+
+    private static Syllabus pendingSyllabus() {
+        Syllabus syllabus = new Syllabus();
+        syllabus.setId(ID);
+        syllabus.setUserId(USER_ID);
+        syllabus.setCourseName("Software Engineering");
+        syllabus.setFileName("COSC412-syllabus-fall-2025.pdf");
+        syllabus.setContentHash("3f".repeat(32));
+        syllabus.setUploadDate(LocalDateTime.of(2025, 8, 25, 9, 30));
+        syllabus.setProcessingStatus(ProcessingStatus.PENDING);
+        return syllabus;
+    }
+}
@@ -0,0 +1,58 @@
+package com.syllabus.copilot.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.syllabus.copilot.backend.model.Syllabus;
+import com.syllabus.copilot.backend.service.PipelineMetrics;
+import com.syllabus.copilot.backend.service.ProgressEventBus;
+import com.syllabus.copilot.backend.service.SyllabusAnalysisService;
+import com.syllabus.copilot.backend.service.SyllabusExtractionEngine;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// SyllabusAnalysisService.analyzeSyllabusContent over generated syllabus text
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AnalysisBenchmark {
+
+    @Param({"5", "60"})
+    public int pages;
+
+    @Param({"2", "20"})
+    public int eventsPerPage;
+
+    private SyllabusAnalysisService analysisService;
+    private String text;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        analysisService = new SyllabusAnalysisService(new SyllabusExtractionEngine(),
+                new PipelineMetrics(new SimpleMeterRegistry(), new ProgressEventBus()));
+        text = new SyntheticSyllabusGenerator(42).generateText(pages, eventsPerPage);
+    }
+
+    @Benchmark
+    public Syllabus analyzeSyllabusContent() {
+        Syllabus syllabus = new Syllabus();
+        syllabus.setCourseName("Software Engineering");
+        analysisService.analyzeSyllabusContent(syllabus, text);
+        return syllabus;
+    }
+}
@@ -0,0 +1,67 @@
+package com.syllabus.copilot.benchmarks;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.syllabus.copilot.backend.service.DateRecognizer;
+
+// Per-date cost of the previous split/parseInt parser against DateRecognizer reading offsets
+// into the text; run with -prof gc to compare gc.alloc.rate.norm
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DateParsingBenchmark {
+    private static final int DATES = 1024;
+
+    private String[] dates;
+    private String text;
+    private int[] starts;
+    private int[] ends;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<String> generated = new SyntheticSyllabusGenerator(42).generateDates(DATES);
+        dates = generated.toArray(new String[0]);
+
+        // The same dates laid out in one text, as the extractors see them
+        StringBuilder joined = new StringBuilder();
+        starts = new int[DATES];
+        ends = new int[DATES];
+        for (int i = 0; i < DATES; i++) {
+            joined.append("Event on ");
+            starts[i] = joined.length();
+            joined.append(dates[i]);
+            ends[i] = joined.length();
+            joined.append('\n');
+        }
+        text = joined.toString();
+    }
+
+    @Benchmark
+    public LocalDateTime legacyParseDateString() {
+        return LegacyDateParser.parseDateString(dates[next++ & (DATES - 1)]);
+    }
+
+    @Benchmark
+    public int recognizeDate() {
+        int i = next++ & (DATES - 1);
+        return DateRecognizer.parse(text, starts[i], ends[i]);
+    }
+}
@@ -0,0 +1,41 @@
+package com.syllabus.copilot.benchmarks;
+
+import java.time.LocalDateTime;
+
+// The split/parseInt date parser DateRecognizer replaced, kept as the benchmark baseline
+final class LegacyDateParser {
+
+    private LegacyDateParser() {
+    }
+
+    static LocalDateTime parseDateString(String dateStr) {
+        // Parse MM/DD/YYYY or MM-DD-YYYY or YYYY-MM-DD
+        String[] parts;
+        if (dateStr.contains("/")) {
+            parts = dateStr.split("/");
+        } else {
+            parts = dateStr.split("-");
+        }
+
+        int year, month, day;
+
+        if (parts[0].length() == 4) {
+            // YYYY-MM-DD format
+            year = Integer.parseInt(parts[0]);
+            month = Integer.parseInt(parts[1]);
+            day = Integer.parseInt(parts[2]);
+        } else {
+            // MM/DD/YYYY or MM-DD-YYYY format
+            month = Integer.parseInt(parts[0]);
+            day = Integer.parseInt(parts[1]);
+            year = Integer.parseInt(parts[2]);
+
+            // Handle 2-digit years
+            if (year < 100) {
+                year += 2000;
+            }
+        }
+
+        return LocalDateTime.of(year, month, day, 0, 0);
+    }
+}
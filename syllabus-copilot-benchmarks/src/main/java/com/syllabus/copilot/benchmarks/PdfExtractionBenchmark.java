@@ -0,0 +1,68 @@
+package com.syllabus.copilot.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.unit.DataSize;
+
+import com.syllabus.copilot.backend.service.PdfMemoryBudget;
+import com.syllabus.copilot.backend.service.PdfProcessingService;
+
+// PdfProcessingService.extractTextFromPdf over generated PDFs, single-threaded and page-range parallel
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PdfExtractionBenchmark {
+
+    @Param({"5", "60"})
+    public int pages;
+
+    @Param({"10"})
+    public int eventsPerPage;
+
+    @Param({"false", "true"})
+    public boolean parallel;
+
+    private ForkJoinPool pool;
+    private PdfProcessingService service;
+    private Path pdf;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        service = new PdfProcessingService(pool, new PdfMemoryBudget(DataSize.ofGigabytes(1)), parallel, 8,
+                DataSize.ofMegabytes(8), "");
+        pdf = Files.createTempFile("syllabus-bench-", ".pdf");
+        Files.write(pdf, new SyntheticSyllabusGenerator(42).generatePdf(pages, eventsPerPage));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        pool.shutdown();
+        Files.deleteIfExists(pdf);
+    }
+
+    @Benchmark
+    public String extractTextFromPdf() throws IOException {
+        return service.extractTextFromPdf(pdf, "benchmark.pdf");
+    }
+}
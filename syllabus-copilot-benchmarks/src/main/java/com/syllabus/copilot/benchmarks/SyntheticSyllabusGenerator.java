@@ -0,0 +1,123 @@
+package com.syllabus.copilot.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+
+// Builds reproducible syllabus PDFs: a course header followed by schedule pages where
+// eventsPerPage lines carry assignments, exams or dated events and the rest is prose filler
+public class SyntheticSyllabusGenerator {
+    private static final int LINES_PER_PAGE = 45;
+    private static final float FONT_SIZE = 10;
+    private static final float LEADING = 15;
+
+    private static final String[] ASSIGNMENT_TYPES = {"Homework", "Assignment", "Project", "Lab", "Quiz"};
+    private static final String[] EVENTS = {
+        "Thanksgiving break, no class",
+        "Last day to drop or withdraw",
+        "Project proposal deadline",
+        "Guest lecture on software architecture",
+        "Spring holiday",
+        "Reading day",
+    };
+    private static final String[] FILLER = {
+        "Students are expected to read the assigned chapter before each lecture.",
+        "Late work loses ten percent per day unless an extension was arranged in advance.",
+        "Team meetings happen weekly; keep minutes and commit them to the repository.",
+        "Office hours are held Tuesdays and Thursdays from 2 to 4 pm in room 312.",
+        "Academic integrity violations are reported to the dean of students.",
+    };
+
+    private final Random random;
+
+    public SyntheticSyllabusGenerator(long seed) {
+        this.random = new Random(seed);
+    }
+
+    public byte[] generatePdf(int pageCount, int eventsPerPage) throws IOException {
+        List<String> lines = generateLines(pageCount, eventsPerPage);
+        try (PDDocument document = new PDDocument()) {
+            for (int page = 0; page < pageCount; page++) {
+                PDPage pdPage = new PDPage(PDRectangle.LETTER);
+                document.addPage(pdPage);
+                try (PDPageContentStream content = new PDPageContentStream(document, pdPage)) {
+                    content.beginText();
+                    content.setFont(PDType1Font.HELVETICA, FONT_SIZE);
+                    content.setLeading(LEADING);
+                    content.newLineAtOffset(50, 740);
+                    int first = page * LINES_PER_PAGE;
+                    for (String line : lines.subList(first, Math.min(lines.size(), first + LINES_PER_PAGE))) {
+                        content.showText(line);
+                        content.newLine();
+                    }
+                    content.endText();
+                }
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            document.save(out);
+            return out.toByteArray();
+        }
+    }
+
+    public String generateText(int pageCount, int eventsPerPage) {
+        return String.join("\n", generateLines(pageCount, eventsPerPage)) + "\n";
+    }
+
+    public List<String> generateDates(int count) {
+        List<String> dates = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            dates.add(switch (random.nextInt(4)) {
+                case 0 -> String.format("%02d/%02d/%04d", month(), day(), 2025);
+                case 1 -> String.format("%d-%d-%04d", month(), day(), 2025);
+                case 2 -> String.format("2025-%02d-%02d", month(), day());
+                default -> String.format("%d/%d/%02d", month(), day(), 25);
+            });
+        }
+        return dates;
+    }
+
+    private List<String> generateLines(int pageCount, int eventsPerPage) {
+        List<String> lines = new ArrayList<>(pageCount * LINES_PER_PAGE);
+        lines.add("COSC 412 Software Engineering");
+        lines.add("Course Code: COSC 412");
+        lines.add("Instructor: Dr. Jane Smith");
+        lines.add("Fall 2025");
+        lines.add("Course Description: A project-driven course covering requirements, design, testing and delivery.");
+
+        int eventChance = Math.max(1, Math.min(LINES_PER_PAGE, eventsPerPage));
+        while (lines.size() < pageCount * LINES_PER_PAGE) {
+            if (random.nextInt(LINES_PER_PAGE) < eventChance) {
+                lines.add(eventLine());
+            } else {
+                lines.add(FILLER[random.nextInt(FILLER.length)]);
+            }
+        }
+        return lines;
+    }
+
+    private String eventLine() {
+        String date = String.format("%02d/%02d/2025", month(), day());
+        return switch (random.nextInt(3)) {
+            case 0 -> ASSIGNMENT_TYPES[random.nextInt(ASSIGNMENT_TYPES.length)] + " " + (1 + random.nextInt(12))
+                    + " — Due " + date;
+            case 1 -> (random.nextBoolean() ? "Midterm" : "Final") + " Exam — " + date;
+            default -> date + " - " + EVENTS[random.nextInt(EVENTS.length)];
+        };
+    }
+
+    private int month() {
+        return 1 + random.nextInt(12);
+    }
+
+    private int day() {
+        return 1 + random.nextInt(28);
+    }
+}